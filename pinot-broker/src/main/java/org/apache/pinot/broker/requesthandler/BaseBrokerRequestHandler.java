@@ -37,6 +37,7 @@ import org.apache.pinot.broker.api.RequestStatistics;
 import org.apache.pinot.broker.api.RequesterIdentity;
 import org.apache.pinot.broker.broker.AccessControlFactory;
 import org.apache.pinot.broker.queryquota.QueryQuotaManager;
+import org.apache.pinot.broker.routing.HelixExternalViewBasedRouting;
 import org.apache.pinot.broker.routing.RoutingTable;
 import org.apache.pinot.broker.routing.RoutingTableLookupRequest;
 import org.apache.pinot.broker.routing.TimeBoundaryService;
@@ -87,6 +88,7 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
   private final RateLimiter _queryLogRateLimiter;
   private final RateLimiter _numDroppedLogRateLimiter;
   private final AtomicInteger _numDroppedLog;
+  private final BrokerResultCache _brokerResultCache;
 
   public BaseBrokerRequestHandler(Configuration config, RoutingTable routingTable,
       TimeBoundaryService timeBoundaryService, AccessControlFactory accessControlFactory,
@@ -108,6 +110,21 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
     _numDroppedLog = new AtomicInteger(0);
     _numDroppedLogRateLimiter = RateLimiter.create(1.0);
 
+    int resultCacheMaxEntries =
+        config.getInt(CONFIG_OF_BROKER_RESULT_CACHE_MAX_ENTRIES, DEFAULT_BROKER_RESULT_CACHE_MAX_ENTRIES);
+    if (resultCacheMaxEntries > 0) {
+      long resultCacheTtlMs = config.getLong(CONFIG_OF_BROKER_RESULT_CACHE_TTL_MS, DEFAULT_BROKER_RESULT_CACHE_TTL_MS);
+      _brokerResultCache = new BrokerResultCache(timeBoundaryService, brokerMetrics, resultCacheMaxEntries,
+          resultCacheTtlMs, _brokerTimeoutMs);
+      if (routingTable instanceof HelixExternalViewBasedRouting) {
+        ((HelixExternalViewBasedRouting) routingTable).addRoutingTableChangeListener(_brokerResultCache);
+      }
+      LOGGER.info("Enabled broker result cache with max entries: {}, TTL: {}ms", resultCacheMaxEntries,
+          resultCacheTtlMs);
+    } else {
+      _brokerResultCache = null;
+    }
+
     LOGGER
         .info("Broker Id: {}, timeout: {}ms, query response limit: {}, query log length: {}, query log max rate: {}qps",
             _brokerId, _brokerTimeoutMs, _queryResponseLimit, _queryLogLength, _queryLogRateLimiter.getRate());
@@ -231,6 +248,79 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
       brokerRequest.setDebugOptions(debugOptions);
     }
 
+    // Execute the query, or get the response from the result cache
+    ServerStats serverStats = new ServerStats();
+    BrokerResponse brokerResponse;
+    BrokerResultCache.Key cacheKey = null;
+    if (_brokerResultCache != null && !brokerRequest.isEnableTrace()) {
+      cacheKey = BrokerResultCache.getKey(brokerRequest);
+    }
+    if (cacheKey != null) {
+      String finalOfflineTableName = offlineTableName;
+      String finalRealtimeTableName = realtimeTableName;
+      brokerResponse = _brokerResultCache.getOrCompute(cacheKey, offlineTableName, realtimeTableName,
+          () -> executeQuery(requestId, query, brokerRequest, rawTableName, finalOfflineTableName,
+              finalRealtimeTableName, compilationStartTimeNs, serverStats, requestStatistics));
+    } else {
+      brokerResponse =
+          executeQuery(requestId, query, brokerRequest, rawTableName, offlineTableName, realtimeTableName,
+              compilationStartTimeNs, serverStats, requestStatistics);
+    }
+    long executionEndTimeNs = System.nanoTime();
+
+    // Track number of queries with number of groups limit reached
+    if (brokerResponse.isNumGroupsLimitReached()) {
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.BROKER_RESPONSES_WITH_NUM_GROUPS_LIMIT_REACHED, 1);
+    }
+
+    // Set total query processing time
+    long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(executionEndTimeNs - compilationStartTimeNs);
+    brokerResponse.setTimeUsedMs(totalTimeMs);
+    requestStatistics.setQueryProcessingTime(totalTimeMs);
+    requestStatistics.setStatistics(brokerResponse);
+
+    LOGGER.debug("Broker Response: {}", brokerResponse);
+
+    if (_queryLogRateLimiter.tryAcquire() || forceLog(brokerResponse, totalTimeMs)) {
+      // Table name might have been changed (with suffix _OFFLINE/_REALTIME appended)
+      LOGGER.info(
+          "RequestId:{}, table:{}, timeMs:{}, docs:{}/{}, entries:{}/{},"
+              + " segments(queried/processed/matched/consuming):{}/{}/{}/{}, consumingFreshnessTimeMs:{},"
+              + " servers:{}/{}, groupLimitReached:{}, exceptions:{}, serverStats:{}, query:{}", requestId,
+          brokerRequest.getQuerySource().getTableName(), totalTimeMs, brokerResponse.getNumDocsScanned(),
+          brokerResponse.getTotalDocs(), brokerResponse.getNumEntriesScannedInFilter(),
+          brokerResponse.getNumEntriesScannedPostFilter(), brokerResponse.getNumSegmentsQueried(),
+          brokerResponse.getNumSegmentsProcessed(), brokerResponse.getNumSegmentsMatched(),
+          brokerResponse.getNumConsumingSegmentsQueried(), brokerResponse.getMinConsumingFreshnessTimeMs(),
+          brokerResponse.getNumServersResponded(), brokerResponse.getNumServersQueried(),
+          brokerResponse.isNumGroupsLimitReached(), brokerResponse.getExceptionsSize(), serverStats.getServerStats(),
+          StringUtils.substring(query, 0, _queryLogLength));
+
+      // Limit the dropping log message at most once per second.
+      if (_numDroppedLogRateLimiter.tryAcquire()) {
+        // NOTE: the reported number may not be accurate since we will be missing some increments happened between
+        // get() and set().
+        int numDroppedLog = _numDroppedLog.get();
+        if (numDroppedLog > 0) {
+          LOGGER.info("{} logs were dropped. (log max rate per second: {})", numDroppedLog,
+              _queryLogRateLimiter.getRate());
+          _numDroppedLog.set(0);
+        }
+      }
+    } else {
+      // Increment the count for dropped log
+      _numDroppedLog.incrementAndGet();
+    }
+    return brokerResponse;
+  }
+
+  /**
+   * Optimizes, routes and executes the compiled query on the servers.
+   */
+  private BrokerResponse executeQuery(long requestId, String query, BrokerRequest brokerRequest, String rawTableName,
+      @Nullable String offlineTableName, @Nullable String realtimeTableName, long compilationStartTimeNs,
+      ServerStats serverStats, RequestStatistics requestStatistics)
+      throws Exception {
     // Optimize the query
     // TODO: get time column name from schema or table config so that we can apply it for REALTIME only case
     // We get timeColumnName from time boundary service currently, which only exists for offline table
@@ -284,57 +374,11 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
 
     // Execute the query
     long remainingTimeMs = _brokerTimeoutMs - TimeUnit.NANOSECONDS.toMillis(routingEndTimeNs - compilationStartTimeNs);
-    ServerStats serverStats = new ServerStats();
     BrokerResponse brokerResponse =
         processBrokerRequest(requestId, brokerRequest, offlineBrokerRequest, offlineRoutingTable, realtimeBrokerRequest,
             realtimeRoutingTable, remainingTimeMs, serverStats, requestStatistics);
-    long executionEndTimeNs = System.nanoTime();
     _brokerMetrics
-        .addPhaseTiming(rawTableName, BrokerQueryPhase.QUERY_EXECUTION, executionEndTimeNs - routingEndTimeNs);
-
-    // Track number of queries with number of groups limit reached
-    if (brokerResponse.isNumGroupsLimitReached()) {
-      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.BROKER_RESPONSES_WITH_NUM_GROUPS_LIMIT_REACHED, 1);
-    }
-
-    // Set total query processing time
-    long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(executionEndTimeNs - compilationStartTimeNs);
-    brokerResponse.setTimeUsedMs(totalTimeMs);
-    requestStatistics.setQueryProcessingTime(totalTimeMs);
-    requestStatistics.setStatistics(brokerResponse);
-
-    LOGGER.debug("Broker Response: {}", brokerResponse);
-
-    if (_queryLogRateLimiter.tryAcquire() || forceLog(brokerResponse, totalTimeMs)) {
-      // Table name might have been changed (with suffix _OFFLINE/_REALTIME appended)
-      LOGGER.info(
-          "RequestId:{}, table:{}, timeMs:{}, docs:{}/{}, entries:{}/{},"
-              + " segments(queried/processed/matched/consuming):{}/{}/{}/{}, consumingFreshnessTimeMs:{},"
-              + " servers:{}/{}, groupLimitReached:{}, exceptions:{}, serverStats:{}, query:{}", requestId,
-          brokerRequest.getQuerySource().getTableName(), totalTimeMs, brokerResponse.getNumDocsScanned(),
-          brokerResponse.getTotalDocs(), brokerResponse.getNumEntriesScannedInFilter(),
-          brokerResponse.getNumEntriesScannedPostFilter(), brokerResponse.getNumSegmentsQueried(),
-          brokerResponse.getNumSegmentsProcessed(), brokerResponse.getNumSegmentsMatched(),
-          brokerResponse.getNumConsumingSegmentsQueried(), brokerResponse.getMinConsumingFreshnessTimeMs(),
-          brokerResponse.getNumServersResponded(), brokerResponse.getNumServersQueried(),
-          brokerResponse.isNumGroupsLimitReached(), brokerResponse.getExceptionsSize(), serverStats.getServerStats(),
-          StringUtils.substring(query, 0, _queryLogLength));
-
-      // Limit the dropping log message at most once per second.
-      if (_numDroppedLogRateLimiter.tryAcquire()) {
-        // NOTE: the reported number may not be accurate since we will be missing some increments happened between
-        // get() and set().
-        int numDroppedLog = _numDroppedLog.get();
-        if (numDroppedLog > 0) {
-          LOGGER.info("{} logs were dropped. (log max rate per second: {})", numDroppedLog,
-              _queryLogRateLimiter.getRate());
-          _numDroppedLog.set(0);
-        }
-      }
-    } else {
-      // Increment the count for dropped log
-      _numDroppedLog.incrementAndGet();
-    }
+        .addPhaseTiming(rawTableName, BrokerQueryPhase.QUERY_EXECUTION, System.nanoTime() - routingEndTimeNs);
     return brokerResponse;
   }
 
@@ -0,0 +1,366 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.broker.routing.RoutingTableChangeListener;
+import org.apache.pinot.broker.routing.TimeBoundaryService;
+import org.apache.pinot.common.config.TableNameBuilder;
+import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.response.BrokerResponse;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>BrokerResultCache</code> class caches the broker responses keyed by the normalized compiled query (options
+ * that do not affect the results such as debug options and trace are excluded), and coalesces the concurrent identical
+ * queries so that they share one scatter-gather.
+ * <p>The cached responses are invalidated when:
+ * <ul>
+ *   <li>The routing table of any table hit by the query is rebuilt or removed (external view change).</li>
+ *   <li>The time boundary of the hybrid table changes or is refreshed (segment refresh of hybrid table).</li>
+ *   <li>The TTL expires. All the responses have a TTL because segment refreshes of OFFLINE only tables replace the
+ *   segments in place without changing the external view, and are not visible to the broker.</li>
+ * </ul>
+ * <p>Only the complete responses (no exception, all servers responded) are cached. The concurrent identical queries
+ * share the response of the query being executed whether or not it is cacheable. The responses are cached as objects,
+ * and each caller gets its own shallow copy to modify.
+ */
+@ThreadSafe
+public class BrokerResultCache implements RoutingTableChangeListener {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BrokerResultCache.class);
+
+  private final TimeBoundaryService _timeBoundaryService;
+  private final BrokerMetrics _brokerMetrics;
+  private final long _ttlMs;
+  private final long _inFlightWaitTimeoutMs;
+  private final Cache<Key, Entry> _cache;
+  private final ConcurrentHashMap<Key, CompletableFuture<BrokerResponseNative>> _inFlightQueries =
+      new ConcurrentHashMap<>();
+  // Bumped on each routing table change to invalidate all the cached responses for the table
+  private final ConcurrentHashMap<String, AtomicLong> _tableVersions = new ConcurrentHashMap<>();
+
+  /**
+   * @param timeBoundaryService Time boundary service for hybrid tables
+   * @param brokerMetrics Broker metrics
+   * @param maxEntries Max number of cached responses
+   * @param ttlMs TTL of the cached responses
+   * @param inFlightWaitTimeoutMs Max time to wait for a concurrent identical query before timing out
+   */
+  public BrokerResultCache(@Nonnull TimeBoundaryService timeBoundaryService, @Nonnull BrokerMetrics brokerMetrics,
+      int maxEntries, long ttlMs, long inFlightWaitTimeoutMs) {
+    Preconditions.checkArgument(maxEntries > 0, "Max number of entries of the broker result cache must be positive");
+    _timeBoundaryService = timeBoundaryService;
+    _brokerMetrics = brokerMetrics;
+    _ttlMs = ttlMs;
+    _inFlightWaitTimeoutMs = inFlightWaitTimeoutMs;
+    _cache = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+  }
+
+  /**
+   * Returns the cache key for the given broker request, or <code>null</code> if the broker request cannot be
+   * serialized. The key must be computed before the broker request is modified for routing (e.g. table name suffix).
+   * <p>Only the parts of the broker request that affect the response are included in the key, so that the queries
+   * with different debug options or unrelated query options share the same cached response.
+   */
+  @Nullable
+  public static Key getKey(@Nonnull BrokerRequest brokerRequest) {
+    BrokerRequest keyRequest = new BrokerRequest();
+    keyRequest.setQueryType(brokerRequest.getQueryType());
+    keyRequest.setQuerySource(brokerRequest.getQuerySource());
+    keyRequest.setFilterQuery(brokerRequest.getFilterQuery());
+    keyRequest.setFilterSubQueryMap(brokerRequest.getFilterSubQueryMap());
+    keyRequest.setAggregationsInfo(brokerRequest.getAggregationsInfo());
+    keyRequest.setGroupBy(brokerRequest.getGroupBy());
+    keyRequest.setSelections(brokerRequest.getSelections());
+    keyRequest.setHavingFilterQuery(brokerRequest.getHavingFilterQuery());
+    keyRequest.setHavingFilterSubQueryMap(brokerRequest.getHavingFilterSubQueryMap());
+    keyRequest.setResponseFormat(brokerRequest.getResponseFormat());
+    Map<String, String> queryOptions = brokerRequest.getQueryOptions();
+    if (queryOptions != null && queryOptions.containsKey(QueryOptionKey.PRESERVE_TYPE)) {
+      Map<String, String> keyQueryOptions = new HashMap<>();
+      keyQueryOptions.put(QueryOptionKey.PRESERVE_TYPE, queryOptions.get(QueryOptionKey.PRESERVE_TYPE));
+      keyRequest.setQueryOptions(keyQueryOptions);
+    }
+    try {
+      return new Key(brokerRequest.getQuerySource().getTableName(),
+          new TSerializer(new TCompactProtocol.Factory()).serialize(keyRequest));
+    } catch (TException e) {
+      LOGGER.warn("Caught exception while serializing broker request: {}, skip caching", brokerRequest, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the cached response for the given key if valid, otherwise waits for the concurrent identical query if
+   * any, or executes the query with the given loader and caches the response.
+   * <p>The concurrent identical queries get the response (or the exception) of the query being executed, and get a
+   * broker timeout error response if the query does not finish within the in-flight wait timeout.
+   *
+   * @param key Cache key
+   * @param offlineTableName Name of the OFFLINE table hit by the query, or <code>null</code> if not hit
+   * @param realtimeTableName Name of the REALTIME table hit by the query, or <code>null</code> if not hit
+   * @param loader Loader to execute the query
+   * @return Broker response, which is not shared with other callers
+   */
+  public BrokerResponse getOrCompute(@Nonnull Key key, @Nullable String offlineTableName,
+      @Nullable String realtimeTableName, @Nonnull Callable<BrokerResponse> loader)
+      throws Exception {
+    Version version = getVersion(offlineTableName, realtimeTableName);
+    Entry entry = _cache.getIfPresent(key);
+    if (entry != null) {
+      if (entry.isValid(version, System.currentTimeMillis())) {
+        addCacheHit(key);
+        return copyOf(entry._brokerResponse);
+      }
+      _cache.invalidate(key);
+    }
+
+    CompletableFuture<BrokerResponseNative> future = new CompletableFuture<>();
+    CompletableFuture<BrokerResponseNative> inFlightFuture = _inFlightQueries.putIfAbsent(key, future);
+    if (inFlightFuture != null) {
+      return waitForInFlightQuery(key, inFlightFuture, loader);
+    }
+
+    try {
+      BrokerResponse brokerResponse = loader.call();
+      // Take a snapshot before the response is modified by the caller
+      BrokerResponseNative snapshot =
+          brokerResponse instanceof BrokerResponseNative ? copyOf((BrokerResponseNative) brokerResponse) : null;
+      // Do not cache the response if the routing table is changed during the query execution
+      if (snapshot != null && isCacheable(snapshot) && version
+          .equals(getVersion(offlineTableName, realtimeTableName))) {
+        _cache.put(key, new Entry(snapshot, version, System.currentTimeMillis() + _ttlMs));
+      }
+      future.complete(snapshot);
+      return brokerResponse;
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+      throw t;
+    } finally {
+      _inFlightQueries.remove(key, future);
+    }
+  }
+
+  private BrokerResponse waitForInFlightQuery(Key key, CompletableFuture<BrokerResponseNative> inFlightFuture,
+      Callable<BrokerResponse> loader)
+      throws Exception {
+    BrokerResponseNative brokerResponse;
+    try {
+      brokerResponse = inFlightFuture.get(_inFlightWaitTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      LOGGER.debug("Timed out waiting for the response from the concurrent identical query");
+      return new BrokerResponseNative(QueryException.getException(QueryException.BROKER_TIMEOUT_ERROR, e));
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
+    }
+    if (brokerResponse == null) {
+      // NOTE: All the responses are expected to be BrokerResponseNative, other responses cannot be shared
+      return loader.call();
+    }
+    addCacheHit(key);
+    return copyOf(brokerResponse);
+  }
+
+  private void addCacheHit(Key key) {
+    _brokerMetrics
+        .addMeteredTableValue(TableNameBuilder.extractRawTableName(key._tableName), BrokerMeter.RESULT_CACHE_HITS, 1);
+  }
+
+  private static boolean isCacheable(BrokerResponseNative brokerResponse) {
+    return brokerResponse.getExceptionsSize() == 0
+        && brokerResponse.getNumServersResponded() == brokerResponse.getNumServersQueried();
+  }
+
+  /**
+   * Returns a shallow copy of the given broker response. The query results are shared, and all the other fields can be
+   * modified without affecting the original response.
+   */
+  private static BrokerResponseNative copyOf(BrokerResponseNative brokerResponse) {
+    BrokerResponseNative copy = new BrokerResponseNative();
+    copy.setSelectionResults(brokerResponse.getSelectionResults());
+    copy.setAggregationResults(brokerResponse.getAggregationResults());
+    copy.setProcessingExceptions(new ArrayList<>(brokerResponse.getProcessingExceptions()));
+    copy.setNumServersQueried(brokerResponse.getNumServersQueried());
+    copy.setNumServersResponded(brokerResponse.getNumServersResponded());
+    copy.setNumDocsScanned(brokerResponse.getNumDocsScanned());
+    copy.setNumEntriesScannedInFilter(brokerResponse.getNumEntriesScannedInFilter());
+    copy.setNumEntriesScannedPostFilter(brokerResponse.getNumEntriesScannedPostFilter());
+    copy.setNumSegmentsQueried(brokerResponse.getNumSegmentsQueried());
+    copy.setNumSegmentsProcessed(brokerResponse.getNumSegmentsProcessed());
+    copy.setNumSegmentsMatched(brokerResponse.getNumSegmentsMatched());
+    copy.setNumConsumingSegmentsQueried(brokerResponse.getNumConsumingSegmentsQueried());
+    copy.setMinConsumingFreshnessTimeMs(brokerResponse.getMinConsumingFreshnessTimeMs());
+    copy.setTotalDocs(brokerResponse.getTotalDocs());
+    copy.setNumGroupsLimitReached(brokerResponse.isNumGroupsLimitReached());
+    copy.setTimeUsedMs(brokerResponse.getTimeUsedMs());
+    copy.setSegmentStatistics(new ArrayList<>(brokerResponse.getSegmentStatistics()));
+    copy.setTraceInfo(new HashMap<>(brokerResponse.getTraceInfo()));
+    return copy;
+  }
+
+  private Version getVersion(@Nullable String offlineTableName, @Nullable String realtimeTableName) {
+    long offlineTableVersion = offlineTableName != null ? getTableVersion(offlineTableName).get() : 0L;
+    long realtimeTableVersion = realtimeTableName != null ? getTableVersion(realtimeTableName).get() : 0L;
+    String timeBoundary = null;
+    if (offlineTableName != null && realtimeTableName != null) {
+      TimeBoundaryService.TimeBoundaryInfo timeBoundaryInfo =
+          _timeBoundaryService.getTimeBoundaryInfoFor(offlineTableName);
+      if (timeBoundaryInfo != null) {
+        timeBoundary = timeBoundaryInfo.getTimeValue();
+      }
+    }
+    return new Version(offlineTableVersion, realtimeTableVersion, timeBoundary);
+  }
+
+  private AtomicLong getTableVersion(String tableNameWithType) {
+    return _tableVersions.computeIfAbsent(tableNameWithType, k -> new AtomicLong());
+  }
+
+  /**
+   * Invalidates all the cached responses for the table (lazily on the next lookup).
+   */
+  @Override
+  public void onRoutingTableChange(String tableNameWithType) {
+    getTableVersion(tableNameWithType).incrementAndGet();
+  }
+
+  /**
+   * Invalidates all the cached responses.
+   */
+  public void invalidateAll() {
+    _cache.invalidateAll();
+  }
+
+  public long size() {
+    return _cache.size();
+  }
+
+  /**
+   * Key of the broker result cache.
+   */
+  public static final class Key {
+    private final String _tableName;
+    private final byte[] _brokerRequestBytes;
+    private final int _hashCode;
+
+    private Key(String tableName, byte[] brokerRequestBytes) {
+      _tableName = tableName;
+      _brokerRequestBytes = brokerRequestBytes;
+      _hashCode = 31 * tableName.hashCode() + Arrays.hashCode(brokerRequestBytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return _hashCode == that._hashCode && _tableName.equals(that._tableName) && Arrays
+          .equals(_brokerRequestBytes, that._brokerRequestBytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+
+  /**
+   * Snapshot of the routing table versions and time boundary the response is computed with.
+   */
+  private static final class Version {
+    private final long _offlineTableVersion;
+    private final long _realtimeTableVersion;
+    private final String _timeBoundary;
+
+    private Version(long offlineTableVersion, long realtimeTableVersion, @Nullable String timeBoundary) {
+      _offlineTableVersion = offlineTableVersion;
+      _realtimeTableVersion = realtimeTableVersion;
+      _timeBoundary = timeBoundary;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Version)) {
+        return false;
+      }
+      Version that = (Version) o;
+      return _offlineTableVersion == that._offlineTableVersion && _realtimeTableVersion == that._realtimeTableVersion
+          && Objects.equals(_timeBoundary, that._timeBoundary);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_offlineTableVersion, _realtimeTableVersion, _timeBoundary);
+    }
+  }
+
+  private static final class Entry {
+    private final BrokerResponseNative _brokerResponse;
+    private final Version _version;
+    private final long _expirationTimeMs;
+
+    private Entry(BrokerResponseNative brokerResponse, Version version, long expirationTimeMs) {
+      _brokerResponse = brokerResponse;
+      _version = version;
+      _expirationTimeMs = expirationTimeMs;
+    }
+
+    private boolean isValid(Version currentVersion, long currentTimeMs) {
+      return currentTimeMs < _expirationTimeMs && _version.equals(currentVersion);
+    }
+  }
+}
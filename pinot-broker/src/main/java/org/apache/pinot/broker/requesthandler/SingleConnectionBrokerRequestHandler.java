@@ -18,9 +18,12 @@
  */
 package org.apache.pinot.broker.requesthandler;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.configuration.Configuration;
@@ -39,11 +42,14 @@ import org.apache.pinot.common.response.ServerInstance;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
 import org.apache.pinot.common.utils.CommonConstants.Helix.TableType;
 import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.query.reduce.StreamingBrokerReducer;
 import org.apache.pinot.core.transport.AsyncQueryResponse;
 import org.apache.pinot.core.transport.QueryRouter;
 import org.apache.pinot.core.transport.Server;
 import org.apache.pinot.core.transport.ServerResponse;
 
+import static org.apache.pinot.common.utils.CommonConstants.Broker.*;
+
 
 /**
  * The <code>SingleConnectionBrokerRequestHandler</code> class is a thread-safe broker request handler using a single
@@ -52,12 +58,25 @@ import org.apache.pinot.core.transport.ServerResponse;
 @ThreadSafe
 public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandler {
   private final QueryRouter _queryRouter;
+  private final boolean _enableStreamingReduce;
+  // Reduces the data tables in streaming reduce mode so that the network I/O threads are not blocked by the reduce
+  private final ExecutorService _streamingReduceExecutorService;
 
   public SingleConnectionBrokerRequestHandler(Configuration config, RoutingTable routingTable,
       TimeBoundaryService timeBoundaryService, AccessControlFactory accessControlFactory,
       QueryQuotaManager queryQuotaManager, BrokerMetrics brokerMetrics) {
     super(config, routingTable, timeBoundaryService, accessControlFactory, queryQuotaManager, brokerMetrics);
     _queryRouter = new QueryRouter(_brokerId, brokerMetrics);
+    _enableStreamingReduce =
+        config.getBoolean(CONFIG_OF_BROKER_ENABLE_STREAMING_REDUCE, DEFAULT_BROKER_ENABLE_STREAMING_REDUCE);
+    if (_enableStreamingReduce) {
+      int numThreads =
+          config.getInt(CONFIG_OF_BROKER_STREAMING_REDUCE_NUM_THREADS, DEFAULT_BROKER_STREAMING_REDUCE_NUM_THREADS);
+      _streamingReduceExecutorService = Executors.newFixedThreadPool(numThreads,
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("streaming-reduce-%d").build());
+    } else {
+      _streamingReduceExecutorService = null;
+    }
   }
 
   @Override
@@ -67,6 +86,9 @@ public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandl
   @Override
   public synchronized void shutDown() {
     _queryRouter.shutDown();
+    if (_streamingReduceExecutorService != null) {
+      _streamingReduceExecutorService.shutdownNow();
+    }
   }
 
   @Override
@@ -79,41 +101,60 @@ public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandl
 
     String rawTableName = TableNameBuilder.extractRawTableName(originalBrokerRequest.getQuerySource().getTableName());
     long scatterGatherStartTimeNs = System.nanoTime();
+    // With streaming reduce, the data tables are reduced as soon as they are received, and not kept in the response
+    StreamingBrokerReducer streamingReducer =
+        _enableStreamingReduce ? _brokerReduceService.getStreamingReducer(originalBrokerRequest, _brokerMetrics) : null;
     AsyncQueryResponse asyncQueryResponse = _queryRouter
         .submitQuery(requestId, rawTableName, offlineBrokerRequest, offlineRoutingTable, realtimeBrokerRequest,
-            realtimeRoutingTable, timeoutMs);
-    Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
-    _brokerMetrics
-        .addPhaseTiming(rawTableName, BrokerQueryPhase.SCATTER_GATHER, System.nanoTime() - scatterGatherStartTimeNs);
-    // TODO Use scatterGatherStats as serverStats
-    serverStats.setServerStats(asyncQueryResponse.getStats());
-
-    // TODO: do not convert Server to ServerInstance
-    int numServersQueried = response.size();
+            realtimeRoutingTable, timeoutMs, streamingReducer != null ? (server, dataTable) -> streamingReducer
+                .reduce(getServerInstance(server), dataTable) : null, _streamingReduceExecutorService);
+    int numServersQueried;
+    int numServersResponded = 0;
     long totalResponseSize = 0;
-    Map<ServerInstance, DataTable> dataTableMap = new HashMap<>(numServersQueried);
-    for (Map.Entry<Server, ServerResponse> entry : response.entrySet()) {
-      ServerResponse serverResponse = entry.getValue();
-      DataTable dataTable = serverResponse.getDataTable();
-      if (dataTable != null) {
-        Server server = entry.getKey();
-        if (server.getTableType() == TableType.OFFLINE) {
-          dataTableMap.put(new ServerInstance(server.getHostName(), server.getPort(), 0), dataTable);
-        } else {
-          dataTableMap.put(new ServerInstance(server.getHostName(), server.getPort(), 1), dataTable);
+    long reduceStartTimeNs;
+    BrokerResponseNative brokerResponse;
+    try {
+      Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
+      _brokerMetrics
+          .addPhaseTiming(rawTableName, BrokerQueryPhase.SCATTER_GATHER, System.nanoTime() - scatterGatherStartTimeNs);
+      // TODO Use scatterGatherStats as serverStats
+      serverStats.setServerStats(asyncQueryResponse.getStats());
+
+      // TODO: do not convert Server to ServerInstance
+      numServersQueried = response.size();
+      Map<ServerInstance, DataTable> dataTableMap = new HashMap<>(numServersQueried);
+      for (Map.Entry<Server, ServerResponse> entry : response.entrySet()) {
+        ServerResponse serverResponse = entry.getValue();
+        if (serverResponse.hasResponded()) {
+          DataTable dataTable = serverResponse.getDataTable();
+          if (dataTable != null) {
+            dataTableMap.put(getServerInstance(entry.getKey()), dataTable);
+          }
+          numServersResponded++;
+          totalResponseSize += serverResponse.getResponseSize();
         }
-        totalResponseSize += serverResponse.getResponseSize();
       }
-    }
-    int numServersResponded = dataTableMap.size();
 
-    long reduceStartTimeNs = System.nanoTime();
-    BrokerResponseNative brokerResponse =
-        _brokerReduceService.reduceOnDataTable(originalBrokerRequest, dataTableMap, _brokerMetrics);
+      reduceStartTimeNs = System.nanoTime();
+      if (streamingReducer != null) {
+        brokerResponse = streamingReducer.finish();
+      } else {
+        brokerResponse = _brokerReduceService.reduceOnDataTable(originalBrokerRequest, dataTableMap, _brokerMetrics);
+      }
+    } finally {
+      // Data tables might hold the buffers received from the servers (data table V3), release them after reduce. Also
+      // release them when the query fails before reduce, so that the buffers received later are released on arrival.
+      asyncQueryResponse.releaseDataTables();
+    }
     final long reduceTimeNanos = System.nanoTime() - reduceStartTimeNs;
     requestStatistics.setReduceTimeNanos(reduceTimeNanos);
     _brokerMetrics.addPhaseTiming(rawTableName, BrokerQueryPhase.REDUCE, reduceTimeNanos);
 
+    if (streamingReducer != null) {
+      // Only count the servers whose data tables are reduced into the results. Data tables still waiting to be reduced
+      // when the query times out are ignored by the reducer.
+      numServersResponded = streamingReducer.getNumDataTablesReduced();
+    }
     brokerResponse.setNumServersQueried(numServersQueried);
     brokerResponse.setNumServersResponded(numServersResponded);
 
@@ -127,4 +168,12 @@ public class SingleConnectionBrokerRequestHandler extends BaseBrokerRequestHandl
 
     return brokerResponse;
   }
+
+  private static ServerInstance getServerInstance(Server server) {
+    if (server.getTableType() == TableType.OFFLINE) {
+      return new ServerInstance(server.getHostName(), server.getPort(), 0);
+    } else {
+      return new ServerInstance(server.getHostName(), server.getPort(), 1);
+    }
+  }
 }
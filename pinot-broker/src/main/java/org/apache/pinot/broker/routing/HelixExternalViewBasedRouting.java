@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.configuration.Configuration;
 import org.apache.helix.AccessOption;
@@ -77,6 +78,7 @@ public class HelixExternalViewBasedRouting implements ClusterChangeHandler, Rout
   private final Map<String, InstanceConfig> _lastKnownInstanceConfigs = new ConcurrentHashMap<>();
   private final Map<String, Set<String>> _tablesForInstance = new ConcurrentHashMap<>();
   private final Map<String, SegmentSelector> _segmentSelectorMap = new ConcurrentHashMap<>();
+  private final List<RoutingTableChangeListener> _routingTableChangeListeners = new CopyOnWriteArrayList<>();
 
   private final Configuration _configuration;
 
@@ -127,6 +129,23 @@ public class HelixExternalViewBasedRouting implements ClusterChangeHandler, Rout
     _brokerMetrics = brokerMetrics;
   }
 
+  /**
+   * Registers a listener to be notified after the routing table of a table is rebuilt or removed.
+   */
+  public void addRoutingTableChangeListener(RoutingTableChangeListener routingTableChangeListener) {
+    _routingTableChangeListeners.add(routingTableChangeListener);
+  }
+
+  private void notifyRoutingTableChange(String tableNameWithType) {
+    for (RoutingTableChangeListener routingTableChangeListener : _routingTableChangeListeners) {
+      try {
+        routingTableChangeListener.onRoutingTableChange(tableNameWithType);
+      } catch (Exception e) {
+        LOGGER.error("Caught exception while notifying routing table change for table {}", tableNameWithType, e);
+      }
+    }
+  }
+
   public void markDataResourceOnline(TableConfig tableConfig, ExternalView externalView,
       List<InstanceConfig> instanceConfigList) {
     String tableName = tableConfig.getTableName();
@@ -357,10 +376,16 @@ public class HelixExternalViewBasedRouting implements ClusterChangeHandler, Rout
     }
 
     LOGGER.info("Routing table update for table {} completed in {} ms", tableNameWithType, updateTime);
+    notifyRoutingTableChange(tableNameWithType);
   }
 
+  /**
+   * Refreshes the time boundary for the given table (on segment refresh), and notifies the routing table change
+   * listeners because the data behind the routing table might have changed.
+   */
   public void updateTimeBoundary(String tableName) {
     updateTimeBoundary(tableName, fetchExternalView(tableName));
+    notifyRoutingTableChange(tableName);
   }
 
   protected void updateTimeBoundary(String tableName, ExternalView externalView) {
@@ -413,6 +438,7 @@ public class HelixExternalViewBasedRouting implements ClusterChangeHandler, Rout
         }
       }
     }
+    notifyRoutingTableChange(tableName);
   }
 
   public void processExternalViewChange() {
@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing;
+
+/**
+ * Listener notified when the routing table of a table changes (rebuilt on external view change or removed) or the
+ * segments behind it are refreshed, so that the states derived from the previous routing table (e.g. cached query
+ * results) can be invalidated.
+ */
+public interface RoutingTableChangeListener {
+
+  /**
+   * Invoked after the routing table for the given table is rebuilt, removed or refreshed.
+   *
+   * @param tableNameWithType Table name with type suffix
+   */
+  void onRoutingTableChange(String tableNameWithType);
+}
@@ -23,10 +23,12 @@ import java.util.HashMap;
 import java.util.Map;
 import junit.framework.Assert;
 import org.apache.pinot.common.metadata.segment.ColumnPartitionMetadata;
+import org.apache.pinot.common.metadata.segment.LLCRealtimeSegmentZKMetadata;
 import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentPartitionMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
 import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.pql.parsers.Pql2Compiler;
 import org.testng.annotations.Test;
 
@@ -39,6 +41,7 @@ public class SegmentZKMetadataPrunerTest {
   private static final String PARTITION_COLUMN = "partition";
   private static final String PARTITION_FUNCTION_NAME = "modulo";
   private static final String PRUNER_NAME = "partitionzkmetadatapruner";
+  private static final String TIME_COLUMN = "time";
 
   @Test
   public void testPruner() {
@@ -61,4 +64,29 @@ public class SegmentZKMetadataPrunerTest {
       Assert.assertEquals(prunerService.prune(metadata, prunerContext), (actualPartition != expectedPartition));
     }
   }
+
+  @Test
+  public void testConsumingSegmentPruning() {
+    LLCRealtimeSegmentZKMetadata metadata = new LLCRealtimeSegmentZKMetadata();
+    metadata.setStatus(CommonConstants.Segment.Realtime.Status.IN_PROGRESS);
+    Map<String, ColumnPartitionMetadata> columnPartitionMap = new HashMap<>();
+    columnPartitionMap.put(PARTITION_COLUMN,
+        new ColumnPartitionMetadata(PARTITION_FUNCTION_NAME, NUM_PARTITION, Collections.singleton(3)));
+    metadata.setPartitionMetadata(new SegmentPartitionMetadata(columnPartitionMap));
+
+    // The consuming segment keeps consuming rows with any time value, and should only be pruned based on the bounds
+    // that cannot change (partition)
+    SegmentZKMetadataPrunerService prunerService = new SegmentZKMetadataPrunerService(new String[]{PRUNER_NAME});
+    Pql2Compiler compiler = new Pql2Compiler();
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext(compiler, TIME_COLUMN + " = 500")));
+    Assert.assertFalse(prunerService.prune(metadata, getPrunerContext(compiler, TIME_COLUMN + " < 900")));
+    Assert.assertFalse(prunerService
+        .prune(metadata, getPrunerContext(compiler, TIME_COLUMN + " = 500 AND " + PARTITION_COLUMN + " = 3")));
+    Assert.assertTrue(prunerService
+        .prune(metadata, getPrunerContext(compiler, TIME_COLUMN + " = 500 AND " + PARTITION_COLUMN + " = 4")));
+  }
+
+  private static SegmentPrunerContext getPrunerContext(Pql2Compiler compiler, String filter) {
+    return new SegmentPrunerContext(compiler.compileToBrokerRequest("select count(*) from myTable where " + filter));
+  }
 }
@@ -0,0 +1,285 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import com.yammer.metrics.core.MetricsRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pinot.broker.routing.TimeBoundaryService;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.response.BrokerResponse;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Tests for the {@link BrokerResultCache}.
+ */
+public class BrokerResultCacheTest {
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final String QUERY = "SELECT COUNT(*) FROM myTable WHERE column = 'foo'";
+  private static final String OFFLINE_TABLE_NAME = "myTable_OFFLINE";
+  private static final String REALTIME_TABLE_NAME = "myTable_REALTIME";
+  private static final long TTL_MS = 100L;
+
+  private final AtomicInteger _numQueriesExecuted = new AtomicInteger();
+  private TimeBoundaryService _timeBoundaryService;
+  private BrokerResultCache _brokerResultCache;
+
+  @BeforeMethod
+  public void setUp() {
+    _numQueriesExecuted.set(0);
+    _timeBoundaryService = mock(TimeBoundaryService.class);
+    _brokerResultCache =
+        new BrokerResultCache(_timeBoundaryService, new BrokerMetrics(new MetricsRegistry()), 10, TTL_MS, 10_000L);
+  }
+
+  @Test
+  public void testOfflineTable()
+      throws Exception {
+    BrokerResultCache.Key key = getKey(QUERY);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, null), 1L);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, null), 1L);
+    Assert.assertEquals(_numQueriesExecuted.get(), 1);
+
+    // Different query
+    Assert.assertEquals(getNumDocsScanned(getKey(QUERY + " AND column2 = 'bar'"), OFFLINE_TABLE_NAME, null), 2L);
+
+    // Routing table change
+    _brokerResultCache.onRoutingTableChange(REALTIME_TABLE_NAME);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, null), 1L);
+    _brokerResultCache.onRoutingTableChange(OFFLINE_TABLE_NAME);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, null), 3L);
+
+    // TTL expiration (segments can be refreshed without changing the routing table)
+    Thread.sleep(TTL_MS * 2);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, null), 4L);
+  }
+
+  @Test
+  public void testNormalizedKey()
+      throws Exception {
+    BrokerResultCache.Key key = getKey(QUERY);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, null), 1L);
+
+    // Debug options, trace and unrelated query options should not affect the key
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(QUERY);
+    brokerRequest.setDebugOptions(Collections.singletonMap("optimizationFlags", "-multipleOrEqualitiesToInClause"));
+    brokerRequest.setQueryOptions(Collections.singletonMap("timeoutMs", "1000"));
+    brokerRequest.setEnableTrace(false);
+    Assert.assertEquals(BrokerResultCache.getKey(brokerRequest), key);
+    Assert.assertEquals(getNumDocsScanned(BrokerResultCache.getKey(brokerRequest), OFFLINE_TABLE_NAME, null), 1L);
+
+    // Query options affecting the response should be part of the key
+    brokerRequest.setQueryOptions(Collections.singletonMap("preserveType", "true"));
+    Assert.assertNotEquals(BrokerResultCache.getKey(brokerRequest), key);
+  }
+
+  @Test
+  public void testCachedResponseNotShared()
+      throws Exception {
+    BrokerResultCache.Key key = getKey(QUERY);
+    BrokerResponse brokerResponse = _brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null,
+        () -> getResponse(_numQueriesExecuted.incrementAndGet()));
+    brokerResponse.setTimeUsedMs(100L);
+    brokerResponse = _brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null,
+        () -> getResponse(_numQueriesExecuted.incrementAndGet()));
+    Assert.assertEquals(brokerResponse.getTimeUsedMs(), 0L);
+    brokerResponse.setTimeUsedMs(200L);
+    brokerResponse = _brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null,
+        () -> getResponse(_numQueriesExecuted.incrementAndGet()));
+    Assert.assertEquals(brokerResponse.getTimeUsedMs(), 0L);
+    Assert.assertEquals(_numQueriesExecuted.get(), 1);
+  }
+
+  @Test
+  public void testHybridTable()
+      throws Exception {
+    when(_timeBoundaryService.getTimeBoundaryInfoFor(OFFLINE_TABLE_NAME))
+        .thenReturn(new TimeBoundaryService.TimeBoundaryInfo("daysSinceEpoch", "100"));
+    BrokerResultCache.Key key = getKey(QUERY);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, REALTIME_TABLE_NAME), 1L);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, REALTIME_TABLE_NAME), 1L);
+
+    // Time boundary change
+    when(_timeBoundaryService.getTimeBoundaryInfoFor(OFFLINE_TABLE_NAME))
+        .thenReturn(new TimeBoundaryService.TimeBoundaryInfo("daysSinceEpoch", "101"));
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, REALTIME_TABLE_NAME), 2L);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, REALTIME_TABLE_NAME), 2L);
+
+    // TTL expiration
+    Thread.sleep(TTL_MS * 2);
+    Assert.assertEquals(getNumDocsScanned(key, OFFLINE_TABLE_NAME, REALTIME_TABLE_NAME), 3L);
+  }
+
+  @Test
+  public void testPartialResponseNotCached()
+      throws Exception {
+    BrokerResultCache.Key key = getKey(QUERY);
+    for (int i = 1; i <= 3; i++) {
+      BrokerResponse brokerResponse = _brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> {
+        BrokerResponseNative response = getResponse(_numQueriesExecuted.incrementAndGet());
+        response.setNumServersResponded(1);
+        return response;
+      });
+      Assert.assertEquals(brokerResponse.getNumDocsScanned(), i);
+    }
+    Assert.assertEquals(_brokerResultCache.size(), 0);
+  }
+
+  @Test
+  public void testCoalesceInFlightQueries()
+      throws Exception {
+    BrokerResultCache.Key key = getKey(QUERY);
+    int numThreads = 10;
+    CountDownLatch queryStarted = new CountDownLatch(1);
+    CountDownLatch finishQuery = new CountDownLatch(1);
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<BrokerResponse>> futures = new ArrayList<>(numThreads);
+      futures.add(executorService.submit(() -> _brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> {
+        queryStarted.countDown();
+        finishQuery.await();
+        return getResponse(_numQueriesExecuted.incrementAndGet());
+      })));
+      queryStarted.await();
+      for (int i = 1; i < numThreads; i++) {
+        futures.add(executorService.submit(() -> _brokerResultCache
+            .getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> getResponse(_numQueriesExecuted.incrementAndGet()))));
+      }
+      finishQuery.countDown();
+      for (Future<BrokerResponse> future : futures) {
+        Assert.assertEquals(future.get(10, TimeUnit.SECONDS).getNumDocsScanned(), 1L);
+      }
+      Assert.assertEquals(_numQueriesExecuted.get(), 1);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testInFlightQueryFailure()
+      throws Exception {
+    BrokerResultCache.Key key = getKey(QUERY);
+    int numThreads = 10;
+    CountDownLatch queryStarted = new CountDownLatch(1);
+    CountDownLatch finishQuery = new CountDownLatch(1);
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<BrokerResponse>> futures = new ArrayList<>(numThreads);
+      futures.add(executorService.submit(() -> _brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> {
+        queryStarted.countDown();
+        finishQuery.await();
+        _numQueriesExecuted.incrementAndGet();
+        throw new IllegalStateException("Query failed");
+      })));
+      queryStarted.await();
+      for (int i = 1; i < numThreads; i++) {
+        futures.add(executorService.submit(() -> _brokerResultCache
+            .getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> getResponse(_numQueriesExecuted.incrementAndGet()))));
+      }
+      finishQuery.countDown();
+
+      // The concurrent identical queries should get the failure instead of executing the query again
+      for (Future<BrokerResponse> future : futures) {
+        try {
+          future.get(10, TimeUnit.SECONDS);
+          Assert.fail("Expected the query failure");
+        } catch (ExecutionException e) {
+          Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+      }
+      Assert.assertEquals(_numQueriesExecuted.get(), 1);
+      Assert.assertEquals(_brokerResultCache.size(), 0);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testInFlightQueryTimeout()
+      throws Exception {
+    BrokerResultCache brokerResultCache =
+        new BrokerResultCache(_timeBoundaryService, new BrokerMetrics(new MetricsRegistry()), 10, TTL_MS, 10L);
+    BrokerResultCache.Key key = getKey(QUERY);
+    CountDownLatch queryStarted = new CountDownLatch(1);
+    CountDownLatch finishQuery = new CountDownLatch(1);
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      Future<BrokerResponse> future =
+          executorService.submit(() -> brokerResultCache.getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> {
+            queryStarted.countDown();
+            finishQuery.await();
+            return getResponse(_numQueriesExecuted.incrementAndGet());
+          }));
+      queryStarted.await();
+
+      // Should time out without executing the query again
+      BrokerResponse brokerResponse = brokerResultCache
+          .getOrCompute(key, OFFLINE_TABLE_NAME, null, () -> getResponse(_numQueriesExecuted.incrementAndGet()));
+      Assert.assertEquals(brokerResponse.getExceptionsSize(), 1);
+      Assert.assertEquals(_numQueriesExecuted.get(), 0);
+
+      finishQuery.countDown();
+      Assert.assertEquals(future.get(10, TimeUnit.SECONDS).getNumDocsScanned(), 1L);
+      Assert.assertEquals(_numQueriesExecuted.get(), 1);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static BrokerResultCache.Key getKey(String query) {
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(query);
+    BrokerResultCache.Key key = BrokerResultCache.getKey(brokerRequest);
+    Assert.assertNotNull(key);
+    return key;
+  }
+
+  private long getNumDocsScanned(BrokerResultCache.Key key, String offlineTableName, String realtimeTableName)
+      throws Exception {
+    return _brokerResultCache.getOrCompute(key, offlineTableName, realtimeTableName,
+        () -> getResponse(_numQueriesExecuted.incrementAndGet())).getNumDocsScanned();
+  }
+
+  /**
+   * Returns a complete response with the number of docs scanned set to the given value to identify the execution.
+   */
+  private static BrokerResponseNative getResponse(long numDocsScanned) {
+    BrokerResponseNative brokerResponse = new BrokerResponseNative();
+    brokerResponse.setNumServersQueried(2);
+    brokerResponse.setNumServersResponded(2);
+    brokerResponse.setNumDocsScanned(numDocsScanned);
+    return brokerResponse;
+  }
+}
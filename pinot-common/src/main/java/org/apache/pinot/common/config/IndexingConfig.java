@@ -49,6 +49,13 @@ public class IndexingConfig {
   @ConfigKey("bloomFilterColumns")
   private List<String> _bloomFilterColumns = new ArrayList<>();
 
+  // Type of the bloom filters created for the segments, or null for the default type
+  @ConfigKey("bloomFilterType")
+  private String _bloomFilterType;
+
+  @ConfigKey("rangeIndexColumns")
+  private List<String> _rangeIndexColumns = new ArrayList<>();
+
   @ConfigKey("loadMode")
   private String _loadMode;
 
@@ -72,9 +79,17 @@ public class IndexingConfig {
   @UseChildKeyHandler(SimpleMapChildKeyHandler.class)
   private Map<String, String> _noDictionaryConfig;
 
+  // Compression level of the raw index columns with ZSTANDARD compression, or null for the default level
+  @ConfigKey("zstdCompressionLevel")
+  private Integer _zstdCompressionLevel;
+
   @ConfigKey("onHeapDictionaryColumns")
   private List<String> _onHeapDictionaryColumns;
 
+  // On-heap dictionaries of these columns share the same values across the segments of the table
+  @ConfigKey("sharedDictionaryColumns")
+  private List<String> _sharedDictionaryColumns;
+
   @ConfigKey("starTreeIndexSpec")
   private StarTreeIndexSpec _starTreeIndexSpec;
 
@@ -127,6 +142,22 @@ public class IndexingConfig {
     this._bloomFilterColumns = _bloomFilterColumns;
   }
 
+  public String getBloomFilterType() {
+    return _bloomFilterType;
+  }
+
+  public void setBloomFilterType(String bloomFilterType) {
+    _bloomFilterType = bloomFilterType;
+  }
+
+  public List<String> getRangeIndexColumns() {
+    return _rangeIndexColumns;
+  }
+
+  public void setRangeIndexColumns(List<String> rangeIndexColumns) {
+    _rangeIndexColumns = rangeIndexColumns;
+  }
+
   public String getLoadMode() {
     return _loadMode;
   }
@@ -191,6 +222,22 @@ public class IndexingConfig {
     _onHeapDictionaryColumns = onHeapDictionaryColumns;
   }
 
+  public Integer getZstdCompressionLevel() {
+    return _zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(Integer zstdCompressionLevel) {
+    _zstdCompressionLevel = zstdCompressionLevel;
+  }
+
+  public List<String> getSharedDictionaryColumns() {
+    return _sharedDictionaryColumns;
+  }
+
+  public void setSharedDictionaryColumns(List<String> sharedDictionaryColumns) {
+    _sharedDictionaryColumns = sharedDictionaryColumns;
+  }
+
   public void setStarTreeIndexSpec(StarTreeIndexSpec starTreeIndexSpec) {
     _starTreeIndexSpec = starTreeIndexSpec;
   }
@@ -276,10 +323,14 @@ public class IndexingConfig {
         .isEqual(_columnMinMaxValueGeneratorMode, that._columnMinMaxValueGeneratorMode) && EqualityUtils
         .isEqual(_noDictionaryColumns, that._noDictionaryColumns) && EqualityUtils
         .isEqual(_noDictionaryConfig, that._noDictionaryConfig) && EqualityUtils
+        .isEqual(_zstdCompressionLevel, that._zstdCompressionLevel) && EqualityUtils
         .isEqual(_onHeapDictionaryColumns, that._onHeapDictionaryColumns) && EqualityUtils
+        .isEqual(_sharedDictionaryColumns, that._sharedDictionaryColumns) && EqualityUtils
         .isEqual(_starTreeIndexSpec, that._starTreeIndexSpec) && EqualityUtils
         .isEqual(_segmentPartitionConfig, that._segmentPartitionConfig) && EqualityUtils
-        .isEqual(_bloomFilterColumns, that._bloomFilterColumns);
+        .isEqual(_bloomFilterColumns, that._bloomFilterColumns) && EqualityUtils
+        .isEqual(_bloomFilterType, that._bloomFilterType) && EqualityUtils
+        .isEqual(_rangeIndexColumns, that._rangeIndexColumns);
   }
 
   @Override
@@ -294,10 +345,14 @@ public class IndexingConfig {
     result = EqualityUtils.hashCodeOf(result, _columnMinMaxValueGeneratorMode);
     result = EqualityUtils.hashCodeOf(result, _noDictionaryColumns);
     result = EqualityUtils.hashCodeOf(result, _noDictionaryConfig);
+    result = EqualityUtils.hashCodeOf(result, _zstdCompressionLevel);
     result = EqualityUtils.hashCodeOf(result, _onHeapDictionaryColumns);
+    result = EqualityUtils.hashCodeOf(result, _sharedDictionaryColumns);
     result = EqualityUtils.hashCodeOf(result, _starTreeIndexSpec);
     result = EqualityUtils.hashCodeOf(result, _segmentPartitionConfig);
     result = EqualityUtils.hashCodeOf(result, _bloomFilterColumns);
+    result = EqualityUtils.hashCodeOf(result, _bloomFilterType);
+    result = EqualityUtils.hashCodeOf(result, _rangeIndexColumns);
     return result;
   }
 }
@@ -45,6 +45,10 @@ public enum ServerGauge implements AbstractMetrics.Gauge {
   REALTIME_OFFHEAP_MEMORY_USED("bytes", false),
   RUNNING_QUERIES("runningQueries", false),
   REALTIME_SEGMENT_NUM_PARTITIONS("realtimeSegmentNumPartitions", false),
+  // Number of segments waiting to be loaded or being loaded (including reloads) for the table
+  SEGMENTS_PENDING_LOAD("segments", false),
+  // Number of loaded segments whose memory mapped indexes are not warmed up yet for the table
+  SEGMENTS_PENDING_WARM_UP("segments", false),
   LLC_SIMULTANEOUS_SEGMENT_BUILDS("llcSimultaneousSegmentBuilds", true);
 
   private final String gaugeName;
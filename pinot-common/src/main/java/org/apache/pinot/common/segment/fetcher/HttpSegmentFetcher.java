@@ -19,6 +19,7 @@
 package org.apache.pinot.common.segment.fetcher;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Collections;
 import java.util.Set;
@@ -80,6 +81,12 @@ public class HttpSegmentFetcher implements SegmentFetcher {
     });
   }
 
+  @Override
+  public InputStream fetchSegmentToStream(String uri)
+      throws Exception {
+    return _httpClient.openDownloadStream(new URI(uri));
+  }
+
   @Override
   public Set<String> getProtectedConfigKeys() {
     return Collections.emptySet();
@@ -19,6 +19,8 @@
 package org.apache.pinot.common.segment.fetcher;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.Set;
 import org.apache.commons.configuration.Configuration;
@@ -42,6 +44,12 @@ public class LocalFileSegmentFetcher implements SegmentFetcher {
     LOGGER.info("Copy file from {} to {}; Length of file: {}", uri, tempFile, tempFile.length());
   }
 
+  @Override
+  public InputStream fetchSegmentToStream(String uri)
+      throws Exception {
+    return new FileInputStream(new File(uri));
+  }
+
   @Override
   public Set<String> getProtectedConfigKeys() {
     return Collections.emptySet();
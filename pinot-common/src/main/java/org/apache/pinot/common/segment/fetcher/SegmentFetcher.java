@@ -19,6 +19,7 @@
 package org.apache.pinot.common.segment.fetcher;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.Set;
 import org.apache.commons.configuration.Configuration;
 
@@ -40,6 +41,20 @@ public interface SegmentFetcher {
   void fetchSegmentToLocal(String uri, File tempFile)
       throws Exception;
 
+  /**
+   * Opens an input stream to read the segment from a uri location, so that the segment can be decrypted and untarred
+   * on the fly without storing the segment file locally. The caller is responsible for closing the stream.
+   * <p>Fetchers not supporting streaming return {@code null}, in which case the segment should be fetched with
+   * {@link #fetchSegmentToLocal(String, File)}. No retry is performed by this method.
+   * @param uri current segment location
+   * @return Input stream of the segment, or null if streaming is not supported
+   * @throws Exception
+   */
+  default InputStream fetchSegmentToStream(String uri)
+      throws Exception {
+    return null;
+  }
+
   /**
    * Returns a list of config keys whose value should not be logged.
    *
@@ -133,6 +133,19 @@ public class CommonConstants {
     public static final String CONFIG_OF_BROKER_TIMEOUT_MS = "pinot.broker.timeoutMs";
     public static final long DEFAULT_BROKER_TIMEOUT_MS = 10_000L;
     public static final String CONFIG_OF_BROKER_ID = "pinot.broker.id";
+    // Reduce the server responses one by one as soon as they are received instead of after gathering all of them
+    public static final String CONFIG_OF_BROKER_ENABLE_STREAMING_REDUCE = "pinot.broker.enableStreamingReduce";
+    public static final boolean DEFAULT_BROKER_ENABLE_STREAMING_REDUCE = false;
+    // Number of threads reducing the server responses in streaming reduce mode (off the network I/O threads)
+    public static final String CONFIG_OF_BROKER_STREAMING_REDUCE_NUM_THREADS =
+        "pinot.broker.streamingReduce.numThreads";
+    public static final int DEFAULT_BROKER_STREAMING_REDUCE_NUM_THREADS = Runtime.getRuntime().availableProcessors();
+    // Cache the query results on the broker (disabled when the max number of entries is 0), and share the results of
+    // concurrent identical queries. Results for tables with REALTIME part expire after the TTL.
+    public static final String CONFIG_OF_BROKER_RESULT_CACHE_MAX_ENTRIES = "pinot.broker.result.cache.max.entries";
+    public static final int DEFAULT_BROKER_RESULT_CACHE_MAX_ENTRIES = 0;
+    public static final String CONFIG_OF_BROKER_RESULT_CACHE_TTL_MS = "pinot.broker.result.cache.ttl.ms";
+    public static final long DEFAULT_BROKER_RESULT_CACHE_TTL_MS = 10_000L;
     public static final BrokerResponseFactory.ResponseType DEFAULT_BROKER_RESPONSE_TYPE =
         BrokerResponseFactory.ResponseType.BROKER_RESPONSE_TYPE_NATIVE;
     // The sleep interval time of the thread used by the Brokers to refresh TimeboundaryInfo upon segment refreshing
@@ -179,8 +192,18 @@ public class CommonConstants {
     public static final String CONFIG_OF_REALTIME_OFFHEAP_ALLOCATION = "pinot.server.instance.realtime.alloc.offheap";
     public static final String CONFIG_OF_REALTIME_OFFHEAP_DIRECT_ALLOCATION =
         "pinot.server.instance.realtime.alloc.offheap.direct";
+    // Number of threads to handle the segment state transitions (e.g. OFFLINE -> ONLINE) across all tables, which
+    // bounds the number of segments downloaded and loaded in parallel (e.g. when the server restarts). The segment
+    // loads are further bounded by the "max.parallel.segment.loads" instance data manager config. A value of <= 0
+    // (default) indicates using the Helix default executor.
+    public static final String CONFIG_OF_MAX_PARALLEL_STATE_TRANSITIONS =
+        "pinot.server.instance.max.parallel.state.transitions";
+    public static final int DEFAULT_MAX_PARALLEL_STATE_TRANSITIONS = 0;
     public static final String PREFIX_OF_CONFIG_OF_PINOT_FS_FACTORY = "pinot.server.storage.factory";
     public static final String PREFIX_OF_CONFIG_OF_PINOT_CRYPTER = "pinot.server.crypter";
+    // Version of the data table sent back to the broker. Brokers must be able to deserialize the configured version.
+    public static final String CONFIG_OF_CURRENT_DATA_TABLE_VERSION = "pinot.server.instance.currentDataTableVersion";
+    public static final int DEFAULT_CURRENT_DATA_TABLE_VERSION = 2;
     // Configuration to consider the server ServiceStatus as being STARTED if the percent of resources (tables) that
     // are ONLINE for this this server has crossed the threshold percentage of the total number of tables
     // that it is expected to serve.
@@ -23,6 +23,7 @@ import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -611,6 +612,56 @@ public class FileUploadDownloadClient implements Closeable {
     return downloadFile(uri, DEFAULT_SOCKET_TIMEOUT_MS, dest);
   }
 
+  /**
+   * Opens an input stream to download a file without storing it locally. The HTTP response is released when the
+   * returned stream is closed.
+   *
+   * @param uri URI
+   * @param socketTimeoutMs Socket timeout in milliseconds
+   * @return Input stream of the file content
+   * @throws IOException
+   * @throws HttpErrorStatusException
+   */
+  public InputStream openDownloadStream(URI uri, int socketTimeoutMs)
+      throws IOException, HttpErrorStatusException {
+    HttpUriRequest request = getDownloadFileRequest(uri, socketTimeoutMs);
+    final CloseableHttpResponse response = _httpClient.execute(request);
+    boolean success = false;
+    try {
+      int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode >= 300) {
+        throw new HttpErrorStatusException(getErrorMessage(request, response), statusCode);
+      }
+      InputStream inputStream = new FilterInputStream(response.getEntity().getContent()) {
+        @Override
+        public void close()
+            throws IOException {
+          // Closing the response releases the connection without consuming the remaining content
+          response.close();
+        }
+      };
+      success = true;
+      return inputStream;
+    } finally {
+      if (!success) {
+        response.close();
+      }
+    }
+  }
+
+  /**
+   * Opens an input stream to download a file using default settings.
+   *
+   * @param uri URI
+   * @return Input stream of the file content
+   * @throws IOException
+   * @throws HttpErrorStatusException
+   */
+  public InputStream openDownloadStream(URI uri)
+      throws IOException, HttpErrorStatusException {
+    return openDownloadStream(uri, DEFAULT_SOCKET_TIMEOUT_MS);
+  }
+
   @Override
   public void close()
       throws IOException {
@@ -87,6 +87,11 @@ public class JsonUtils {
     return inputStreamToJsonNode(new ByteArrayInputStream(jsonBytes));
   }
 
+  public static JsonNode bytesToJsonNode(byte[] jsonBytes, int offset, int length)
+      throws IOException {
+    return inputStreamToJsonNode(new ByteArrayInputStream(jsonBytes, offset, length));
+  }
+
   public static <T> T jsonNodeToObject(JsonNode jsonNode, Class<T> valueType)
       throws JsonProcessingException {
     return DEFAULT_READER.treeToValue(jsonNode, valueType);
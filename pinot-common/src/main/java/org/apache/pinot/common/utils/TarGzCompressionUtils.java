@@ -154,54 +154,65 @@ public class TarGzCompressionUtils {
    */
   public static List<File> unTar(final File inputFile, final File outputDir)
       throws IOException, ArchiveException {
+    LOGGER.debug("Untaring {} to dir {}.", inputFile.getAbsolutePath(), outputDir.getAbsolutePath());
+    try (InputStream inputStream = new BufferedInputStream(new FileInputStream(inputFile))) {
+      return unTar(inputStream, outputDir);
+    }
+  }
+
+  /** Untar a tar.gz input stream into the output directory without storing the tar.gz file locally.
+   * The input stream is read to the end so that the gzip trailer (CRC-32 and size of the uncompressed data) is
+   * validated, and an IOException is thrown if the stream is corrupted or truncated.
+   * The input stream is not closed by this method.
+   *
+   * @param tarGzInputStream the input tar.gz stream
+   * @param outputDir        the output directory file.
+   * @throws IOException
+   *
+   * @return The {@link List} of {@link File}s with the untared content.
+   * @throws ArchiveException
+   */
+  public static List<File> unTar(final InputStream tarGzInputStream, final File outputDir)
+      throws IOException, ArchiveException {
 
     String outputDirectoryPath = outputDir.getCanonicalPath();
-    LOGGER.debug("Untaring {} to dir {}.", inputFile.getAbsolutePath(), outputDirectoryPath);
-    TarArchiveInputStream debInputStream = null;
-    InputStream is = null;
     final List<File> untaredFiles = new LinkedList<File>();
-    try {
-      is = new GzipCompressorInputStream(new BufferedInputStream(new FileInputStream(inputFile)));
-      debInputStream = (TarArchiveInputStream) new ArchiveStreamFactory().createArchiveInputStream("tar", is);
-      TarArchiveEntry entry = null;
-      while ((entry = (TarArchiveEntry) debInputStream.getNextEntry()) != null) {
-        final File outputFile = new File(outputDir, entry.getName());
-        // Check whether the untarred file will be put outside of the target output directory.
-        if (!outputFile.getCanonicalPath().startsWith(outputDirectoryPath)) {
-          throw new IOException("Tar file must not be untarred outside of the target output directory!");
-        }
-        if (entry.isDirectory()) {
-          LOGGER.debug(String.format("Attempting to write output directory %s.", outputFile.getAbsolutePath()));
-          if (!outputFile.exists()) {
-            LOGGER.debug(String.format("Attempting to create output directory %s.", outputFile.getAbsolutePath()));
-            if (!outputFile.mkdirs()) {
-              throw new IllegalStateException(
-                  String.format("Couldn't create directory %s.", outputFile.getAbsolutePath()));
-            }
-          } else {
-            LOGGER.error("The directory already there. Deleting - " + outputFile.getAbsolutePath());
-            FileUtils.deleteDirectory(outputFile);
+    InputStream is = new GzipCompressorInputStream(tarGzInputStream);
+    TarArchiveInputStream debInputStream =
+        (TarArchiveInputStream) new ArchiveStreamFactory().createArchiveInputStream("tar", is);
+    TarArchiveEntry entry = null;
+    while ((entry = (TarArchiveEntry) debInputStream.getNextEntry()) != null) {
+      final File outputFile = new File(outputDir, entry.getName());
+      // Check whether the untarred file will be put outside of the target output directory.
+      if (!outputFile.getCanonicalPath().startsWith(outputDirectoryPath)) {
+        throw new IOException("Tar file must not be untarred outside of the target output directory!");
+      }
+      if (entry.isDirectory()) {
+        LOGGER.debug(String.format("Attempting to write output directory %s.", outputFile.getAbsolutePath()));
+        if (!outputFile.exists()) {
+          LOGGER.debug(String.format("Attempting to create output directory %s.", outputFile.getAbsolutePath()));
+          if (!outputFile.mkdirs()) {
+            throw new IllegalStateException(
+                String.format("Couldn't create directory %s.", outputFile.getAbsolutePath()));
           }
         } else {
-          LOGGER.debug(String.format("Creating output file %s.", outputFile.getAbsolutePath()));
-          File directory = outputFile.getParentFile();
-          if (!directory.exists()) {
-            directory.mkdirs();
-          }
-          OutputStream outputFileStream = null;
-          try {
-            outputFileStream = new FileOutputStream(outputFile);
-            IOUtils.copy(debInputStream, outputFileStream);
-          } finally {
-            IOUtils.closeQuietly(outputFileStream);
-          }
+          LOGGER.error("The directory already there. Deleting - " + outputFile.getAbsolutePath());
+          FileUtils.deleteDirectory(outputFile);
+        }
+      } else {
+        LOGGER.debug(String.format("Creating output file %s.", outputFile.getAbsolutePath()));
+        File directory = outputFile.getParentFile();
+        if (!directory.exists()) {
+          directory.mkdirs();
+        }
+        try (OutputStream outputFileStream = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+          IOUtils.copyLarge(debInputStream, outputFileStream);
         }
-        untaredFiles.add(outputFile);
       }
-    } finally {
-      IOUtils.closeQuietly(debInputStream);
-      IOUtils.closeQuietly(is);
+      untaredFiles.add(outputFile);
     }
+    // Read the padding after the tar end-of-archive records, so that the gzip trailer gets validated
+    IOUtils.skip(is, Long.MAX_VALUE);
     return untaredFiles;
   }
 
@@ -19,11 +19,13 @@
 package org.apache.pinot.common.utils;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Arrays;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -128,6 +130,40 @@ public class TarGzCompressionUtilsTest {
     Assert.assertEquals(segmentFiles.length, 0);
   }
 
+  @Test
+  public void testUnTarInputStream()
+      throws IOException, ArchiveException {
+    FileUtils.writeStringToFile(new File(segmentDir, "metadata.properties"), "segment.name = " + SEGMENT_NAME);
+    File tarGzPath = new File(tarDir, SEGMENT_NAME + ".tar.gz");
+    TarGzCompressionUtils.createTarGzOfDirectory(segmentDir.getPath(), tarGzPath.getPath());
+    byte[] tarGzBytes = FileUtils.readFileToByteArray(tarGzPath);
+
+    TarGzCompressionUtils.unTar(new ByteArrayInputStream(tarGzBytes), untarDir);
+    File metaFile = new File(new File(untarDir, SEGMENT_NAME), "metadata.properties");
+    Assert.assertEquals(FileUtils.readFileToString(metaFile), "segment.name = " + SEGMENT_NAME);
+
+    // Truncated gzip trailer should be detected
+    FileUtils.cleanDirectory(untarDir);
+    byte[] truncatedBytes = Arrays.copyOf(tarGzBytes, tarGzBytes.length - 4);
+    try {
+      TarGzCompressionUtils.unTar(new ByteArrayInputStream(truncatedBytes), untarDir);
+      Assert.fail("Did not get exception!!");
+    } catch (IOException e) {
+      // Expected
+    }
+
+    // Corrupted gzip trailer should be detected
+    FileUtils.cleanDirectory(untarDir);
+    byte[] corruptedBytes = tarGzBytes.clone();
+    corruptedBytes[corruptedBytes.length - 8] ^= 0xFF;
+    try {
+      TarGzCompressionUtils.unTar(new ByteArrayInputStream(corruptedBytes), untarDir);
+      Assert.fail("Did not get exception!!");
+    } catch (IOException e) {
+      // Expected
+    }
+  }
+
   @Test
   public void testBadFilePath()
       throws Exception {
@@ -28,7 +28,12 @@ import java.util.Map;
 public enum BloomFilterType {
   // NOTE: Do not change the value of bloom filter type when adding a new type since we are writing/checking type value
   // when serializing/deserializing a bloom filter
-  GUAVA_ON_HEAP(1);
+  GUAVA_ON_HEAP(1),
+  // NOTE: Servers before the split-block bloom filter is added cannot read it, so only configure it after all the
+  //       servers are upgraded
+  SPLIT_BLOCK(2);
+
+  public static final BloomFilterType DEFAULT = GUAVA_ON_HEAP;
 
   private int _value;
   private static Map<Integer, BloomFilterType> _bloomFilterTypeMap = new HashMap<>();
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.bloom;
+
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+
+
+/**
+ * Read-only {@link SplitBlockBloomFilter} which reads the serialized bloom filter directly from the data buffer
+ * (e.g. memory mapped segment file) without copying it onto the heap.
+ */
+public class OffHeapSplitBlockBloomFilter {
+  private static final int BLOCKS_OFFSET = Integer.BYTES;
+  private static final int NUM_BYTES_PER_BLOCK = SplitBlockBloomFilter.NUM_WORDS_PER_BLOCK * Integer.BYTES;
+
+  private final PinotDataBuffer _dataBuffer;
+  private final int _numBlocks;
+
+  /**
+   * @param dataBuffer Data buffer of the serialized bloom filter (starting from the number of blocks)
+   */
+  public OffHeapSplitBlockBloomFilter(PinotDataBuffer dataBuffer) {
+    _dataBuffer = dataBuffer;
+    _numBlocks = dataBuffer.getInt(0);
+  }
+
+  public boolean mightContain(Object value) {
+    return mightContainHash(SplitBlockBloomFilter.hash(value));
+  }
+
+  public boolean mightContain(long value) {
+    return mightContainHash(SplitBlockBloomFilter.hashLong(value));
+  }
+
+  public boolean mightContain(double value) {
+    return mightContainHash(SplitBlockBloomFilter.hashDouble(value));
+  }
+
+  public boolean mightContain(String value) {
+    return mightContainHash(SplitBlockBloomFilter.hashString(value));
+  }
+
+  private boolean mightContainHash(long hash) {
+    long offset = BLOCKS_OFFSET + (long) SplitBlockBloomFilter.getBlockIndex(hash, _numBlocks) * NUM_BYTES_PER_BLOCK;
+    int key = (int) hash;
+    for (int i = 0; i < SplitBlockBloomFilter.NUM_WORDS_PER_BLOCK; i++) {
+      int mask = SplitBlockBloomFilter.getMask(key, i);
+      if ((_dataBuffer.getInt(offset) & mask) != mask) {
+        return false;
+      }
+      offset += Integer.BYTES;
+    }
+    return true;
+  }
+}
@@ -26,13 +26,22 @@ public class SegmentBloomFilterFactory {
   /**
    * Factory used when creating a new bloom filter
    *
+   * @param type a bloom filter type
    * @param cardinality cardinality of column
    * @param maxFalsePosProbability maximum false positive probability
+   * @param maxNumBits maximum number of bits of the bloom filter
    * @return a bloom filter
    */
-  public static BloomFilter createSegmentBloomFilter(int cardinality, double maxFalsePosProbability) {
-    // TODO: when we add more types of bloom filter, we will need to add a new config and wire in here
-    return new GuavaOnHeapBloomFilter(cardinality, maxFalsePosProbability);
+  public static BloomFilter createSegmentBloomFilter(BloomFilterType type, int cardinality,
+      double maxFalsePosProbability, long maxNumBits) {
+    switch (type) {
+      case GUAVA_ON_HEAP:
+        // The max false positive probability is already computed to fit in the max number of bits
+        return new GuavaOnHeapBloomFilter(cardinality, maxFalsePosProbability);
+      case SPLIT_BLOCK:
+        return new SplitBlockBloomFilter(cardinality, maxFalsePosProbability, maxNumBits);
+    }
+    throw new RuntimeException("Invalid bloom filter type: " + type.toString());
   }
 
   /**
@@ -45,6 +54,8 @@ public class SegmentBloomFilterFactory {
     switch (type) {
       case GUAVA_ON_HEAP:
         return new GuavaOnHeapBloomFilter();
+      case SPLIT_BLOCK:
+        return new SplitBlockBloomFilter();
     }
     throw new RuntimeException("Invalid bloom filter type: " + type.toString());
   }
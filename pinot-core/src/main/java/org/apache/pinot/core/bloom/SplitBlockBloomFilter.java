@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.bloom;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+
+/**
+ * Split-block bloom filter, where each value only touches one block of 256 bits (8 32-bit words, which fits in a
+ * cache line), with one bit set in each word.
+ * <p>Values are hashed based on their type without converting them to string:
+ * <ul>
+ *   <li>INT and LONG values are hashed as long</li>
+ *   <li>FLOAT and DOUBLE values are hashed as double</li>
+ *   <li>STRING values are hashed over their chars</li>
+ * </ul>
+ * <p>This class is used to create the bloom filter on heap. Use {@link OffHeapSplitBlockBloomFilter} to read the
+ * serialized bloom filter directly from the data buffer.
+ * <pre>
+ * Layout for the serialized bloom filter:
+ * |-------------------------------------------------------------------------|
+ * |                            Number of blocks (n)                         |
+ * |-------------------------------------------------------------------------|
+ * |                        8 words (int) of 1st block                       |
+ * |                                   ...                                   |
+ * |                        8 words (int) of nth block                       |
+ * |-------------------------------------------------------------------------|
+ * </pre>
+ */
+public class SplitBlockBloomFilter implements BloomFilter {
+  // Increment the version when the bloom filter implementation becomes backward incompatible
+  public static final int VERSION = 1;
+  public static final int NUM_WORDS_PER_BLOCK = 8;
+  public static final int NUM_BITS_PER_BLOCK = NUM_WORDS_PER_BLOCK * Integer.SIZE;
+  public static final int MAX_NUM_BLOCKS = Integer.MAX_VALUE / NUM_WORDS_PER_BLOCK;
+
+  // Odd constants to pick one bit in each word of the block
+  private static final int[] SALTS =
+      {0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+  private static final long HASH_SEED = 0x9e3779b97f4a7c15L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private int _numBlocks;
+  private int[] _words;
+
+  public SplitBlockBloomFilter() {
+  }
+
+  public SplitBlockBloomFilter(int cardinality, double maxFalsePosProbability) {
+    this(cardinality, maxFalsePosProbability, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a bloom filter with the minimum number of blocks to achieve the given false positive probability, capped
+   * by the given max number of bits.
+   */
+  public SplitBlockBloomFilter(int cardinality, double maxFalsePosProbability, long maxNumBits) {
+    _numBlocks = (int) Math.max(1,
+        Math.min(computeNumBlocks(Math.max(cardinality, 1), maxFalsePosProbability), maxNumBits / NUM_BITS_PER_BLOCK));
+    _words = new int[_numBlocks * NUM_WORDS_PER_BLOCK];
+  }
+
+  /**
+   * Returns the minimum number of blocks to achieve the given false positive probability.
+   * <p>NOTE: Split-block bloom filter requires more bits than the standard bloom filter to achieve the same false
+   * positive probability because the values are not evenly distributed across the blocks, so the number of blocks
+   * cannot be derived from the standard bloom filter formula.
+   */
+  public static int computeNumBlocks(long cardinality, double maxFalsePosProbability) {
+    // The false positive probability decreases with the number of blocks, so find the upper bound with exponential
+    // search, then find the minimum number of blocks with binary search
+    int high = 1;
+    while (high < MAX_NUM_BLOCKS
+        && computeFalsePosProbability((double) cardinality / high) > maxFalsePosProbability) {
+      high = (int) Math.min((long) high * 2, MAX_NUM_BLOCKS);
+    }
+    int low = Math.max(1, high / 2);
+    while (low < high) {
+      int mid = low + (high - low) / 2;
+      if (computeFalsePosProbability((double) cardinality / mid) <= maxFalsePosProbability) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return high;
+  }
+
+  /**
+   * Returns the false positive probability for the given average number of values per block.
+   * <p>The number of values in a block follows the Poisson distribution. With i values in the block, each word has
+   * (1 - (1 - 1/32)^i) of its bits set, and a value is a false positive if its bits in all 8 words are set.
+   */
+  public static double computeFalsePosProbability(double numValuesPerBlock) {
+    if (numValuesPerBlock > 700) {
+      // The Poisson probability underflows, and the false positive probability is almost 1
+      return 1.0;
+    }
+    double poissonProbability = Math.exp(-numValuesPerBlock);
+    double falsePosProbability = 0.0;
+    int maxNumValues = (int) (numValuesPerBlock + 10 * Math.sqrt(numValuesPerBlock)) + 10;
+    for (int i = 1; i <= maxNumValues; i++) {
+      poissonProbability *= numValuesPerBlock / i;
+      double wordFalsePosProbability = 1.0 - Math.pow(1.0 - 1.0 / Integer.SIZE, i);
+      falsePosProbability += poissonProbability * Math.pow(wordFalsePosProbability, NUM_WORDS_PER_BLOCK);
+    }
+    return falsePosProbability;
+  }
+
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
+  @Override
+  public BloomFilterType getBloomFilterType() {
+    return BloomFilterType.SPLIT_BLOCK;
+  }
+
+  @Override
+  public void add(Object input) {
+    addHash(hash(input));
+  }
+
+  public void add(long value) {
+    addHash(hashLong(value));
+  }
+
+  public void add(double value) {
+    addHash(hashDouble(value));
+  }
+
+  public void add(String value) {
+    addHash(hashString(value));
+  }
+
+  private void addHash(long hash) {
+    int wordOffset = getBlockIndex(hash, _numBlocks) * NUM_WORDS_PER_BLOCK;
+    int key = (int) hash;
+    for (int i = 0; i < NUM_WORDS_PER_BLOCK; i++) {
+      _words[wordOffset + i] |= getMask(key, i);
+    }
+  }
+
+  @Override
+  public boolean mightContain(Object input) {
+    long hash = hash(input);
+    int wordOffset = getBlockIndex(hash, _numBlocks) * NUM_WORDS_PER_BLOCK;
+    int key = (int) hash;
+    for (int i = 0; i < NUM_WORDS_PER_BLOCK; i++) {
+      int mask = getMask(key, i);
+      if ((_words[wordOffset + i] & mask) != mask) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void writeTo(OutputStream out)
+      throws IOException {
+    DataOutputStream dataOutputStream = new DataOutputStream(out);
+    dataOutputStream.writeInt(_numBlocks);
+    for (int word : _words) {
+      dataOutputStream.writeInt(word);
+    }
+    dataOutputStream.flush();
+  }
+
+  @Override
+  public void readFrom(InputStream in)
+      throws IOException {
+    DataInputStream dataInputStream = new DataInputStream(in);
+    _numBlocks = dataInputStream.readInt();
+    _words = new int[_numBlocks * NUM_WORDS_PER_BLOCK];
+    for (int i = 0; i < _words.length; i++) {
+      _words[i] = dataInputStream.readInt();
+    }
+  }
+
+  /**
+   * Returns the index of the block for the given hash, using the upper 32 bits of the hash.
+   */
+  static int getBlockIndex(long hash, int numBlocks) {
+    return (int) (((hash >>> 32) * numBlocks) >>> 32);
+  }
+
+  /**
+   * Returns the mask (with a single bit set) for the given word in the block, using the lower 32 bits of the hash.
+   */
+  static int getMask(int key, int wordIndex) {
+    return 1 << ((key * SALTS[wordIndex]) >>> 27);
+  }
+
+  /**
+   * Returns the hash of the given value based on its type.
+   */
+  public static long hash(Object value) {
+    if (value instanceof Integer || value instanceof Long) {
+      return hashLong(((Number) value).longValue());
+    }
+    if (value instanceof Float || value instanceof Double) {
+      return hashDouble(((Number) value).doubleValue());
+    }
+    return hashString(value.toString());
+  }
+
+  public static long hashLong(long value) {
+    return fmix64(value ^ HASH_SEED);
+  }
+
+  public static long hashDouble(double value) {
+    return hashLong(Double.doubleToLongBits(value));
+  }
+
+  public static long hashString(String value) {
+    // FNV-1a over the chars, then mix the bits
+    long hash = HASH_SEED;
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return fmix64(hash);
+  }
+
+  /**
+   * Finalization mix of MurmurHash3, which makes every bit of the input affect every bit of the output.
+   */
+  private static long fmix64(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -84,6 +84,11 @@ import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils
 // TODO:   2. Use one dictionary for all columns (save space).
 // TODO:   3. Given a data schema, write all values one by one instead of using rowId and colId to position (save time).
 public class DataTableBuilder {
+  public static final int VERSION_2 = 2;
+  public static final int VERSION_3 = 3;
+
+  private static volatile int _currentVersion = VERSION_2;
+
   private final DataSchema _dataSchema;
   private final int[] _columnOffsets;
   private final int _rowSizeInBytes;
@@ -281,7 +286,32 @@ public class DataTableBuilder {
     _fixedSizeDataByteArrayOutputStream.write(_currentRowDataByteBuffer.array());
   }
 
+  /**
+   * Set the data table version used by the server to build data tables.
+   */
+  public static void setCurrentDataTableVersion(int version) {
+    if (version != VERSION_2 && version != VERSION_3) {
+      throw new IllegalArgumentException("Unsupported data table version: " + version);
+    }
+    _currentVersion = version;
+  }
+
+  public static int getCurrentDataTableVersion() {
+    return _currentVersion;
+  }
+
+  /**
+   * Get an empty data table (without data schema) of the current data table version.
+   */
+  public static DataTable getEmptyDataTable() {
+    return _currentVersion == VERSION_3 ? new DataTableImplV3() : new DataTableImplV2();
+  }
+
   public DataTable build() {
+    if (_currentVersion == VERSION_3) {
+      return new DataTableImplV3(_numRows, _dataSchema, _reverseDictionaryMap,
+          _fixedSizeDataByteArrayOutputStream.toByteArray(), _variableSizeDataByteArrayOutputStream.toByteArray());
+    }
     return new DataTableImplV2(_numRows, _dataSchema, _reverseDictionaryMap,
         _fixedSizeDataByteArrayOutputStream.toByteArray(), _variableSizeDataByteArrayOutputStream.toByteArray());
   }
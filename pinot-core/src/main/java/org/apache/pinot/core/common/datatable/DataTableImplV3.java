@@ -0,0 +1,611 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.common.datatable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.pinot.common.response.ProcessingException;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.common.utils.StringUtil;
+import org.apache.pinot.core.common.ObjectSerDeUtils;
+
+
+/**
+ * Version 3 of the data table.
+ * <p>Compared to {@link DataTableImplV2}, the broker side data table does not copy the payload:
+ * <ul>
+ *   <li>
+ *     Fixed size data and variable size data are kept as slices over the received buffer, and all the values are read
+ *     with absolute positions, so the data table can be read by multiple threads
+ *   </li>
+ *   <li>
+ *     The string dictionaries are serialized with an offset index, and each string is decoded lazily on the first
+ *     access instead of deserializing the whole dictionary into a map
+ *   </li>
+ * </ul>
+ * <p>The received buffer might be owned by the network layer (e.g. a pooled Netty buffer). In that case, the owner
+ * should register a release callback with {@link #setReleaseCallback(Runnable)}, and the data table must be released
+ * through {@link DataTableUtils#releaseDataTable(DataTable)} once it is no longer used.
+ */
+public class DataTableImplV3 implements DataTable {
+  public static final int VERSION = 3;
+
+  // VERSION
+  // NUM_ROWS
+  // NUM_COLUMNS
+  // DICTIONARY_MAP (START|SIZE)
+  // METADATA (START|SIZE)
+  // DATA_SCHEMA (START|SIZE)
+  // FIXED_SIZE_DATA (START|SIZE)
+  // VARIABLE_SIZE_DATA (START|SIZE)
+  private static final int HEADER_SIZE = Integer.BYTES * 13;
+
+  // DICTIONARY_MAP:
+  // NUM_DICTIONARIES
+  // For each dictionary:
+  //   COLUMN_NAME (LENGTH|BYTES)
+  //   DICTIONARY_SIZE
+  //   VALUE_OFFSETS (DICTIONARY_SIZE + 1 offsets relative to the start of VALUE_BYTES)
+  //   VALUE_BYTES
+
+  private final int _numRows;
+  private final int _numColumns;
+  private final DataSchema _dataSchema;
+  private final int[] _columnOffsets;
+  private final int _rowSizeInBytes;
+  private final Map<String, LazyStringDictionary> _dictionaryMap;
+  private final ByteBuffer _fixedSizeData;
+  private final ByteBuffer _variableSizeData;
+  private final Map<String, String> _metadata;
+
+  private volatile Runnable _releaseCallback;
+
+  /**
+   * Construct data table with results. (Server side)
+   */
+  public DataTableImplV3(int numRows, @Nonnull DataSchema dataSchema,
+      @Nonnull Map<String, Map<Integer, String>> dictionaryMap, @Nonnull byte[] fixedSizeDataBytes,
+      @Nonnull byte[] variableSizeDataBytes) {
+    _numRows = numRows;
+    _numColumns = dataSchema.size();
+    _dataSchema = dataSchema;
+    _columnOffsets = new int[_numColumns];
+    _rowSizeInBytes = DataTableUtils.computeColumnOffsets(dataSchema, _columnOffsets);
+    _dictionaryMap = new HashMap<>(dictionaryMap.size());
+    for (Map.Entry<String, Map<Integer, String>> entry : dictionaryMap.entrySet()) {
+      _dictionaryMap.put(entry.getKey(), new LazyStringDictionary(entry.getValue()));
+    }
+    _fixedSizeData = ByteBuffer.wrap(fixedSizeDataBytes);
+    _variableSizeData = ByteBuffer.wrap(variableSizeDataBytes);
+    _metadata = new HashMap<>();
+  }
+
+  /**
+   * Construct empty data table. (Server side)
+   */
+  public DataTableImplV3() {
+    _numRows = 0;
+    _numColumns = 0;
+    _dataSchema = null;
+    _columnOffsets = null;
+    _rowSizeInBytes = 0;
+    _dictionaryMap = null;
+    _fixedSizeData = null;
+    _variableSizeData = null;
+    _metadata = new HashMap<>();
+  }
+
+  /**
+   * Construct data table from byte buffer without copying the payload. (broker side)
+   * <p>The byte buffer should be positioned right after the version, and the offsets inside the header are relative to
+   * the start of the buffer (where the version is stored).
+   */
+  public DataTableImplV3(@Nonnull ByteBuffer byteBuffer)
+      throws IOException {
+    int bufferStart = byteBuffer.position() - Integer.BYTES;
+
+    // Read header.
+    _numRows = byteBuffer.getInt();
+    _numColumns = byteBuffer.getInt();
+    int dictionaryMapStart = bufferStart + byteBuffer.getInt();
+    int dictionaryMapLength = byteBuffer.getInt();
+    int metadataStart = bufferStart + byteBuffer.getInt();
+    int metadataLength = byteBuffer.getInt();
+    int dataSchemaStart = bufferStart + byteBuffer.getInt();
+    int dataSchemaLength = byteBuffer.getInt();
+    int fixedSizeDataStart = bufferStart + byteBuffer.getInt();
+    int fixedSizeDataLength = byteBuffer.getInt();
+    int variableSizeDataStart = bufferStart + byteBuffer.getInt();
+    int variableSizeDataLength = byteBuffer.getInt();
+
+    // Read dictionary index (values are decoded lazily).
+    if (dictionaryMapLength != 0) {
+      _dictionaryMap = readDictionaryIndex(slice(byteBuffer, dictionaryMapStart, dictionaryMapLength));
+    } else {
+      _dictionaryMap = null;
+    }
+
+    // Read metadata.
+    // NOTE: metadata is always accessed right after receiving the data table (e.g. request id), so read it eagerly.
+    _metadata = deserializeMetadata(slice(byteBuffer, metadataStart, metadataLength));
+
+    // Read data schema.
+    if (dataSchemaLength != 0) {
+      byte[] schemaBytes = new byte[dataSchemaLength];
+      slice(byteBuffer, dataSchemaStart, dataSchemaLength).get(schemaBytes);
+      _dataSchema = DataSchema.fromBytes(schemaBytes);
+      _columnOffsets = new int[_dataSchema.size()];
+      _rowSizeInBytes = DataTableUtils.computeColumnOffsets(_dataSchema, _columnOffsets);
+    } else {
+      _dataSchema = null;
+      _columnOffsets = null;
+      _rowSizeInBytes = 0;
+    }
+
+    // Slice fixed size data.
+    if (fixedSizeDataLength != 0) {
+      _fixedSizeData = slice(byteBuffer, fixedSizeDataStart, fixedSizeDataLength);
+    } else {
+      _fixedSizeData = null;
+    }
+
+    // Slice variable size data.
+    if (variableSizeDataLength != 0) {
+      _variableSizeData = slice(byteBuffer, variableSizeDataStart, variableSizeDataLength);
+    } else {
+      _variableSizeData = null;
+    }
+  }
+
+  private static ByteBuffer slice(ByteBuffer byteBuffer, int start, int length) {
+    ByteBuffer duplicate = byteBuffer.duplicate();
+    duplicate.limit(start + length);
+    duplicate.position(start);
+    return duplicate.slice();
+  }
+
+  private static Map<String, LazyStringDictionary> readDictionaryIndex(ByteBuffer byteBuffer) {
+    int numDictionaries = byteBuffer.getInt();
+    Map<String, LazyStringDictionary> dictionaryMap = new HashMap<>(numDictionaries);
+    for (int i = 0; i < numDictionaries; i++) {
+      String column = readString(byteBuffer);
+      int dictionarySize = byteBuffer.getInt();
+      int valueOffsetsStart = byteBuffer.position();
+      int valueBytesStart = valueOffsetsStart + (dictionarySize + 1) * Integer.BYTES;
+      int valueBytesLength = byteBuffer.getInt(valueOffsetsStart + dictionarySize * Integer.BYTES);
+      dictionaryMap
+          .put(column, new LazyStringDictionary(byteBuffer, dictionarySize, valueOffsetsStart, valueBytesStart));
+      byteBuffer.position(valueBytesStart + valueBytesLength);
+    }
+    return dictionaryMap;
+  }
+
+  private static Map<String, String> deserializeMetadata(ByteBuffer byteBuffer) {
+    int numEntries = byteBuffer.getInt();
+    Map<String, String> metadata = new HashMap<>(numEntries);
+    for (int i = 0; i < numEntries; i++) {
+      String key = readString(byteBuffer);
+      String value = readString(byteBuffer);
+      metadata.put(key, value);
+    }
+    return metadata;
+  }
+
+  /**
+   * Reads a length-prefixed string from the current position of the buffer, and advances the position.
+   */
+  private static String readString(ByteBuffer byteBuffer) {
+    int length = byteBuffer.getInt();
+    String value = decodeString(byteBuffer, byteBuffer.position(), length);
+    byteBuffer.position(byteBuffer.position() + length);
+    return value;
+  }
+
+  /**
+   * Decodes a UTF-8 string from the given absolute position of the buffer without changing the position.
+   */
+  private static String decodeString(ByteBuffer byteBuffer, int position, int length) {
+    if (length == 0) {
+      return StringUtils.EMPTY;
+    }
+    if (byteBuffer.hasArray()) {
+      return new String(byteBuffer.array(), byteBuffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+    } else {
+      byte[] bytes = new byte[length];
+      ByteBuffer duplicate = byteBuffer.duplicate();
+      duplicate.position(position);
+      duplicate.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Sets the callback to release the underlying buffer when the data table is no longer used.
+   */
+  public void setReleaseCallback(@Nullable Runnable releaseCallback) {
+    _releaseCallback = releaseCallback;
+  }
+
+  /**
+   * Releases the underlying buffer if it is owned by someone else (e.g. the network layer). The data table should not
+   * be accessed after being released. Releasing the data table multiple times is no-op.
+   */
+  public void release() {
+    Runnable releaseCallback;
+    synchronized (this) {
+      releaseCallback = _releaseCallback;
+      _releaseCallback = null;
+    }
+    if (releaseCallback != null) {
+      releaseCallback.run();
+    }
+  }
+
+  @Override
+  public void addException(@Nonnull ProcessingException processingException) {
+    _metadata.put(EXCEPTION_METADATA_KEY + processingException.getErrorCode(), processingException.getMessage());
+  }
+
+  @Nonnull
+  @Override
+  public byte[] toBytes()
+      throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+    dataOutputStream.writeInt(VERSION);
+    dataOutputStream.writeInt(_numRows);
+    dataOutputStream.writeInt(_numColumns);
+    int dataOffset = HEADER_SIZE;
+
+    // Write dictionary.
+    dataOutputStream.writeInt(dataOffset);
+    byte[] dictionaryMapBytes = null;
+    if (_dictionaryMap != null) {
+      dictionaryMapBytes = serializeDictionaryMap();
+      dataOutputStream.writeInt(dictionaryMapBytes.length);
+      dataOffset += dictionaryMapBytes.length;
+    } else {
+      dataOutputStream.writeInt(0);
+    }
+
+    // Write metadata.
+    dataOutputStream.writeInt(dataOffset);
+    byte[] metadataBytes = serializeMetadata();
+    dataOutputStream.writeInt(metadataBytes.length);
+    dataOffset += metadataBytes.length;
+
+    // Write data schema.
+    dataOutputStream.writeInt(dataOffset);
+    byte[] dataSchemaBytes = null;
+    if (_dataSchema != null) {
+      dataSchemaBytes = _dataSchema.toBytes();
+      dataOutputStream.writeInt(dataSchemaBytes.length);
+      dataOffset += dataSchemaBytes.length;
+    } else {
+      dataOutputStream.writeInt(0);
+    }
+
+    // Write fixed size data.
+    dataOutputStream.writeInt(dataOffset);
+    byte[] fixedSizeDataBytes = toByteArray(_fixedSizeData);
+    dataOutputStream.writeInt(fixedSizeDataBytes.length);
+    dataOffset += fixedSizeDataBytes.length;
+
+    // Write variable size data.
+    dataOutputStream.writeInt(dataOffset);
+    byte[] variableSizeDataBytes = toByteArray(_variableSizeData);
+    dataOutputStream.writeInt(variableSizeDataBytes.length);
+
+    // Write actual data.
+    if (dictionaryMapBytes != null) {
+      dataOutputStream.write(dictionaryMapBytes);
+    }
+    dataOutputStream.write(metadataBytes);
+    if (dataSchemaBytes != null) {
+      dataOutputStream.write(dataSchemaBytes);
+    }
+    dataOutputStream.write(fixedSizeDataBytes);
+    dataOutputStream.write(variableSizeDataBytes);
+
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  private static byte[] toByteArray(@Nullable ByteBuffer byteBuffer) {
+    if (byteBuffer == null) {
+      return new byte[0];
+    }
+    ByteBuffer duplicate = byteBuffer.duplicate();
+    duplicate.clear();
+    if (duplicate.hasArray() && duplicate.arrayOffset() == 0 && duplicate.array().length == duplicate.capacity()) {
+      return duplicate.array();
+    }
+    byte[] bytes = new byte[duplicate.capacity()];
+    duplicate.get(bytes);
+    return bytes;
+  }
+
+  private byte[] serializeDictionaryMap()
+      throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+    dataOutputStream.writeInt(_dictionaryMap.size());
+    for (Map.Entry<String, LazyStringDictionary> dictionaryMapEntry : _dictionaryMap.entrySet()) {
+      byte[] bytes = StringUtil.encodeUtf8(dictionaryMapEntry.getKey());
+      dataOutputStream.writeInt(bytes.length);
+      dataOutputStream.write(bytes);
+
+      LazyStringDictionary dictionary = dictionaryMapEntry.getValue();
+      int dictionarySize = dictionary._size;
+      dataOutputStream.writeInt(dictionarySize);
+      byte[][] valueBytesArray = new byte[dictionarySize][];
+      int valueOffset = 0;
+      for (int dictId = 0; dictId < dictionarySize; dictId++) {
+        dataOutputStream.writeInt(valueOffset);
+        valueBytesArray[dictId] = StringUtil.encodeUtf8(dictionary.get(dictId));
+        valueOffset += valueBytesArray[dictId].length;
+      }
+      dataOutputStream.writeInt(valueOffset);
+      for (byte[] valueBytes : valueBytesArray) {
+        dataOutputStream.write(valueBytes);
+      }
+    }
+
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  private byte[] serializeMetadata()
+      throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+    dataOutputStream.writeInt(_metadata.size());
+    for (Map.Entry<String, String> entry : _metadata.entrySet()) {
+      byte[] keyBytes = StringUtil.encodeUtf8(entry.getKey());
+      dataOutputStream.writeInt(keyBytes.length);
+      dataOutputStream.write(keyBytes);
+
+      byte[] valueBytes = StringUtil.encodeUtf8(entry.getValue());
+      dataOutputStream.writeInt(valueBytes.length);
+      dataOutputStream.write(valueBytes);
+    }
+
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, String> getMetadata() {
+    return _metadata;
+  }
+
+  @Nullable
+  @Override
+  public DataSchema getDataSchema() {
+    return _dataSchema;
+  }
+
+  @Override
+  public int getNumberOfRows() {
+    return _numRows;
+  }
+
+  @Override
+  public int getInt(int rowId, int colId) {
+    return _fixedSizeData.getInt(rowId * _rowSizeInBytes + _columnOffsets[colId]);
+  }
+
+  @Override
+  public long getLong(int rowId, int colId) {
+    return _fixedSizeData.getLong(rowId * _rowSizeInBytes + _columnOffsets[colId]);
+  }
+
+  @Override
+  public float getFloat(int rowId, int colId) {
+    return _fixedSizeData.getFloat(rowId * _rowSizeInBytes + _columnOffsets[colId]);
+  }
+
+  @Override
+  public double getDouble(int rowId, int colId) {
+    return _fixedSizeData.getDouble(rowId * _rowSizeInBytes + _columnOffsets[colId]);
+  }
+
+  @Nonnull
+  @Override
+  public String getString(int rowId, int colId) {
+    int dictId = _fixedSizeData.getInt(rowId * _rowSizeInBytes + _columnOffsets[colId]);
+    return _dictionaryMap.get(_dataSchema.getColumnName(colId)).get(dictId);
+  }
+
+  @Nonnull
+  @Override
+  public <T> T getObject(int rowId, int colId) {
+    int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+    int variableSizeOffset = _fixedSizeData.getInt(fixedSizeOffset);
+    int size = _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES);
+    int objectTypeValue = _variableSizeData.getInt(variableSizeOffset);
+    return ObjectSerDeUtils.deserialize(slice(_variableSizeData, variableSizeOffset + Integer.BYTES, size),
+        objectTypeValue);
+  }
+
+  @Nonnull
+  @Override
+  public int[] getIntArray(int rowId, int colId) {
+    int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+    int variableSizeOffset = _fixedSizeData.getInt(fixedSizeOffset);
+    int length = _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES);
+    int[] ints = new int[length];
+    for (int i = 0; i < length; i++) {
+      ints[i] = _variableSizeData.getInt(variableSizeOffset + i * Integer.BYTES);
+    }
+    return ints;
+  }
+
+  @Nonnull
+  @Override
+  public long[] getLongArray(int rowId, int colId) {
+    int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+    int variableSizeOffset = _fixedSizeData.getInt(fixedSizeOffset);
+    int length = _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES);
+    long[] longs = new long[length];
+    for (int i = 0; i < length; i++) {
+      longs[i] = _variableSizeData.getLong(variableSizeOffset + i * Long.BYTES);
+    }
+    return longs;
+  }
+
+  @Nonnull
+  @Override
+  public float[] getFloatArray(int rowId, int colId) {
+    int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+    int variableSizeOffset = _fixedSizeData.getInt(fixedSizeOffset);
+    int length = _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES);
+    float[] floats = new float[length];
+    for (int i = 0; i < length; i++) {
+      floats[i] = _variableSizeData.getFloat(variableSizeOffset + i * Float.BYTES);
+    }
+    return floats;
+  }
+
+  @Nonnull
+  @Override
+  public double[] getDoubleArray(int rowId, int colId) {
+    int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+    int variableSizeOffset = _fixedSizeData.getInt(fixedSizeOffset);
+    int length = _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES);
+    double[] doubles = new double[length];
+    for (int i = 0; i < length; i++) {
+      doubles[i] = _variableSizeData.getDouble(variableSizeOffset + i * Double.BYTES);
+    }
+    return doubles;
+  }
+
+  @Nonnull
+  @Override
+  public String[] getStringArray(int rowId, int colId) {
+    int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+    int variableSizeOffset = _fixedSizeData.getInt(fixedSizeOffset);
+    int length = _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES);
+    String[] strings = new String[length];
+    LazyStringDictionary dictionary = _dictionaryMap.get(_dataSchema.getColumnName(colId));
+    for (int i = 0; i < length; i++) {
+      strings[i] = dictionary.get(_variableSizeData.getInt(variableSizeOffset + i * Integer.BYTES));
+    }
+    return strings;
+  }
+
+  @Override
+  public String toString() {
+    if (_dataSchema == null) {
+      return _metadata.toString();
+    }
+
+    StringBuilder stringBuilder = new StringBuilder();
+    stringBuilder.append(_dataSchema.toString()).append('\n');
+    stringBuilder.append("numRows: ").append(_numRows).append('\n');
+
+    for (int rowId = 0; rowId < _numRows; rowId++) {
+      for (int colId = 0; colId < _numColumns; colId++) {
+        switch (_dataSchema.getColumnDataType(colId)) {
+          case INT:
+          case STRING:
+            stringBuilder.append(getInt(rowId, colId));
+            break;
+          case LONG:
+            stringBuilder.append(getLong(rowId, colId));
+            break;
+          case FLOAT:
+            stringBuilder.append(getFloat(rowId, colId));
+            break;
+          case DOUBLE:
+            stringBuilder.append(getDouble(rowId, colId));
+            break;
+          // Object and array.
+          default:
+            int fixedSizeOffset = rowId * _rowSizeInBytes + _columnOffsets[colId];
+            stringBuilder.append(String.format("(%s:%s)", _fixedSizeData.getInt(fixedSizeOffset),
+                _fixedSizeData.getInt(fixedSizeOffset + Integer.BYTES)));
+            break;
+        }
+        stringBuilder.append("\t");
+      }
+      stringBuilder.append("\n");
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * String dictionary backed by the offset-indexed dictionary bytes, where each value is decoded on the first access
+   * and cached afterwards.
+   * <p>Concurrent access might decode the same value multiple times, which is safe as strings are immutable.
+   */
+  private static class LazyStringDictionary {
+    private final ByteBuffer _byteBuffer;
+    private final int _size;
+    private final int _valueOffsetsStart;
+    private final int _valueBytesStart;
+    private final String[] _values;
+
+    /**
+     * Broker side dictionary on top of the dictionary bytes.
+     */
+    LazyStringDictionary(ByteBuffer byteBuffer, int size, int valueOffsetsStart, int valueBytesStart) {
+      _byteBuffer = byteBuffer;
+      _size = size;
+      _valueOffsetsStart = valueOffsetsStart;
+      _valueBytesStart = valueBytesStart;
+      _values = new String[size];
+    }
+
+    /**
+     * Server side dictionary from the reverse dictionary map, where dictionary ids are contiguous.
+     */
+    LazyStringDictionary(Map<Integer, String> reverseDictionary) {
+      _byteBuffer = null;
+      _size = reverseDictionary.size();
+      _valueOffsetsStart = 0;
+      _valueBytesStart = 0;
+      _values = new String[_size];
+      for (Map.Entry<Integer, String> entry : reverseDictionary.entrySet()) {
+        _values[entry.getKey()] = entry.getValue();
+      }
+    }
+
+    String get(int dictId) {
+      String value = _values[dictId];
+      if (value == null) {
+        int offsetPosition = _valueOffsetsStart + dictId * Integer.BYTES;
+        int startOffset = _byteBuffer.getInt(offsetPosition);
+        int endOffset = _byteBuffer.getInt(offsetPosition + Integer.BYTES);
+        value = decodeString(_byteBuffer, _valueBytesStart + startOffset, endOffset - startOffset);
+        _values[dictId] = value;
+      }
+      return value;
+    }
+  }
+}
@@ -19,7 +19,9 @@
 package org.apache.pinot.core.common.datatable;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
 
 
 /**
@@ -71,4 +73,16 @@ public class DataTableUtils {
 
     return rowSizeInBytes;
   }
+
+  /**
+   * Releases the resources held by the data table (e.g. the network buffer backing a {@link DataTableImplV3}). The
+   * data table should not be accessed after being released.
+   *
+   * @param dataTable data table to be released.
+   */
+  public static void releaseDataTable(@Nullable DataTable dataTable) {
+    if (dataTable instanceof DataTableImplV3) {
+      ((DataTableImplV3) dataTable).release();
+    }
+  }
 }
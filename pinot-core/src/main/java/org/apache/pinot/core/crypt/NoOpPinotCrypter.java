@@ -19,6 +19,7 @@
 package org.apache.pinot.core.crypt;
 
 import java.io.File;
+import java.io.InputStream;
 import org.apache.commons.configuration.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,4 +45,14 @@ public class NoOpPinotCrypter implements PinotCrypter {
   public void decrypt(File encryptedFile, File decryptedFile) {
     return;
   }
+
+  @Override
+  public boolean supportsStreamDecryption() {
+    return true;
+  }
+
+  @Override
+  public InputStream decrypt(InputStream encryptedInputStream) {
+    return encryptedInputStream;
+  }
 }
@@ -19,6 +19,7 @@
 package org.apache.pinot.core.crypt;
 
 import java.io.File;
+import java.io.InputStream;
 import org.apache.commons.configuration.Configuration;
 
 
@@ -47,4 +48,21 @@ public interface PinotCrypter {
    * @param decryptedFile
    */
   void decrypt(File encryptedFile, File decryptedFile);
+
+  /**
+   * Returns whether the crypter supports decrypting an input stream on the fly with {@link #decrypt(InputStream)}. If
+   * not, the file should be decrypted with {@link #decrypt(File, File)}.
+   */
+  default boolean supportsStreamDecryption() {
+    return false;
+  }
+
+  /**
+   * Returns an input stream which decrypts the encrypted input stream on the fly. Should only be called if
+   * {@link #supportsStreamDecryption()} returns true.
+   * @param encryptedInputStream
+   */
+  default InputStream decrypt(InputStream encryptedInputStream) {
+    throw new UnsupportedOperationException("Stream decryption is not supported by: " + getClass().getName());
+  }
 }
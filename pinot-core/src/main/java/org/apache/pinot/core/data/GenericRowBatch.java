@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.metadata.RowMetadata;
+
+
+/**
+ * The <code>GenericRowBatch</code> class is a reusable batch of {@link GenericRow}s used to decode and index the
+ * messages of a stream in batches.
+ * <p>The rows are appended in order. A {@code null} row can be appended for a message that should be dropped so that
+ * the rows stay aligned with the messages. The batch keeps a reusable row for each position, which can be retrieved
+ * with {@link #getReusableRow()} before appending the row for that position, so that the rows can be reused across
+ * batches without allocating new ones.
+ * <p>This class is not thread-safe.
+ */
+public class GenericRowBatch {
+  private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  private GenericRow[] _rows;
+  private RowMetadata[] _rowMetadata;
+  private GenericRow[] _reusableRows;
+  private int _numRows;
+  private int _numErroredRows;
+
+  public GenericRowBatch() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  public GenericRowBatch(int initialCapacity) {
+    _rows = new GenericRow[initialCapacity];
+    _rowMetadata = new RowMetadata[initialCapacity];
+    _reusableRows = new GenericRow[initialCapacity];
+  }
+
+  /**
+   * Returns a cleared reusable row for the next position of the batch.
+   */
+  public GenericRow getReusableRow() {
+    ensureCapacity(_numRows + 1);
+    GenericRow reusableRow = GenericRow.createOrReuseRow(_reusableRows[_numRows]);
+    _reusableRows[_numRows] = reusableRow;
+    return reusableRow;
+  }
+
+  public void addRow(@Nullable GenericRow row) {
+    addRow(row, null);
+  }
+
+  public void addRow(@Nullable GenericRow row, @Nullable RowMetadata rowMetadata) {
+    ensureCapacity(_numRows + 1);
+    _rows[_numRows] = row;
+    _rowMetadata[_numRows] = rowMetadata;
+    _numRows++;
+  }
+
+  public int getNumRows() {
+    return _numRows;
+  }
+
+  @Nullable
+  public GenericRow getRow(int index) {
+    return _rows[index];
+  }
+
+  @Nullable
+  public RowMetadata getRowMetadata(int index) {
+    return _rowMetadata[index];
+  }
+
+  /**
+   * Records a row of the batch that failed to be processed (e.g. caught exception while indexing the row).
+   */
+  public void markRowErrored() {
+    _numErroredRows++;
+  }
+
+  public int getNumErroredRows() {
+    return _numErroredRows;
+  }
+
+  /**
+   * Clears the batch so that it can be reused. The reusable rows are kept.
+   */
+  public void clear() {
+    Arrays.fill(_rows, 0, _numRows, null);
+    Arrays.fill(_rowMetadata, 0, _numRows, null);
+    _numRows = 0;
+    _numErroredRows = 0;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (_rows.length < capacity) {
+      int newCapacity = Math.max(capacity, _rows.length * 2);
+      _rows = Arrays.copyOf(_rows, newCapacity);
+      _rowMetadata = Arrays.copyOf(_rowMetadata, newCapacity);
+      _reusableRows = Arrays.copyOf(_reusableRows, newCapacity);
+    }
+  }
+}
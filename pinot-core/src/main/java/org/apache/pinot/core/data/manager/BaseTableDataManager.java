@@ -34,10 +34,13 @@ import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.metrics.ServerGauge;
 import org.apache.pinot.common.metrics.ServerMeter;
 import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.segment.ReadMode;
 import org.apache.pinot.core.data.manager.config.TableDataManagerConfig;
 import org.apache.pinot.core.data.manager.offline.ImmutableSegmentDataManager;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
 import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.core.segment.index.loader.SegmentWarmer;
+import org.apache.pinot.core.segment.index.readers.SharedDictionaryValuePool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +52,7 @@ public abstract class BaseTableDataManager implements TableDataManager {
   private static final int MAX_CACHE_DURATION_SEC = 6 * 3600; // 6 hours
 
   protected final ConcurrentHashMap<String, SegmentDataManager> _segmentDataManagerMap = new ConcurrentHashMap<>();
+  protected final SharedDictionaryValuePool _sharedDictionaryValuePool = new SharedDictionaryValuePool();
 
   protected Cache<String, Boolean> _deletedSegmentsCache;
 
@@ -122,8 +126,10 @@ public abstract class BaseTableDataManager implements TableDataManager {
     _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.DOCUMENT_COUNT,
         immutableSegment.getSegmentMetadata().getTotalRawDocs());
     _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.SEGMENT_COUNT, 1L);
+    long segmentSizeBytes = Math.max(immutableSegment.getSegmentSizeBytes(), 0L);
+    MemoryGovernor.addTableUsage(_tableNameWithType, segmentSizeBytes);
 
-    ImmutableSegmentDataManager newSegmentManager = new ImmutableSegmentDataManager(immutableSegment);
+    ImmutableSegmentDataManager newSegmentManager = new ImmutableSegmentDataManager(immutableSegment, segmentSizeBytes);
     SegmentDataManager oldSegmentManager = _segmentDataManagerMap.put(segmentName, newSegmentManager);
 
     // release old segment if needed
@@ -135,6 +141,70 @@ public abstract class BaseTableDataManager implements TableDataManager {
     }
   }
 
+  /**
+   * Adds a loaded immutable segment, and warms up its memory mapped indexes based on the warm-up mode in the index
+   * loading config:
+   * <ul>
+   *   <li>SYNC: warms up the segment before adding it, so that the segment is not served until it is warm</li>
+   *   <li>ASYNC: adds the segment first, then warms it up in the background</li>
+   * </ul>
+   * <p>Gauge {@link ServerGauge#SEGMENTS_PENDING_WARM_UP} tracks the segments not warmed up yet.
+   */
+  protected void addSegment(@Nonnull ImmutableSegment immutableSegment,
+      @Nonnull IndexLoadingConfig indexLoadingConfig) {
+    SegmentWarmer.Mode warmUpMode = indexLoadingConfig.getWarmUpMode();
+    if (warmUpMode == SegmentWarmer.Mode.NONE || indexLoadingConfig.getReadMode() != ReadMode.mmap) {
+      addSegment(immutableSegment);
+      return;
+    }
+
+    _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.SEGMENTS_PENDING_WARM_UP, 1L);
+    if (warmUpMode == SegmentWarmer.Mode.SYNC) {
+      try {
+        warmUpSegment(immutableSegment, indexLoadingConfig);
+      } finally {
+        _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.SEGMENTS_PENDING_WARM_UP, -1L);
+      }
+      addSegment(immutableSegment);
+    } else {
+      addSegment(immutableSegment);
+      String segmentName = immutableSegment.getSegmentName();
+      SegmentWarmer.submit(() -> {
+        try {
+          // Acquire the segment so that it won't be destroyed during the warm-up
+          SegmentDataManager segmentDataManager = acquireSegment(segmentName);
+          if (segmentDataManager != null) {
+            try {
+              // Skip the warm-up if the segment has already been replaced
+              if (segmentDataManager.getSegment() == immutableSegment) {
+                warmUpSegment(immutableSegment, indexLoadingConfig);
+              }
+            } finally {
+              releaseSegment(segmentDataManager);
+            }
+          }
+        } finally {
+          _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.SEGMENTS_PENDING_WARM_UP, -1L);
+        }
+      });
+    }
+  }
+
+  private void warmUpSegment(@Nonnull ImmutableSegment immutableSegment,
+      @Nonnull IndexLoadingConfig indexLoadingConfig) {
+    String segmentName = immutableSegment.getSegmentName();
+    long startTimeMs = System.currentTimeMillis();
+    try {
+      long numBytesWarmedUp = SegmentWarmer
+          .warmUp(immutableSegment, indexLoadingConfig.getWarmUpIndexTypes(), indexLoadingConfig.getWarmUpColumns());
+      _logger.info("Warmed up {} bytes of segment: {} in {}ms", numBytesWarmedUp, segmentName,
+          System.currentTimeMillis() - startTimeMs);
+    } catch (Exception e) {
+      // Warm-up is best effort, the segment can still be served
+      _logger.warn("Caught exception while warming up segment: {}", segmentName, e);
+    }
+  }
+
   @Override
   public void addSegment(@Nonnull File indexDir, @Nonnull IndexLoadingConfig indexLoadingConfig)
       throws Exception {
@@ -244,6 +314,10 @@ public abstract class BaseTableDataManager implements TableDataManager {
     _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.DELETED_SEGMENT_COUNT, 1L);
     _serverMetrics.addValueToTableGauge(_tableNameWithType, ServerGauge.DOCUMENT_COUNT,
         -segmentDataManager.getSegment().getSegmentMetadata().getTotalRawDocs());
+    if (segmentDataManager instanceof ImmutableSegmentDataManager) {
+      MemoryGovernor.addTableUsage(_tableNameWithType,
+          -((ImmutableSegmentDataManager) segmentDataManager).getSegmentSizeBytes());
+    }
     segmentDataManager.destroy();
     _logger.info("Closed segment: {} of table: {}", segmentName, _tableNameWithType);
   }
@@ -253,4 +327,10 @@ public abstract class BaseTableDataManager implements TableDataManager {
   public String getTableName() {
     return _tableNameWithType;
   }
+
+  @Nonnull
+  @Override
+  public SharedDictionaryValuePool getSharedDictionaryValuePool() {
+    return _sharedDictionaryValuePool;
+  }
 }
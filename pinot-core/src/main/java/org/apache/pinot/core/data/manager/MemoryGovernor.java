@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import javax.annotation.Nonnull;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.config.TableConfig;
+import org.apache.pinot.common.config.TableCustomConfig;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>MemoryGovernor</code> class enforces the server memory budgets on the segment loads and the new consuming
+ * segments, so that the server rejects (or defers) them instead of being killed by the OS when running out of memory.
+ * <p>Budgets can be configured for each type of memory (direct, mmap and heap), and for the size of the immutable
+ * segments loaded for each table. The table budget can be overridden in the table custom configs with the same key.
+ * <p>When over budget, the segment load admission waits (re-checking periodically) for up to the configured admission
+ * wait time for the memory to be released (e.g. segments being dropped), then throws
+ * {@link MemoryBudgetExceededException}, which fails the Helix state transition. The consuming segment admission has
+ * its own (longer by default) wait time, because a failed transition puts the CONSUMING segment into ERROR state. The
+ * wait is always bounded: the admission blocks a Helix state transition thread, and the memory is only released by
+ * other state transitions (segments being dropped or committed), which could not run if all the threads were waiting.
+ * <p>The heap usage is measured after the last garbage collection of each heap memory pool, so that the garbage not
+ * collected yet does not count against the budget.
+ * <p>The memory pressure (max ratio of usage over budget) is exposed as a signal to the query scheduler and metrics.
+ */
+public class MemoryGovernor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MemoryGovernor.class);
+
+  // Keys of the budgets, a value of <= 0 indicates unlimited
+  public static final String DIRECT_MEMORY_BUDGET_BYTES_KEY = "memory.budget.direct.bytes";
+  public static final String MMAP_MEMORY_BUDGET_BYTES_KEY = "memory.budget.mmap.bytes";
+  // Ratio of the max heap size
+  public static final String HEAP_MEMORY_BUDGET_RATIO_KEY = "memory.budget.heap.ratio";
+  // Size of the immutable segments loaded for each table
+  public static final String TABLE_MEMORY_BUDGET_BYTES_KEY = "memory.budget.table.bytes";
+  // Max time to wait for the memory to be released before rejecting the segment load, 0 (default) to reject right away
+  public static final String ADMISSION_WAIT_MS_KEY = "memory.budget.admission.wait.ms";
+  // Max time to wait for the memory to be released before rejecting the consuming segment, 0 to reject right away
+  public static final String CONSUMING_ADMISSION_WAIT_MS_KEY = "memory.budget.consuming.admission.wait.ms";
+  public static final long DEFAULT_CONSUMING_ADMISSION_WAIT_MS = 60_000L;
+
+  private static final long ADMISSION_CHECK_INTERVAL_MS = 1000L;
+  private static final long ADMISSION_LOG_INTERVAL_MS = 60_000L;
+
+  public enum MemoryType {
+    DIRECT, MMAP, HEAP
+  }
+
+  private static final Map<String, AtomicLong> TABLE_USAGE_MAP = new ConcurrentHashMap<>();
+  private static final AtomicLong REJECTION_COUNT = new AtomicLong();
+
+  private static volatile long _directBudgetBytes;
+  private static volatile long _mmapBudgetBytes;
+  private static volatile double _heapBudgetRatio;
+  private static volatile long _tableBudgetBytes;
+  private static volatile long _admissionWaitMs;
+  private static volatile long _consumingAdmissionWaitMs;
+
+  private MemoryGovernor() {
+  }
+
+  public static synchronized void init(@Nonnull Configuration config) {
+    _directBudgetBytes = config.getLong(DIRECT_MEMORY_BUDGET_BYTES_KEY, 0L);
+    _mmapBudgetBytes = config.getLong(MMAP_MEMORY_BUDGET_BYTES_KEY, 0L);
+    _heapBudgetRatio = config.getDouble(HEAP_MEMORY_BUDGET_RATIO_KEY, 0d);
+    _tableBudgetBytes = config.getLong(TABLE_MEMORY_BUDGET_BYTES_KEY, 0L);
+    _admissionWaitMs = Math.max(config.getLong(ADMISSION_WAIT_MS_KEY, 0L), 0L);
+    _consumingAdmissionWaitMs =
+        Math.max(config.getLong(CONSUMING_ADMISSION_WAIT_MS_KEY, DEFAULT_CONSUMING_ADMISSION_WAIT_MS), 0L);
+    LOGGER.info(
+        "Initialized memory governor with direct budget: {}, mmap budget: {}, heap budget ratio: {}, table budget: {}, "
+            + "admission wait: {}ms, consuming admission wait: {}ms", _directBudgetBytes, _mmapBudgetBytes,
+        _heapBudgetRatio, _tableBudgetBytes, _admissionWaitMs, _consumingAdmissionWaitMs);
+  }
+
+  public static long getUsage(@Nonnull MemoryType memoryType) {
+    switch (memoryType) {
+      case DIRECT:
+        return PinotDataBuffer.getDirectBufferUsage();
+      case MMAP:
+        return PinotDataBuffer.getMmapBufferUsage();
+      case HEAP:
+        return getPostGcHeapUsage();
+      default:
+        throw new IllegalStateException("Unsupported memory type: " + memoryType);
+    }
+  }
+
+  /**
+   * Returns the heap usage after the last garbage collection of each heap memory pool (current usage for the pools not
+   * supporting the collection usage).
+   */
+  private static long getPostGcHeapUsage() {
+    long heapUsage = 0L;
+    for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (memoryPool.getType() == java.lang.management.MemoryType.HEAP) {
+        MemoryUsage collectionUsage = memoryPool.getCollectionUsage();
+        heapUsage += collectionUsage != null ? collectionUsage.getUsed() : memoryPool.getUsage().getUsed();
+      }
+    }
+    return heapUsage;
+  }
+
+  /**
+   * Returns the budget for the given type of memory, or 0 if unlimited.
+   */
+  public static long getBudget(@Nonnull MemoryType memoryType) {
+    switch (memoryType) {
+      case DIRECT:
+        return Math.max(_directBudgetBytes, 0L);
+      case MMAP:
+        return Math.max(_mmapBudgetBytes, 0L);
+      case HEAP:
+        return _heapBudgetRatio > 0 ? (long) (Runtime.getRuntime().maxMemory() * _heapBudgetRatio) : 0L;
+      default:
+        throw new IllegalStateException("Unsupported memory type: " + memoryType);
+    }
+  }
+
+  /**
+   * Returns the memory pressure, which is the max ratio of usage over budget among the types of memory with a budget
+   * (0 if no budget configured). A value >= 1 means the server is over budget.
+   */
+  public static double getMemoryPressure() {
+    double memoryPressure = 0d;
+    for (MemoryType memoryType : MemoryType.values()) {
+      long budget = getBudget(memoryType);
+      if (budget > 0) {
+        memoryPressure = Math.max(memoryPressure, (double) getUsage(memoryType) / budget);
+      }
+    }
+    return memoryPressure;
+  }
+
+  public static long getRejectionCount() {
+    return REJECTION_COUNT.get();
+  }
+
+  /**
+   * Returns the size of the immutable segments loaded for the given table.
+   */
+  public static long getTableUsage(@Nonnull String tableNameWithType) {
+    AtomicLong tableUsage = TABLE_USAGE_MAP.get(tableNameWithType);
+    return tableUsage != null ? tableUsage.get() : 0L;
+  }
+
+  /**
+   * Adds the size of an immutable segment loaded for the given table (negative value for a segment removed).
+   */
+  public static void addTableUsage(@Nonnull String tableNameWithType, long segmentSizeBytes) {
+    TABLE_USAGE_MAP.computeIfAbsent(tableNameWithType, k -> new AtomicLong()).addAndGet(segmentSizeBytes);
+  }
+
+  /**
+   * Admits loading the segment from the given index directory, waits for the memory to be released if over budget.
+   */
+  public static void admitSegmentLoad(@Nonnull String tableNameWithType, @Nonnull TableConfig tableConfig,
+      @Nonnull File indexDir, @Nonnull ReadMode readMode)
+      throws MemoryBudgetExceededException {
+    long segmentSizeBytes = indexDir.exists() ? FileUtils.sizeOfDirectory(indexDir) : 0L;
+    // Heap read mode loads the segment into direct buffers
+    MemoryType memoryType = readMode == ReadMode.heap ? MemoryType.DIRECT : MemoryType.MMAP;
+    long tableBudget = getTableBudget(tableConfig);
+    waitForAdmission("loading segment: " + indexDir.getName() + " of table: " + tableNameWithType, _admissionWaitMs,
+        () -> {
+          if (!isWithinBudget(memoryType, segmentSizeBytes)) {
+            return false;
+          }
+          return tableBudget <= 0 || getTableUsage(tableNameWithType) + segmentSizeBytes <= tableBudget;
+        });
+  }
+
+  /**
+   * Admits a new consuming segment which allocates the given type of memory, waits for the memory to be released if
+   * over budget.
+   */
+  public static void admitConsumingSegment(@Nonnull String tableNameWithType, @Nonnull String segmentName,
+      @Nonnull MemoryType memoryType)
+      throws MemoryBudgetExceededException {
+    waitForAdmission("consuming segment: " + segmentName + " of table: " + tableNameWithType,
+        _consumingAdmissionWaitMs, () -> isWithinBudget(memoryType, 0L));
+  }
+
+  private static long getTableBudget(TableConfig tableConfig) {
+    TableCustomConfig customConfig = tableConfig.getCustomConfig();
+    if (customConfig != null && customConfig.getCustomConfigs() != null) {
+      String tableBudget = customConfig.getCustomConfigs().get(TABLE_MEMORY_BUDGET_BYTES_KEY);
+      if (tableBudget != null) {
+        return Long.parseLong(tableBudget);
+      }
+    }
+    return _tableBudgetBytes;
+  }
+
+  private static boolean isWithinBudget(MemoryType memoryType, long numBytesToAllocate) {
+    long budget = getBudget(memoryType);
+    return budget <= 0 || getUsage(memoryType) + numBytesToAllocate <= budget;
+  }
+
+  /**
+   * Waits for the admission check to pass for up to the given wait time, then throws
+   * {@link MemoryBudgetExceededException}.
+   */
+  private static void waitForAdmission(String description, long maxWaitMs, BooleanSupplier admissionCheck)
+      throws MemoryBudgetExceededException {
+    long startTimeMs = System.currentTimeMillis();
+    long nextLogTimeMs = startTimeMs;
+    while (!admissionCheck.getAsBoolean()) {
+      long currentTimeMs = System.currentTimeMillis();
+      long remainingMs = startTimeMs + maxWaitMs - currentTimeMs;
+      if (remainingMs <= 0) {
+        REJECTION_COUNT.incrementAndGet();
+        throw new MemoryBudgetExceededException(
+            "Memory budget exceeded, rejecting " + description + " (memory pressure: " + getMemoryPressure() + ")");
+      }
+      if (currentTimeMs >= nextLogTimeMs) {
+        LOGGER.info("Memory budget exceeded, deferring {} (memory pressure: {}, waited: {}ms)", description,
+            getMemoryPressure(), currentTimeMs - startTimeMs);
+        nextLogTimeMs = currentTimeMs + ADMISSION_LOG_INTERVAL_MS;
+      }
+      try {
+        Thread.sleep(Math.min(remainingMs, ADMISSION_CHECK_INTERVAL_MS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new MemoryBudgetExceededException("Interrupted while deferring " + description);
+      }
+    }
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.core.data.manager.config.TableDataManagerConfig;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
 import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.core.segment.index.readers.SharedDictionaryValuePool;
 
 
 /**
@@ -134,4 +135,11 @@ public interface TableDataManager {
    */
   @Nonnull
   String getTableName();
+
+  /**
+   * Returns the pool of the dictionary values shared across the segments of the table, which should be set into the
+   * {@link IndexLoadingConfig} when loading the segments.
+   */
+  @Nonnull
+  SharedDictionaryValuePool getSharedDictionaryValuePool();
 }
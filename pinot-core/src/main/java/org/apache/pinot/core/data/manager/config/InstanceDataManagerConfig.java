@@ -50,4 +50,12 @@ public interface InstanceDataManagerConfig {
   boolean isDirectRealtimeOffheapAllocation();
 
   int getMaxParallelSegmentBuilds();
+
+  String getSegmentWarmUpMode();
+
+  String[] getSegmentWarmUpIndexTypes();
+
+  int getSegmentWarmUpThreads();
+
+  long getSegmentWarmUpMaxBytesPerSecond();
 }
@@ -28,9 +28,19 @@ import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
 public class ImmutableSegmentDataManager extends SegmentDataManager {
 
   private final ImmutableSegment _immutableSegment;
+  private final long _segmentSizeBytes;
 
   public ImmutableSegmentDataManager(ImmutableSegment immutableSegment) {
+    this(immutableSegment, 0L);
+  }
+
+  /**
+   * @param immutableSegment Immutable segment
+   * @param segmentSizeBytes Size of the segment accounted into the table memory usage
+   */
+  public ImmutableSegmentDataManager(ImmutableSegment immutableSegment, long segmentSizeBytes) {
     _immutableSegment = immutableSegment;
+    _segmentSizeBytes = segmentSizeBytes;
   }
 
   @Override
@@ -43,6 +53,10 @@ public class ImmutableSegmentDataManager extends SegmentDataManager {
     return _immutableSegment;
   }
 
+  public long getSegmentSizeBytes() {
+    return _segmentSizeBytes;
+  }
+
   @Override
   public void destroy() {
     _immutableSegment.destroy();
@@ -21,7 +21,6 @@ package org.apache.pinot.core.data.manager.realtime;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.Uninterruptibles;
-import com.yammer.metrics.core.Meter;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -52,6 +51,7 @@ import org.apache.pinot.common.utils.LLCSegmentName;
 import org.apache.pinot.common.utils.NetUtil;
 import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.GenericRowBatch;
 import org.apache.pinot.core.data.recordtransformer.CompoundTransformer;
 import org.apache.pinot.core.data.recordtransformer.RecordTransformer;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
@@ -231,6 +231,11 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
   final String _clientId;
   private final LLCSegmentName _segmentName;
   private final RecordTransformer _recordTransformer;
+  // Only set when pipelined consumption is enabled
+  private final PipelinedMessageProcessor _pipelinedMessageProcessor;
+  // Reusable row batches for the decoded messages and the rows to be indexed
+  private final GenericRowBatch _decodedRowBatch = new GenericRowBatch();
+  private final GenericRowBatch _indexingRowBatch = new GenericRowBatch();
   private PartitionLevelConsumer _partitionLevelConsumer = null;
   private StreamMetadataProvider _streamMetadataProvider = null;
   private final File _resourceTmpDir;
@@ -344,21 +349,38 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     final long idlePipeSleepTimeMillis = 100;
     final long maxIdleCountBeforeStatUpdate = (3 * 60 * 1000) / (idlePipeSleepTimeMillis + _partitionLevelStreamConfig
         .getFetchTimeoutMillis());  // 3 minute count
-    long lastUpdatedOffset = _currentOffset;  // so that we always update the metric when we enter this method.
-    long idleCount = 0;
     // At this point, we know that we can potentially move the offset, so the old saved segment file is not valid
     // anymore. Remove the file if it exists.
     removeSegmentFile();
 
     final long _endOffset = Long.MAX_VALUE; // No upper limit on stream offset
     segmentLogger.info("Starting consumption loop start offset {}, finalOffset {}", _currentOffset, _finalOffset);
+    try {
+      consumeMessages(_endOffset, idlePipeSleepTimeMillis, maxIdleCountBeforeStatUpdate);
+    } finally {
+      if (_pipelinedMessageProcessor != null) {
+        // Make sure the stream consumer is not accessed in the background after we exit the consumption loop
+        _pipelinedMessageProcessor.discardPrefetchedBatch();
+      }
+    }
+
+    if (_numRowsErrored > 0) {
+      _serverMetrics.addMeteredTableValue(_metricKeyName, ServerMeter.ROWS_WITH_ERRORS, _numRowsErrored);
+      _serverMetrics.addMeteredTableValue(_tableStreamName, ServerMeter.ROWS_WITH_ERRORS, _numRowsErrored);
+    }
+    return true;
+  }
+
+  private void consumeMessages(long endOffset, long idlePipeSleepTimeMillis, long maxIdleCountBeforeStatUpdate)
+      throws Exception {
+    long lastUpdatedOffset = _currentOffset;  // so that we always update the metric when we enter this method.
+    long idleCount = 0;
     while (!_shouldStop && !endCriteriaReached()) {
       // Consume for the next readTime ms, or we get to final offset, whichever happens earlier,
       // Update _currentOffset upon return from this method
       MessageBatch messageBatch;
       try {
-        messageBatch = _partitionLevelConsumer
-            .fetchMessages(_currentOffset, _endOffset, _partitionLevelStreamConfig.getFetchTimeoutMillis());
+        messageBatch = fetchMessages(endOffset);
         consecutiveErrorCount = 0;
       } catch (TimeoutException e) {
         handleTransientStreamErrors(e);
@@ -376,6 +398,13 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
         continue;
       }
 
+      if (_pipelinedMessageProcessor != null && messageBatch.getMessageCount() > 0) {
+        // Fetch the next batch while indexing the current one
+        _pipelinedMessageProcessor.prefetch(_partitionLevelConsumer,
+            messageBatch.getNextStreamMessageOffsetAtIndex(messageBatch.getMessageCount() - 1), endOffset,
+            _partitionLevelStreamConfig.getFetchTimeoutMillis());
+      }
+
       processStreamEvents(messageBatch, idlePipeSleepTimeMillis);
 
       if (_currentOffset != lastUpdatedOffset) {
@@ -394,22 +423,47 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
         }
       }
     }
+  }
 
-    if (_numRowsErrored > 0) {
-      _serverMetrics.addMeteredTableValue(_metricKeyName, ServerMeter.ROWS_WITH_ERRORS, _numRowsErrored);
-      _serverMetrics.addMeteredTableValue(_tableStreamName, ServerMeter.ROWS_WITH_ERRORS, _numRowsErrored);
+  /**
+   * Fetches the next batch of messages from the current offset. When pipelined consumption is enabled, returns the
+   * prefetched batch if it starts from the current offset.
+   */
+  private MessageBatch fetchMessages(long endOffset)
+      throws Exception {
+    if (_pipelinedMessageProcessor != null) {
+      MessageBatch prefetchedBatch = _pipelinedMessageProcessor.getPrefetchedBatch(_currentOffset);
+      if (prefetchedBatch != null) {
+        return prefetchedBatch;
+      }
     }
-    return true;
+    return _partitionLevelConsumer
+        .fetchMessages(_currentOffset, endOffset, _partitionLevelStreamConfig.getFetchTimeoutMillis());
   }
 
   private void processStreamEvents(MessageBatch messagesAndOffsets, long idlePipeSleepTimeMillis) {
-    Meter realtimeRowsConsumedMeter = null;
-    Meter realtimeRowsDroppedMeter = null;
+    if (_pipelinedMessageProcessor != null && messagesAndOffsets.getMessageCount() > 0) {
+      _pipelinedMessageProcessor.startBatch(messagesAndOffsets);
+      try {
+        processStreamEventsInternal(messagesAndOffsets, idlePipeSleepTimeMillis);
+      } finally {
+        _pipelinedMessageProcessor.finishBatch();
+      }
+    } else {
+      processStreamEventsInternal(messagesAndOffsets, idlePipeSleepTimeMillis);
+    }
+  }
 
+  private void processStreamEventsInternal(MessageBatch messagesAndOffsets, long idlePipeSleepTimeMillis) {
     int indexedMessageCount = 0;
+    int droppedMessageCount = 0;
     int streamMessageCount = 0;
     boolean canTakeMore = true;
-    GenericRow decodedRow = null;
+
+    if (_pipelinedMessageProcessor == null) {
+      // Decode the whole batch at once so that the decoder can amortize the per-message overhead
+      _messageDecoder.decodeBatch(messagesAndOffsets, _decodedRowBatch);
+    }
 
     for (int index = 0; index < messagesAndOffsets.getMessageCount(); index++) {
       if (_shouldStop || endCriteriaReached()) {
@@ -436,46 +490,55 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
         throw new RuntimeException("Realtime segment full");
       }
 
-      // Index each message
-      decodedRow = GenericRow.createOrReuseRow(decodedRow);
       // retrieve metadata from the message batch if available
       // this can be overridden by the decoder if there is a better indicator in the message payload
       RowMetadata msgMetadata = messagesAndOffsets.getMetadataAtIndex(index);
 
-      decodedRow = _messageDecoder
-          .decode(messagesAndOffsets.getMessageAtIndex(index), messagesAndOffsets.getMessageOffsetAtIndex(index),
-              messagesAndOffsets.getMessageLengthAtIndex(index), decodedRow);
-
-      if (decodedRow != null) {
-        try {
-          GenericRow transformedRow = _recordTransformer.transform(decodedRow);
-
-          if (transformedRow != null) {
-            realtimeRowsConsumedMeter = _serverMetrics
-                .addMeteredTableValue(_metricKeyName, ServerMeter.REALTIME_ROWS_CONSUMED, 1, realtimeRowsConsumedMeter);
-            indexedMessageCount++;
-          } else {
-            realtimeRowsDroppedMeter = _serverMetrics
-                .addMeteredTableValue(_metricKeyName, ServerMeter.INVALID_REALTIME_ROWS_DROPPED, 1,
-                    realtimeRowsDroppedMeter);
+      GenericRow transformedRow = null;
+      boolean errored = false;
+      if (_pipelinedMessageProcessor != null) {
+        // The messages are decoded and transformed in parallel, index the rows in offset order
+        transformedRow = _pipelinedMessageProcessor.getRow(index);
+        errored = _pipelinedMessageProcessor.isErrored(index);
+      } else {
+        GenericRow decodedRow = _decodedRowBatch.getRow(index);
+        if (decodedRow != null) {
+          try {
+            transformedRow = _recordTransformer.transform(decodedRow);
+          } catch (Exception e) {
+            segmentLogger.error("Caught exception while transforming the record: {}", decodedRow, e);
+            errored = true;
           }
+        }
+      }
 
-          canTakeMore = _realtimeSegment.index(transformedRow, msgMetadata);
-        } catch (Exception e) {
-          segmentLogger.error("Caught exception while transforming the record: {}", decodedRow, e);
-          _numRowsErrored++;
+      if (transformedRow != null) {
+        indexedMessageCount++;
+        _indexingRowBatch.addRow(transformedRow, msgMetadata);
+        // Index the pending rows before the row limit can be reached so that the end criteria stays accurate. Also
+        // index the first rows of the segment right away so that the time limit is not extended for an empty segment
+        if (_numRowsIndexed == 0 || _numRowsIndexed + _indexingRowBatch.getNumRows() >= _segmentMaxRowCount) {
+          canTakeMore = indexPendingRows();
         }
+      } else if (errored) {
+        _numRowsErrored++;
       } else {
-        realtimeRowsDroppedMeter = _serverMetrics
-            .addMeteredTableValue(_metricKeyName, ServerMeter.INVALID_REALTIME_ROWS_DROPPED, 1,
-                realtimeRowsDroppedMeter);
+        droppedMessageCount++;
       }
 
       _currentOffset = messagesAndOffsets.getNextStreamMessageOffsetAtIndex(index);
-      _numRowsIndexed = _realtimeSegment.getNumDocsIndexed();
       _numRowsConsumed++;
       streamMessageCount++;
     }
+    indexPendingRows();
+
+    if (indexedMessageCount > 0) {
+      _serverMetrics.addMeteredTableValue(_metricKeyName, ServerMeter.REALTIME_ROWS_CONSUMED, indexedMessageCount);
+    }
+    if (droppedMessageCount > 0) {
+      _serverMetrics
+          .addMeteredTableValue(_metricKeyName, ServerMeter.INVALID_REALTIME_ROWS_DROPPED, droppedMessageCount);
+    }
     updateCurrentDocumentCountMetrics();
     if (streamMessageCount != 0) {
       segmentLogger.debug("Indexed {} messages ({} messages read from stream) current offset {}", indexedMessageCount,
@@ -486,6 +549,24 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     }
   }
 
+  /**
+   * Indexes the pending rows in one batch into the mutable segment.
+   *
+   * @return Whether the mutable segment can index more rows
+   */
+  private boolean indexPendingRows() {
+    if (_indexingRowBatch.getNumRows() == 0) {
+      return true;
+    }
+    try {
+      return _realtimeSegment.index(_indexingRowBatch);
+    } finally {
+      _numRowsErrored += _indexingRowBatch.getNumErroredRows();
+      _numRowsIndexed = _realtimeSegment.getNumDocsIndexed();
+      _indexingRowBatch.clear();
+    }
+  }
+
   public class PartitionConsumer implements Runnable {
     public void run() {
       long initialConsumptionEnd = 0L;
@@ -983,6 +1064,9 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
     } catch (InterruptedException e) {
       segmentLogger.error("Could not stop consumer thread");
     }
+    if (_pipelinedMessageProcessor != null) {
+      _pipelinedMessageProcessor.shutDown();
+    }
     _realtimeSegment.destroy();
     try {
       _partitionLevelConsumer.close();
@@ -1117,6 +1201,15 @@ public class LLRealtimeSegmentDataManager extends RealtimeSegmentDataManager {
 
     // Create record transformer
     _recordTransformer = CompoundTransformer.getDefaultTransformer(schema);
+
+    if (_partitionLevelStreamConfig.isPipelinedConsumptionEnabled()) {
+      segmentLogger.info("Enabling pipelined consumption with {} decode tasks per batch",
+          _partitionLevelStreamConfig.getNumPipelinedDecodeTasks());
+      _pipelinedMessageProcessor =
+          new PipelinedMessageProcessor(_partitionLevelStreamConfig, schema, _segmentNameStr, segmentLogger);
+    } else {
+      _pipelinedMessageProcessor = null;
+    }
     makeStreamConsumer("Starting");
     makeStreamMetadataProvider("Starting");
 
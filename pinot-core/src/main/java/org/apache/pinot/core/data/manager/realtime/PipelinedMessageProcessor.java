@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager.realtime;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.recordtransformer.CompoundTransformer;
+import org.apache.pinot.core.data.recordtransformer.RecordTransformer;
+import org.apache.pinot.core.realtime.stream.MessageBatch;
+import org.apache.pinot.core.realtime.stream.PartitionLevelConsumer;
+import org.apache.pinot.core.realtime.stream.PartitionLevelStreamConfig;
+import org.apache.pinot.core.realtime.stream.StreamDecoderProvider;
+import org.apache.pinot.core.realtime.stream.StreamMessageDecoder;
+import org.slf4j.Logger;
+
+
+/**
+ * The <code>PipelinedMessageProcessor</code> class supports the pipelined consumption mode of the
+ * {@link LLRealtimeSegmentDataManager}:
+ * <ul>
+ *   <li>
+ *     The next {@link MessageBatch} is prefetched on a dedicated thread while the current batch is being indexed.
+ *   </li>
+ *   <li>
+ *     The messages of a batch are split into chunks, which are decoded and transformed on a worker pool shared by all
+ *     the consuming segments on the server. The pool has a bounded queue, and the consumer thread processes the chunk
+ *     itself when the queue is full.
+ *   </li>
+ * </ul>
+ * <p>Each chunk has its own {@link StreamMessageDecoder} and {@link RecordTransformer} because they are not
+ * thread-safe. The decoded rows are returned in offset order, so that the caller can keep indexing them from a single
+ * thread while the later chunks are still being decoded.
+ * <p>This class should only be accessed by the consumer thread.
+ */
+public class PipelinedMessageProcessor {
+  private static final int NUM_DECODE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  private static final int DECODE_QUEUE_SIZE = NUM_DECODE_THREADS * 8;
+  private static final ExecutorService DECODE_EXECUTOR_SERVICE =
+      new ThreadPoolExecutor(NUM_DECODE_THREADS, NUM_DECODE_THREADS, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(DECODE_QUEUE_SIZE),
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("realtime-decode-%d").build(),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+
+  private final StreamMessageDecoder[] _messageDecoders;
+  private final RecordTransformer[] _recordTransformers;
+  private final Future[] _chunkFutures;
+  private final ExecutorService _prefetchExecutorService;
+  private final Logger _logger;
+
+  // Prefetched message batch
+  private Future<MessageBatch> _prefetchFuture;
+  private long _prefetchStartOffset;
+
+  // Decoded rows of the current message batch
+  private MessageBatch _messageBatch;
+  private int _numMessages;
+  private int _numMessagesPerChunk;
+  private int _numChunksCompleted;
+  private GenericRow[] _rows = new GenericRow[0];
+  private boolean[] _errored = new boolean[0];
+
+  public PipelinedMessageProcessor(PartitionLevelStreamConfig streamConfig, Schema schema, String segmentName,
+      Logger logger) {
+    int numDecodeTasks = streamConfig.getNumPipelinedDecodeTasks();
+    _messageDecoders = new StreamMessageDecoder[numDecodeTasks];
+    _recordTransformers = new RecordTransformer[numDecodeTasks];
+    for (int i = 0; i < numDecodeTasks; i++) {
+      _messageDecoders[i] = StreamDecoderProvider.create(streamConfig, schema);
+      _recordTransformers[i] = CompoundTransformer.getDefaultTransformer(schema);
+    }
+    _chunkFutures = new Future[numDecodeTasks];
+    _prefetchExecutorService = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat(segmentName + "-prefetch").build());
+    _logger = logger;
+  }
+
+  /**
+   * Starts fetching the message batch from the given offset in the background.
+   * <p>NOTE: the consumer should not be accessed by the caller until the prefetched batch is retrieved or discarded.
+   */
+  public void prefetch(final PartitionLevelConsumer consumer, final long startOffset, final long endOffset,
+      final int timeoutMillis) {
+    _prefetchStartOffset = startOffset;
+    _prefetchFuture = _prefetchExecutorService.submit(new Callable<MessageBatch>() {
+      @Override
+      public MessageBatch call()
+          throws Exception {
+        return consumer.fetchMessages(startOffset, endOffset, timeoutMillis);
+      }
+    });
+  }
+
+  /**
+   * Returns the prefetched message batch if it starts from the given offset, or {@code null} if there is no such batch
+   * (nothing prefetched, or the previous batch was not fully consumed). Waits for the prefetch to finish if necessary.
+   * <p>Exceptions thrown while prefetching are re-thrown so that they can be handled the same way as a regular fetch.
+   */
+  public MessageBatch getPrefetchedBatch(long startOffset)
+      throws Exception {
+    if (_prefetchFuture == null) {
+      return null;
+    }
+    Future<MessageBatch> prefetchFuture = _prefetchFuture;
+    _prefetchFuture = null;
+    try {
+      MessageBatch messageBatch = Uninterruptibles.getUninterruptibly(prefetchFuture);
+      return _prefetchStartOffset == startOffset ? messageBatch : null;
+    } catch (ExecutionException e) {
+      if (_prefetchStartOffset != startOffset) {
+        return null;
+      }
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Discards the prefetched message batch if any. Waits for the prefetch to finish so that the consumer is no longer
+   * accessed in the background.
+   */
+  public void discardPrefetchedBatch() {
+    if (_prefetchFuture != null) {
+      try {
+        Uninterruptibles.getUninterruptibly(_prefetchFuture);
+      } catch (ExecutionException e) {
+        _logger.debug("Discarding failed prefetch from offset {}", _prefetchStartOffset, e);
+      }
+      _prefetchFuture = null;
+    }
+  }
+
+  /**
+   * Starts decoding and transforming the messages of the given batch on the shared worker pool.
+   * <p>{@link #finishBatch()} must be called before starting the next batch.
+   */
+  public void startBatch(final MessageBatch messageBatch) {
+    _messageBatch = messageBatch;
+    int numMessages = messageBatch.getMessageCount();
+    _numMessages = numMessages;
+    if (_rows.length < numMessages) {
+      _rows = new GenericRow[numMessages];
+      _errored = new boolean[numMessages];
+    }
+    int numChunks = _chunkFutures.length;
+    _numMessagesPerChunk = (numMessages + numChunks - 1) / numChunks;
+    _numChunksCompleted = 0;
+    for (int i = 0; i < numChunks; i++) {
+      final int chunkId = i;
+      final int startIndex = Math.min(i * _numMessagesPerChunk, numMessages);
+      final int endIndex = Math.min(startIndex + _numMessagesPerChunk, numMessages);
+      _chunkFutures[i] = DECODE_EXECUTOR_SERVICE.submit(new Runnable() {
+        @Override
+        public void run() {
+          processChunk(chunkId, startIndex, endIndex);
+        }
+      });
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void processChunk(int chunkId, int startIndex, int endIndex) {
+    StreamMessageDecoder messageDecoder = _messageDecoders[chunkId];
+    RecordTransformer recordTransformer = _recordTransformers[chunkId];
+    for (int i = startIndex; i < endIndex; i++) {
+      GenericRow decodedRow = null;
+      try {
+        decodedRow = messageDecoder
+            .decode(_messageBatch.getMessageAtIndex(i), _messageBatch.getMessageOffsetAtIndex(i),
+                _messageBatch.getMessageLengthAtIndex(i), new GenericRow());
+        _rows[i] = decodedRow != null ? recordTransformer.transform(decodedRow) : null;
+        _errored[i] = false;
+      } catch (Exception e) {
+        _logger.error("Caught exception while decoding and transforming the record: {}", decodedRow, e);
+        _rows[i] = null;
+        _errored[i] = true;
+      }
+    }
+  }
+
+  /**
+   * Returns the decoded and transformed row for the message at the given index of the current batch, or {@code null}
+   * if the message should be dropped. Waits for the chunk containing the message to be processed if necessary.
+   * <p>Messages must be accessed in index order.
+   */
+  public GenericRow getRow(int index) {
+    int chunkId = index / _numMessagesPerChunk;
+    while (_numChunksCompleted <= chunkId) {
+      waitForChunk(_numChunksCompleted++);
+    }
+    return _rows[index];
+  }
+
+  /**
+   * Returns whether an exception was thrown while decoding or transforming the message at the given index. Should be
+   * called after {@link #getRow(int)}.
+   */
+  public boolean isErrored(int index) {
+    return _errored[index];
+  }
+
+  /**
+   * Finishes the current batch. Waits for all the chunks to be processed so that the decoders and transformers can be
+   * reused for the next batch.
+   */
+  public void finishBatch() {
+    while (_numChunksCompleted < _chunkFutures.length) {
+      waitForChunk(_numChunksCompleted++);
+    }
+    _messageBatch = null;
+    for (int i = 0; i < _numMessages; i++) {
+      _rows[i] = null;
+    }
+  }
+
+  private void waitForChunk(int chunkId) {
+    try {
+      Uninterruptibles.getUninterruptibly(_chunkFutures[chunkId]);
+    } catch (ExecutionException e) {
+      // Should not happen because all exceptions are caught while processing the chunk
+      throw new RuntimeException("Caught exception while processing the messages", e.getCause());
+    } finally {
+      _chunkFutures[chunkId] = null;
+    }
+  }
+
+  public void shutDown() {
+    discardPrefetchedBatch();
+    _prefetchExecutorService.shutdownNow();
+  }
+}
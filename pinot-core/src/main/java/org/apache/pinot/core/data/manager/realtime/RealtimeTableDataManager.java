@@ -47,6 +47,8 @@ import org.apache.pinot.common.utils.NamedThreadFactory;
 import org.apache.pinot.common.utils.SegmentName;
 import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.core.data.manager.BaseTableDataManager;
+import org.apache.pinot.core.data.manager.MemoryBudgetExceededException;
+import org.apache.pinot.core.data.manager.MemoryGovernor;
 import org.apache.pinot.core.data.manager.SegmentDataManager;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
@@ -223,8 +225,9 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
         return;
       }
 
+      MemoryGovernor.admitSegmentLoad(_tableNameWithType, tableConfig, indexDir, indexLoadingConfig.getReadMode());
       ImmutableSegment segment = ImmutableSegmentLoader.load(indexDir, indexLoadingConfig);
-      addSegment(segment);
+      addSegment(segment, indexLoadingConfig);
     } else {
       // Either we don't have the segment on disk or we have not committed in ZK. We should be starting the consumer
       // for realtime segment here. If we wrote it on disk but could not get to commit to zk yet, we should replace the
@@ -249,6 +252,7 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
 
       SegmentDataManager manager;
       if (SegmentName.isHighLevelConsumerSegmentName(segmentName)) {
+        admitConsumingSegment(segmentName, indexLoadingConfig);
         manager = new HLRealtimeSegmentDataManager(realtimeSegmentZKMetadata, tableConfig, instanceZKMetadata, this,
             _indexDir.getAbsolutePath(), indexLoadingConfig, schema, _serverMetrics);
       } else {
@@ -258,6 +262,7 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
           downloadAndReplaceSegment(segmentName, llcSegmentMetadata, indexLoadingConfig);
           return;
         }
+        admitConsumingSegment(segmentName, indexLoadingConfig);
         manager = new LLRealtimeSegmentDataManager(realtimeSegmentZKMetadata, tableConfig, instanceZKMetadata, this,
             _indexDir.getAbsolutePath(), indexLoadingConfig, schema, _serverMetrics);
       }
@@ -266,6 +271,25 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
     }
   }
 
+  /**
+   * Checks the budget of the memory allocated by the consuming segment, waits for the memory to be released if over
+   * budget.
+   * <p>NOTE: the admission is deferred for up to the consuming admission wait time before being rejected, so that the
+   * CONSUMING transition does not end up in ERROR state when the server is only briefly over budget.
+   */
+  private void admitConsumingSegment(@Nonnull String segmentName, @Nonnull IndexLoadingConfig indexLoadingConfig)
+      throws MemoryBudgetExceededException {
+    MemoryGovernor.MemoryType memoryType;
+    if (!indexLoadingConfig.isRealtimeOffheapAllocation()) {
+      memoryType = MemoryGovernor.MemoryType.HEAP;
+    } else if (indexLoadingConfig.isDirectRealtimeOffheapAllocation()) {
+      memoryType = MemoryGovernor.MemoryType.DIRECT;
+    } else {
+      memoryType = MemoryGovernor.MemoryType.MMAP;
+    }
+    MemoryGovernor.admitConsumingSegment(_tableNameWithType, segmentName, memoryType);
+  }
+
   public void downloadAndReplaceSegment(@Nonnull String segmentName,
       @Nonnull LLCRealtimeSegmentZKMetadata llcSegmentMetadata, @Nonnull IndexLoadingConfig indexLoadingConfig) {
     final String uri = llcSegmentMetadata.getDownloadUrl();
@@ -293,8 +317,15 @@ public class RealtimeTableDataManager extends BaseTableDataManager {
   // Replace a committed segment.
   public void replaceLLSegment(@Nonnull String segmentName, @Nonnull IndexLoadingConfig indexLoadingConfig) {
     try {
-      ImmutableSegment indexSegment = ImmutableSegmentLoader.load(new File(_indexDir, segmentName), indexLoadingConfig);
-      addSegment(indexSegment);
+      File indexDir = new File(_indexDir, segmentName);
+      // NOTE: replacing a consuming segment is always admitted, because it releases the memory of the consuming segment
+      if (!_segmentDataManagerMap.containsKey(segmentName)) {
+        TableConfig tableConfig = ZKMetadataProvider.getTableConfig(_propertyStore, _tableNameWithType);
+        Preconditions.checkNotNull(tableConfig);
+        MemoryGovernor.admitSegmentLoad(_tableNameWithType, tableConfig, indexDir, indexLoadingConfig.getReadMode());
+      }
+      ImmutableSegment indexSegment = ImmutableSegmentLoader.load(indexDir, indexLoadingConfig);
+      addSegment(indexSegment, indexLoadingConfig);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -52,6 +52,7 @@ import org.apache.pinot.core.data.readers.CSVRecordReaderConfig;
 import org.apache.pinot.core.data.readers.FileFormat;
 import org.apache.pinot.core.data.readers.RecordReaderConfig;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.compression.ZstandardCompressor;
 import org.apache.pinot.core.segment.name.FixedSegmentNameGenerator;
 import org.apache.pinot.core.segment.name.SegmentNameGenerator;
 import org.apache.pinot.core.segment.name.SimpleSegmentNameGenerator;
@@ -78,7 +79,10 @@ public class SegmentGeneratorConfig {
   private Map<String, String> _customProperties = new HashMap<>();
   private Set<String> _rawIndexCreationColumns = new HashSet<>();
   private Map<String, ChunkCompressorFactory.CompressionType> _rawIndexCompressionType = new HashMap<>();
+  // Compression level for the raw index columns with ZSTANDARD compression
+  private int _zstdCompressionLevel = ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL;
   private List<String> _invertedIndexCreationColumns = new ArrayList<>();
+  private List<String> _rangeIndexCreationColumns = new ArrayList<>();
   private List<String> _columnSortOrder = new ArrayList<>();
   private String _dataDir = null;
   private String _inputFilePath = null;
@@ -111,6 +115,8 @@ public class SegmentGeneratorConfig {
   private String _simpleDateFormat = null;
   // Use on-heap or off-heap memory to generate index (currently only affect inverted index and star-tree v2)
   private boolean _onHeap = false;
+  // Number of threads used to collect stats and create indexes for different columns in parallel (1 means sequential)
+  private int _numThreads = 1;
 
   public SegmentGeneratorConfig() {
   }
@@ -126,7 +132,9 @@ public class SegmentGeneratorConfig {
     _customProperties.putAll(config._customProperties);
     _rawIndexCreationColumns.addAll(config._rawIndexCreationColumns);
     _rawIndexCompressionType.putAll(config._rawIndexCompressionType);
+    _zstdCompressionLevel = config._zstdCompressionLevel;
     _invertedIndexCreationColumns.addAll(config._invertedIndexCreationColumns);
+    _rangeIndexCreationColumns.addAll(config._rangeIndexCreationColumns);
     _columnSortOrder.addAll(config._columnSortOrder);
     _dataDir = config._dataDir;
     _inputFilePath = config._inputFilePath;
@@ -157,6 +165,7 @@ public class SegmentGeneratorConfig {
     _timeColumnType = config._timeColumnType;
     _simpleDateFormat = config._simpleDateFormat;
     _onHeap = config._onHeap;
+    _numThreads = config._numThreads;
     _recordReaderPath = config._recordReaderPath;
   }
 
@@ -187,6 +196,10 @@ public class SegmentGeneratorConfig {
         this.setRawIndexCompressionType(serializedNoDictionaryColumnMap);
       }
     }
+    Integer zstdCompressionLevel = indexingConfig.getZstdCompressionLevel();
+    if (zstdCompressionLevel != null) {
+      setZstdCompressionLevel(zstdCompressionLevel);
+    }
     _segmentPartitionConfig = indexingConfig.getSegmentPartitionConfig();
 
     // Star-tree V1 config
@@ -209,6 +222,11 @@ public class SegmentGeneratorConfig {
       _invertedIndexCreationColumns = indexingConfig.getInvertedIndexColumns();
     }
 
+    List<String> rangeIndexColumns = indexingConfig.getRangeIndexColumns();
+    if (rangeIndexColumns != null) {
+      _rangeIndexCreationColumns.addAll(rangeIndexColumns);
+    }
+
     SegmentsValidationAndRetentionConfig validationConfig = tableConfig.getValidationConfig();
     _hllConfig = validationConfig.getHllConfig();
   }
@@ -257,6 +275,10 @@ public class SegmentGeneratorConfig {
     return _invertedIndexCreationColumns;
   }
 
+  public List<String> getRangeIndexCreationColumns() {
+    return _rangeIndexCreationColumns;
+  }
+
   public List<String> getColumnSortOrder() {
     return _columnSortOrder;
   }
@@ -271,6 +293,11 @@ public class SegmentGeneratorConfig {
     _invertedIndexCreationColumns.addAll(indexCreationColumns);
   }
 
+  public void setRangeIndexCreationColumns(List<String> rangeIndexCreationColumns) {
+    Preconditions.checkNotNull(rangeIndexCreationColumns);
+    _rangeIndexCreationColumns.addAll(rangeIndexCreationColumns);
+  }
+
   public void setColumnSortOrder(List<String> sortOrder) {
     Preconditions.checkNotNull(sortOrder);
     _columnSortOrder.addAll(sortOrder);
@@ -580,6 +607,15 @@ public class SegmentGeneratorConfig {
     _onHeap = onHeap;
   }
 
+  public int getNumThreads() {
+    return _numThreads;
+  }
+
+  public void setNumThreads(int numThreads) {
+    Preconditions.checkArgument(numThreads > 0, "Number of threads must be positive, got: %s", numThreads);
+    _numThreads = numThreads;
+  }
+
   public Map<String, ChunkCompressorFactory.CompressionType> getRawIndexCompressionType() {
     return _rawIndexCompressionType;
   }
@@ -589,6 +625,15 @@ public class SegmentGeneratorConfig {
     _rawIndexCompressionType.putAll(rawIndexCompressionType);
   }
 
+  public int getZstdCompressionLevel() {
+    return _zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(int zstdCompressionLevel) {
+    ZstandardCompressor.validateCompressionLevel(zstdCompressionLevel);
+    _zstdCompressionLevel = zstdCompressionLevel;
+  }
+
   @JsonIgnore
   public String getMetrics() {
     return getQualifyingFields(FieldType.METRIC, true);
@@ -72,6 +72,10 @@ public class ImmutableSegmentImpl implements ImmutableSegment {
     return _indexContainerMap.get(column).getInvertedIndex();
   }
 
+  public SegmentDirectory getSegmentDirectory() {
+    return _segmentDirectory;
+  }
+
   @Override
   public long getSegmentSizeBytes() {
     return _segmentDirectory.getDiskSizeBytes();
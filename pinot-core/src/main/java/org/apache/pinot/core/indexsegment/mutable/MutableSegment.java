@@ -21,6 +21,7 @@ package org.apache.pinot.core.indexsegment.mutable;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.metadata.RowMetadata;
 import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.GenericRowBatch;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 
 
@@ -35,6 +36,17 @@ public interface MutableSegment extends IndexSegment {
    */
    boolean index(GenericRow row, @Nullable RowMetadata rowMetadata);
 
+  /**
+   * Indexes all the records of the batch (with their metadata) into the segment in order. {@code null} records are
+   * skipped. Records that cannot be indexed because of an exception are skipped and recorded as errored rows in the
+   * batch.
+   *
+   * @param rowBatch Batch of records represented as a {@link GenericRowBatch}
+   * @return Whether the segment can index more records after the batch
+   * @throws IllegalStateException If the segment becomes full before all the records of the batch are indexed
+   */
+  boolean index(GenericRowBatch rowBatch);
+
   /**
    * Returns the number of records already indexed into the segment.
    *
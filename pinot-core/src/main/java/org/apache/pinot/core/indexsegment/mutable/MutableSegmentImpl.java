@@ -22,6 +22,7 @@ import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.ints.IntArrays;
 import it.unimi.dsi.fastutil.ints.IntComparator;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -35,6 +36,7 @@ import org.apache.pinot.common.metadata.RowMetadata;
 import org.apache.pinot.common.segment.SegmentMetadata;
 import org.apache.pinot.common.utils.NetUtil;
 import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.GenericRowBatch;
 import org.apache.pinot.core.indexsegment.IndexSegmentUtils;
 import org.apache.pinot.core.io.reader.DataFileReader;
 import org.apache.pinot.core.io.readerwriter.PinotDataBufferMemoryManager;
@@ -215,11 +217,90 @@ public class MutableSegmentImpl implements MutableSegment {
 
   @Override
   public boolean index(GenericRow row, @Nullable RowMetadata rowMetadata) {
+    boolean canTakeMore = indexRow(row, new HashMap<String, Object>());
 
-    boolean canTakeMore;
+    _lastIndexedTimeMs = System.currentTimeMillis();
+
+    if (rowMetadata != null) {
+      _latestIngestionTimeMs = Math.max(_latestIngestionTimeMs, rowMetadata.getIngestionTimeMs());
+    }
+    return canTakeMore;
+  }
+
+  @Override
+  public boolean index(GenericRowBatch rowBatch) {
+    // Collect the rows to index (skip the dropped messages), and update the timestamps once for the whole batch
+    int numRows = rowBatch.getNumRows();
+    GenericRow[] rows = new GenericRow[numRows];
+    int numRowsToIndex = 0;
+    long latestIngestionTimeMs = Long.MIN_VALUE;
+    for (int i = 0; i < numRows; i++) {
+      GenericRow row = rowBatch.getRow(i);
+      if (row == null) {
+        continue;
+      }
+      rows[numRowsToIndex++] = row;
+      RowMetadata rowMetadata = rowBatch.getRowMetadata(i);
+      if (rowMetadata != null) {
+        latestIngestionTimeMs = Math.max(latestIngestionTimeMs, rowMetadata.getIngestionTimeMs());
+      }
+    }
+
+    // Update the dictionaries column by column so that each value is only looked up once in the dictionary
+    Map<String, Object> batchDictIdMap = null;
+    try {
+      batchDictIdMap = updateDictionaries(rows, numRowsToIndex);
+    } catch (Exception e) {
+      // Fall back to updating the dictionaries row by row so that only the bad rows are skipped
+      _logger.warn("Caught exception while updating dictionaries for {} rows, updating them row by row",
+          numRowsToIndex, e);
+    }
+
+    // The dictionary id map is reused across the rows
+    Map<String, Object> dictIdMap = new HashMap<>();
+    boolean canTakeMore = true;
+    for (int i = 0; i < numRowsToIndex; i++) {
+      GenericRow row = rows[i];
+      Preconditions.checkState(canTakeMore, "Segment: %s is full after indexing %s rows", _segmentName,
+          _numDocsIndexed);
+      try {
+        if (batchDictIdMap != null) {
+          for (Map.Entry<String, Object> entry : batchDictIdMap.entrySet()) {
+            Object dictIds = entry.getValue();
+            if (dictIds instanceof int[]) {
+              dictIdMap.put(entry.getKey(), ((int[]) dictIds)[i]);
+            } else {
+              dictIdMap.put(entry.getKey(), ((int[][]) dictIds)[i]);
+            }
+          }
+        } else {
+          updateDictionary(row, dictIdMap);
+        }
+        canTakeMore = indexRowWithDictIds(row, dictIdMap);
+      } catch (Exception e) {
+        _logger.error("Caught exception while indexing the record: {}", row, e);
+        rowBatch.markRowErrored();
+      }
+      dictIdMap.clear();
+    }
+
+    if (numRows > 0) {
+      _lastIndexedTimeMs = System.currentTimeMillis();
+    }
+    if (latestIngestionTimeMs > _latestIngestionTimeMs) {
+      _latestIngestionTimeMs = latestIngestionTimeMs;
+    }
+    return canTakeMore;
+  }
+
+  private boolean indexRow(GenericRow row, Map<String, Object> dictIdMap) {
     // Update dictionary first
-    Map<String, Object> dictIdMap = updateDictionary(row);
+    updateDictionary(row, dictIdMap);
+    return indexRowWithDictIds(row, dictIdMap);
+  }
 
+  private boolean indexRowWithDictIds(GenericRow row, Map<String, Object> dictIdMap) {
+    boolean canTakeMore;
     int numDocs = _numDocsIndexed;
 
     // If metrics aggregation is enabled and if the dimension values were already seen, this will return existing docId,
@@ -240,17 +321,10 @@ public class MutableSegmentImpl implements MutableSegment {
       // Update metrics for existing document.
       canTakeMore = aggregateMetrics(row, docId);
     }
-
-    _lastIndexedTimeMs = System.currentTimeMillis();
-
-    if (rowMetadata != null) {
-      _latestIngestionTimeMs = Math.max(_latestIngestionTimeMs, rowMetadata.getIngestionTimeMs());
-    }
     return canTakeMore;
   }
 
-  private Map<String, Object> updateDictionary(GenericRow row) {
-    Map<String, Object> dictIdMap = new HashMap<>();
+  private void updateDictionary(GenericRow row, Map<String, Object> dictIdMap) {
     for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
       String column = fieldSpec.getName();
       Object value = row.getValue(column);
@@ -280,17 +354,81 @@ public class MutableSegmentImpl implements MutableSegment {
       }
       // Update min/max value for time column
       if (fieldSpec.getFieldType().equals(FieldSpec.FieldType.TIME)) {
-        long timeValue;
-        if (value instanceof Number) {
-          timeValue = ((Number) value).longValue();
-        } else {
-          timeValue = Long.valueOf(value.toString());
+        updateMinMaxTime(value);
+      }
+    }
+  }
+
+  /**
+   * Updates the dictionaries for a batch of rows column by column.
+   *
+   * @return Map from column to the dictionary ids of the rows ({@code int[]} for single-value columns, {@code int[][]}
+   * for multi-value columns)
+   */
+  private Map<String, Object> updateDictionaries(GenericRow[] rows, int numRows) {
+    Map<String, Object> batchDictIdMap = new HashMap<>();
+    Object[] values = new Object[numRows];
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      String column = fieldSpec.getName();
+      MutableDictionary dictionary = _dictionaryMap.get(column);
+      if (fieldSpec.isSingleValueField()) {
+        for (int i = 0; i < numRows; i++) {
+          values[i] = rows[i].getValue(column);
+        }
+        if (dictionary != null) {
+          int[] dictIds = new int[numRows];
+          dictionary.index(values, dictIds, numRows);
+          batchDictIdMap.put(column, dictIds);
+        }
+        // Update min/max value for time column
+        if (fieldSpec.getFieldType().equals(FieldSpec.FieldType.TIME)) {
+          for (int i = 0; i < numRows; i++) {
+            updateMinMaxTime(values[i]);
+          }
+        }
+      } else {
+        // No-dictionary not supported for multi-valued columns.
+        // Flatten the values of all the rows so that the dictionary can index them as a batch
+        Object[][] multiValues = new Object[numRows][];
+        int numValues = 0;
+        int maxNumValues = _maxNumValuesMap.get(column);
+        for (int i = 0; i < numRows; i++) {
+          Object[] rowValues = (Object[]) rows[i].getValue(column);
+          multiValues[i] = rowValues;
+          numValues += rowValues.length;
+          maxNumValues = Math.max(maxNumValues, rowValues.length);
+        }
+        Object[] flattenedValues = new Object[numValues];
+        int offset = 0;
+        for (Object[] rowValues : multiValues) {
+          System.arraycopy(rowValues, 0, flattenedValues, offset, rowValues.length);
+          offset += rowValues.length;
+        }
+        int[] flattenedDictIds = new int[numValues];
+        dictionary.index(flattenedValues, flattenedDictIds, numValues);
+        int[][] dictIds = new int[numRows][];
+        offset = 0;
+        for (int i = 0; i < numRows; i++) {
+          int length = multiValues[i].length;
+          dictIds[i] = Arrays.copyOfRange(flattenedDictIds, offset, offset + length);
+          offset += length;
         }
-        _minTime = Math.min(_minTime, timeValue);
-        _maxTime = Math.max(_maxTime, timeValue);
+        batchDictIdMap.put(column, dictIds);
+        _maxNumValuesMap.put(column, maxNumValues);
       }
     }
-    return dictIdMap;
+    return batchDictIdMap;
+  }
+
+  private void updateMinMaxTime(Object value) {
+    long timeValue;
+    if (value instanceof Number) {
+      timeValue = ((Number) value).longValue();
+    } else {
+      timeValue = Long.valueOf(value.toString());
+    }
+    _minTime = Math.min(_minTime, timeValue);
+    _maxTime = Math.max(_maxTime, timeValue);
   }
 
   private void addForwardIndex(GenericRow row, int docId, Map<String, Object> dictIdMap) {
@@ -29,7 +29,8 @@ public class ChunkCompressorFactory {
   }
 
   public enum CompressionType {
-    PASS_THROUGH(0), SNAPPY(1);
+    // NOTE: the value is stored in the chunk header, and the ordinal must match the value
+    PASS_THROUGH(0), SNAPPY(1), LZ4(2), ZSTANDARD(3);
 
     private final int _value;
 
@@ -49,6 +50,17 @@ public class ChunkCompressorFactory {
    * @return Compressor for the specified type.
    */
   public static ChunkCompressor getCompressor(CompressionType compressionType) {
+    return getCompressor(compressionType, ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * Returns the chunk compressor for the specified name and compression level.
+   *
+   * @param compressionType Type of compressor.
+   * @param zstdCompressionLevel Compression level for {@link CompressionType#ZSTANDARD}, ignored for other types.
+   * @return Compressor for the specified type.
+   */
+  public static ChunkCompressor getCompressor(CompressionType compressionType, int zstdCompressionLevel) {
     switch (compressionType) {
 
       case PASS_THROUGH:
@@ -57,6 +69,12 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyCompressor();
 
+      case LZ4:
+        return new LZ4Compressor();
+
+      case ZSTANDARD:
+        return new ZstandardCompressor(zstdCompressionLevel);
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -76,6 +94,12 @@ public class ChunkCompressorFactory {
       case SNAPPY:
         return new SnappyDecompressor();
 
+      case LZ4:
+        return new LZ4Decompressor();
+
+      case ZSTANDARD:
+        return new ZstandardDecompressor();
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.io.compression;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} using LZ4.
+ */
+public class LZ4Decompressor implements ChunkDecompressor {
+  private final LZ4SafeDecompressor _decompressor = LZ4Compressor.LZ4_FACTORY.safeDecompressor();
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput)
+      throws IOException {
+    _decompressor.decompress(compressedInput, decompressedOutput);
+
+    // Flip the output ByteBuffer for reading.
+    decompressedOutput.flip();
+    return decompressedOutput.limit();
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.io.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} using Zstandard, which gives higher compression ratio than Snappy and LZ4
+ * at the cost of slower compression. Both input and output buffers must be direct.
+ */
+public class ZstandardCompressor implements ChunkCompressor {
+  public static final int MIN_COMPRESSION_LEVEL = 1;
+  public static final int MAX_COMPRESSION_LEVEL = 22;
+  public static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+  private final int _compressionLevel;
+
+  public ZstandardCompressor() {
+    this(DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * @param compressionLevel Compression level (1-22), where higher level gives better compression ratio but slower
+   *                         compression (de-compression speed is mostly unaffected)
+   */
+  public ZstandardCompressor(int compressionLevel) {
+    validateCompressionLevel(compressionLevel);
+    _compressionLevel = compressionLevel;
+  }
+
+  public static void validateCompressionLevel(int compressionLevel) {
+    Preconditions.checkArgument(
+        compressionLevel >= MIN_COMPRESSION_LEVEL && compressionLevel <= MAX_COMPRESSION_LEVEL,
+        "Zstandard compression level must be in range [%s, %s], got: %s", MIN_COMPRESSION_LEVEL,
+        MAX_COMPRESSION_LEVEL, compressionLevel);
+  }
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed)
+      throws IOException {
+    Zstd.compress(outCompressed, inUncompressed, _compressionLevel);
+
+    // Make the output ByteBuffer ready for read.
+    outCompressed.flip();
+    return outCompressed.limit();
+  }
+}
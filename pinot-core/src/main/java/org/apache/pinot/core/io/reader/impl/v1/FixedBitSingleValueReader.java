@@ -22,10 +22,14 @@ import java.io.IOException;
 import org.apache.pinot.core.io.reader.BaseSingleColumnSingleValueReader;
 import org.apache.pinot.core.io.reader.ReaderContext;
 import org.apache.pinot.core.io.util.FixedBitIntReaderWriter;
+import org.apache.pinot.core.io.util.FixedBitIntUnpacker;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
 public final class FixedBitSingleValueReader extends BaseSingleColumnSingleValueReader {
+  // Runs of sequential rows shorter than this are read value by value
+  private static final int MIN_RUN_LENGTH_FOR_BULK_READ = 2 * FixedBitIntUnpacker.BLOCK_SIZE;
+
   private final FixedBitIntReaderWriter _reader;
 
   public FixedBitSingleValueReader(PinotDataBuffer dataBuffer, int numRows, int numBitsPerValue) {
@@ -45,8 +49,25 @@ public final class FixedBitSingleValueReader extends BaseSingleColumnSingleValue
   @Override
   public void readValues(int[] rows, int rowsStartIndex, int rowSize, int[] values, int valuesStartIndex) {
     int rowsEndIndex = rowsStartIndex + rowSize;
-    for (int i = rowsStartIndex; i < rowsEndIndex; i++) {
-      values[valuesStartIndex++] = getInt(rows[i]);
+
+    // Bulk read the long runs of sequential rows, and read the other rows one by one
+    int i = rowsStartIndex;
+    while (i < rowsEndIndex) {
+      int startRow = rows[i];
+      int runEndIndex = i + 1;
+      while (runEndIndex < rowsEndIndex && rows[runEndIndex] == startRow + (runEndIndex - i)) {
+        runEndIndex++;
+      }
+      int runLength = runEndIndex - i;
+      if (runLength >= MIN_RUN_LENGTH_FOR_BULK_READ) {
+        _reader.readInt(startRow, runLength, values, valuesStartIndex);
+        valuesStartIndex += runLength;
+      } else {
+        for (int j = i; j < runEndIndex; j++) {
+          values[valuesStartIndex++] = _reader.readInt(rows[j]);
+        }
+      }
+      i = runEndIndex;
     }
   }
 
@@ -43,6 +43,10 @@ public final class FixedBitIntReaderWriter implements Closeable {
     _dataBitSet.readInt(startIndex, _numBitsPerValue, length, buffer);
   }
 
+  public void readInt(int startIndex, int length, int[] buffer, int bufferStartIndex) {
+    _dataBitSet.readInt(startIndex, _numBitsPerValue, length, buffer, bufferStartIndex);
+  }
+
   public void writeInt(int index, int value) {
     _dataBitSet.writeInt(index, _numBitsPerValue, value);
   }
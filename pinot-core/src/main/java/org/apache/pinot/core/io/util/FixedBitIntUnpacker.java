@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.io.util;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteOrder;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+
+
+/**
+ * The <code>FixedBitIntUnpacker</code> class decodes blocks of {@link #BLOCK_SIZE} fixed-bit values packed by
+ * {@link PinotDataBitSet} (most significant bit first) with 64-bit word reads.
+ * <p>A block of {@link #BLOCK_SIZE} values with <code>n</code> bits per value takes exactly <code>n</code> longs, so
+ * the block always starts at a byte boundary as long as the index of its first value is a multiple of
+ * {@link Byte#SIZE}. There is one unpacker per number of bits per value (1-32):
+ * <ul>
+ *   <li>For 1, 2, 4, 8, 16 and 32 bits, values never span across words, and are extracted from each word with a fixed
+ *   number of shifts.</li>
+ *   <li>For the other widths, values spanning across two words are stitched together.</li>
+ * </ul>
+ */
+public abstract class FixedBitIntUnpacker {
+  public static final int BLOCK_SIZE = Long.SIZE;
+
+  private static final FixedBitIntUnpacker[] UNPACKERS = new FixedBitIntUnpacker[Integer.SIZE + 1];
+
+  static {
+    for (int numBitsPerValue = 1; numBitsPerValue <= Integer.SIZE; numBitsPerValue++) {
+      if (Long.SIZE % numBitsPerValue == 0) {
+        UNPACKERS[numBitsPerValue] = new AlignedUnpacker(numBitsPerValue);
+      } else {
+        UNPACKERS[numBitsPerValue] = new PackedUnpacker(numBitsPerValue);
+      }
+    }
+  }
+
+  /**
+   * Returns the unpacker for the given number of bits per value.
+   *
+   * @param numBitsPerValue Number of bits per value (1-32)
+   * @return Unpacker for the number of bits per value
+   */
+  public static FixedBitIntUnpacker getUnpacker(int numBitsPerValue) {
+    Preconditions.checkArgument(numBitsPerValue > 0 && numBitsPerValue <= Integer.SIZE,
+        "Unsupported number of bits per value: %s", numBitsPerValue);
+    return UNPACKERS[numBitsPerValue];
+  }
+
+  protected final int _numBitsPerValue;
+  protected final long _mask;
+
+  protected FixedBitIntUnpacker(int numBitsPerValue) {
+    _numBitsPerValue = numBitsPerValue;
+    _mask = (1L << numBitsPerValue) - 1;
+  }
+
+  /**
+   * Decodes {@link #BLOCK_SIZE} values starting at the given byte offset into the buffer.
+   *
+   * @param dataBuffer Data buffer
+   * @param byteOffset Byte offset of the first value in the data buffer
+   * @param buffer Buffer to store the values
+   * @param bufferStartIndex Start index in the buffer
+   */
+  public abstract void unpack(PinotDataBuffer dataBuffer, long byteOffset, int[] buffer, int bufferStartIndex);
+
+  /**
+   * Reads the big-endian word at the given byte offset regardless of the byte order of the data buffer.
+   */
+  protected static long readWord(PinotDataBuffer dataBuffer, long byteOffset, boolean bigEndian) {
+    long word = dataBuffer.getLong(byteOffset);
+    return bigEndian ? word : Long.reverseBytes(word);
+  }
+
+  private static final class AlignedUnpacker extends FixedBitIntUnpacker {
+
+    AlignedUnpacker(int numBitsPerValue) {
+      super(numBitsPerValue);
+    }
+
+    @Override
+    public void unpack(PinotDataBuffer dataBuffer, long byteOffset, int[] buffer, int bufferStartIndex) {
+      boolean bigEndian = dataBuffer.order() == ByteOrder.BIG_ENDIAN;
+      int numBitsPerValue = _numBitsPerValue;
+      long mask = _mask;
+      int bufferIndex = bufferStartIndex;
+      for (int i = 0; i < numBitsPerValue; i++) {
+        long word = readWord(dataBuffer, byteOffset, bigEndian);
+        byteOffset += Long.BYTES;
+        for (int shift = Long.SIZE - numBitsPerValue; shift >= 0; shift -= numBitsPerValue) {
+          buffer[bufferIndex++] = (int) ((word >>> shift) & mask);
+        }
+      }
+    }
+  }
+
+  private static final class PackedUnpacker extends FixedBitIntUnpacker {
+
+    PackedUnpacker(int numBitsPerValue) {
+      super(numBitsPerValue);
+    }
+
+    @Override
+    public void unpack(PinotDataBuffer dataBuffer, long byteOffset, int[] buffer, int bufferStartIndex) {
+      boolean bigEndian = dataBuffer.order() == ByteOrder.BIG_ENDIAN;
+      int numBitsPerValue = _numBitsPerValue;
+      long mask = _mask;
+      long word = readWord(dataBuffer, byteOffset, bigEndian);
+      int numBitsLeft = Long.SIZE;
+      int bufferEndIndex = bufferStartIndex + BLOCK_SIZE;
+      for (int i = bufferStartIndex; i < bufferEndIndex; i++) {
+        if (numBitsLeft >= numBitsPerValue) {
+          // The value is inside the current word
+          numBitsLeft -= numBitsPerValue;
+          buffer[i] = (int) ((word >>> numBitsLeft) & mask);
+        } else {
+          // The value spans across the current word and the next word
+          int numBitsInNextWord = numBitsPerValue - numBitsLeft;
+          long high = (word & ((1L << numBitsLeft) - 1)) << numBitsInNextWord;
+          byteOffset += Long.BYTES;
+          word = readWord(dataBuffer, byteOffset, bigEndian);
+          numBitsLeft = Long.SIZE - numBitsInNextWord;
+          buffer[i] = (int) (high | (word >>> numBitsLeft));
+        }
+      }
+    }
+  }
+}
@@ -28,6 +28,8 @@ public final class PinotDataBitSet implements Closeable {
   private static final int[][] NTH_BIT_SET = new int[Byte.SIZE][1 << Byte.SIZE];
   private static final int[] FIRST_BIT_SET = NTH_BIT_SET[0];
   private static final int BYTE_MASK = 0xFF;
+  // Bulk read is only used when there are enough values to fill at least one aligned block
+  private static final int MIN_LENGTH_FOR_BULK_READ = FixedBitIntUnpacker.BLOCK_SIZE + Byte.SIZE - 1;
 
   static {
     for (int i = 0; i < (1 << Byte.SIZE); i++) {
@@ -100,6 +102,54 @@ public final class PinotDataBitSet implements Closeable {
   }
 
   public void readInt(int startIndex, int numBitsPerValue, int length, int[] buffer) {
+    readInt(startIndex, numBitsPerValue, length, buffer, 0);
+  }
+
+  /**
+   * Reads the values for a contiguous range of indices into the buffer starting at the given buffer index.
+   * <p>The values inside aligned blocks of {@link FixedBitIntUnpacker#BLOCK_SIZE} are decoded in bulk with the
+   * {@link FixedBitIntUnpacker} for the number of bits per value, and the values outside of the aligned blocks are
+   * decoded bit by bit.
+   *
+   * @param startIndex Index of the first value
+   * @param numBitsPerValue Number of bits per value
+   * @param length Number of values to read
+   * @param buffer Buffer to store the values
+   * @param bufferStartIndex Start index in the buffer
+   */
+  public void readInt(int startIndex, int numBitsPerValue, int length, int[] buffer, int bufferStartIndex) {
+    if (length < MIN_LENGTH_FOR_BULK_READ) {
+      readIntSequentially(startIndex, numBitsPerValue, length, buffer, bufferStartIndex);
+      return;
+    }
+
+    // Values before the first byte-aligned index
+    int endIndex = startIndex + length;
+    int index = startIndex;
+    int bufferIndex = bufferStartIndex;
+    int numHeadValues = (Byte.SIZE - (startIndex & (Byte.SIZE - 1))) & (Byte.SIZE - 1);
+    if (numHeadValues > 0) {
+      readIntSequentially(index, numBitsPerValue, numHeadValues, buffer, bufferIndex);
+      index += numHeadValues;
+      bufferIndex += numHeadValues;
+    }
+
+    // Values in the blocks
+    FixedBitIntUnpacker unpacker = FixedBitIntUnpacker.getUnpacker(numBitsPerValue);
+    while (endIndex - index >= FixedBitIntUnpacker.BLOCK_SIZE) {
+      unpacker.unpack(_dataBuffer, (long) index * numBitsPerValue / Byte.SIZE, buffer, bufferIndex);
+      index += FixedBitIntUnpacker.BLOCK_SIZE;
+      bufferIndex += FixedBitIntUnpacker.BLOCK_SIZE;
+    }
+
+    // Values after the last block
+    if (index < endIndex) {
+      readIntSequentially(index, numBitsPerValue, endIndex - index, buffer, bufferIndex);
+    }
+  }
+
+  private void readIntSequentially(int startIndex, int numBitsPerValue, int length, int[] buffer,
+      int bufferStartIndex) {
     long startBitOffset = (long) startIndex * numBitsPerValue;
     int byteOffset = (int) (startBitOffset / Byte.SIZE);
     int bitOffsetInFirstByte = (int) (startBitOffset % Byte.SIZE);
@@ -115,7 +165,7 @@ public final class PinotDataBitSet implements Closeable {
       int numBitsLeft = numBitsPerValue - (Byte.SIZE - bitOffsetInFirstByte);
       if (numBitsLeft <= 0) {
         // The value is inside the first byte
-        buffer[i] = currentValue >>> -numBitsLeft;
+        buffer[bufferStartIndex + i] = currentValue >>> -numBitsLeft;
         bitOffsetInFirstByte = Byte.SIZE + numBitsLeft;
         currentValue = currentValue & (BYTE_MASK >>> bitOffsetInFirstByte);
       } else {
@@ -125,7 +175,7 @@ public final class PinotDataBitSet implements Closeable {
           numBitsLeft -= Byte.SIZE;
         }
         int nextByte = _dataBuffer.getByte(++byteOffset) & BYTE_MASK;
-        buffer[i] = (currentValue << numBitsLeft) | (nextByte >>> (Byte.SIZE - numBitsLeft));
+        buffer[bufferStartIndex + i] = (currentValue << numBitsLeft) | (nextByte >>> (Byte.SIZE - numBitsLeft));
         bitOffsetInFirstByte = numBitsLeft;
         currentValue = nextByte & (BYTE_MASK >>> bitOffsetInFirstByte);
       }
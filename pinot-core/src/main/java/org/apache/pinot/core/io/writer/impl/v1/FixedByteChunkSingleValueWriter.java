@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.compression.ZstandardCompressor;
 
 
 /**
@@ -69,9 +70,19 @@ public class FixedByteChunkSingleValueWriter extends BaseChunkSingleValueWriter
   public FixedByteChunkSingleValueWriter(File file, ChunkCompressorFactory.CompressionType compressionType,
       int totalDocs, int numDocsPerChunk, int sizeOfEntry)
       throws FileNotFoundException {
+    this(file, compressionType, totalDocs, numDocsPerChunk, sizeOfEntry,
+        ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * Constructor for the class with the compression level for ZSTANDARD compression.
+   */
+  public FixedByteChunkSingleValueWriter(File file, ChunkCompressorFactory.CompressionType compressionType,
+      int totalDocs, int numDocsPerChunk, int sizeOfEntry, int zstdCompressionLevel)
+      throws FileNotFoundException {
 
     super(file, compressionType, totalDocs, numDocsPerChunk, (sizeOfEntry * numDocsPerChunk), sizeOfEntry,
-        CURRENT_VERSION);
+        CURRENT_VERSION, zstdCompressionLevel);
     _chunkDataOffset = 0;
   }
 
@@ -24,6 +24,7 @@ import java.io.IOException;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.pinot.common.utils.StringUtil;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.compression.ZstandardCompressor;
 
 
 /**
@@ -68,10 +69,20 @@ public class VarByteChunkSingleValueWriter extends BaseChunkSingleValueWriter {
   public VarByteChunkSingleValueWriter(File file, ChunkCompressorFactory.CompressionType compressionType, int totalDocs,
       int numDocsPerChunk, int lengthOfLongestEntry)
       throws FileNotFoundException {
+    this(file, compressionType, totalDocs, numDocsPerChunk, lengthOfLongestEntry,
+        ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * Constructor for the class with the compression level for ZSTANDARD compression.
+   */
+  public VarByteChunkSingleValueWriter(File file, ChunkCompressorFactory.CompressionType compressionType, int totalDocs,
+      int numDocsPerChunk, int lengthOfLongestEntry, int zstdCompressionLevel)
+      throws FileNotFoundException {
 
     super(file, compressionType, totalDocs, numDocsPerChunk,
         ((numDocsPerChunk * Integer.BYTES) + (lengthOfLongestEntry * numDocsPerChunk)), // chunkSize
-        lengthOfLongestEntry, CURRENT_VERSION);
+        lengthOfLongestEntry, CURRENT_VERSION, zstdCompressionLevel);
 
     _chunkHeaderOffset = 0;
     _chunkHeaderSize = numDocsPerChunk * Integer.BYTES;
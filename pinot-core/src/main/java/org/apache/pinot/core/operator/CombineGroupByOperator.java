@@ -41,6 +41,7 @@ import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
 import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByTrimmingService;
+import org.apache.pinot.core.query.aggregation.groupby.GroupByResultMerger;
 import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
 import org.apache.pinot.core.util.trace.TraceRunnable;
 import org.slf4j.Logger;
@@ -66,9 +67,16 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
   private final long _timeOutMs;
   // Limit on number of groups stored for each segment, beyond which no new group will be created
   private final int _numGroupsLimit;
+  // Whether to merge the group-by results with primitive keys (see GroupByResultMerger) instead of string keys
+  private final boolean _primitiveKeyMerge;
 
   public CombineGroupByOperator(List<Operator> operators, BrokerRequest brokerRequest, ExecutorService executorService,
       long timeOutMs, int numGroupsLimit) {
+    this(operators, brokerRequest, executorService, timeOutMs, numGroupsLimit, false);
+  }
+
+  public CombineGroupByOperator(List<Operator> operators, BrokerRequest brokerRequest, ExecutorService executorService,
+      long timeOutMs, int numGroupsLimit, boolean primitiveKeyMerge) {
     Preconditions.checkArgument(brokerRequest.isSetAggregationsInfo() && brokerRequest.isSetGroupBy());
 
     _operators = operators;
@@ -76,6 +84,7 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
     _executorService = executorService;
     _timeOutMs = timeOutMs;
     _numGroupsLimit = numGroupsLimit;
+    _primitiveKeyMerge = primitiveKeyMerge;
   }
 
   /**
@@ -86,6 +95,10 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
    * <ul>
    *   <li>
    *     Concurrently merge group-by results form multiple result blocks into a map from group key to group results
+   *     <p>A fixed number of workers (see {@link CombineOperatorUtils#getNumWorkers(int, ExecutorService)}) pull the
+   *     operators from the shared list, so that idle workers keep processing the remaining segments
+   *     <p>In primitive key merge mode, each worker merges into an exclusive {@link GroupByResultMerger} instead of the
+   *     shared map, and the mergers are merged into one after all the result blocks are merged
    *   </li>
    *   <li>
    *     Sort and trim the results map based on {@code TOP N} in the request
@@ -100,11 +113,17 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
   @Override
   protected IntermediateResultsBlock getNextBlock() {
     int numOperators = _operators.size();
-    CountDownLatch operatorLatch = new CountDownLatch(numOperators);
+    int numWorkers = CombineOperatorUtils.getNumWorkers(numOperators, _executorService);
+    CountDownLatch operatorLatch = new CountDownLatch(numWorkers);
+    AtomicInteger nextOperatorIndex = new AtomicInteger();
     ConcurrentHashMap<String, Object[]> resultsMap = new ConcurrentHashMap<>();
     AtomicInteger numGroups = new AtomicInteger();
     int interSegmentNumGroupsLimit = _numGroupsLimit * INTER_SEGMENT_NUM_GROUPS_LIMIT_FACTOR;
     ConcurrentLinkedQueue<ProcessingException> mergedProcessingExceptions = new ConcurrentLinkedQueue<>();
+    // Only used in primitive key merge mode, where each worker merges into its own merger
+    ConcurrentLinkedQueue<GroupByResultMerger> mergers = new ConcurrentLinkedQueue<>();
+    GroupByResultMerger.GroupKeyValueDictionary[] valueDictionaries = _primitiveKeyMerge ? GroupByResultMerger
+        .createValueDictionaries(_brokerRequest.getGroupBy().getExpressionsSize()) : null;
 
     AggregationFunctionContext[] aggregationFunctionContexts =
         AggregationFunctionUtils.getAggregationFunctionContexts(_brokerRequest.getAggregationsInfo(), null);
@@ -114,54 +133,69 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
       aggregationFunctions[i] = aggregationFunctionContexts[i].getAggregationFunction();
     }
 
-    Future[] futures = new Future[numOperators];
-    for (int i = 0; i < numOperators; i++) {
-      int index = i;
+    // Fixed number of workers pulling the next operator from the shared index until all the operators are processed
+    Future[] futures = new Future[numWorkers];
+    for (int i = 0; i < numWorkers; i++) {
       futures[i] = _executorService.submit(new TraceRunnable() {
         @SuppressWarnings("unchecked")
         @Override
         public void runJob() {
-          AggregationGroupByResult aggregationGroupByResult;
+          // Only used in primitive key merge mode, where the worker merges all its results locally
+          GroupByResultMerger merger = null;
+          int index;
+          // Stop pulling new operators after the worker is cancelled (e.g. on timeout)
+          while (!Thread.currentThread().isInterrupted()
+              && (index = nextOperatorIndex.getAndIncrement()) < numOperators) {
+            try {
+              IntermediateResultsBlock intermediateResultsBlock =
+                  (IntermediateResultsBlock) _operators.get(index).nextBlock();
 
-          try {
-            IntermediateResultsBlock intermediateResultsBlock =
-                (IntermediateResultsBlock) _operators.get(index).nextBlock();
-
-            // Merge processing exceptions.
-            List<ProcessingException> processingExceptionsToMerge = intermediateResultsBlock.getProcessingExceptions();
-            if (processingExceptionsToMerge != null) {
-              mergedProcessingExceptions.addAll(processingExceptionsToMerge);
-            }
+              // Merge processing exceptions.
+              List<ProcessingException> processingExceptionsToMerge =
+                  intermediateResultsBlock.getProcessingExceptions();
+              if (processingExceptionsToMerge != null) {
+                mergedProcessingExceptions.addAll(processingExceptionsToMerge);
+              }
 
-            // Merge aggregation group-by result.
-            aggregationGroupByResult = intermediateResultsBlock.getAggregationGroupByResult();
-            if (aggregationGroupByResult != null) {
-              // Iterate over the group-by keys, for each key, update the group-by result in the resultsMap.
-              Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
-              while (groupKeyIterator.hasNext()) {
-                GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
-                resultsMap.compute(groupKey._stringKey, (key, value) -> {
-                  if (value == null) {
-                    if (numGroups.getAndIncrement() < interSegmentNumGroupsLimit) {
-                      value = new Object[numAggregationFunctions];
+              // Merge aggregation group-by result.
+              AggregationGroupByResult aggregationGroupByResult =
+                  intermediateResultsBlock.getAggregationGroupByResult();
+              if (aggregationGroupByResult != null && _primitiveKeyMerge) {
+                if (merger == null) {
+                  merger = new GroupByResultMerger(aggregationFunctions, valueDictionaries, interSegmentNumGroupsLimit);
+                }
+                merger.merge(aggregationGroupByResult);
+              } else if (aggregationGroupByResult != null) {
+                // Iterate over the group-by keys, for each key, update the group-by result in the resultsMap.
+                Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+                while (groupKeyIterator.hasNext()) {
+                  GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+                  resultsMap.compute(groupKey._stringKey, (key, value) -> {
+                    if (value == null) {
+                      if (numGroups.getAndIncrement() < interSegmentNumGroupsLimit) {
+                        value = new Object[numAggregationFunctions];
+                        for (int i = 0; i < numAggregationFunctions; i++) {
+                          value[i] = aggregationGroupByResult.getResultForKey(groupKey, i);
+                        }
+                      }
+                    } else {
                       for (int i = 0; i < numAggregationFunctions; i++) {
-                        value[i] = aggregationGroupByResult.getResultForKey(groupKey, i);
+                        value[i] = aggregationFunctions[i]
+                            .merge(value[i], aggregationGroupByResult.getResultForKey(groupKey, i));
                       }
                     }
-                  } else {
-                    for (int i = 0; i < numAggregationFunctions; i++) {
-                      value[i] = aggregationFunctions[i]
-                          .merge(value[i], aggregationGroupByResult.getResultForKey(groupKey, i));
-                    }
-                  }
-                  return value;
-                });
+                    return value;
+                  });
+                }
               }
+            } catch (Exception e) {
+              LOGGER.error("Exception processing CombineGroupBy for index {}, operator {}", index,
+                  _operators.get(index).getClass().getName(), e);
+              mergedProcessingExceptions.add(QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, e));
             }
-          } catch (Exception e) {
-            LOGGER.error("Exception processing CombineGroupBy for index {}, operator {}", index,
-                _operators.get(index).getClass().getName(), e);
-            mergedProcessingExceptions.add(QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, e));
+          }
+          if (merger != null) {
+            mergers.offer(merger);
           }
 
           operatorLatch.countDown();
@@ -181,8 +215,23 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
       // Trim the results map.
       AggregationGroupByTrimmingService aggregationGroupByTrimmingService =
           new AggregationGroupByTrimmingService(aggregationFunctions, (int) _brokerRequest.getGroupBy().getTopN());
-      List<Map<String, Object>> trimmedResults =
-          aggregationGroupByTrimmingService.trimIntermediateResultsMap(resultsMap);
+      List<Map<String, Object>> trimmedResults;
+      int numMergedGroups;
+      if (_primitiveKeyMerge) {
+        GroupByResultMerger mergedMerger = mergers.poll();
+        if (mergedMerger == null) {
+          mergedMerger = new GroupByResultMerger(aggregationFunctions, valueDictionaries, interSegmentNumGroupsLimit);
+        }
+        GroupByResultMerger mergerToMerge;
+        while ((mergerToMerge = mergers.poll()) != null) {
+          mergedMerger.merge(mergerToMerge);
+        }
+        trimmedResults = aggregationGroupByTrimmingService.trimIntermediateResults(mergedMerger);
+        numMergedGroups = mergedMerger.getNumGroups();
+      } else {
+        trimmedResults = aggregationGroupByTrimmingService.trimIntermediateResultsMap(resultsMap);
+        numMergedGroups = resultsMap.size();
+      }
       IntermediateResultsBlock mergedBlock =
           new IntermediateResultsBlock(aggregationFunctionContexts, trimmedResults, true);
 
@@ -208,7 +257,7 @@ public class CombineGroupByOperator extends BaseOperator<IntermediateResultsBloc
 
       // TODO: this value should be set in the inner-segment operators. Setting it here might cause false positive as we
       //       are comparing number of groups across segments with the groups limit for each segment.
-      if (resultsMap.size() >= _numGroupsLimit) {
+      if (numMergedGroups >= _numGroupsLimit) {
         mergedBlock.setNumGroupsLimitReached(true);
       }
 
@@ -18,7 +18,6 @@
  */
 package org.apache.pinot.core.operator;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -27,6 +26,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.core.common.Block;
@@ -41,6 +41,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The <code>CombineOperator</code> class is the operator to combine selection results and aggregation only results.
+ * <p>A fixed number of workers (see {@link CombineOperatorUtils#getNumWorkers(int, ExecutorService)}) pull the
+ * operators from the shared list, merge the results locally, and pass the merged blocks to the final merge job.
  */
 public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
   private static final Logger LOGGER = LoggerFactory.getLogger(CombineOperator.class);
@@ -50,18 +52,6 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
   private final BrokerRequest _brokerRequest;
   private final ExecutorService _executorService;
   private final long _timeOutMs;
-  //Make this configurable
-  //These two control the parallelism on a per query basis, depending on the number of segments to process
-  private static final int MIN_THREADS_PER_QUERY;
-  private static final int MAX_THREADS_PER_QUERY;
-  private static final int MIN_SEGMENTS_PER_THREAD = 10;
-
-  static {
-    int numCores = Runtime.getRuntime().availableProcessors();
-    MIN_THREADS_PER_QUERY = Math.max(1, (int) (numCores * .5));
-    //Dont have more than 10 threads per query
-    MAX_THREADS_PER_QUERY = Math.min(10, (int) (numCores * .5));
-  }
 
   public CombineOperator(List<Operator> operators, ExecutorService executorService, long timeOutMs,
       BrokerRequest brokerRequest) {
@@ -76,46 +66,51 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
     final long startTime = System.currentTimeMillis();
     final long queryEndTime = System.currentTimeMillis() + _timeOutMs;
     final int numOperators = _operators.size();
-    // Ensure that the number of groups is not more than the number of segments
-    final int numGroups = Math.min(numOperators, Math.max(MIN_THREADS_PER_QUERY,
-        Math.min(MAX_THREADS_PER_QUERY, (numOperators + MIN_SEGMENTS_PER_THREAD - 1) / MIN_SEGMENTS_PER_THREAD)));
-
-    final List<List<Operator>> operatorGroups = new ArrayList<>(numGroups);
-    for (int i = 0; i < numGroups; i++) {
-      operatorGroups.add(new ArrayList<Operator>());
-    }
-    for (int i = 0; i < numOperators; i++) {
-      operatorGroups.get(i % numGroups).add(_operators.get(i));
-    }
+    // Number of workers, which is not more than the number of segments
+    final int numGroups = CombineOperatorUtils.getNumWorkers(numOperators, _executorService);
 
+    // Each worker starts with the operator at its own index so that every worker produces a block, then pulls the next
+    // operator from the shared index until all the operators are processed
+    final AtomicInteger nextOperatorIndex = new AtomicInteger(numGroups);
     final BlockingQueue<Block> blockingQueue = new ArrayBlockingQueue<>(numGroups);
-    // Submit operators.
-    for (final List<Operator> operatorGroup : operatorGroups) {
-      _executorService.submit(new TraceRunnable() {
+    // Submit workers.
+    final Future[] workerFutures = new Future[numGroups];
+    for (int i = 0; i < numGroups; i++) {
+      final int firstOperatorIndex = i;
+      workerFutures[i] = _executorService.submit(new TraceRunnable() {
         @Override
         public void runJob() {
           IntermediateResultsBlock mergedBlock = null;
-          try {
-            for (Operator operator : operatorGroup) {
-              IntermediateResultsBlock blockToMerge = (IntermediateResultsBlock) operator.nextBlock();
-              if (mergedBlock == null) {
-                mergedBlock = blockToMerge;
-              } else {
-                try {
-                  CombineService.mergeTwoBlocks(_brokerRequest, mergedBlock, blockToMerge);
-                } catch (Exception e) {
-                  LOGGER.error("Caught exception while merging two blocks (step 1).", e);
-                  mergedBlock
-                      .addToProcessingExceptions(QueryException.getException(QueryException.MERGE_RESPONSE_ERROR, e));
-                }
+          int operatorIndex = firstOperatorIndex;
+          // Stop pulling new operators after the worker is cancelled (e.g. on timeout)
+          while (operatorIndex < numOperators && !Thread.currentThread().isInterrupted()) {
+            // NOTE: Catch the exception per operator so that the results already merged by this worker are kept, and
+            //       the worker keeps processing the remaining operators.
+            IntermediateResultsBlock blockToMerge;
+            try {
+              blockToMerge = (IntermediateResultsBlock) _operators.get(operatorIndex).nextBlock();
+            } catch (Exception e) {
+              LOGGER.error("Caught exception while executing operator of index: {}", operatorIndex, e);
+              blockToMerge = new IntermediateResultsBlock(e);
+            }
+            if (mergedBlock == null) {
+              mergedBlock = blockToMerge;
+            } else {
+              try {
+                CombineService.mergeTwoBlocks(_brokerRequest, mergedBlock, blockToMerge);
+              } catch (Exception e) {
+                LOGGER.error("Caught exception while merging two blocks (step 1).", e);
+                mergedBlock
+                    .addToProcessingExceptions(QueryException.getException(QueryException.MERGE_RESPONSE_ERROR, e));
               }
             }
-          } catch (Exception e) {
-            LOGGER.error("Caught exception while executing query.", e);
-            mergedBlock = new IntermediateResultsBlock(e);
+            operatorIndex = nextOperatorIndex.getAndIncrement();
+          }
+          // The merged block can only be null when the worker is cancelled before processing any operator, in which
+          // case the merger job is already gone
+          if (mergedBlock != null) {
+            blockingQueue.offer(mergedBlock);
           }
-          assert mergedBlock != null;
-          blockingQueue.offer(mergedBlock);
         }
       });
     }
@@ -175,6 +170,13 @@ public class CombineOperator extends BaseOperator<IntermediateResultsBlock> {
       mergedBlockFuture.cancel(true);
       mergedBlock =
           new IntermediateResultsBlock(QueryException.getException(QueryException.EXECUTION_TIMEOUT_ERROR, e));
+    } finally {
+      // Cancel all ongoing workers so that they stop pulling new operators
+      for (Future workerFuture : workerFutures) {
+        if (!workerFuture.isDone()) {
+          workerFuture.cancel(true);
+        }
+      }
     }
 
     // Update execution statistics.
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator;
+
+import java.util.concurrent.ExecutorService;
+import org.apache.pinot.core.query.scheduler.resources.QueryExecutorService;
+
+
+/**
+ * The <code>CombineOperatorUtils</code> class provides the utility methods for the combine operators.
+ * <p>The combine operators run a fixed number of worker tasks, where each worker keeps pulling the next operator to
+ * process from the shared list of operators and merges the results locally before the final merge. This way the number
+ * of tasks does not grow with the number of segments, and a worker stuck on a large segment does not block the other
+ * segments from being processed by the idle workers.
+ */
+public class CombineOperatorUtils {
+  private CombineOperatorUtils() {
+  }
+
+  // These two control the parallelism on a per query basis, depending on the number of segments to process
+  private static final int MIN_NUM_WORKERS_PER_QUERY;
+  private static final int MAX_NUM_WORKERS_PER_QUERY;
+  private static final int MIN_OPERATORS_PER_WORKER = 10;
+
+  static {
+    int numCores = Runtime.getRuntime().availableProcessors();
+    MIN_NUM_WORKERS_PER_QUERY = Math.max(1, (int) (numCores * .5));
+    // Don't have more than 10 workers per query
+    MAX_NUM_WORKERS_PER_QUERY = Math.max(1, Math.min(10, (int) (numCores * .5)));
+  }
+
+  /**
+   * Returns the number of worker tasks to process the given number of operators, which is bounded by the number of
+   * operators and the number of concurrent tasks allowed for the query by the executor service (scheduler).
+   */
+  public static int getNumWorkers(int numOperators, ExecutorService executorService) {
+    // NOTE: Use long to avoid overflow when rounding up
+    int numWorkers = Math.max(MIN_NUM_WORKERS_PER_QUERY, (int) Math.min(MAX_NUM_WORKERS_PER_QUERY,
+        ((long) numOperators + MIN_OPERATORS_PER_WORKER - 1) / MIN_OPERATORS_PER_WORKER));
+    return Math.min(Math.min(numWorkers, getMaxConcurrentTasks(executorService)), numOperators);
+  }
+
+  /**
+   * Returns the maximum number of worker tasks for a query regardless of the number of operators, which is bounded by
+   * the number of concurrent tasks allowed for the query by the executor service (scheduler).
+   */
+  public static int getMaxNumWorkers(ExecutorService executorService) {
+    int maxNumWorkers = Math.max(MIN_NUM_WORKERS_PER_QUERY, MAX_NUM_WORKERS_PER_QUERY);
+    return Math.min(maxNumWorkers, getMaxConcurrentTasks(executorService));
+  }
+
+  private static int getMaxConcurrentTasks(ExecutorService executorService) {
+    if (executorService instanceof QueryExecutorService) {
+      return Math.max(1, ((QueryExecutorService) executorService).getMaxConcurrentTasks());
+    }
+    return Integer.MAX_VALUE;
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The <code>DocIdRangeStatisticsCollector</code> class collects the execution statistics for the document id ranges of
+ * a segment split into multiple document id ranges, so that the segment is counted only once in the number of segments
+ * processed and matched.
+ * <p>The statistics for the documents and entries scanned are reported by each document id range, and the segment is
+ * counted by the last document id range finishing the processing.
+ */
+public class DocIdRangeStatisticsCollector {
+  private final AtomicInteger _numDocIdRangesRemaining;
+  private final AtomicLong _numDocsScanned = new AtomicLong();
+
+  public DocIdRangeStatisticsCollector(int numDocIdRanges) {
+    _numDocIdRangesRemaining = new AtomicInteger(numDocIdRanges);
+  }
+
+  /**
+   * Returns the execution statistics for a document id range. Should be called exactly once per document id range after
+   * the range is processed.
+   */
+  public ExecutionStatistics getExecutionStatistics(long numDocsScanned, long numEntriesScannedInFilter,
+      long numEntriesScannedPostFilter, long numTotalRawDocs) {
+    _numDocsScanned.addAndGet(numDocsScanned);
+    if (_numDocIdRangesRemaining.decrementAndGet() == 0) {
+      // NOTE: Read the number of documents scanned after all the other document id ranges have finished
+      long numSegmentsMatched = _numDocsScanned.get() > 0 ? 1 : 0;
+      return new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+          numTotalRawDocs, 1, numSegmentsMatched);
+    } else {
+      return new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+          numTotalRawDocs, 0, 0);
+    }
+  }
+}
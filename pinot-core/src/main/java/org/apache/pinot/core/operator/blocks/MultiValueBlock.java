@@ -30,15 +30,21 @@ import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 public final class MultiValueBlock implements Block {
+  private final SingleColumnMultiValueReader _reader;
   private final BlockValSet _blockValSet;
   private final BlockMetadata _blockMetadata;
 
   public MultiValueBlock(SingleColumnMultiValueReader reader, int numDocs, int maxNumMultiValues,
       FieldSpec.DataType dataType, Dictionary dictionary) {
+    _reader = reader;
     _blockValSet = new MultiValueSet(reader, numDocs, dataType);
     _blockMetadata = new BlockMetadataImpl(numDocs, false, maxNumMultiValues, dataType, dictionary);
   }
 
+  public SingleColumnMultiValueReader getReader() {
+    return _reader;
+  }
+
   @Override
   public BlockDocIdSet getBlockDocIdSet() {
     throw new UnsupportedOperationException();
@@ -29,7 +29,11 @@ import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 public class SVScanDocIdIterator implements ScanBasedDocIdIterator {
+  // Number of consecutive docs to read and evaluate in one batch for dictionary-based predicate evaluators
+  private static final int BATCH_SIZE = 256;
+
   private int _currentDocId = -1;
+  private final BlockValSet _blockValSet;
   private final BlockSingleValIterator _valueIterator;
   private int _startDocId;
   private int _endDocId;
@@ -38,11 +42,22 @@ public class SVScanDocIdIterator implements ScanBasedDocIdIterator {
   private int _numEntriesScanned = 0;
   private final ValueMatcher _valueMatcher;
 
+  // For batch scan, the matching doc ids in range [_batchIndex, _numBatchMatchingDocs) of _batchDocIds are not
+  // returned yet, and the docs starting from _nextBatchStartDocId are not scanned yet
+  private final boolean _batchScan;
+  private int[] _batchDocIds;
+  private int[] _batchDictIds;
+  private int _batchIndex;
+  private int _numBatchMatchingDocs;
+  private int _nextBatchStartDocId;
+
   public SVScanDocIdIterator(String datasourceName, BlockValSet blockValSet, BlockMetadata blockMetadata,
       PredicateEvaluator evaluator) {
     _datasourceName = datasourceName;
     _evaluator = evaluator;
+    _blockValSet = blockValSet;
     _valueIterator = (BlockSingleValIterator) blockValSet.iterator();
+    _batchScan = evaluator.isDictionaryBased();
 
     if (evaluator.isAlwaysFalse()) {
       _currentDocId = Constants.EOF;
@@ -70,6 +85,7 @@ public class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     _currentDocId = startDocId - 1;
     _valueIterator.skipTo(startDocId);
     _startDocId = startDocId;
+    resetBatch(startDocId);
   }
 
   /**
@@ -106,7 +122,18 @@ public class SVScanDocIdIterator implements ScanBasedDocIdIterator {
       return _currentDocId;
     } else {
       _currentDocId = targetDocId - 1;
-      _valueIterator.skipTo(targetDocId);
+      if (_batchScan) {
+        if (targetDocId < _nextBatchStartDocId) {
+          // Skip the buffered matching doc ids before the target doc id
+          while (_batchIndex < _numBatchMatchingDocs && _batchDocIds[_batchIndex] < targetDocId) {
+            _batchIndex++;
+          }
+        } else {
+          resetBatch(targetDocId);
+        }
+      } else {
+        _valueIterator.skipTo(targetDocId);
+      }
       return next();
     }
   }
@@ -116,6 +143,9 @@ public class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     if (_currentDocId == Constants.EOF) {
       return Constants.EOF;
     }
+    if (_batchScan) {
+      return nextInBatch();
+    }
     while (_valueIterator.hasNext() && _currentDocId < _endDocId) {
       _currentDocId = _currentDocId + 1;
       _numEntriesScanned++;
@@ -127,6 +157,50 @@ public class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     return Constants.EOF;
   }
 
+  /**
+   * Returns the next matching doc id from the buffered batch, and scans the next batch of consecutive docs when the
+   * buffered matching doc ids are exhausted.
+   * <p>The dictionary ids of the whole batch are read in bulk, then evaluated by the predicate evaluator in a tight
+   * loop, which is much cheaper than reading and evaluating the docs one by one.
+   */
+  private int nextInBatch() {
+    while (true) {
+      if (_batchIndex < _numBatchMatchingDocs) {
+        int docId = _batchDocIds[_batchIndex++];
+        if (docId > _endDocId) {
+          break;
+        }
+        _currentDocId = docId;
+        return docId;
+      }
+      int startDocId = _nextBatchStartDocId;
+      if (startDocId < 0 || startDocId > _endDocId) {
+        break;
+      }
+      if (_batchDocIds == null) {
+        _batchDocIds = new int[BATCH_SIZE];
+        _batchDictIds = new int[BATCH_SIZE];
+      }
+      int numDocs = Math.min(_endDocId - startDocId + 1, BATCH_SIZE);
+      for (int i = 0; i < numDocs; i++) {
+        _batchDocIds[i] = startDocId + i;
+      }
+      _blockValSet.getDictionaryIds(_batchDocIds, 0, numDocs, _batchDictIds, 0);
+      _numEntriesScanned += numDocs;
+      _numBatchMatchingDocs = _evaluator.applySV(numDocs, _batchDocIds, _batchDictIds);
+      _batchIndex = 0;
+      _nextBatchStartDocId = startDocId + numDocs;
+    }
+    _currentDocId = Constants.EOF;
+    return Constants.EOF;
+  }
+
+  private void resetBatch(int nextBatchStartDocId) {
+    _batchIndex = 0;
+    _numBatchMatchingDocs = 0;
+    _nextBatchStartDocId = nextBatchStartDocId;
+  }
+
   @Override
   public int currentDocId() {
     return _currentDocId;
@@ -24,10 +24,15 @@ import org.apache.pinot.core.common.Constants;
 
 public final class SizeBasedDocIdIterator implements BlockDocIdIterator {
   private final int _maxDocId;
-  private int _currentDocId = -1;
+  private int _currentDocId;
 
   public SizeBasedDocIdIterator(int maxDocId) {
+    this(0, maxDocId);
+  }
+
+  public SizeBasedDocIdIterator(int startDocId, int maxDocId) {
     _maxDocId = maxDocId;
+    _currentDocId = startDocId - 1;
   }
 
   @Override
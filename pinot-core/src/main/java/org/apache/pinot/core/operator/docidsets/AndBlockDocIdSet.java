@@ -19,6 +19,7 @@
 package org.apache.pinot.core.operator.docidsets;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import org.apache.pinot.common.utils.Pairs.IntPair;
 import org.apache.pinot.core.common.BlockDocIdIterator;
@@ -26,6 +27,7 @@ import org.apache.pinot.core.common.BlockDocIdSet;
 import org.apache.pinot.core.common.Constants;
 import org.apache.pinot.core.operator.dociditerators.AndDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.BitmapDocIdIterator;
+import org.apache.pinot.core.operator.dociditerators.EmptyBlockDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.RangelessBitmapDocIdIterator;
 import org.apache.pinot.core.operator.dociditerators.ScanBasedDocIdIterator;
 import org.apache.pinot.core.util.SortedRangeIntersection;
@@ -146,9 +148,9 @@ public final class AndBlockDocIdSet implements FilterBlockDocIdSet {
     List<List<IntPair>> sortedRangeSets = new ArrayList<>();
     List<ImmutableRoaringBitmap> childBitmaps = new ArrayList<ImmutableRoaringBitmap>();
     List<FilterBlockDocIdSet> scanBasedDocIdSets = new ArrayList<>();
-    List<BlockDocIdIterator> remainingIterators = new ArrayList<>();
+    List<FilterBlockDocIdSet> remainingDocIdSets = new ArrayList<>();
 
-    for (BlockDocIdSet docIdSet : blockDocIdSets) {
+    for (FilterBlockDocIdSet docIdSet : blockDocIdSets) {
       if (docIdSet instanceof SortedDocIdSet) {
         SortedDocIdSet sortedDocIdSet = (SortedDocIdSet) docIdSet;
         List<IntPair> pairs = sortedDocIdSet.getRaw();
@@ -163,7 +165,8 @@ public final class AndBlockDocIdSet implements FilterBlockDocIdSet {
         scanBasedDocIdSets.add((ScanBasedMultiValueDocIdSet) docIdSet);
       } else {
         // TODO:handle child OR/AND as bitmap if possible
-        remainingIterators.add(docIdSet.iterator());
+        // NOTE: the iterators are created after the bitmap intersection so that they can be skipped if it is empty
+        remainingDocIdSets.add(docIdSet);
       }
     }
     if (childBitmaps.size() == 0 && sortedRangeSets.size() == 0) {
@@ -186,40 +189,50 @@ public final class AndBlockDocIdSet implements FilterBlockDocIdSet {
           answer.add(pair.getLeft(), pair.getRight() + 1);
         }
       }
-      // handle bitmaps
+      // handle bitmaps, starting from the smallest one to minimize the size of the intermediate result
       if (childBitmaps.size() > 0) {
+        childBitmaps.sort(new Comparator<ImmutableRoaringBitmap>() {
+          @Override
+          public int compare(ImmutableRoaringBitmap o1, ImmutableRoaringBitmap o2) {
+            return Integer.compare(o1.getCardinality(), o2.getCardinality());
+          }
+        });
+        int startIndex = 0;
         if (answer == null) {
           answer = childBitmaps.get(0).toMutableRoaringBitmap();
-          for (int i = 1; i < childBitmaps.size(); i++) {
-            answer.and(childBitmaps.get(i));
-          }
-        } else {
-          for (int i = 0; i < childBitmaps.size(); i++) {
-            answer.and(childBitmaps.get(i));
-          }
+          startIndex = 1;
+        }
+        for (int i = startIndex; i < childBitmaps.size() && !answer.isEmpty(); i++) {
+          answer.and(childBitmaps.get(i));
         }
       }
 
       // At this point, we must have 'answer' to be non-null.
       assert (answer != null) : "sortedRangeSets=" + sortedRangeSets.size() + ",childBitmaps=" + childBitmaps.size();
 
-      // handle raw iterators
+      // handle raw iterators, skip the scans once the intersection becomes empty
       for (FilterBlockDocIdSet scanBasedDocIdSet : scanBasedDocIdSets) {
+        if (answer.isEmpty()) {
+          break;
+        }
         ScanBasedDocIdIterator iterator = (ScanBasedDocIdIterator) scanBasedDocIdSet.iterator();
         MutableRoaringBitmap scanAnswer = iterator.applyAnd(answer);
         answer.and(scanAnswer);
       }
       long end = System.currentTimeMillis();
       LOGGER.debug("Time to evaluate and Filter:{}", (end - start));
+      if (answer.isEmpty()) {
+        return EmptyBlockDocIdIterator.getInstance();
+      }
       // if other iterators exists resort to iterator style intersection
       BlockDocIdIterator answerDocIdIterator = new RangelessBitmapDocIdIterator(answer.getIntIterator());
-      if (remainingIterators.size() == 0) {
+      if (remainingDocIdSets.size() == 0) {
         return answerDocIdIterator;
       } else {
-        BlockDocIdIterator[] docIdIterators = new BlockDocIdIterator[remainingIterators.size() + 1];
+        BlockDocIdIterator[] docIdIterators = new BlockDocIdIterator[remainingDocIdSets.size() + 1];
         docIdIterators[0] = answerDocIdIterator;
-        for (int i = 0; i < remainingIterators.size(); i++) {
-          docIdIterators[i + 1] = remainingIterators.get(i);
+        for (int i = 0; i < remainingDocIdSets.size(); i++) {
+          docIdIterators[i + 1] = remainingDocIdSets.get(i).iterator();
         }
         return new AndDocIdIterator(docIdIterators);
       }
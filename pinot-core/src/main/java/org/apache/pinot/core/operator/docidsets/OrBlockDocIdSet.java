@@ -76,14 +76,15 @@ public final class OrBlockDocIdSet implements FilterBlockDocIdSet {
 
   @Override
   public BlockDocIdIterator iterator() {
-    boolean useBitmapOr = false;
+    // Materialize the union of the index based doc id sets (bitmap and sorted) into a bitmap only if there are at least
+    // 2 of them, otherwise merging the iterators is cheaper because it does not need to copy the bitmap
+    int numIndexBasedDocIdSets = 0;
     for (BlockDocIdSet docIdSet : _docIdSets) {
-      if (docIdSet instanceof BitmapDocIdSet) {
-        useBitmapOr = true;
-        break;
+      if (docIdSet instanceof BitmapDocIdSet || docIdSet instanceof SortedDocIdSet) {
+        numIndexBasedDocIdSets++;
       }
     }
-    if (useBitmapOr) {
+    if (numIndexBasedDocIdSets >= 2) {
       List<BlockDocIdIterator> iterators = new ArrayList<>();
       MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
       for (BlockDocIdSet docIdSet : _docIdSets) {
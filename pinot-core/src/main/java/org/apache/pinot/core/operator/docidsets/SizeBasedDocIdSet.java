@@ -23,15 +23,21 @@ import org.apache.pinot.core.operator.dociditerators.SizeBasedDocIdIterator;
 
 
 public final class SizeBasedDocIdSet implements FilterBlockDocIdSet {
+  private final int _startDocId;
   private final int _maxDocId;
 
   public SizeBasedDocIdSet(int maxDocId) {
+    this(0, maxDocId);
+  }
+
+  public SizeBasedDocIdSet(int startDocId, int maxDocId) {
+    _startDocId = startDocId;
     _maxDocId = maxDocId;
   }
 
   @Override
   public int getMinDocId() {
-    return 0;
+    return _startDocId;
   }
 
   @Override
@@ -54,7 +60,7 @@ public final class SizeBasedDocIdSet implements FilterBlockDocIdSet {
 
   @Override
   public BlockDocIdIterator iterator() {
-    return new SizeBasedDocIdIterator(_maxDocId);
+    return new SizeBasedDocIdIterator(_startDocId, _maxDocId);
   }
 
   @Override
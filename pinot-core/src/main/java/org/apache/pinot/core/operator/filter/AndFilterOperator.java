@@ -56,6 +56,18 @@ public class AndFilterOperator extends BaseFilterOperator {
     return new FilterBlock(new AndBlockDocIdSet(filterBlockDocIdSets));
   }
 
+  /**
+   * The result of AND cannot be larger than the result of any child filter operator.
+   */
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    int estimatedNumMatchingDocs = UNKNOWN_NUM_MATCHING_DOCS;
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      estimatedNumMatchingDocs = Math.min(estimatedNumMatchingDocs, filterOperator.getEstimatedNumMatchingDocs());
+    }
+    return estimatedNumMatchingDocs;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
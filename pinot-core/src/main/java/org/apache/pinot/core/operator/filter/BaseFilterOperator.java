@@ -26,6 +26,7 @@ import org.apache.pinot.core.operator.blocks.FilterBlock;
  * The {@link BaseFilterOperator} class is the base class for all filter operators.
  */
 public abstract class BaseFilterOperator extends BaseOperator<FilterBlock> {
+  public static final int UNKNOWN_NUM_MATCHING_DOCS = Integer.MAX_VALUE;
 
   /**
    * Returns {@code true} if the result is always empty, {@code false} otherwise.
@@ -40,4 +41,14 @@ public abstract class BaseFilterOperator extends BaseOperator<FilterBlock> {
   public boolean isResultMatchingAll() {
     return false;
   }
+
+  /**
+   * Returns the estimated number of documents matching the filter, or {@link #UNKNOWN_NUM_MATCHING_DOCS} if it cannot
+   * be estimated cheaply.
+   * <p>The estimate is computed from the indexes (e.g. bitmap sizes, sorted index ranges) or the column metadata
+   * without evaluating the filter, and is used to plan the filter (e.g. order the child filter operators of AND).
+   */
+  public int getEstimatedNumMatchingDocs() {
+    return UNKNOWN_NUM_MATCHING_DOCS;
+  }
 }
@@ -32,12 +32,15 @@ public class BitmapBasedFilterOperator extends BaseFilterOperator {
 
   private final PredicateEvaluator _predicateEvaluator;
   private final DataSource _dataSource;
-  private final ImmutableRoaringBitmap[] _bitmaps;
+  // Lazily loaded from the inverted index if not provided, and shared by the estimation and the filter block
+  private ImmutableRoaringBitmap[] _bitmaps;
   private final int _startDocId;
   // TODO: change it to exclusive
   // Inclusive
   private final int _endDocId;
   private final boolean _exclusive;
+  // Lazily computed
+  private int _estimatedNumMatchingDocs = -1;
 
   BitmapBasedFilterOperator(PredicateEvaluator predicateEvaluator, DataSource dataSource, int startDocId,
       int endDocId) {
@@ -67,20 +70,39 @@ public class BitmapBasedFilterOperator extends BaseFilterOperator {
 
   @Override
   protected FilterBlock getNextBlock() {
-    if (_bitmaps != null) {
-      return new FilterBlock(new BitmapDocIdSet(_bitmaps, _startDocId, _endDocId, _exclusive));
-    }
-
-    int[] dictIds = _exclusive ? _predicateEvaluator.getNonMatchingDictIds() : _predicateEvaluator.getMatchingDictIds();
+    return new FilterBlock(new BitmapDocIdSet(getBitmaps(), _startDocId, _endDocId, _exclusive));
+  }
 
-    InvertedIndexReader invertedIndex = _dataSource.getInvertedIndex();
-    int length = dictIds.length;
-    ImmutableRoaringBitmap[] bitmaps = new ImmutableRoaringBitmap[length];
-    for (int i = 0; i < length; i++) {
-      bitmaps[i] = (ImmutableRoaringBitmap) invertedIndex.getDocIds(dictIds[i]);
+  private ImmutableRoaringBitmap[] getBitmaps() {
+    if (_bitmaps == null) {
+      int[] dictIds =
+          _exclusive ? _predicateEvaluator.getNonMatchingDictIds() : _predicateEvaluator.getMatchingDictIds();
+      InvertedIndexReader invertedIndex = _dataSource.getInvertedIndex();
+      int length = dictIds.length;
+      ImmutableRoaringBitmap[] bitmaps = new ImmutableRoaringBitmap[length];
+      for (int i = 0; i < length; i++) {
+        bitmaps[i] = (ImmutableRoaringBitmap) invertedIndex.getDocIds(dictIds[i]);
+      }
+      _bitmaps = bitmaps;
     }
+    return _bitmaps;
+  }
 
-    return new FilterBlock(new BitmapDocIdSet(bitmaps, _startDocId, _endDocId, _exclusive));
+  /**
+   * The number of matching documents is estimated from the cardinality of the bitmaps (exact for single-value column).
+   */
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    if (_estimatedNumMatchingDocs < 0) {
+      long numDocsInBitmaps = 0L;
+      for (ImmutableRoaringBitmap bitmap : getBitmaps()) {
+        numDocsInBitmaps += bitmap.getCardinality();
+      }
+      int numDocs = _endDocId - _startDocId + 1;
+      int numDocsInRange = (int) Math.min(numDocsInBitmaps, numDocs);
+      _estimatedNumMatchingDocs = _exclusive ? numDocs - numDocsInRange : numDocsInRange;
+    }
+    return _estimatedNumMatchingDocs;
   }
 
   @Override
@@ -28,6 +28,7 @@ import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.common.DataSourceMetadata;
 import org.apache.pinot.core.common.Predicate;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
 
 
 public class FilterOperatorUtils {
@@ -37,27 +38,60 @@ public class FilterOperatorUtils {
   // Debug option to enable or disable multi-value optimization
   public static final String USE_SCAN_REORDER_OPTIMIZATION = "useScanReorderOpt";
 
+  // Maximum fraction of the dictionary entries matching the REGEXP_LIKE predicate to use inverted index
+  private static final double REGEXP_LIKE_MAX_MATCHING_FRACTION_FOR_BITMAP = 0.1;
+
   /**
    * Returns the leaf filter operator (i.e. not {@link AndFilterOperator} or {@link OrFilterOperator}).
    */
   public static BaseFilterOperator getLeafFilterOperator(PredicateEvaluator predicateEvaluator, DataSource dataSource,
       int numDocs) {
+    // NOTE: end document Id is inclusive
+    // TODO: make it exclusive
+    return getLeafFilterOperator(predicateEvaluator, dataSource, 0, numDocs - 1);
+  }
+
+  /**
+   * Returns the leaf filter operator (i.e. not {@link AndFilterOperator} or {@link OrFilterOperator}) which only
+   * matches the documents within the given document id range (both inclusive).
+   */
+  public static BaseFilterOperator getLeafFilterOperator(PredicateEvaluator predicateEvaluator, DataSource dataSource,
+      int startDocId, int endDocId) {
     if (predicateEvaluator.isAlwaysFalse()) {
       return EmptyFilterOperator.getInstance();
     } else if (predicateEvaluator.isAlwaysTrue()) {
-      return new MatchAllFilterOperator(numDocs);
+      return new MatchAllFilterOperator(startDocId, endDocId);
     }
 
-    int startDocId = 0;
-    // NOTE: end document Id is inclusive
-    // TODO: make it exclusive
-    int endDocId = numDocs - 1;
-
-    // Use inverted index if the predicate type is not RANGE or REGEXP_LIKE for efficiency
+    // Use range index for RANGE predicate if it exists
     DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
     Predicate.Type predicateType = predicateEvaluator.getPredicateType();
-    if (dataSourceMetadata.hasInvertedIndex() && (predicateType != Predicate.Type.RANGE) && (predicateType
-        != Predicate.Type.REGEXP_LIKE)) {
+    if (predicateType == Predicate.Type.RANGE && dataSource.getRangeIndex() != null
+        && predicateEvaluator instanceof RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator) {
+      return new RangeIndexBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
+    }
+
+    // For REGEXP_LIKE predicate, the regular expression is evaluated once per dictionary entry. Use inverted index only
+    // if the pattern matches a small fraction of the dictionary entries, because OR-ing the bitmaps for a large number
+    // of dictionary entries is more expensive than scanning the dictionary ids
+    if (predicateType == Predicate.Type.REGEXP_LIKE) {
+      if (dataSourceMetadata.hasInvertedIndex() && predicateEvaluator.isDictionaryBased()) {
+        int numMatchingDictIds = predicateEvaluator.getNumMatchingDictIds();
+        if (numMatchingDictIds == 0) {
+          return EmptyFilterOperator.getInstance();
+        }
+        if (dataSourceMetadata.isSorted()) {
+          return new SortedInvertedIndexBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
+        }
+        if (numMatchingDictIds <= dataSource.getDictionary().length() * REGEXP_LIKE_MAX_MATCHING_FRACTION_FOR_BITMAP) {
+          return new BitmapBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
+        }
+      }
+      return new ScanBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
+    }
+
+    // Use inverted index if the predicate type is not RANGE for efficiency
+    if (dataSourceMetadata.hasInvertedIndex() && (predicateType != Predicate.Type.RANGE)) {
       if (dataSourceMetadata.isSorted()) {
         return new SortedInvertedIndexBasedFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
       } else {
@@ -73,6 +107,14 @@ public class FilterOperatorUtils {
    */
   public static BaseFilterOperator getAndFilterOperator(List<BaseFilterOperator> filterOperators, int numDocs,
       @Nullable Map<String, String> debugOptions) {
+    return getAndFilterOperator(filterOperators, 0, numDocs - 1, debugOptions);
+  }
+
+  /**
+   * Returns the AND filter operator or equivalent filter operator for the given document id range (both inclusive).
+   */
+  public static BaseFilterOperator getAndFilterOperator(List<BaseFilterOperator> filterOperators, int startDocId,
+      int endDocId, @Nullable Map<String, String> debugOptions) {
     List<BaseFilterOperator> childFilterOperators = new ArrayList<>(filterOperators.size());
     for (BaseFilterOperator filterOperator : filterOperators) {
       if (filterOperator.isResultEmpty()) {
@@ -84,7 +126,7 @@ public class FilterOperatorUtils {
     int numChildFilterOperators = childFilterOperators.size();
     if (numChildFilterOperators == 0) {
       // Return match all filter operator if all child filter operators match all records
-      return new MatchAllFilterOperator(numDocs);
+      return new MatchAllFilterOperator(startDocId, endDocId);
     } else if (numChildFilterOperators == 1) {
       // Return the child filter operator if only one left
       return childFilterOperators.get(0);
@@ -100,10 +142,18 @@ public class FilterOperatorUtils {
    */
   public static BaseFilterOperator getOrFilterOperator(List<BaseFilterOperator> filterOperators, int numDocs,
       @Nullable Map<String, String> debugOptions) {
+    return getOrFilterOperator(filterOperators, 0, numDocs - 1, debugOptions);
+  }
+
+  /**
+   * Returns the OR filter operator or equivalent filter operator for the given document id range (both inclusive).
+   */
+  public static BaseFilterOperator getOrFilterOperator(List<BaseFilterOperator> filterOperators, int startDocId,
+      int endDocId, @Nullable Map<String, String> debugOptions) {
     List<BaseFilterOperator> childFilterOperators = new ArrayList<>(filterOperators.size());
     for (BaseFilterOperator filterOperator : filterOperators) {
       if (filterOperator.isResultMatchingAll()) {
-        return new MatchAllFilterOperator(numDocs);
+        return new MatchAllFilterOperator(startDocId, endDocId);
       } else if (!filterOperator.isResultEmpty()) {
         childFilterOperators.add(filterOperator);
       }
@@ -124,6 +174,8 @@ public class FilterOperatorUtils {
   /**
    * For AND filter operator, reorders its child filter operators based on the their cost and puts the ones with
    * inverted index first in order to reduce the number of documents to be processed.
+   * <p>Child filter operators with the same priority are ordered by their estimated number of matching documents (see
+   * {@link BaseFilterOperator#getEstimatedNumMatchingDocs()}), so that the most selective ones are processed first.
    * <p>Special filter operators such as {@link MatchAllFilterOperator} and {@link EmptyFilterOperator} should be
    * removed from the list before calling this method.
    */
@@ -132,14 +184,19 @@ public class FilterOperatorUtils {
     filterOperators.sort(new Comparator<BaseFilterOperator>() {
       @Override
       public int compare(BaseFilterOperator o1, BaseFilterOperator o2) {
-        return getPriority(o1) - getPriority(o2);
+        int priorityDiff = getPriority(o1) - getPriority(o2);
+        if (priorityDiff != 0) {
+          return priorityDiff;
+        }
+        return Integer.compare(o1.getEstimatedNumMatchingDocs(), o2.getEstimatedNumMatchingDocs());
       }
 
       int getPriority(BaseFilterOperator filterOperator) {
         if (filterOperator instanceof SortedInvertedIndexBasedFilterOperator) {
           return 0;
         }
-        if (filterOperator instanceof BitmapBasedFilterOperator) {
+        if (filterOperator instanceof BitmapBasedFilterOperator
+            || filterOperator instanceof RangeIndexBasedFilterOperator) {
           return 1;
         }
         if (filterOperator instanceof AndFilterOperator) {
@@ -25,10 +25,23 @@ import org.apache.pinot.core.operator.docidsets.SizeBasedDocIdSet;
 public class MatchAllFilterOperator extends BaseFilterOperator {
   private static final String OPERATOR_NAME = "MatchEntireSegmentOperator";
 
-  private int _maxDocId;
+  private final int _startDocId;
+  // Inclusive
+  private final int _maxDocId;
 
   public MatchAllFilterOperator(int totalDocs) {
-    _maxDocId = totalDocs - 1;
+    this(0, totalDocs - 1);
+  }
+
+  /**
+   * Constructor for the operator matching all the documents within the given document id range.
+   *
+   * @param startDocId Start document id (inclusive)
+   * @param endDocId End document id (inclusive)
+   */
+  public MatchAllFilterOperator(int startDocId, int endDocId) {
+    _startDocId = startDocId;
+    _maxDocId = endDocId;
   }
 
   @Override
@@ -36,9 +49,14 @@ public class MatchAllFilterOperator extends BaseFilterOperator {
     return true;
   }
 
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    return _maxDocId - _startDocId + 1;
+  }
+
   @Override
   protected FilterBlock getNextBlock() {
-    return new FilterBlock(new SizeBasedDocIdSet(_maxDocId));
+    return new FilterBlock(new SizeBasedDocIdSet(_startDocId, _maxDocId));
   }
 
   @Override
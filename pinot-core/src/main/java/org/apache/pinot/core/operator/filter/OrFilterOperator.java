@@ -56,6 +56,22 @@ public class OrFilterOperator extends BaseFilterOperator {
     return new FilterBlock(new OrBlockDocIdSet(filterBlockDocIdSets));
   }
 
+  /**
+   * The result of OR cannot be larger than the sum of the results of the child filter operators.
+   */
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    long estimatedNumMatchingDocs = 0L;
+    for (BaseFilterOperator filterOperator : _filterOperators) {
+      int childEstimatedNumMatchingDocs = filterOperator.getEstimatedNumMatchingDocs();
+      if (childEstimatedNumMatchingDocs == UNKNOWN_NUM_MATCHING_DOCS) {
+        return UNKNOWN_NUM_MATCHING_DOCS;
+      }
+      estimatedNumMatchingDocs += childEstimatedNumMatchingDocs;
+    }
+    return (int) Math.min(estimatedNumMatchingDocs, UNKNOWN_NUM_MATCHING_DOCS - 1);
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
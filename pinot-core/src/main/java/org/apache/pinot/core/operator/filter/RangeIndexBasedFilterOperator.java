@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import com.google.common.base.Preconditions;
+import org.apache.pinot.core.common.Block;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.blocks.FilterBlock;
+import org.apache.pinot.core.operator.dociditerators.MVScanDocIdIterator;
+import org.apache.pinot.core.operator.dociditerators.SVScanDocIdIterator;
+import org.apache.pinot.core.operator.dociditerators.ScanBasedDocIdIterator;
+import org.apache.pinot.core.operator.docidsets.BitmapDocIdSet;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Filter operator for RANGE predicate on column with range index.
+ * <p>The bitmaps of the ranges fully covered by the predicate are OR-ed directly. The ranges partially covered by the
+ * predicate (at most 2, one on each boundary) only give the candidate docs, which are verified with the forward index.
+ */
+public class RangeIndexBasedFilterOperator extends BaseFilterOperator {
+  private static final String OPERATOR_NAME = "RangeIndexBasedFilterOperator";
+
+  private final PredicateEvaluator _predicateEvaluator;
+  private final int _startDictId;
+  // Exclusive
+  private final int _endDictId;
+  private final DataSource _dataSource;
+  private final int _startDocId;
+  // TODO: change it to exclusive
+  // Inclusive
+  private final int _endDocId;
+  // Lazily computed
+  private int _estimatedNumMatchingDocs = -1;
+
+  RangeIndexBasedFilterOperator(PredicateEvaluator predicateEvaluator, DataSource dataSource, int startDocId,
+      int endDocId) {
+    // NOTE:
+    // Predicate that is always evaluated as true or false should not be passed into the RangeIndexBasedFilterOperator
+    // for performance concern.
+    // If predicate is always evaluated as true, use MatchAllFilterOperator; if predicate is always evaluated as false,
+    // use EmptyFilterOperator.
+    Preconditions.checkArgument(!predicateEvaluator.isAlwaysTrue() && !predicateEvaluator.isAlwaysFalse());
+
+    RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator rangePredicateEvaluator =
+        (RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator) predicateEvaluator;
+    _predicateEvaluator = predicateEvaluator;
+    _startDictId = rangePredicateEvaluator.getStartDictId();
+    _endDictId = rangePredicateEvaluator.getEndDictId();
+    _dataSource = dataSource;
+    _startDocId = startDocId;
+    _endDocId = endDocId;
+  }
+
+  @Override
+  protected FilterBlock getNextBlock() {
+    RangeIndexReader rangeIndex = _dataSource.getRangeIndex();
+    int startRangeId = rangeIndex.findRangeId(_startDictId);
+    int endRangeId = rangeIndex.findRangeId(_endDictId - 1);
+
+    MutableRoaringBitmap matchingDocIds = new MutableRoaringBitmap();
+    MutableRoaringBitmap candidateDocIds = new MutableRoaringBitmap();
+    for (int rangeId = startRangeId; rangeId <= endRangeId; rangeId++) {
+      ImmutableRoaringBitmap docIds = rangeIndex.getDocIds(rangeId);
+      boolean fullyCovered = rangeIndex.getRangeStartDictId(rangeId) >= _startDictId
+          && rangeIndex.getRangeEndDictId(rangeId) <= _endDictId;
+      if (fullyCovered) {
+        matchingDocIds.or(docIds);
+      } else {
+        candidateDocIds.or(docIds);
+      }
+    }
+
+    // Verify the candidate docs (not already matched by another range for multi-valued column) with forward index
+    candidateDocIds.andNot(matchingDocIds);
+    if (!candidateDocIds.isEmpty()) {
+      matchingDocIds.or(getScanBasedDocIdIterator().applyAnd(candidateDocIds));
+    }
+
+    return new FilterBlock(
+        new BitmapDocIdSet(new ImmutableRoaringBitmap[]{matchingDocIds}, _startDocId, _endDocId, false));
+  }
+
+  /**
+   * The number of matching documents is bounded by the cardinality of the bitmaps of the ranges covered by the
+   * predicate.
+   */
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    if (_estimatedNumMatchingDocs < 0) {
+      RangeIndexReader rangeIndex = _dataSource.getRangeIndex();
+      int startRangeId = rangeIndex.findRangeId(_startDictId);
+      int endRangeId = rangeIndex.findRangeId(_endDictId - 1);
+      long numDocsInRanges = 0L;
+      for (int rangeId = startRangeId; rangeId <= endRangeId; rangeId++) {
+        numDocsInRanges += rangeIndex.getDocIds(rangeId).getCardinality();
+      }
+      _estimatedNumMatchingDocs = (int) Math.min(numDocsInRanges, _endDocId - _startDocId + 1);
+    }
+    return _estimatedNumMatchingDocs;
+  }
+
+  private ScanBasedDocIdIterator getScanBasedDocIdIterator() {
+    Block block = _dataSource.nextBlock();
+    ScanBasedDocIdIterator scanBasedDocIdIterator;
+    if (_dataSource.getDataSourceMetadata().isSingleValue()) {
+      SVScanDocIdIterator svScanDocIdIterator =
+          new SVScanDocIdIterator(_dataSource.getOperatorName(), block.getBlockValueSet(), block.getMetadata(),
+              _predicateEvaluator);
+      svScanDocIdIterator.setStartDocId(_startDocId);
+      svScanDocIdIterator.setEndDocId(_endDocId);
+      scanBasedDocIdIterator = svScanDocIdIterator;
+    } else {
+      MVScanDocIdIterator mvScanDocIdIterator =
+          new MVScanDocIdIterator(_dataSource.getOperatorName(), block.getBlockValueSet(), block.getMetadata(),
+              _predicateEvaluator);
+      mvScanDocIdIterator.setStartDocId(_startDocId);
+      mvScanDocIdIterator.setEndDocId(_endDocId);
+      scanBasedDocIdIterator = mvScanDocIdIterator;
+    }
+    return scanBasedDocIdIterator;
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+}
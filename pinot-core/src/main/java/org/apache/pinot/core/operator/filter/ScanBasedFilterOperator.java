@@ -29,6 +29,7 @@ import org.apache.pinot.core.operator.docidsets.FilterBlockDocIdSet;
 import org.apache.pinot.core.operator.docidsets.ScanBasedMultiValueDocIdSet;
 import org.apache.pinot.core.operator.docidsets.ScanBasedSingleValueDocIdSet;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator;
 
 
 public class ScanBasedFilterOperator extends BaseFilterOperator {
@@ -77,6 +78,43 @@ public class ScanBasedFilterOperator extends BaseFilterOperator {
     return new FilterBlock(filterBlockDocIdSet);
   }
 
+  /**
+   * For the predicates with cheap number of matching dictionary ids, the number of matching documents is estimated
+   * from the fraction of the matching dictionary ids assuming the values are uniformly distributed.
+   */
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    if (!_predicateEvaluator.isDictionaryBased()) {
+      return UNKNOWN_NUM_MATCHING_DOCS;
+    }
+    int cardinality = _dataSource.getDictionary().length();
+    if (cardinality <= 0) {
+      return UNKNOWN_NUM_MATCHING_DOCS;
+    }
+    int numMatchingDictIds;
+    switch (_predicateEvaluator.getPredicateType()) {
+      case EQ:
+      case IN:
+        numMatchingDictIds = _predicateEvaluator.getNumMatchingDictIds();
+        break;
+      case NEQ:
+      case NOT_IN:
+        numMatchingDictIds = cardinality - _predicateEvaluator.getNumNonMatchingDictIds();
+        break;
+      case RANGE:
+        if (_predicateEvaluator instanceof OfflineDictionaryBasedRangePredicateEvaluator) {
+          OfflineDictionaryBasedRangePredicateEvaluator rangePredicateEvaluator =
+              (OfflineDictionaryBasedRangePredicateEvaluator) _predicateEvaluator;
+          numMatchingDictIds = rangePredicateEvaluator.getEndDictId() - rangePredicateEvaluator.getStartDictId();
+          break;
+        }
+        return UNKNOWN_NUM_MATCHING_DOCS;
+      default:
+        return UNKNOWN_NUM_MATCHING_DOCS;
+    }
+    return (int) ((long) (_endDocId - _startDocId + 1) * numMatchingDictIds / cardinality);
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
@@ -28,6 +28,7 @@ import org.apache.pinot.core.io.reader.impl.v1.SortedIndexReader;
 import org.apache.pinot.core.operator.blocks.FilterBlock;
 import org.apache.pinot.core.operator.docidsets.SortedDocIdSet;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.OfflineDictionaryBasedRangePredicateEvaluator;
 
 
 public class SortedInvertedIndexBasedFilterOperator extends BaseFilterOperator {
@@ -39,6 +40,8 @@ public class SortedInvertedIndexBasedFilterOperator extends BaseFilterOperator {
   // TODO: change it to exclusive
   // Inclusive
   private final int _endDocId;
+  // Lazily computed
+  private int _estimatedNumMatchingDocs = -1;
 
   SortedInvertedIndexBasedFilterOperator(PredicateEvaluator predicateEvaluator, DataSource dataSource, int startDocId,
       int endDocId) {
@@ -157,6 +160,47 @@ public class SortedInvertedIndexBasedFilterOperator extends BaseFilterOperator {
     return new FilterBlock(new SortedDocIdSet(_dataSource.getOperatorName(), pairs));
   }
 
+  /**
+   * The number of matching documents is computed from the doc id ranges of the sorted index.
+   */
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    if (_estimatedNumMatchingDocs < 0) {
+      SortedIndexReader invertedIndex = (SortedIndexReader) _dataSource.getInvertedIndex();
+      if (_predicateEvaluator instanceof OfflineDictionaryBasedRangePredicateEvaluator) {
+        // The matching dictionary ids of the RANGE predicate are contiguous, so are their doc id ranges. Compute the
+        // number of matching documents from the first and last matching dictionary ids without materializing them.
+        OfflineDictionaryBasedRangePredicateEvaluator rangePredicateEvaluator =
+            (OfflineDictionaryBasedRangePredicateEvaluator) _predicateEvaluator;
+        int startDictId = rangePredicateEvaluator.getStartDictId();
+        int endDictId = rangePredicateEvaluator.getEndDictId();
+        if (startDictId >= endDictId) {
+          _estimatedNumMatchingDocs = 0;
+        } else {
+          IntPair docIds = new IntPair(invertedIndex.getDocIds(startDictId).getLeft(),
+              invertedIndex.getDocIds(endDictId - 1).getRight());
+          IntRanges.clip(docIds, _startDocId, _endDocId);
+          _estimatedNumMatchingDocs = IntRanges.isInvalid(docIds) ? 0 : docIds.getRight() - docIds.getLeft() + 1;
+        }
+        return _estimatedNumMatchingDocs;
+      }
+      boolean exclusive = _predicateEvaluator.isExclusive();
+      int[] dictIds =
+          exclusive ? _predicateEvaluator.getNonMatchingDictIds() : _predicateEvaluator.getMatchingDictIds();
+      int numDocs = _endDocId - _startDocId + 1;
+      int numDocsInRanges = 0;
+      for (int dictId : dictIds) {
+        IntPair docIds = invertedIndex.getDocIds(dictId);
+        IntRanges.clip(docIds, _startDocId, _endDocId);
+        if (!IntRanges.isInvalid(docIds)) {
+          numDocsInRanges += docIds.getRight() - docIds.getLeft() + 1;
+        }
+      }
+      _estimatedNumMatchingDocs = exclusive ? numDocs - numDocsInRanges : numDocsInRanges;
+    }
+    return _estimatedNumMatchingDocs;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
@@ -25,6 +25,17 @@ public abstract class BasePredicateEvaluator implements PredicateEvaluator {
     return getPredicateType().isExclusive();
   }
 
+  @Override
+  public int applySV(int limit, int[] docIds, int[] values) {
+    int numMatchingDocs = 0;
+    for (int i = 0; i < limit; i++) {
+      if (applySV(values[i])) {
+        docIds[numMatchingDocs++] = docIds[i];
+      }
+    }
+    return numMatchingDocs;
+  }
+
   @Override
   public int getNumMatchingDictIds() {
     return getMatchingDictIds().length;
@@ -95,6 +95,16 @@ public class EqualsPredicateEvaluatorFactory {
       return _matchingDictId == dictId;
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] dictIds) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        docIds[numMatchingDocs] = docIds[i];
+        numMatchingDocs += dictIds[i] == _matchingDictId ? 1 : 0;
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int[] getMatchingDictIds() {
       return _matchingDictIds;
@@ -112,6 +112,16 @@ public class InPredicateEvaluatorFactory {
       return _matchingDictIdSet.contains(dictId);
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] dictIds) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        docIds[numMatchingDocs] = docIds[i];
+        numMatchingDocs += _matchingDictIdSet.contains(dictIds[i]) ? 1 : 0;
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int getNumMatchingDictIds() {
       return _numMatchingDictIds;
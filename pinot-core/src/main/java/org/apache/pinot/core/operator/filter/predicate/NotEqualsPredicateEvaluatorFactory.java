@@ -98,6 +98,16 @@ public class NotEqualsPredicateEvaluatorFactory {
       return _nonMatchingDictId != dictId;
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] dictIds) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        docIds[numMatchingDocs] = docIds[i];
+        numMatchingDocs += dictIds[i] != _nonMatchingDictId ? 1 : 0;
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int[] getMatchingDictIds() {
       if (_matchingDictIds == null) {
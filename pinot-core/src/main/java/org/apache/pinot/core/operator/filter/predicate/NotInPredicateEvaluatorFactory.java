@@ -115,6 +115,16 @@ public class NotInPredicateEvaluatorFactory {
       return !_nonMatchingDictIdSet.contains(dictId);
     }
 
+    @Override
+    public int applySV(int limit, int[] docIds, int[] dictIds) {
+      int numMatchingDocs = 0;
+      for (int i = 0; i < limit; i++) {
+        docIds[numMatchingDocs] = docIds[i];
+        numMatchingDocs += _nonMatchingDictIdSet.contains(dictIds[i]) ? 0 : 1;
+      }
+      return numMatchingDocs;
+    }
+
     @Override
     public int[] getMatchingDictIds() {
       if (_matchingDictIds == null) {
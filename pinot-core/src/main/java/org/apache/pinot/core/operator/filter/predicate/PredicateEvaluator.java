@@ -59,6 +59,20 @@ public interface PredicateEvaluator {
    */
   boolean applySV(int value);
 
+  /**
+   * Apply a batch of single-value entries to the predicate, and keep the doc ids of the matching entries.
+   * <p>The doc ids of the matching entries are compacted into the head of the doc ids array (in the same order).
+   * <p>NOTE: Implementations should avoid branching on the match result inside the loop, e.g. always write the doc id
+   * at the current index and only advance the index on match, so that the loop does not suffer from branch
+   * mispredictions when the selectivity is neither very high nor very low.
+   *
+   * @param limit Number of entries in the batch
+   * @param docIds Array of doc ids of the entries, overwritten with the matching doc ids
+   * @param values Array of dictionary ids or raw values of the entries
+   * @return Number of matching entries
+   */
+  int applySV(int limit, int[] docIds, int[] values);
+
   /**
    * Apply a multi-value entry to the predicate.
    *
@@ -19,13 +19,18 @@
 package org.apache.pinot.core.operator.filter.predicate;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
 import java.util.regex.Pattern;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.core.common.Predicate;
 import org.apache.pinot.core.common.predicate.RegexpLikePredicate;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
 
 
 /**
@@ -62,13 +67,70 @@ public class RegexpLikePredicateEvaluatorFactory {
 
   private static final int PATTERN_FLAG = Pattern.UNICODE_CASE | Pattern.CASE_INSENSITIVE;
 
+  // Maximum total size of the cached matching dictionary ids across all the dictionaries
+  private static final long MAX_CACHE_SIZE_IN_BYTES = 16 * 1024 * 1024;
+  // Rough estimation of the overhead of each cache entry (key, weak reference and array header)
+  private static final int ENTRY_OVERHEAD_IN_BYTES = 128;
+
+  // Cache from (immutable dictionary, regular expression) to the matching dictionary ids, so that the regular
+  // expressions do not need to be re-evaluated for each dictionary entry in the following queries. The cache is bounded
+  // by the total size of the entries, and the entries of the unloaded segments are evicted as they can no longer be
+  // looked up.
+  private static final Cache<MatchingDictIdsKey, int[]> MATCHING_DICT_IDS_CACHE =
+      CacheBuilder.newBuilder().maximumWeight(MAX_CACHE_SIZE_IN_BYTES)
+          .weigher((MatchingDictIdsKey key, int[] matchingDictIds) -> key.getSizeInBytes()
+              + matchingDictIds.length * Integer.BYTES).build();
+
+  /**
+   * Cache key of the matching dictionary ids. The dictionary is compared by identity and weakly referenced so that the
+   * cache does not prevent the dictionaries of the unloaded segments from being garbage collected.
+   */
+  private static final class MatchingDictIdsKey {
+    final WeakReference<Dictionary> _dictionaryRef;
+    final int _dictionaryHashCode;
+    final String _regex;
+
+    MatchingDictIdsKey(Dictionary dictionary, String regex) {
+      _dictionaryRef = new WeakReference<>(dictionary);
+      _dictionaryHashCode = System.identityHashCode(dictionary);
+      _regex = regex;
+    }
+
+    int getSizeInBytes() {
+      return ENTRY_OVERHEAD_IN_BYTES + _regex.length() * Character.BYTES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MatchingDictIdsKey)) {
+        return false;
+      }
+      MatchingDictIdsKey that = (MatchingDictIdsKey) o;
+      Dictionary dictionary = _dictionaryRef.get();
+      return dictionary != null && dictionary == that._dictionaryRef.get() && _regex.equals(that._regex);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * _dictionaryHashCode + _regex.hashCode();
+    }
+  }
+
   private static final class DictionaryBasedRegexpLikePredicateEvaluator extends BaseDictionaryBasedPredicateEvaluator {
+    final String _regex;
     final Pattern _pattern;
     final Dictionary _dictionary;
+    // The regular expression is evaluated at most once per dictionary id
+    final BitSet _evaluatedDictIds = new BitSet();
+    final BitSet _matchingDictIdSet = new BitSet();
     int[] _matchingDictIds;
 
     public DictionaryBasedRegexpLikePredicateEvaluator(RegexpLikePredicate regexpLikePredicate, Dictionary dictionary) {
-      _pattern = Pattern.compile(regexpLikePredicate.getRegex(), PATTERN_FLAG);
+      _regex = regexpLikePredicate.getRegex();
+      _pattern = Pattern.compile(_regex, PATTERN_FLAG);
       _dictionary = dictionary;
     }
 
@@ -79,20 +141,45 @@ public class RegexpLikePredicateEvaluatorFactory {
 
     @Override
     public boolean applySV(int dictId) {
-      return _pattern.matcher(_dictionary.getStringValue(dictId)).find();
+      if (_evaluatedDictIds.get(dictId)) {
+        return _matchingDictIdSet.get(dictId);
+      }
+      _evaluatedDictIds.set(dictId);
+      if (_pattern.matcher(_dictionary.getStringValue(dictId)).find()) {
+        _matchingDictIdSet.set(dictId);
+        return true;
+      } else {
+        return false;
+      }
     }
 
     @Override
     public int[] getMatchingDictIds() {
       if (_matchingDictIds == null) {
-        IntList matchingDictIds = new IntArrayList();
         int dictionarySize = _dictionary.length();
-        for (int dictId = 0; dictId < dictionarySize; dictId++) {
-          if (applySV(dictId)) {
-            matchingDictIds.add(dictId);
+        // Mutable dictionaries keep growing, so only cache the matching dictionary ids for immutable dictionaries
+        MatchingDictIdsKey cacheKey = null;
+        if (_dictionary instanceof ImmutableDictionaryReader) {
+          cacheKey = new MatchingDictIdsKey(_dictionary, _regex);
+          _matchingDictIds = MATCHING_DICT_IDS_CACHE.getIfPresent(cacheKey);
+        }
+        if (_matchingDictIds != null) {
+          _evaluatedDictIds.set(0, dictionarySize);
+          for (int dictId : _matchingDictIds) {
+            _matchingDictIdSet.set(dictId);
+          }
+        } else {
+          IntList matchingDictIds = new IntArrayList();
+          for (int dictId = 0; dictId < dictionarySize; dictId++) {
+            if (applySV(dictId)) {
+              matchingDictIds.add(dictId);
+            }
+          }
+          _matchingDictIds = matchingDictIds.toIntArray();
+          if (cacheKey != null) {
+            MATCHING_DICT_IDS_CACHE.put(cacheKey, _matchingDictIds);
           }
         }
-        _matchingDictIds = matchingDictIds.toIntArray();
       }
       return _matchingDictIds;
     }
@@ -18,9 +18,14 @@
  */
 package org.apache.pinot.core.operator.query;
 
+import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.request.GroupBy;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
 import org.apache.pinot.core.operator.BaseOperator;
+import org.apache.pinot.core.operator.DocIdRangeStatisticsCollector;
 import org.apache.pinot.core.operator.ExecutionStatistics;
 import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
 import org.apache.pinot.core.operator.blocks.TransformBlock;
@@ -45,12 +50,22 @@ public class AggregationGroupByOperator extends BaseOperator<IntermediateResults
   private final TransformOperator _transformOperator;
   private final long _numTotalRawDocs;
   private final boolean _useStarTree;
+  // Only set when processing a document id range of a segment split into multiple document id ranges
+  private final DocIdRangeStatisticsCollector _docIdRangeStatisticsCollector;
 
   private ExecutionStatistics _executionStatistics;
 
   public AggregationGroupByOperator(@Nonnull AggregationFunctionContext[] functionContexts, @Nonnull GroupBy groupBy,
       int maxInitialResultHolderCapacity, int numGroupsLimit, @Nonnull TransformOperator transformOperator,
       long numTotalRawDocs, boolean useStarTree) {
+    this(functionContexts, groupBy, maxInitialResultHolderCapacity, numGroupsLimit, transformOperator, numTotalRawDocs,
+        useStarTree, null);
+  }
+
+  public AggregationGroupByOperator(@Nonnull AggregationFunctionContext[] functionContexts, @Nonnull GroupBy groupBy,
+      int maxInitialResultHolderCapacity, int numGroupsLimit, @Nonnull TransformOperator transformOperator,
+      long numTotalRawDocs, boolean useStarTree,
+      @Nullable DocIdRangeStatisticsCollector docIdRangeStatisticsCollector) {
     _functionContexts = functionContexts;
     _groupBy = groupBy;
     _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
@@ -58,6 +73,7 @@ public class AggregationGroupByOperator extends BaseOperator<IntermediateResults
     _transformOperator = transformOperator;
     _numTotalRawDocs = numTotalRawDocs;
     _useStarTree = useStarTree;
+    _docIdRangeStatisticsCollector = docIdRangeStatisticsCollector;
   }
 
   @Override
@@ -85,14 +101,35 @@ public class AggregationGroupByOperator extends BaseOperator<IntermediateResults
     // Gather execution statistics
     long numEntriesScannedInFilter = _transformOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
     long numEntriesScannedPostFilter = numDocsScanned * _transformOperator.getNumColumnsProjected();
-    _executionStatistics =
-        new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
-            _numTotalRawDocs);
+    if (_docIdRangeStatisticsCollector != null) {
+      _executionStatistics = _docIdRangeStatisticsCollector
+          .getExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+              _numTotalRawDocs);
+    } else {
+      _executionStatistics =
+          new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+              _numTotalRawDocs);
+    }
 
     // Build intermediate result block based on aggregation group-by result from the executor
     return new IntermediateResultsBlock(_functionContexts, groupByResult);
   }
 
+  /**
+   * Returns the data types of the group-by expressions.
+   */
+  public FieldSpec.DataType[] getGroupByDataTypes() {
+    List<String> groupByExpressions = _groupBy.getExpressions();
+    int numGroupByExpressions = groupByExpressions.size();
+    FieldSpec.DataType[] dataTypes = new FieldSpec.DataType[numGroupByExpressions];
+    for (int i = 0; i < numGroupByExpressions; i++) {
+      TransformExpressionTree groupByExpression =
+          TransformExpressionTree.compileToExpressionTree(groupByExpressions.get(i));
+      dataTypes[i] = _transformOperator.getResultMetadata(groupByExpression).getDataType();
+    }
+    return dataTypes;
+  }
+
   @Override
   public String getOperatorName() {
     return OPERATOR_NAME;
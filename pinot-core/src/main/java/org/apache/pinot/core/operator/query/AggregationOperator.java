@@ -20,7 +20,9 @@ package org.apache.pinot.core.operator.query;
 
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.pinot.core.operator.BaseOperator;
+import org.apache.pinot.core.operator.DocIdRangeStatisticsCollector;
 import org.apache.pinot.core.operator.ExecutionStatistics;
 import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
 import org.apache.pinot.core.operator.blocks.TransformBlock;
@@ -41,15 +43,24 @@ public class AggregationOperator extends BaseOperator<IntermediateResultsBlock>
   private final TransformOperator _transformOperator;
   private final long _numTotalRawDocs;
   private final boolean _useStarTree;
+  // Only set when processing a document id range of a segment split into multiple document id ranges
+  private final DocIdRangeStatisticsCollector _docIdRangeStatisticsCollector;
 
   private ExecutionStatistics _executionStatistics;
 
   public AggregationOperator(@Nonnull AggregationFunctionContext[] functionContexts,
       @Nonnull TransformOperator transformOperator, long numTotalRawDocs, boolean useStarTree) {
+    this(functionContexts, transformOperator, numTotalRawDocs, useStarTree, null);
+  }
+
+  public AggregationOperator(@Nonnull AggregationFunctionContext[] functionContexts,
+      @Nonnull TransformOperator transformOperator, long numTotalRawDocs, boolean useStarTree,
+      @Nullable DocIdRangeStatisticsCollector docIdRangeStatisticsCollector) {
     _functionContexts = functionContexts;
     _transformOperator = transformOperator;
     _numTotalRawDocs = numTotalRawDocs;
     _useStarTree = useStarTree;
+    _docIdRangeStatisticsCollector = docIdRangeStatisticsCollector;
   }
 
   @Override
@@ -73,9 +84,15 @@ public class AggregationOperator extends BaseOperator<IntermediateResultsBlock>
     // Create execution statistics
     long numEntriesScannedInFilter = _transformOperator.getExecutionStatistics().getNumEntriesScannedInFilter();
     long numEntriesScannedPostFilter = numDocsScanned * _transformOperator.getNumColumnsProjected();
-    _executionStatistics =
-        new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
-            _numTotalRawDocs);
+    if (_docIdRangeStatisticsCollector != null) {
+      _executionStatistics = _docIdRangeStatisticsCollector
+          .getExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+              _numTotalRawDocs);
+    } else {
+      _executionStatistics =
+          new ExecutionStatistics(numDocsScanned, numEntriesScannedInFilter, numEntriesScannedPostFilter,
+              _numTotalRawDocs);
+    }
 
     // Build intermediate result block based on aggregation result from the executor
     return new IntermediateResultsBlock(_functionContexts, aggregationResult, false);
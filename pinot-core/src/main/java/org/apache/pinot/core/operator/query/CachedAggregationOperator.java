@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.query;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.BaseOperator;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
+
+
+/**
+ * The <code>CachedAggregationOperator</code> class provides the operator for aggregation only and aggregation group-by
+ * query on a single segment with the {@link SegmentResultCache}.
+ * <ul>
+ *   <li>On cache hit, it returns a copy of the cached results without scanning the segment, and reports no documents or
+ *   entries scanned.</li>
+ *   <li>On cache miss, it executes the underlying aggregation operator and puts the results into the cache.</li>
+ * </ul>
+ */
+public class CachedAggregationOperator extends BaseOperator<IntermediateResultsBlock> {
+  private static final String OPERATOR_NAME = "CachedAggregationOperator";
+
+  private final AggregationFunctionContext[] _functionContexts;
+  private final SegmentResultCache.Entry _cachedEntry;
+  private final Operator<IntermediateResultsBlock> _operator;
+  private final SegmentResultCache _segmentResultCache;
+  private final SegmentResultCache.Key _key;
+  private final IndexSegment _indexSegment;
+
+  private ExecutionStatistics _executionStatistics;
+
+  /**
+   * Constructor for cache hit.
+   */
+  public CachedAggregationOperator(@Nonnull AggregationFunctionContext[] functionContexts,
+      @Nonnull SegmentResultCache.Entry cachedEntry) {
+    _functionContexts = functionContexts;
+    _cachedEntry = cachedEntry;
+    _operator = null;
+    _segmentResultCache = null;
+    _key = null;
+    _indexSegment = null;
+  }
+
+  /**
+   * Constructor for cache miss.
+   */
+  public CachedAggregationOperator(@Nonnull AggregationFunctionContext[] functionContexts,
+      @Nonnull Operator<IntermediateResultsBlock> operator, @Nonnull SegmentResultCache segmentResultCache,
+      @Nonnull SegmentResultCache.Key key, @Nonnull IndexSegment indexSegment) {
+    _functionContexts = functionContexts;
+    _cachedEntry = null;
+    _operator = operator;
+    _segmentResultCache = segmentResultCache;
+    _key = key;
+    _indexSegment = indexSegment;
+  }
+
+  @Override
+  protected IntermediateResultsBlock getNextBlock() {
+    if (_cachedEntry != null) {
+      _executionStatistics = _cachedEntry.getExecutionStatistics();
+      if (_cachedEntry.isGroupBy()) {
+        return new IntermediateResultsBlock(_functionContexts,
+            _cachedEntry.getAggregationGroupByResult(_functionContexts));
+      } else {
+        return new IntermediateResultsBlock(_functionContexts, _cachedEntry.getAggregationResult(), false);
+      }
+    }
+
+    IntermediateResultsBlock resultsBlock = _operator.nextBlock();
+    _executionStatistics = _operator.getExecutionStatistics();
+
+    // Cache the results before they get merged with the results from other segments
+    if (resultsBlock.getProcessingExceptions() != null || _executionStatistics == null) {
+      return resultsBlock;
+    }
+    List<Object> aggregationResult = resultsBlock.getAggregationResult();
+    if (aggregationResult != null) {
+      _segmentResultCache.put(_key, _indexSegment, _functionContexts, aggregationResult, _executionStatistics);
+    }
+    AggregationGroupByResult aggregationGroupByResult = resultsBlock.getAggregationGroupByResult();
+    if (aggregationGroupByResult != null && _operator instanceof AggregationGroupByOperator) {
+      _segmentResultCache.put(_key, _indexSegment, _functionContexts, aggregationGroupByResult,
+          ((AggregationGroupByOperator) _operator).getGroupByDataTypes(), _executionStatistics);
+    }
+    return resultsBlock;
+  }
+
+  @Override
+  public String getOperatorName() {
+    return OPERATOR_NAME;
+  }
+
+  @Override
+  public ExecutionStatistics getExecutionStatistics() {
+    return _executionStatistics;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.AggregationInfo;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.GroupBy;
@@ -29,6 +30,7 @@ import org.apache.pinot.common.request.transform.TransformExpressionTree;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
 import org.apache.pinot.common.utils.request.RequestUtils;
 import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.DocIdRangeStatisticsCollector;
 import org.apache.pinot.core.operator.query.AggregationGroupByOperator;
 import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
@@ -55,10 +57,26 @@ public class AggregationGroupByPlanNode implements PlanNode {
   private final GroupBy _groupBy;
   private final TransformPlanNode _transformPlanNode;
   private final StarTreeTransformPlanNode _starTreeTransformPlanNode;
+  // Number of documents within the document id range to process, or -1 for the whole segment
+  private final int _numDocsInRange;
+  // Collects the statistics across the document id ranges of the segment, null if the segment is not split
+  private final DocIdRangeStatisticsCollector _docIdRangeStatisticsCollector;
 
   public AggregationGroupByPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest,
       int maxInitialResultHolderCapacity, int numGroupsLimit) {
+    this(indexSegment, brokerRequest, maxInitialResultHolderCapacity, numGroupsLimit, 0, -1, null);
+  }
+
+  /**
+   * Constructor for the plan node which only processes the documents within the given document id range (see
+   * {@link AggregationPlanNode#AggregationPlanNode(IndexSegment, BrokerRequest, int, int,
+   * DocIdRangeStatisticsCollector)}).
+   */
+  public AggregationGroupByPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest,
+      int maxInitialResultHolderCapacity, int numGroupsLimit, int startDocId, int endDocId,
+      @Nullable DocIdRangeStatisticsCollector docIdRangeStatisticsCollector) {
     _indexSegment = indexSegment;
+    _docIdRangeStatisticsCollector = docIdRangeStatisticsCollector;
     _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
     _numGroupsLimit = numGroupsLimit;
     _aggregationInfos = brokerRequest.getAggregationsInfo();
@@ -66,6 +84,14 @@ public class AggregationGroupByPlanNode implements PlanNode {
         AggregationFunctionUtils.getAggregationFunctionContexts(_aggregationInfos, indexSegment.getSegmentMetadata());
     _groupBy = brokerRequest.getGroupBy();
 
+    if (endDocId >= 0) {
+      _numDocsInRange = endDocId - startDocId + 1;
+      _transformPlanNode = new TransformPlanNode(_indexSegment, brokerRequest, startDocId, endDocId);
+      _starTreeTransformPlanNode = null;
+      return;
+    }
+    _numDocsInRange = -1;
+
     List<StarTreeV2> starTrees = indexSegment.getStarTrees();
     if (starTrees != null) {
       if (!StarTreeUtils.isStarTreeDisabled(brokerRequest)) {
@@ -98,11 +124,12 @@ public class AggregationGroupByPlanNode implements PlanNode {
 
   @Override
   public AggregationGroupByOperator run() {
-    int numTotalRawDocs = _indexSegment.getSegmentMetadata().getTotalRawDocs();
+    int numTotalRawDocs =
+        _numDocsInRange >= 0 ? _numDocsInRange : _indexSegment.getSegmentMetadata().getTotalRawDocs();
     if (_transformPlanNode != null) {
       // Do not use star-tree
       return new AggregationGroupByOperator(_functionContexts, _groupBy, _maxInitialResultHolderCapacity,
-          _numGroupsLimit, _transformPlanNode.run(), numTotalRawDocs, false);
+          _numGroupsLimit, _transformPlanNode.run(), numTotalRawDocs, false, _docIdRangeStatisticsCollector);
     } else {
       // Use star-tree
       return new AggregationGroupByOperator(_functionContexts, _groupBy, _maxInitialResultHolderCapacity,
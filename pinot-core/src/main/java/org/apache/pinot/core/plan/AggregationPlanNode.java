@@ -22,11 +22,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.AggregationInfo;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.utils.request.FilterQueryTree;
 import org.apache.pinot.common.utils.request.RequestUtils;
 import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.DocIdRangeStatisticsCollector;
 import org.apache.pinot.core.operator.query.AggregationOperator;
 import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
@@ -50,13 +52,49 @@ public class AggregationPlanNode implements PlanNode {
   private final AggregationFunctionContext[] _functionContexts;
   private final TransformPlanNode _transformPlanNode;
   private final StarTreeTransformPlanNode _starTreeTransformPlanNode;
+  // Number of documents within the document id range to process, or -1 for the whole segment
+  private final int _numDocsInRange;
+  // Collects the statistics across the document id ranges of the segment, null if the segment is not split
+  private final DocIdRangeStatisticsCollector _docIdRangeStatisticsCollector;
 
   public AggregationPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest) {
+    this(indexSegment, brokerRequest, 0, -1, null);
+  }
+
+  public AggregationPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId) {
+    this(indexSegment, brokerRequest, startDocId, endDocId, null);
+  }
+
+  /**
+   * Constructor for the plan node which only processes the documents within the given document id range, so that a
+   * large segment can be processed by multiple threads in parallel. Star-tree is not used when processing a document id
+   * range because the star-tree documents are not aligned with the raw documents.
+   *
+   * @param indexSegment Segment to process
+   * @param brokerRequest Broker request to process
+   * @param startDocId Start document id (inclusive)
+   * @param endDocId End document id (inclusive), or -1 to process the whole segment
+   * @param docIdRangeStatisticsCollector Collector shared by all the document id ranges of the segment so that the
+   *                                      segment is counted once in the execution statistics, or null to count each
+   *                                      document id range as a segment
+   */
+  public AggregationPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId, @Nullable DocIdRangeStatisticsCollector docIdRangeStatisticsCollector) {
     _indexSegment = indexSegment;
+    _docIdRangeStatisticsCollector = docIdRangeStatisticsCollector;
     _aggregationInfos = brokerRequest.getAggregationsInfo();
     _functionContexts =
         AggregationFunctionUtils.getAggregationFunctionContexts(_aggregationInfos, indexSegment.getSegmentMetadata());
 
+    if (endDocId >= 0) {
+      _numDocsInRange = endDocId - startDocId + 1;
+      _transformPlanNode = new TransformPlanNode(_indexSegment, brokerRequest, startDocId, endDocId);
+      _starTreeTransformPlanNode = null;
+      return;
+    }
+    _numDocsInRange = -1;
+
     List<StarTreeV2> starTrees = indexSegment.getStarTrees();
     if (starTrees != null) {
       if (!StarTreeUtils.isStarTreeDisabled(brokerRequest)) {
@@ -84,10 +122,12 @@ public class AggregationPlanNode implements PlanNode {
 
   @Override
   public AggregationOperator run() {
-    int numTotalRawDocs = _indexSegment.getSegmentMetadata().getTotalRawDocs();
+    int numTotalRawDocs =
+        _numDocsInRange >= 0 ? _numDocsInRange : _indexSegment.getSegmentMetadata().getTotalRawDocs();
     if (_transformPlanNode != null) {
       // Do not use star-tree
-      return new AggregationOperator(_functionContexts, _transformPlanNode.run(), numTotalRawDocs, false);
+      return new AggregationOperator(_functionContexts, _transformPlanNode.run(), numTotalRawDocs, false,
+          _docIdRangeStatisticsCollector);
     } else {
       // Use star-tree
       return new AggregationOperator(_functionContexts, _starTreeTransformPlanNode.run(), numTotalRawDocs, true);
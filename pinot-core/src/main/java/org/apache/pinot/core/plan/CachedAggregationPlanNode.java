@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.plan;
+
+import javax.annotation.Nonnull;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.query.CachedAggregationOperator;
+import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>CachedAggregationPlanNode</code> class provides the execution plan for aggregation only and aggregation
+ * group-by query on a single segment with the {@link SegmentResultCache}. The underlying plan node is only run on cache
+ * miss.
+ */
+public class CachedAggregationPlanNode implements PlanNode {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachedAggregationPlanNode.class);
+
+  private final IndexSegment _indexSegment;
+  private final AggregationFunctionContext[] _functionContexts;
+  private final PlanNode _planNode;
+  private final SegmentResultCache _segmentResultCache;
+  private final SegmentResultCache.Key _key;
+
+  public CachedAggregationPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest,
+      @Nonnull PlanNode planNode, @Nonnull SegmentResultCache segmentResultCache,
+      @Nonnull SegmentResultCache.Key key) {
+    _indexSegment = indexSegment;
+    _functionContexts = AggregationFunctionUtils
+        .getAggregationFunctionContexts(brokerRequest.getAggregationsInfo(), indexSegment.getSegmentMetadata());
+    _planNode = planNode;
+    _segmentResultCache = segmentResultCache;
+    _key = key;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public CachedAggregationOperator run() {
+    SegmentResultCache.Entry cachedEntry = _segmentResultCache.get(_key, _indexSegment);
+    if (cachedEntry != null) {
+      return new CachedAggregationOperator(_functionContexts, cachedEntry);
+    } else {
+      return new CachedAggregationOperator(_functionContexts, _planNode.run(), _segmentResultCache, _key,
+          _indexSegment);
+    }
+  }
+
+  @Override
+  public void showTree(String prefix) {
+    LOGGER.debug(prefix + "Cached Aggregation Plan Node:");
+    LOGGER.debug(prefix + "Operator: CachedAggregationOperator");
+    LOGGER.debug(prefix + "Argument 0: IndexSegment - " + _indexSegment.getSegmentName());
+    LOGGER.debug(prefix + "Argument 1: Underlying Plan Node -");
+    _planNode.showTree(prefix + "    ");
+  }
+}
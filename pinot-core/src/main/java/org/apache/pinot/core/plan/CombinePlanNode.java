@@ -48,6 +48,7 @@ public class CombinePlanNode implements PlanNode {
   private final ExecutorService _executorService;
   private final long _timeOutMs;
   private final int _numGroupsLimit;
+  private final boolean _primitiveKeyGroupByMerge;
 
   /**
    * Constructor for the class.
@@ -60,11 +61,27 @@ public class CombinePlanNode implements PlanNode {
    */
   public CombinePlanNode(List<PlanNode> planNodes, BrokerRequest brokerRequest, ExecutorService executorService,
       long timeOutMs, int numGroupsLimit) {
+    this(planNodes, brokerRequest, executorService, timeOutMs, numGroupsLimit, false);
+  }
+
+  /**
+   * Constructor for the class.
+   *
+   * @param planNodes List of underlying plan nodes
+   * @param brokerRequest Broker request
+   * @param executorService Executor service
+   * @param timeOutMs Time out in milliseconds for query execution (not for planning phase)
+   * @param numGroupsLimit Limit of number of groups stored in each segment
+   * @param primitiveKeyGroupByMerge Whether to merge group-by results with primitive keys instead of string keys
+   */
+  public CombinePlanNode(List<PlanNode> planNodes, BrokerRequest brokerRequest, ExecutorService executorService,
+      long timeOutMs, int numGroupsLimit, boolean primitiveKeyGroupByMerge) {
     _planNodes = planNodes;
     _brokerRequest = brokerRequest;
     _executorService = executorService;
     _timeOutMs = timeOutMs;
     _numGroupsLimit = numGroupsLimit;
+    _primitiveKeyGroupByMerge = primitiveKeyGroupByMerge;
   }
 
   @Override
@@ -136,7 +153,8 @@ public class CombinePlanNode implements PlanNode {
     // TODO: use the same combine operator for both aggregation and selection query.
     if (_brokerRequest.isSetAggregationsInfo() && _brokerRequest.getGroupBy() != null) {
       // Aggregation group-by query
-      return new CombineGroupByOperator(operators, _brokerRequest, _executorService, _timeOutMs, _numGroupsLimit);
+      return new CombineGroupByOperator(operators, _brokerRequest, _executorService, _timeOutMs, _numGroupsLimit,
+          _primitiveKeyGroupByMerge);
     } else {
       // Selection or aggregation only query
       return new CombineOperator(operators, _executorService, _timeOutMs, _brokerRequest);
@@ -37,9 +37,24 @@ public class DocIdSetPlanNode implements PlanNode {
   private final int _maxDocPerCall;
 
   public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int maxDocPerCall) {
+    this(indexSegment, brokerRequest, maxDocPerCall, new FilterPlanNode(indexSegment, brokerRequest));
+  }
+
+  /**
+   * Constructor for the plan node which only processes the documents within the given document id range (both
+   * inclusive).
+   */
+  public DocIdSetPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int maxDocPerCall,
+      int startDocId, int endDocId) {
+    this(indexSegment, brokerRequest, maxDocPerCall,
+        new FilterPlanNode(indexSegment, brokerRequest, startDocId, endDocId));
+  }
+
+  private DocIdSetPlanNode(IndexSegment indexSegment, BrokerRequest brokerRequest, int maxDocPerCall,
+      FilterPlanNode filterPlanNode) {
     Preconditions.checkState(maxDocPerCall > 0 && maxDocPerCall <= MAX_DOC_PER_CALL);
     _indexSegment = indexSegment;
-    _filterPlanNode = new FilterPlanNode(_indexSegment, brokerRequest);
+    _filterPlanNode = filterPlanNode;
     _maxDocPerCall = maxDocPerCall;
   }
 
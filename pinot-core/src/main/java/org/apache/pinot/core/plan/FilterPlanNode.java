@@ -43,26 +43,44 @@ public class FilterPlanNode implements PlanNode {
   private static final Logger LOGGER = LoggerFactory.getLogger(FilterPlanNode.class);
   private final BrokerRequest _brokerRequest;
   private final IndexSegment _segment;
+  private final int _startDocId;
+  // Inclusive, or -1 to use the last document of the segment when the plan is run
+  private final int _endDocId;
 
   public FilterPlanNode(IndexSegment segment, BrokerRequest brokerRequest) {
+    this(segment, brokerRequest, 0, -1);
+  }
+
+  /**
+   * Constructor for the filter plan node which only matches the documents within the given document id range.
+   *
+   * @param segment Segment to process
+   * @param brokerRequest Broker request to process
+   * @param startDocId Start document id (inclusive)
+   * @param endDocId End document id (inclusive)
+   */
+  public FilterPlanNode(IndexSegment segment, BrokerRequest brokerRequest, int startDocId, int endDocId) {
     _segment = segment;
     _brokerRequest = brokerRequest;
+    _startDocId = startDocId;
+    _endDocId = endDocId;
   }
 
   @Override
   public BaseFilterOperator run() {
     FilterQueryTree rootFilterNode = RequestUtils.generateFilterQueryTree(_brokerRequest);
-    return constructPhysicalOperator(rootFilterNode, _segment, _brokerRequest.getDebugOptions());
+    int endDocId = _endDocId >= 0 ? _endDocId : _segment.getSegmentMetadata().getTotalRawDocs() - 1;
+    return constructPhysicalOperator(rootFilterNode, _segment, _startDocId, endDocId,
+        _brokerRequest.getDebugOptions());
   }
 
   /**
    * Helper method to build the operator tree from the filter query tree.
    */
   private static BaseFilterOperator constructPhysicalOperator(FilterQueryTree filterQueryTree, IndexSegment segment,
-      @Nullable Map<String, String> debugOptions) {
-    int numDocs = segment.getSegmentMetadata().getTotalRawDocs();
+      int startDocId, int endDocId, @Nullable Map<String, String> debugOptions) {
     if (filterQueryTree == null) {
-      return new MatchAllFilterOperator(numDocs);
+      return new MatchAllFilterOperator(startDocId, endDocId);
     }
 
     // For non-leaf node, recursively create the child filter operators
@@ -74,7 +92,8 @@ public class FilterPlanNode implements PlanNode {
       if (filterType == FilterOperator.AND) {
         // AND operator
         for (FilterQueryTree childFilter : childFilters) {
-          BaseFilterOperator childFilterOperator = constructPhysicalOperator(childFilter, segment, debugOptions);
+          BaseFilterOperator childFilterOperator =
+              constructPhysicalOperator(childFilter, segment, startDocId, endDocId, debugOptions);
           if (childFilterOperator.isResultEmpty()) {
             // Return empty filter operator if any of the child filter operator's result is empty
             return EmptyFilterOperator.getInstance();
@@ -83,27 +102,28 @@ public class FilterPlanNode implements PlanNode {
             childFilterOperators.add(childFilterOperator);
           }
         }
-        return FilterOperatorUtils.getAndFilterOperator(childFilterOperators, numDocs, debugOptions);
+        return FilterOperatorUtils.getAndFilterOperator(childFilterOperators, startDocId, endDocId, debugOptions);
       } else {
         // OR operator
         for (FilterQueryTree childFilter : childFilters) {
-          BaseFilterOperator childFilterOperator = constructPhysicalOperator(childFilter, segment, debugOptions);
+          BaseFilterOperator childFilterOperator =
+              constructPhysicalOperator(childFilter, segment, startDocId, endDocId, debugOptions);
           if (childFilterOperator.isResultMatchingAll()) {
             // Return match all filter operator if any of the child filter operator matches all records
-            return new MatchAllFilterOperator(numDocs);
+            return new MatchAllFilterOperator(startDocId, endDocId);
           } else if (!childFilterOperator.isResultEmpty()) {
             // Remove child filter operators whose result is empty
             childFilterOperators.add(childFilterOperator);
           }
         }
-        return FilterOperatorUtils.getOrFilterOperator(childFilterOperators, numDocs, debugOptions);
+        return FilterOperatorUtils.getOrFilterOperator(childFilterOperators, startDocId, endDocId, debugOptions);
       }
     } else {
       // Leaf filter operator
       Predicate predicate = Predicate.newPredicate(filterQueryTree);
       DataSource dataSource = segment.getDataSource(filterQueryTree.getColumn());
       PredicateEvaluator predicateEvaluator = PredicateEvaluatorProvider.getPredicateEvaluator(predicate, dataSource);
-      return FilterOperatorUtils.getLeafFilterOperator(predicateEvaluator, dataSource, numDocs);
+      return FilterOperatorUtils.getLeafFilterOperator(predicateEvaluator, dataSource, startDocId, endDocId);
     }
   }
 
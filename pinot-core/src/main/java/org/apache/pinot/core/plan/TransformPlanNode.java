@@ -56,6 +56,22 @@ public class TransformPlanNode implements PlanNode {
         new ProjectionPlanNode(indexSegment, _projectionColumns, new DocIdSetPlanNode(indexSegment, brokerRequest));
   }
 
+  /**
+   * Constructor for the class which only processes the documents within the given document id range.
+   *
+   * @param indexSegment Segment to process
+   * @param brokerRequest BrokerRequest to process
+   * @param startDocId Start document id (inclusive)
+   * @param endDocId End document id (inclusive)
+   */
+  public TransformPlanNode(@Nonnull IndexSegment indexSegment, @Nonnull BrokerRequest brokerRequest, int startDocId,
+      int endDocId) {
+    _segmentName = indexSegment.getSegmentName();
+    extractColumnsAndTransforms(brokerRequest);
+    _projectionPlanNode = new ProjectionPlanNode(indexSegment, _projectionColumns,
+        new DocIdSetPlanNode(indexSegment, brokerRequest, DocIdSetPlanNode.MAX_DOC_PER_CALL, startDocId, endDocId));
+  }
+
   /**
    * Helper method to extract projection columns and transform expressions from the given broker request.
    *
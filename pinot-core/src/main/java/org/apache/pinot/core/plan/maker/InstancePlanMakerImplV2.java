@@ -23,13 +23,18 @@ import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.AggregationInfo;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.transform.TransformExpressionTree;
 import org.apache.pinot.core.data.manager.SegmentDataManager;
 import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.operator.CombineOperatorUtils;
+import org.apache.pinot.core.operator.DocIdRangeStatisticsCollector;
 import org.apache.pinot.core.plan.AggregationGroupByPlanNode;
 import org.apache.pinot.core.plan.AggregationPlanNode;
+import org.apache.pinot.core.plan.CachedAggregationPlanNode;
 import org.apache.pinot.core.plan.CombinePlanNode;
 import org.apache.pinot.core.plan.DictionaryBasedAggregationPlanNode;
 import org.apache.pinot.core.plan.GlobalPlanImplV0;
@@ -41,7 +46,9 @@ import org.apache.pinot.core.plan.SelectionPlanNode;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionType;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
 import org.apache.pinot.core.query.config.QueryExecutorConfig;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.startree.StarTreeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,21 +63,39 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   public static final int DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY = 10_000;
   public static final String NUM_GROUPS_LIMIT = "num.groups.limit";
   public static final int DEFAULT_NUM_GROUPS_LIMIT = 100_000;
+  public static final String ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE_KEY = "enable.primitive.key.group.by.merge";
+  public static final boolean DEFAULT_ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE = false;
+  public static final String MIN_NUM_DOCS_PER_DOC_ID_RANGE_KEY = "min.num.docs.per.doc.id.range";
+  // Non-positive value means disabled
+  public static final int DEFAULT_MIN_NUM_DOCS_PER_DOC_ID_RANGE = -1;
 
   private final int _maxInitialResultHolderCapacity;
   // Limit on number of groups stored for each segment, beyond which no new group will be created
   private final int _numGroupsLimit;
+  // Whether to merge group-by results across segments with primitive keys instead of string keys
+  private final boolean _primitiveKeyGroupByMerge;
+  // Cache for the per-segment aggregation results, null if disabled
+  private final SegmentResultCache _segmentResultCache;
+  // Minimum number of documents in each document id range when splitting a large segment into multiple document id
+  // ranges to be processed in parallel, non-positive value means disabled
+  private final int _minNumDocsPerDocIdRange;
 
   @VisibleForTesting
   public InstancePlanMakerImplV2() {
     _maxInitialResultHolderCapacity = DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY;
     _numGroupsLimit = DEFAULT_NUM_GROUPS_LIMIT;
+    _primitiveKeyGroupByMerge = DEFAULT_ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE;
+    _segmentResultCache = null;
+    _minNumDocsPerDocIdRange = DEFAULT_MIN_NUM_DOCS_PER_DOC_ID_RANGE;
   }
 
   @VisibleForTesting
   public InstancePlanMakerImplV2(int maxInitialResultHolderCapacity, int numGroupsLimit) {
     _maxInitialResultHolderCapacity = maxInitialResultHolderCapacity;
     _numGroupsLimit = numGroupsLimit;
+    _primitiveKeyGroupByMerge = DEFAULT_ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE;
+    _segmentResultCache = null;
+    _minNumDocsPerDocIdRange = DEFAULT_MIN_NUM_DOCS_PER_DOC_ID_RANGE;
   }
 
   /**
@@ -78,19 +103,39 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
    * <ul>
    *   <li>Set limit on the initial result holder capacity</li>
    *   <li>Set limit on number of groups returned from each segment and combined result</li>
+   *   <li>Set whether to merge group-by results across segments with primitive keys</li>
+   *   <li>Set the minimum number of documents per document id range when splitting large segments</li>
    * </ul>
    *
    * @param queryExecutorConfig Query executor configuration
    */
   public InstancePlanMakerImplV2(QueryExecutorConfig queryExecutorConfig) {
+    this(queryExecutorConfig, null);
+  }
+
+  /**
+   * Constructor for usage when client requires to pass {@link QueryExecutorConfig} and {@link SegmentResultCache} to
+   * this class.
+   *
+   * @param queryExecutorConfig Query executor configuration
+   * @param segmentResultCache Cache for the per-segment aggregation results, or null to disable caching
+   */
+  public InstancePlanMakerImplV2(QueryExecutorConfig queryExecutorConfig,
+      @Nullable SegmentResultCache segmentResultCache) {
     _maxInitialResultHolderCapacity = queryExecutorConfig.getConfig()
         .getInt(MAX_INITIAL_RESULT_HOLDER_CAPACITY_KEY, DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY);
     _numGroupsLimit = queryExecutorConfig.getConfig().getInt(NUM_GROUPS_LIMIT, DEFAULT_NUM_GROUPS_LIMIT);
+    _primitiveKeyGroupByMerge = queryExecutorConfig.getConfig()
+        .getBoolean(ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE_KEY, DEFAULT_ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE);
     Preconditions.checkState(_maxInitialResultHolderCapacity <= _numGroupsLimit,
         "Invalid configuration: maxInitialResultHolderCapacity: %d must be smaller or equal to numGroupsLimit: %d",
         _maxInitialResultHolderCapacity, _numGroupsLimit);
-    LOGGER.info("Initializing plan maker with maxInitialResultHolderCapacity: {}, numGroupsLimit: {}",
-        _maxInitialResultHolderCapacity, _numGroupsLimit);
+    _segmentResultCache = segmentResultCache;
+    _minNumDocsPerDocIdRange = queryExecutorConfig.getConfig()
+        .getInt(MIN_NUM_DOCS_PER_DOC_ID_RANGE_KEY, DEFAULT_MIN_NUM_DOCS_PER_DOC_ID_RANGE);
+    LOGGER.info("Initializing plan maker with maxInitialResultHolderCapacity: {}, numGroupsLimit: {}, "
+            + "primitiveKeyGroupByMerge: {}, minNumDocsPerDocIdRange: {}", _maxInitialResultHolderCapacity,
+        _numGroupsLimit, _primitiveKeyGroupByMerge, _minNumDocsPerDocIdRange);
   }
 
   @Override
@@ -125,16 +170,91 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     }
     BrokerRequestPreProcessor.preProcess(indexSegments, brokerRequest);
 
+    // Only cache the results for aggregation queries
+    byte[] queryBytes = null;
+    if (_segmentResultCache != null && brokerRequest.isSetAggregationsInfo()) {
+      queryBytes = SegmentResultCache.getQueryBytes(brokerRequest);
+    }
+
+    // When there are fewer segments than the combine workers, split the large segments into multiple document id
+    // ranges so that the idle workers can share the work
+    int maxNumDocIdRangesPerSegment = 1;
+    if (_minNumDocsPerDocIdRange > 0 && brokerRequest.isSetAggregationsInfo() && !indexSegments.isEmpty()) {
+      int numWorkers = CombineOperatorUtils.getMaxNumWorkers(executorService);
+      maxNumDocIdRangesPerSegment = (numWorkers + indexSegments.size() - 1) / indexSegments.size();
+    }
+
     List<PlanNode> planNodes = new ArrayList<>();
     for (IndexSegment indexSegment : indexSegments) {
-      planNodes.add(makeInnerSegmentPlan(indexSegment, brokerRequest));
+      PlanNode planNode = makeInnerSegmentPlan(indexSegment, brokerRequest);
+      if (queryBytes != null && (planNode instanceof AggregationPlanNode
+          || planNode instanceof AggregationGroupByPlanNode)) {
+        SegmentResultCache.Key key = SegmentResultCache.getKey(indexSegment, queryBytes);
+        if (key != null) {
+          planNode = new CachedAggregationPlanNode(indexSegment, brokerRequest, planNode, _segmentResultCache, key);
+        }
+      } else if (maxNumDocIdRangesPerSegment > 1) {
+        List<PlanNode> docIdRangePlanNodes =
+            makeDocIdRangePlans(indexSegment, brokerRequest, planNode, maxNumDocIdRangesPerSegment);
+        if (docIdRangePlanNodes != null) {
+          planNodes.addAll(docIdRangePlanNodes);
+          continue;
+        }
+      }
+      planNodes.add(planNode);
     }
     CombinePlanNode combinePlanNode =
-        new CombinePlanNode(planNodes, brokerRequest, executorService, timeOutMs, _numGroupsLimit);
+        new CombinePlanNode(planNodes, brokerRequest, executorService, timeOutMs, _numGroupsLimit,
+            _primitiveKeyGroupByMerge);
 
     return new GlobalPlanImplV0(new InstanceResponsePlanNode(combinePlanNode));
   }
 
+  /**
+   * Helper method to split the given segment into multiple document id ranges, and make one plan for each of them.
+   * <p>Only immutable segments processed with {@link AggregationPlanNode} or {@link AggregationGroupByPlanNode} without
+   * star-tree can be split, and the results for the document id ranges are merged by the combine operator the same way
+   * as the results for different segments.
+   *
+   * @return List of plans for the document id ranges, or null if the segment should not be split
+   */
+  @Nullable
+  private List<PlanNode> makeDocIdRangePlans(IndexSegment indexSegment, BrokerRequest brokerRequest,
+      PlanNode planNode, int maxNumDocIdRanges) {
+    if (!(indexSegment instanceof ImmutableSegment)) {
+      return null;
+    }
+    if (!(planNode instanceof AggregationPlanNode) && !(planNode instanceof AggregationGroupByPlanNode)) {
+      return null;
+    }
+    if (indexSegment.getStarTrees() != null && !StarTreeUtils.isStarTreeDisabled(brokerRequest)) {
+      return null;
+    }
+    int numDocs = indexSegment.getSegmentMetadata().getTotalRawDocs();
+    int numDocIdRanges = Math.min(maxNumDocIdRanges, numDocs / _minNumDocsPerDocIdRange);
+    if (numDocIdRanges <= 1) {
+      return null;
+    }
+
+    int numDocsPerDocIdRange = (numDocs + numDocIdRanges - 1) / numDocIdRanges;
+    // NOTE: The number of document id ranges might be reduced after rounding up the number of documents per range
+    numDocIdRanges = (numDocs + numDocsPerDocIdRange - 1) / numDocsPerDocIdRange;
+    DocIdRangeStatisticsCollector docIdRangeStatisticsCollector = new DocIdRangeStatisticsCollector(numDocIdRanges);
+    List<PlanNode> planNodes = new ArrayList<>(numDocIdRanges);
+    for (int startDocId = 0; startDocId < numDocs; startDocId += numDocsPerDocIdRange) {
+      int endDocId = Math.min(startDocId + numDocsPerDocIdRange, numDocs) - 1;
+      if (planNode instanceof AggregationPlanNode) {
+        planNodes.add(
+            new AggregationPlanNode(indexSegment, brokerRequest, startDocId, endDocId, docIdRangeStatisticsCollector));
+      } else {
+        planNodes.add(
+            new AggregationGroupByPlanNode(indexSegment, brokerRequest, _maxInitialResultHolderCapacity,
+                _numGroupsLimit, startDocId, endDocId, docIdRangeStatisticsCollector));
+      }
+    }
+    return planNodes;
+  }
+
   /**
    * Helper method to identify if query is fit to be be served purely based on metadata.
    * Currently count queries without any filters are supported.
@@ -67,4 +67,27 @@ public class AggregationGroupByResult {
   public Object getResultForKey(GroupKeyGenerator.GroupKey groupKey, int index) {
     return _aggregationFunctions[index].extractGroupByResult(_resultHolders[index], groupKey._groupId);
   }
+
+  /**
+   * Returns the group key generator, which can be used to access the raw group keys for
+   * {@link DictionaryBasedGroupKeyGenerator}.
+   */
+  public GroupKeyGenerator getGroupKeyGenerator() {
+    return _groupKeyGenerator;
+  }
+
+  /**
+   * Given a group id and an index into the result holder array, returns the corresponding aggregation result.
+   */
+  public Object getResultForGroupId(int groupId, int index) {
+    return _aggregationFunctions[index].extractGroupByResult(_resultHolders[index], groupId);
+  }
+
+  /**
+   * Given a group id and an index into the result holder array, returns the corresponding aggregation result as a
+   * primitive double. This method should only be used for aggregation functions storing double results.
+   */
+  public double getDoubleResultForGroupId(int groupId, int index) {
+    return _resultHolders[index].getDoubleResult(groupId);
+  }
 }
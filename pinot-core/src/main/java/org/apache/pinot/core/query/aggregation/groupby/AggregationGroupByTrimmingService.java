@@ -76,7 +76,7 @@ public class AggregationGroupByTrimmingService {
     if (numGroups > _trimThreshold) {
       // Trim the result only if number of groups is larger than the threshold
 
-      Sorter[] sorters = new Sorter[numAggregationFunctions];
+      Sorter<String>[] sorters = new Sorter[numAggregationFunctions];
       for (int i = 0; i < numAggregationFunctions; i++) {
         AggregationFunction aggregationFunction = _aggregationFunctions[i];
         sorters[i] = getSorter(_trimSize, aggregationFunction, aggregationFunction.isIntermediateResultComparable());
@@ -115,6 +115,55 @@ public class AggregationGroupByTrimmingService {
     return Arrays.asList(trimmedResultMaps);
   }
 
+  /**
+   * Given the intermediate results indexed by contiguous group ids, trim the results to desired size and put them into
+   * a list of maps from group key to intermediate result for each aggregation function.
+   * <p>Different from {@link #trimIntermediateResultsMap(Map)}, the string group keys are only generated for the groups
+   * that survive the trimming.
+   */
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  public List<Map<String, Object>> trimIntermediateResults(@Nonnull IndexedIntermediateResults intermediateResults) {
+    int numAggregationFunctions = _aggregationFunctions.length;
+    Map<String, Object>[] trimmedResultMaps = new Map[numAggregationFunctions];
+
+    int numGroups = intermediateResults.getNumGroups();
+    if (numGroups > _trimThreshold) {
+      // Trim the result only if number of groups is larger than the threshold
+
+      for (int i = 0; i < numAggregationFunctions; i++) {
+        AggregationFunction aggregationFunction = _aggregationFunctions[i];
+        Sorter<Integer> sorter =
+            getSorter(_trimSize, aggregationFunction, aggregationFunction.isIntermediateResultComparable());
+        for (int groupId = 0; groupId < numGroups; groupId++) {
+          sorter.add(groupId, intermediateResults.getIntermediateResult(groupId, i));
+        }
+        Map<Integer, Object> trimmedGroupIdMap = new HashMap<>(_trimSize);
+        sorter.dumpToMap(trimmedGroupIdMap);
+
+        Map<String, Object> trimmedResultMap = new HashMap<>(_trimSize);
+        for (Map.Entry<Integer, Object> entry : trimmedGroupIdMap.entrySet()) {
+          trimmedResultMap.put(intermediateResults.getGroupKey(entry.getKey()), entry.getValue());
+        }
+        trimmedResultMaps[i] = trimmedResultMap;
+      }
+    } else {
+      // Simply put all results into trimmedResults
+
+      for (int i = 0; i < numAggregationFunctions; i++) {
+        trimmedResultMaps[i] = new HashMap<>(numGroups);
+      }
+      for (int groupId = 0; groupId < numGroups; groupId++) {
+        String groupKey = intermediateResults.getGroupKey(groupId);
+        for (int i = 0; i < numAggregationFunctions; i++) {
+          trimmedResultMaps[i].put(groupKey, intermediateResults.getIntermediateResult(groupId, i));
+        }
+      }
+    }
+
+    return Arrays.asList(trimmedResultMaps);
+  }
+
   /**
    * Given an array of maps from group key to final result for each aggregation function, trim the results to topN size.
    */
@@ -134,7 +183,7 @@ public class AggregationGroupByTrimmingService {
       }
 
       // Final result is always comparable
-      Sorter sorter = getSorter(_groupByTopN, _aggregationFunctions[i], true);
+      Sorter<String> sorter = getSorter(_groupByTopN, _aggregationFunctions[i], true);
 
       // Add results into sorter
       for (Map.Entry<String, Comparable> entry : finalResultMap.entrySet()) {
@@ -148,31 +197,52 @@ public class AggregationGroupByTrimmingService {
     return trimmedResults;
   }
 
-  private interface Sorter {
-    void add(String groupKey, Object result);
+  /**
+   * Intermediate results indexed by contiguous group ids (from {@code 0} to {@code numGroups - 1}).
+   */
+  public interface IndexedIntermediateResults {
+
+    /**
+     * Returns the number of groups.
+     */
+    int getNumGroups();
+
+    /**
+     * Returns the intermediate result for the given group id and index of aggregation function.
+     */
+    Object getIntermediateResult(int groupId, int index);
+
+    /**
+     * Returns the string group key for the given group id.
+     */
+    String getGroupKey(int groupId);
+  }
+
+  private interface Sorter<K> {
+    void add(K groupKey, Object result);
 
-    void dumpToMap(Map<String, Object> dest);
+    void dumpToMap(Map<K, Object> dest);
 
     void dumpToGroupByResults(LinkedList<GroupByResult> dest);
   }
 
   @SuppressWarnings("unchecked")
-  private static Sorter getSorter(int trimSize, AggregationFunction aggregationFunction, boolean isComparable) {
+  private static <K> Sorter<K> getSorter(int trimSize, AggregationFunction aggregationFunction, boolean isComparable) {
     // This will cover both MIN and MINMV
     boolean minOrder = aggregationFunction instanceof MinAggregationFunction;
 
     if (isComparable) {
       if (minOrder) {
-        return new ComparableSorter(trimSize, Collections.reverseOrder());
+        return new ComparableSorter<>(trimSize, Collections.reverseOrder());
       } else {
-        return new ComparableSorter(trimSize, new ComparableComparator());
+        return new ComparableSorter<>(trimSize, new ComparableComparator());
       }
     } else {
       // Reverse the comparator so that keys are ordered in descending order
       if (minOrder) {
-        return new NonComparableSorter(trimSize, new ComparableComparator(), aggregationFunction);
+        return new NonComparableSorter<>(trimSize, new ComparableComparator(), aggregationFunction);
       } else {
-        return new NonComparableSorter(trimSize, Collections.reverseOrder(), aggregationFunction);
+        return new NonComparableSorter<>(trimSize, Collections.reverseOrder(), aggregationFunction);
       }
     }
   }
@@ -190,10 +260,10 @@ public class AggregationGroupByTrimmingService {
    *   </li>
    * </ul>
    */
-  private static class ComparableSorter implements Sorter {
+  private static class ComparableSorter<K> implements Sorter<K> {
     private final int _trimSize;
     private final Comparator<? super Comparable> _comparator;
-    private final PriorityQueue<GroupKeyResultPair> _heap;
+    private final PriorityQueue<GroupKeyResultPair<K>> _heap;
 
     public ComparableSorter(int trimSize, Comparator<? super Comparable> comparator) {
       _trimSize = trimSize;
@@ -203,10 +273,10 @@ public class AggregationGroupByTrimmingService {
 
     @SuppressWarnings("unchecked")
     @Override
-    public void add(String groupKey, Object result) {
-      GroupKeyResultPair newGroupKeyResultPair = new GroupKeyResultPair(groupKey, (Comparable) result);
+    public void add(K groupKey, Object result) {
+      GroupKeyResultPair<K> newGroupKeyResultPair = new GroupKeyResultPair<>(groupKey, (Comparable) result);
       if (_heap.size() == _trimSize) {
-        GroupKeyResultPair minGroupKeyResultPair = _heap.peek();
+        GroupKeyResultPair<K> minGroupKeyResultPair = _heap.peek();
         if (_comparator.compare(newGroupKeyResultPair, minGroupKeyResultPair) > 0) {
           _heap.poll();
           _heap.add(newGroupKeyResultPair);
@@ -217,8 +287,8 @@ public class AggregationGroupByTrimmingService {
     }
 
     @Override
-    public void dumpToMap(Map<String, Object> dest) {
-      GroupKeyResultPair groupKeyResultPair;
+    public void dumpToMap(Map<K, Object> dest) {
+      GroupKeyResultPair<K> groupKeyResultPair;
       while ((groupKeyResultPair = _heap.poll()) != null) {
         dest.put(groupKeyResultPair._groupKey, groupKeyResultPair._result);
       }
@@ -226,10 +296,10 @@ public class AggregationGroupByTrimmingService {
 
     @Override
     public void dumpToGroupByResults(LinkedList<GroupByResult> dest) {
-      GroupKeyResultPair groupKeyResultPair;
+      GroupKeyResultPair<K> groupKeyResultPair;
       while ((groupKeyResultPair = _heap.poll()) != null) {
         // Set limit to -1 to prevent removing trailing empty strings
-        String[] groupKeys = groupKeyResultPair._groupKey.split(GROUP_KEY_DELIMITER, -1);
+        String[] groupKeys = groupKeyResultPair._groupKey.toString().split(GROUP_KEY_DELIMITER, -1);
 
         GroupByResult groupByResult = new GroupByResult();
         groupByResult.setGroup(Arrays.asList(groupKeys));
@@ -240,17 +310,17 @@ public class AggregationGroupByTrimmingService {
       }
     }
 
-    private static class GroupKeyResultPair implements Comparable<GroupKeyResultPair> {
-      private String _groupKey;
+    private static class GroupKeyResultPair<K> implements Comparable<GroupKeyResultPair<K>> {
+      private K _groupKey;
       private Comparable<? super Comparable> _result;
 
-      public GroupKeyResultPair(@Nonnull String groupKey, @Nonnull Comparable<? super Comparable> result) {
+      public GroupKeyResultPair(@Nonnull K groupKey, @Nonnull Comparable<? super Comparable> result) {
         _groupKey = groupKey;
         _result = result;
       }
 
       @Override
-      public int compareTo(@Nonnull GroupKeyResultPair o) {
+      public int compareTo(@Nonnull GroupKeyResultPair<K> o) {
         return _result.compareTo(o._result);
       }
     }
@@ -277,11 +347,11 @@ public class AggregationGroupByTrimmingService {
    *   </li>
    * </ul>
    */
-  private static class NonComparableSorter implements Sorter {
+  private static class NonComparableSorter<K> implements Sorter<K> {
     private final int _trimSize;
     private final Comparator<? super Comparable> _comparator;
     private final AggregationFunction _aggregationFunction;
-    private final TreeMap<Comparable, List<ImmutablePair<String, Object>>> _treeMap;
+    private final TreeMap<Comparable, List<ImmutablePair<K, Object>>> _treeMap;
     private int _numValuesAdded = 0;
 
     public NonComparableSorter(int trimSize, Comparator<? super Comparable> comparator,
@@ -294,14 +364,14 @@ public class AggregationGroupByTrimmingService {
 
     @SuppressWarnings("unchecked")
     @Override
-    public void add(String groupKey, Object result) {
+    public void add(K groupKey, Object result) {
       Comparable newKey = _aggregationFunction.extractFinalResult(result);
-      ImmutablePair<String, Object> groupKeyResultPair = new ImmutablePair<>(groupKey, result);
+      ImmutablePair<K, Object> groupKeyResultPair = new ImmutablePair<>(groupKey, result);
 
-      List<ImmutablePair<String, Object>> groupKeyResultPairs = _treeMap.get(newKey);
+      List<ImmutablePair<K, Object>> groupKeyResultPairs = _treeMap.get(newKey);
       if (_numValuesAdded >= _trimSize) {
         // Check whether the pair should be added
-        Map.Entry<Comparable, List<ImmutablePair<String, Object>>> maxEntry = _treeMap.lastEntry();
+        Map.Entry<Comparable, List<ImmutablePair<K, Object>>> maxEntry = _treeMap.lastEntry();
         Comparable maxKey = maxEntry.getKey();
         if (_comparator.compare(newKey, maxKey) < 0) {
           // Add the pair into list of pairs
@@ -329,11 +399,11 @@ public class AggregationGroupByTrimmingService {
     }
 
     @Override
-    public void dumpToMap(Map<String, Object> dest) {
+    public void dumpToMap(Map<K, Object> dest) {
       // Track the number of results added because there could be more than trim size values inside the map
       int numResultsAdded = 0;
-      for (List<ImmutablePair<String, Object>> groupKeyResultPairs : _treeMap.values()) {
-        for (ImmutablePair<String, Object> groupResultPair : groupKeyResultPairs) {
+      for (List<ImmutablePair<K, Object>> groupKeyResultPairs : _treeMap.values()) {
+        for (ImmutablePair<K, Object> groupResultPair : groupKeyResultPairs) {
           if (numResultsAdded != _trimSize) {
             dest.put(groupResultPair.left, groupResultPair.right);
             numResultsAdded++;
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+
+
+/**
+ * The <code>CachedAggregationGroupByResult</code> class holds the aggregation group-by result of a segment restored
+ * from the segment result cache, where the group keys are stored as string keys with group ids in the range of
+ * [0, numGroups), and the aggregation results are stored as the extracted intermediate results.
+ * <p>There is no group key generator backing the result, so {@link #getGroupKeyGenerator()} returns <code>null</code>.
+ */
+public class CachedAggregationGroupByResult extends AggregationGroupByResult {
+  private final String[] _groupKeys;
+  // Indexed by aggregation function index and group id
+  private final Object[][] _results;
+  private final FieldSpec.DataType[] _groupByDataTypes;
+
+  public CachedAggregationGroupByResult(AggregationFunction[] aggregationFunctions, String[] groupKeys,
+      Object[][] results, FieldSpec.DataType[] groupByDataTypes) {
+    super(null, aggregationFunctions, null);
+    _groupKeys = groupKeys;
+    _results = results;
+    _groupByDataTypes = groupByDataTypes;
+  }
+
+  /**
+   * Returns the data types of the group-by expressions, which can be used to convert the string group keys back into
+   * typed values.
+   */
+  public FieldSpec.DataType[] getGroupByDataTypes() {
+    return _groupByDataTypes;
+  }
+
+  @Override
+  public Iterator<GroupKeyGenerator.GroupKey> getGroupKeyIterator() {
+    return new Iterator<GroupKeyGenerator.GroupKey>() {
+      private final GroupKeyGenerator.GroupKey _groupKey = new GroupKeyGenerator.GroupKey();
+      private int _groupId = 0;
+
+      @Override
+      public boolean hasNext() {
+        return _groupId < _groupKeys.length;
+      }
+
+      @Override
+      public GroupKeyGenerator.GroupKey next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        _groupKey._groupId = _groupId;
+        _groupKey._stringKey = _groupKeys[_groupId++];
+        return _groupKey;
+      }
+    };
+  }
+
+  @Override
+  public Object getResultForKey(GroupKeyGenerator.GroupKey groupKey, int index) {
+    return _results[index][groupKey._groupId];
+  }
+
+  @Override
+  public Object getResultForGroupId(int groupId, int index) {
+    return _results[index][groupId];
+  }
+
+  @Override
+  public double getDoubleResultForGroupId(int groupId, int index) {
+    return ((Number) _results[index][groupId]).doubleValue();
+  }
+}
@@ -166,6 +166,33 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     return _rawKeyHolder.iterator();
   }
 
+  /**
+   * Returns an iterator of raw group keys, which carry the dictionary ids of all the group-by columns instead of the
+   * string group key. Use this interface to merge groups across segments without materializing the string keys.
+   * <p>NOTE: the returned {@link RawGroupKey} (including the dictionary ids array) is reused across iterations.
+   *
+   * @return iterator of raw group keys.
+   */
+  public Iterator<RawGroupKey> getUniqueRawGroupKeys() {
+    return _rawKeyHolder.rawKeyIterator();
+  }
+
+  /**
+   * Returns the dictionaries of the group-by columns, in the same order as the dictionary ids inside
+   * {@link RawGroupKey}.
+   */
+  public Dictionary[] getDictionaries() {
+    return _dictionaries;
+  }
+
+  /**
+   * This class encapsulates the integer group id and the dictionary ids of all the group-by columns.
+   */
+  public static class RawGroupKey {
+    public int _groupId;
+    public int[] _dictIds;
+  }
+
   private interface RawKeyHolder extends Iterable<GroupKey> {
 
     /**
@@ -190,6 +217,13 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
      * @return Upper bound of group id inside the holder
      */
     int getGroupIdUpperBound();
+
+    /**
+     * Returns an iterator of raw group keys inside the holder.
+     *
+     * @return Iterator of raw group keys
+     */
+    Iterator<RawGroupKey> rawKeyIterator();
   }
 
   private class ArrayBasedHolder implements RawKeyHolder {
@@ -256,6 +290,38 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
         }
       };
     }
+
+    @Override
+    public Iterator<RawGroupKey> rawKeyIterator() {
+      return new Iterator<RawGroupKey>() {
+        private int _currentGroupId;
+        private final RawGroupKey _rawGroupKey = newRawGroupKey();
+
+        @Override
+        public boolean hasNext() {
+          while (_currentGroupId < _globalGroupIdUpperBound && !_flags[_currentGroupId]) {
+            _currentGroupId++;
+          }
+          return _currentGroupId < _globalGroupIdUpperBound;
+        }
+
+        @Override
+        public RawGroupKey next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          _rawGroupKey._groupId = _currentGroupId;
+          decodeRawKey(_currentGroupId, _rawGroupKey._dictIds);
+          _currentGroupId++;
+          return _rawGroupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
   }
 
   private class IntMapBasedHolder implements RawKeyHolder {
@@ -332,6 +398,32 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
         }
       };
     }
+
+    @Override
+    public Iterator<RawGroupKey> rawKeyIterator() {
+      return new Iterator<RawGroupKey>() {
+        private final ObjectIterator<Int2IntMap.Entry> _iterator = _rawKeyToGroupIdMap.int2IntEntrySet().fastIterator();
+        private final RawGroupKey _rawGroupKey = newRawGroupKey();
+
+        @Override
+        public boolean hasNext() {
+          return _iterator.hasNext();
+        }
+
+        @Override
+        public RawGroupKey next() {
+          Int2IntMap.Entry entry = _iterator.next();
+          _rawGroupKey._groupId = entry.getIntValue();
+          decodeRawKey(entry.getIntKey(), _rawGroupKey._dictIds);
+          return _rawGroupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
   }
 
   /**
@@ -512,6 +604,33 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
         }
       };
     }
+
+    @Override
+    public Iterator<RawGroupKey> rawKeyIterator() {
+      return new Iterator<RawGroupKey>() {
+        private final ObjectIterator<Long2IntMap.Entry> _iterator =
+            _rawKeyToGroupIdMap.long2IntEntrySet().fastIterator();
+        private final RawGroupKey _rawGroupKey = newRawGroupKey();
+
+        @Override
+        public boolean hasNext() {
+          return _iterator.hasNext();
+        }
+
+        @Override
+        public RawGroupKey next() {
+          Long2IntMap.Entry entry = _iterator.next();
+          _rawGroupKey._groupId = entry.getIntValue();
+          decodeRawKey(entry.getLongKey(), _rawGroupKey._dictIds);
+          return _rawGroupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
   }
 
   /**
@@ -682,6 +801,34 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
         }
       };
     }
+
+    @Override
+    public Iterator<RawGroupKey> rawKeyIterator() {
+      return new Iterator<RawGroupKey>() {
+        private final ObjectIterator<Object2IntMap.Entry<IntArray>> _iterator =
+            _rawKeyToGroupIdMap.object2IntEntrySet().fastIterator();
+        private final RawGroupKey _rawGroupKey = new RawGroupKey();
+
+        @Override
+        public boolean hasNext() {
+          return _iterator.hasNext();
+        }
+
+        @Override
+        public RawGroupKey next() {
+          Object2IntMap.Entry<IntArray> entry = _iterator.next();
+          _rawGroupKey._groupId = entry.getIntValue();
+          // The raw key already holds the dictionary ids, no need to decode
+          _rawGroupKey._dictIds = entry.getKey()._elements;
+          return _rawGroupKey;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
   }
 
   /**
@@ -776,6 +923,40 @@ public class DictionaryBasedGroupKeyGenerator implements GroupKeyGenerator {
     return groupKeyBuilder.toString();
   }
 
+  private RawGroupKey newRawGroupKey() {
+    RawGroupKey rawGroupKey = new RawGroupKey();
+    rawGroupKey._dictIds = new int[_numGroupByExpressions];
+    return rawGroupKey;
+  }
+
+  /**
+   * Helper method to decode the dictionary ids of all the group-by columns from the integer raw key.
+   *
+   * @param rawKey Integer raw key
+   * @param dictIds Buffer for the dictionary ids
+   */
+  private void decodeRawKey(int rawKey, int[] dictIds) {
+    for (int i = 0; i < _numGroupByExpressions; i++) {
+      int cardinality = _cardinalities[i];
+      dictIds[i] = rawKey % cardinality;
+      rawKey /= cardinality;
+    }
+  }
+
+  /**
+   * Helper method to decode the dictionary ids of all the group-by columns from the long raw key.
+   *
+   * @param rawKey Long raw key
+   * @param dictIds Buffer for the dictionary ids
+   */
+  private void decodeRawKey(long rawKey, int[] dictIds) {
+    for (int i = 0; i < _numGroupByExpressions; i++) {
+      int cardinality = _cardinalities[i];
+      dictIds[i] = (int) (rawKey % cardinality);
+      rawKey /= cardinality;
+    }
+  }
+
   /**
    * Drop un-necessary checks for highest performance.
    */
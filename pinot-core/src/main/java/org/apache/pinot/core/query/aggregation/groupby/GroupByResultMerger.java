@@ -0,0 +1,549 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.aggregation.groupby;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.utils.BytesUtils;
+import org.apache.pinot.common.utils.primitive.ByteArray;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.CountAggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.MaxAggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.MinAggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.SumAggregationFunction;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+
+
+/**
+ * The <code>GroupByResultMerger</code> class merges segment level aggregation group-by results without going through
+ * string group keys.
+ * <ul>
+ *   <li>
+ *     Typed values of the group-by columns are mapped onto integer value ids through {@link GroupKeyValueDictionary}s
+ *     shared across all the mergers of the query, so that groups from different segments share the same key space
+ *   </li>
+ *   <li>
+ *     For results generated by {@link DictionaryBasedGroupKeyGenerator}, the dictionary ids of each segment are
+ *     translated into value ids once per dictionary entry, without converting the values into strings
+ *   </li>
+ *   <li>
+ *     Groups are keyed on primitive long keys (up to 2 group-by columns) or int array keys (more than 2 group-by
+ *     columns), and results of COUNT/SUM/MIN/MAX are merged into primitive double result holders
+ *   </li>
+ *   <li>
+ *     String group keys are only generated for the groups that survive the final trimming
+ *   </li>
+ * </ul>
+ * <p>The merger itself is not thread-safe. The caller is expected to give each thread an exclusive merger, and merge
+ * all the mergers into one after all segments are merged.
+ */
+@NotThreadSafe
+public class GroupByResultMerger implements AggregationGroupByTrimmingService.IndexedIntermediateResults {
+  private static final int MAX_INITIAL_RESULT_HOLDER_CAPACITY = 10_000;
+  // For dictionaries with cardinality no larger than this threshold, use an array to cache the dictionary id to value
+  // id mapping; otherwise use a map to avoid allocating large arrays for sparse lookups
+  private static final int DICT_ID_ARRAY_BASED_THRESHOLD = 100_000;
+  private static final int INVALID_ID = GroupKeyGenerator.INVALID_ID;
+
+  private enum DoubleMergeType {
+    SUM, MIN, MAX
+  }
+
+  private final AggregationFunction[] _aggregationFunctions;
+  private final int _numAggregationFunctions;
+  // Null for aggregation functions with non-double results
+  private final DoubleMergeType[] _doubleMergeTypes;
+  private final GroupByResultHolder[] _resultHolders;
+  private final GroupKeyValueDictionary[] _valueDictionaries;
+  private final int _numGroupByColumns;
+  private final int _numGroupsLimit;
+
+  // Reusable buffer for value ids of all the group-by columns
+  private final int[] _valueIds;
+
+  // For no more than 2 group-by columns, pack the value ids into a long key
+  private final Long2IntOpenHashMap _longKeyToGroupIdMap;
+  private final LongArrayList _longKeys;
+
+  // For more than 2 group-by columns, use int array as the key
+  private final Object2IntOpenHashMap<IntArrayKey> _arrayKeyToGroupIdMap;
+  private final List<int[]> _arrayKeys;
+  private final IntArrayKey _probeKey;
+
+  private int _numGroups = 0;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param aggregationFunctions Aggregation functions
+   * @param valueDictionaries Value dictionaries for all the group-by columns (shared across all the mergers)
+   * @param numGroupsLimit Limit on number of groups stored in the merger, beyond which no new group will be created
+   */
+  public GroupByResultMerger(AggregationFunction[] aggregationFunctions, GroupKeyValueDictionary[] valueDictionaries,
+      int numGroupsLimit) {
+    _aggregationFunctions = aggregationFunctions;
+    _numAggregationFunctions = aggregationFunctions.length;
+    _doubleMergeTypes = new DoubleMergeType[_numAggregationFunctions];
+    _resultHolders = new GroupByResultHolder[_numAggregationFunctions];
+    int initialCapacity = Math.min(numGroupsLimit, MAX_INITIAL_RESULT_HOLDER_CAPACITY);
+    for (int i = 0; i < _numAggregationFunctions; i++) {
+      AggregationFunction aggregationFunction = aggregationFunctions[i];
+      _doubleMergeTypes[i] = getDoubleMergeType(aggregationFunction);
+      if (_doubleMergeTypes[i] != null) {
+        // Use the same result holder as the aggregation function so that the result can be extracted by the function
+        _resultHolders[i] = aggregationFunction.createGroupByResultHolder(initialCapacity, numGroupsLimit);
+      } else {
+        _resultHolders[i] = new ObjectGroupByResultHolder(initialCapacity, numGroupsLimit);
+      }
+    }
+    _valueDictionaries = valueDictionaries;
+    _numGroupByColumns = valueDictionaries.length;
+    _numGroupsLimit = numGroupsLimit;
+    _valueIds = new int[_numGroupByColumns];
+
+    if (_numGroupByColumns <= 2) {
+      _longKeyToGroupIdMap = new Long2IntOpenHashMap();
+      _longKeyToGroupIdMap.defaultReturnValue(INVALID_ID);
+      _longKeys = new LongArrayList();
+      _arrayKeyToGroupIdMap = null;
+      _arrayKeys = null;
+      _probeKey = null;
+    } else {
+      _longKeyToGroupIdMap = null;
+      _longKeys = null;
+      _arrayKeyToGroupIdMap = new Object2IntOpenHashMap<>();
+      _arrayKeyToGroupIdMap.defaultReturnValue(INVALID_ID);
+      _arrayKeys = new ArrayList<>();
+      _probeKey = new IntArrayKey(null);
+    }
+  }
+
+  /**
+   * Helper method to create the value dictionaries for the given number of group-by columns.
+   */
+  public static GroupKeyValueDictionary[] createValueDictionaries(int numGroupByColumns) {
+    GroupKeyValueDictionary[] valueDictionaries = new GroupKeyValueDictionary[numGroupByColumns];
+    for (int i = 0; i < numGroupByColumns; i++) {
+      valueDictionaries[i] = new GroupKeyValueDictionary();
+    }
+    return valueDictionaries;
+  }
+
+  /**
+   * Merges a segment level aggregation group-by result into the merger.
+   */
+  public void merge(AggregationGroupByResult aggregationGroupByResult) {
+    GroupKeyGenerator groupKeyGenerator = aggregationGroupByResult.getGroupKeyGenerator();
+    if (groupKeyGenerator instanceof DictionaryBasedGroupKeyGenerator) {
+      mergeDictionaryBasedResult(aggregationGroupByResult, (DictionaryBasedGroupKeyGenerator) groupKeyGenerator);
+    } else {
+      mergeStringKeyBasedResult(aggregationGroupByResult);
+    }
+  }
+
+  private void mergeDictionaryBasedResult(AggregationGroupByResult aggregationGroupByResult,
+      DictionaryBasedGroupKeyGenerator groupKeyGenerator) {
+    Dictionary[] dictionaries = groupKeyGenerator.getDictionaries();
+    DictIdToValueIdMap[] dictIdToValueIdMaps = new DictIdToValueIdMap[_numGroupByColumns];
+    for (int i = 0; i < _numGroupByColumns; i++) {
+      dictIdToValueIdMaps[i] = new DictIdToValueIdMap(dictionaries[i], _valueDictionaries[i]);
+    }
+
+    Iterator<DictionaryBasedGroupKeyGenerator.RawGroupKey> rawGroupKeyIterator =
+        groupKeyGenerator.getUniqueRawGroupKeys();
+    while (rawGroupKeyIterator.hasNext()) {
+      DictionaryBasedGroupKeyGenerator.RawGroupKey rawGroupKey = rawGroupKeyIterator.next();
+      int[] dictIds = rawGroupKey._dictIds;
+      for (int i = 0; i < _numGroupByColumns; i++) {
+        _valueIds[i] = dictIdToValueIdMaps[i].getValueId(dictIds[i]);
+      }
+      int groupId = getOrCreateGroupId();
+      if (groupId != INVALID_ID) {
+        mergeSegmentResult(groupId, aggregationGroupByResult, rawGroupKey._groupId);
+      }
+    }
+  }
+
+  private void mergeStringKeyBasedResult(AggregationGroupByResult aggregationGroupByResult) {
+    // Convert the string values back into typed values so that they share the same value ids as the values from the
+    // dictionary based results
+    FieldSpec.DataType[] dataTypes = getDataTypes(aggregationGroupByResult);
+    Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+    while (groupKeyIterator.hasNext()) {
+      GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+      if (_numGroupByColumns == 1) {
+        _valueIds[0] = _valueDictionaries[0].getValueId(toTypedValue(groupKey._stringKey, dataTypes[0]));
+      } else {
+        // Set limit to -1 to prevent removing trailing empty strings
+        String[] values = groupKey._stringKey.split(AggregationGroupByTrimmingService.GROUP_KEY_DELIMITER, -1);
+        for (int i = 0; i < _numGroupByColumns; i++) {
+          _valueIds[i] = _valueDictionaries[i].getValueId(toTypedValue(values[i], dataTypes[i]));
+        }
+      }
+      int groupId = getOrCreateGroupId();
+      if (groupId != INVALID_ID) {
+        mergeSegmentResult(groupId, aggregationGroupByResult, groupKey._groupId);
+      }
+    }
+  }
+
+  private FieldSpec.DataType[] getDataTypes(AggregationGroupByResult aggregationGroupByResult) {
+    if (aggregationGroupByResult instanceof CachedAggregationGroupByResult) {
+      return ((CachedAggregationGroupByResult) aggregationGroupByResult).getGroupByDataTypes();
+    }
+    GroupKeyGenerator groupKeyGenerator = aggregationGroupByResult.getGroupKeyGenerator();
+    if (groupKeyGenerator instanceof NoDictionarySingleColumnGroupKeyGenerator) {
+      return new FieldSpec.DataType[]{((NoDictionarySingleColumnGroupKeyGenerator) groupKeyGenerator).getDataType()};
+    }
+    if (groupKeyGenerator instanceof NoDictionaryMultiColumnGroupKeyGenerator) {
+      return ((NoDictionaryMultiColumnGroupKeyGenerator) groupKeyGenerator).getDataTypes();
+    }
+    FieldSpec.DataType[] dataTypes = new FieldSpec.DataType[_numGroupByColumns];
+    Arrays.fill(dataTypes, FieldSpec.DataType.STRING);
+    return dataTypes;
+  }
+
+  /**
+   * Converts the string representation of a value into the same typed value as returned by {@link Dictionary#get(int)}
+   * ({@link ByteArray} for BYTES).
+   */
+  private static Object toTypedValue(String value, FieldSpec.DataType dataType) {
+    switch (dataType) {
+      case INT:
+        return Integer.valueOf(value);
+      case LONG:
+        return Long.valueOf(value);
+      case FLOAT:
+        return Float.valueOf(value);
+      case DOUBLE:
+        return Double.valueOf(value);
+      case BYTES:
+        return new ByteArray(BytesUtils.toBytes(value));
+      default:
+        return value;
+    }
+  }
+
+  private void mergeSegmentResult(int groupId, AggregationGroupByResult aggregationGroupByResult,
+      int segmentGroupId) {
+    for (int i = 0; i < _numAggregationFunctions; i++) {
+      GroupByResultHolder resultHolder = _resultHolders[i];
+      DoubleMergeType doubleMergeType = _doubleMergeTypes[i];
+      if (doubleMergeType != null) {
+        double value = aggregationGroupByResult.getDoubleResultForGroupId(segmentGroupId, i);
+        resultHolder
+            .setValueForKey(groupId, mergeDouble(doubleMergeType, resultHolder.getDoubleResult(groupId), value));
+      } else {
+        mergeObject(i, groupId, aggregationGroupByResult.getResultForGroupId(segmentGroupId, i));
+      }
+    }
+  }
+
+  /**
+   * Merges another merger (sharing the same value dictionaries) into this merger.
+   */
+  public void merge(GroupByResultMerger merger) {
+    int numGroupsToMerge = merger._numGroups;
+    for (int groupIdToMerge = 0; groupIdToMerge < numGroupsToMerge; groupIdToMerge++) {
+      merger.fillValueIds(groupIdToMerge, _valueIds);
+      int groupId = getOrCreateGroupId();
+      if (groupId == INVALID_ID) {
+        continue;
+      }
+      for (int i = 0; i < _numAggregationFunctions; i++) {
+        GroupByResultHolder resultHolder = _resultHolders[i];
+        GroupByResultHolder resultHolderToMerge = merger._resultHolders[i];
+        DoubleMergeType doubleMergeType = _doubleMergeTypes[i];
+        if (doubleMergeType != null) {
+          resultHolder.setValueForKey(groupId, mergeDouble(doubleMergeType, resultHolder.getDoubleResult(groupId),
+              resultHolderToMerge.getDoubleResult(groupIdToMerge)));
+        } else {
+          mergeObject(i, groupId, resultHolderToMerge.getResult(groupIdToMerge));
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mergeObject(int index, int groupId, Object value) {
+    GroupByResultHolder resultHolder = _resultHolders[index];
+    Object mergedValue = resultHolder.getResult(groupId);
+    if (mergedValue == null) {
+      resultHolder.setValueForKey(groupId, value);
+    } else {
+      resultHolder.setValueForKey(groupId, _aggregationFunctions[index].merge(mergedValue, value));
+    }
+  }
+
+  private static double mergeDouble(DoubleMergeType doubleMergeType, double value1, double value2) {
+    switch (doubleMergeType) {
+      case SUM:
+        return value1 + value2;
+      case MIN:
+        return Math.min(value1, value2);
+      case MAX:
+        return Math.max(value1, value2);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  /**
+   * Returns the group id for the value ids inside {@link #_valueIds}, or creates a new group if the key does not exist
+   * and the number of groups limit is not reached. Returns {@link GroupKeyGenerator#INVALID_ID} if the group cannot be
+   * created.
+   */
+  private int getOrCreateGroupId() {
+    if (_longKeyToGroupIdMap != null) {
+      long longKey = _numGroupByColumns == 1 ? _valueIds[0] : ((long) _valueIds[1] << 32) | _valueIds[0];
+      int groupId = _longKeyToGroupIdMap.get(longKey);
+      if (groupId == INVALID_ID && _numGroups < _numGroupsLimit) {
+        groupId = createGroup();
+        _longKeyToGroupIdMap.put(longKey, groupId);
+        _longKeys.add(longKey);
+      }
+      return groupId;
+    } else {
+      _probeKey._elements = _valueIds;
+      int groupId = _arrayKeyToGroupIdMap.getInt(_probeKey);
+      if (groupId == INVALID_ID && _numGroups < _numGroupsLimit) {
+        groupId = createGroup();
+        int[] arrayKey = _valueIds.clone();
+        _arrayKeyToGroupIdMap.put(new IntArrayKey(arrayKey), groupId);
+        _arrayKeys.add(arrayKey);
+      }
+      return groupId;
+    }
+  }
+
+  private int createGroup() {
+    int groupId = _numGroups++;
+    for (GroupByResultHolder resultHolder : _resultHolders) {
+      resultHolder.ensureCapacity(_numGroups);
+    }
+    return groupId;
+  }
+
+  private void fillValueIds(int groupId, int[] valueIds) {
+    if (_longKeys != null) {
+      long longKey = _longKeys.getLong(groupId);
+      valueIds[0] = (int) longKey;
+      if (_numGroupByColumns == 2) {
+        valueIds[1] = (int) (longKey >>> 32);
+      }
+    } else {
+      System.arraycopy(_arrayKeys.get(groupId), 0, valueIds, 0, _numGroupByColumns);
+    }
+  }
+
+  @Override
+  public int getNumGroups() {
+    return _numGroups;
+  }
+
+  @Override
+  public Object getIntermediateResult(int groupId, int index) {
+    if (_doubleMergeTypes[index] != null) {
+      return _aggregationFunctions[index].extractGroupByResult(_resultHolders[index], groupId);
+    } else {
+      return _resultHolders[index].getResult(groupId);
+    }
+  }
+
+  @Override
+  public String getGroupKey(int groupId) {
+    int[] valueIds = new int[_numGroupByColumns];
+    fillValueIds(groupId, valueIds);
+    if (_numGroupByColumns == 1) {
+      return _valueDictionaries[0].getStringValue(valueIds[0]);
+    }
+    StringBuilder groupKeyBuilder = new StringBuilder(_valueDictionaries[0].getStringValue(valueIds[0]));
+    for (int i = 1; i < _numGroupByColumns; i++) {
+      groupKeyBuilder.append(AggregationGroupByTrimmingService.GROUP_KEY_DELIMITER);
+      groupKeyBuilder.append(_valueDictionaries[i].getStringValue(valueIds[i]));
+    }
+    return groupKeyBuilder.toString();
+  }
+
+  /**
+   * Returns the primitive merge type for aggregation functions storing double results, or {@code null} for other
+   * aggregation functions.
+   */
+  private static DoubleMergeType getDoubleMergeType(AggregationFunction aggregationFunction) {
+    // This will also cover COUNTMV, SUMMV, MINMV and MAXMV
+    if (aggregationFunction instanceof CountAggregationFunction
+        || aggregationFunction instanceof SumAggregationFunction) {
+      return DoubleMergeType.SUM;
+    }
+    if (aggregationFunction instanceof MinAggregationFunction) {
+      return DoubleMergeType.MIN;
+    }
+    if (aggregationFunction instanceof MaxAggregationFunction) {
+      return DoubleMergeType.MAX;
+    }
+    return null;
+  }
+
+  /**
+   * Thread-safe dictionary from the typed value (Integer, Long, Float, Double, String or {@link ByteArray}) of a
+   * group-by column to the value id, shared across all the mergers of the query.
+   * <p>Values are only converted into strings when building the group keys for the final results.
+   * <p>Registering a value is lock-free: the value id is allocated from an atomic counter, and the value is stored into
+   * an append-only chunked array, where chunks are allocated on demand with CAS. The chunk size doubles for each chunk
+   * (starting from {@link #FIRST_CHUNK_SIZE}), so the chunk index and the offset inside the chunk are computed from the
+   * highest bit of the value id, and the array never needs to be copied or resized.
+   */
+  @ThreadSafe
+  public static class GroupKeyValueDictionary {
+    private static final int FIRST_CHUNK_SIZE_SHIFT = 5;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SIZE_SHIFT;
+    // Enough chunks to hold Integer.MAX_VALUE values
+    private static final int MAX_NUM_CHUNKS = Integer.SIZE - FIRST_CHUNK_SIZE_SHIFT;
+
+    private final ConcurrentHashMap<Object, Integer> _valueToIdMap = new ConcurrentHashMap<>();
+    private final AtomicInteger _numValues = new AtomicInteger();
+    private final AtomicReferenceArray<AtomicReferenceArray<Object>> _chunks =
+        new AtomicReferenceArray<>(MAX_NUM_CHUNKS);
+
+    public int getValueId(Object value) {
+      Integer valueId = _valueToIdMap.get(value);
+      if (valueId != null) {
+        return valueId;
+      }
+      return _valueToIdMap.computeIfAbsent(value, k -> {
+        int newValueId = _numValues.getAndIncrement();
+        int position = newValueId + FIRST_CHUNK_SIZE;
+        getOrCreateChunk(position).set(getOffsetInChunk(position), k);
+        return newValueId;
+      });
+    }
+
+    /**
+     * Returns the string representation of the value, same as {@link Dictionary#getStringValue(int)}.
+     */
+    public String getStringValue(int valueId) {
+      int position = valueId + FIRST_CHUNK_SIZE;
+      return _chunks.get(getChunkIndex(position)).get(getOffsetInChunk(position)).toString();
+    }
+
+    private AtomicReferenceArray<Object> getOrCreateChunk(int position) {
+      int chunkIndex = getChunkIndex(position);
+      AtomicReferenceArray<Object> chunk = _chunks.get(chunkIndex);
+      if (chunk == null) {
+        // NOTE: Multiple threads might try to allocate the same chunk, only the first one wins
+        _chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << chunkIndex));
+        chunk = _chunks.get(chunkIndex);
+      }
+      return chunk;
+    }
+
+    /**
+     * Chunk i holds the positions within [FIRST_CHUNK_SIZE << i, FIRST_CHUNK_SIZE << (i + 1)).
+     */
+    private static int getChunkIndex(int position) {
+      return (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position)) - FIRST_CHUNK_SIZE_SHIFT;
+    }
+
+    private static int getOffsetInChunk(int position) {
+      return position - Integer.highestOneBit(position);
+    }
+  }
+
+  /**
+   * Per segment cache of the dictionary id to value id mapping for one group-by column.
+   */
+  private static class DictIdToValueIdMap {
+    private final Dictionary _dictionary;
+    private final GroupKeyValueDictionary _valueDictionary;
+    private final int[] _valueIdArray;
+    private final Int2IntOpenHashMap _valueIdMap;
+
+    DictIdToValueIdMap(Dictionary dictionary, GroupKeyValueDictionary valueDictionary) {
+      _dictionary = dictionary;
+      _valueDictionary = valueDictionary;
+      int cardinality = dictionary.length();
+      if (cardinality <= DICT_ID_ARRAY_BASED_THRESHOLD) {
+        _valueIdArray = new int[cardinality];
+        Arrays.fill(_valueIdArray, INVALID_ID);
+        _valueIdMap = null;
+      } else {
+        _valueIdArray = null;
+        _valueIdMap = new Int2IntOpenHashMap();
+        _valueIdMap.defaultReturnValue(INVALID_ID);
+      }
+    }
+
+    int getValueId(int dictId) {
+      if (_valueIdArray != null) {
+        int valueId = _valueIdArray[dictId];
+        if (valueId == INVALID_ID) {
+          valueId = _valueDictionary.getValueId(getTypedValue(dictId));
+          _valueIdArray[dictId] = valueId;
+        }
+        return valueId;
+      } else {
+        int valueId = _valueIdMap.get(dictId);
+        if (valueId == INVALID_ID) {
+          valueId = _valueDictionary.getValueId(getTypedValue(dictId));
+          _valueIdMap.put(dictId, valueId);
+        }
+        return valueId;
+      }
+    }
+
+    private Object getTypedValue(int dictId) {
+      Object value = _dictionary.get(dictId);
+      return value instanceof byte[] ? new ByteArray((byte[]) value) : value;
+    }
+  }
+
+  /**
+   * Drop un-necessary checks for highest performance.
+   */
+  private static class IntArrayKey {
+    int[] _elements;
+
+    IntArrayKey(int[] elements) {
+      _elements = elements;
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(_elements);
+    }
+
+    @SuppressWarnings({"Contract", "EqualsWhichDoesntCheckParameterClass"})
+    @Override
+    public boolean equals(Object obj) {
+      return Arrays.equals(_elements, ((IntArrayKey) obj)._elements);
+    }
+  }
+}
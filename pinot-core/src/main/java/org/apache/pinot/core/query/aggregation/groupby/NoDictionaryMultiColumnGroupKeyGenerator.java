@@ -78,6 +78,13 @@ public class NoDictionaryMultiColumnGroupKeyGenerator implements GroupKeyGenerat
     _globalGroupIdUpperBound = numGroupsLimit;
   }
 
+  /**
+   * Returns the data types of the group-by expressions, in the same order as the values inside the group keys.
+   */
+  public FieldSpec.DataType[] getDataTypes() {
+    return _dataTypes;
+  }
+
   @Override
   public int getGlobalGroupKeyUpperBound() {
     return _globalGroupIdUpperBound;
@@ -59,6 +59,13 @@ public class NoDictionarySingleColumnGroupKeyGenerator implements GroupKeyGenera
     _globalGroupIdUpperBound = numGroupsLimit;
   }
 
+  /**
+   * Returns the data type of the group-by expression.
+   */
+  public FieldSpec.DataType getDataType() {
+    return _dataType;
+  }
+
   @Override
   public int getGlobalGroupKeyUpperBound() {
     return _globalGroupIdUpperBound;
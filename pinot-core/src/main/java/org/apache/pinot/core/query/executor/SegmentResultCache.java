@@ -0,0 +1,378 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.executor;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.segment.SegmentMetadata;
+import org.apache.pinot.core.common.ObjectSerDeUtils;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.CachedAggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>SegmentResultCache</code> class caches the per-segment aggregation and aggregation group-by results for
+ * immutable segments, so that repeated queries (e.g. from dashboards) do not need to scan the same segments again.
+ * <p>The cache is keyed by the table name, segment name, segment CRC and the canonical serialized form of the filter,
+ * aggregations and group-by of the query, and is bounded by the total size in bytes of the cached entries.
+ * <p>The intermediate aggregation results are mutated while being merged across segments, so they are cached in
+ * serialized form and de-serialized into new objects on each cache hit.
+ * <p>Each entry keeps a weak reference to the segment instance it is computed on, and is treated as a miss (and
+ * invalidated) when the segment is reloaded or replaced with a new instance.
+ * <p>Results served from the cache report no documents or entries scanned, and the number of cache hits can be read
+ * from {@link #getHitCount()}.
+ */
+@ThreadSafe
+public class SegmentResultCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentResultCache.class);
+
+  // Rough estimation of the overhead of each cache entry (key and value objects)
+  private static final int ENTRY_OVERHEAD_IN_BYTES = 256;
+  // Rough estimation of the overhead of each cached group (group key and serialized result arrays)
+  private static final int GROUP_OVERHEAD_IN_BYTES = 64;
+
+  private final Cache<Key, Entry> _cache;
+
+  public SegmentResultCache(long maxSizeInBytes) {
+    Preconditions.checkArgument(maxSizeInBytes > 0, "Max size of the segment result cache must be positive");
+    _cache = CacheBuilder.newBuilder().maximumWeight(maxSizeInBytes)
+        .weigher((Key key, Entry entry) -> key.getSizeInBytes() + entry.getSizeInBytes()).recordStats().build();
+  }
+
+  /**
+   * Returns the canonical serialized form of the parts of the broker request that affect the per-segment results
+   * (filter, aggregations and group-by), or <code>null</code> if the broker request cannot be serialized.
+   */
+  @Nullable
+  public static byte[] getQueryBytes(@Nonnull BrokerRequest brokerRequest) {
+    BrokerRequest keyRequest = new BrokerRequest();
+    keyRequest.setFilterQuery(brokerRequest.getFilterQuery());
+    keyRequest.setFilterSubQueryMap(brokerRequest.getFilterSubQueryMap());
+    keyRequest.setAggregationsInfo(brokerRequest.getAggregationsInfo());
+    keyRequest.setGroupBy(brokerRequest.getGroupBy());
+    try {
+      return new TSerializer(new TCompactProtocol.Factory()).serialize(keyRequest);
+    } catch (TException e) {
+      LOGGER.warn("Caught exception while serializing broker request: {}, skip caching", brokerRequest, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the cache key for the given segment and query, or <code>null</code> if the results of the segment cannot
+   * be cached (not an immutable segment or no CRC available).
+   */
+  @Nullable
+  public static Key getKey(@Nonnull IndexSegment indexSegment, @Nonnull byte[] queryBytes) {
+    if (!(indexSegment instanceof ImmutableSegment)) {
+      return null;
+    }
+    SegmentMetadata segmentMetadata = indexSegment.getSegmentMetadata();
+    String crc = segmentMetadata.getCrc();
+    if (crc == null) {
+      return null;
+    }
+    return new Key(segmentMetadata.getTableName(), indexSegment.getSegmentName(), crc, queryBytes);
+  }
+
+  /**
+   * Returns the cached entry for the given key, or <code>null</code> if there is no valid entry for the segment.
+   */
+  @Nullable
+  public Entry get(@Nonnull Key key, @Nonnull IndexSegment indexSegment) {
+    Entry entry = _cache.getIfPresent(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry._indexSegmentReference.get() != indexSegment) {
+      // The segment has been reloaded or replaced
+      _cache.invalidate(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Puts the aggregation results and execution statistics of a segment into the cache. Results that cannot be
+   * serialized are not cached.
+   */
+  public void put(@Nonnull Key key, @Nonnull IndexSegment indexSegment,
+      @Nonnull AggregationFunctionContext[] functionContexts, @Nonnull List<Object> aggregationResult,
+      @Nonnull ExecutionStatistics executionStatistics) {
+    int numAggregationFunctions = aggregationResult.size();
+    if (numAggregationFunctions != functionContexts.length) {
+      return;
+    }
+    int[] objectTypes = new int[numAggregationFunctions];
+    byte[][] serializedResults = new byte[numAggregationFunctions][];
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      if (!serialize(functionContexts[i], aggregationResult.get(i), objectTypes, serializedResults, i)) {
+        return;
+      }
+    }
+    _cache.put(key, new Entry(indexSegment, objectTypes, serializedResults, executionStatistics));
+  }
+
+  /**
+   * Puts the aggregation group-by results and execution statistics of a segment into the cache. Results that cannot be
+   * serialized are not cached.
+   */
+  public void put(@Nonnull Key key, @Nonnull IndexSegment indexSegment,
+      @Nonnull AggregationFunctionContext[] functionContexts,
+      @Nonnull AggregationGroupByResult aggregationGroupByResult, @Nonnull FieldSpec.DataType[] groupByDataTypes,
+      @Nonnull ExecutionStatistics executionStatistics) {
+    List<String> groupKeys = new ArrayList<>();
+    List<Integer> groupIds = new ArrayList<>();
+    Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+    while (groupKeyIterator.hasNext()) {
+      GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+      groupKeys.add(groupKey._stringKey);
+      groupIds.add(groupKey._groupId);
+    }
+    int numGroups = groupKeys.size();
+    int numAggregationFunctions = functionContexts.length;
+    int[][] objectTypes = new int[numAggregationFunctions][numGroups];
+    byte[][][] serializedResults = new byte[numAggregationFunctions][numGroups][];
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      for (int j = 0; j < numGroups; j++) {
+        Object result = aggregationGroupByResult.getResultForGroupId(groupIds.get(j), i);
+        if (!serialize(functionContexts[i], result, objectTypes[i], serializedResults[i], j)) {
+          return;
+        }
+      }
+    }
+    _cache.put(key,
+        new Entry(indexSegment, groupKeys.toArray(new String[numGroups]), groupByDataTypes, objectTypes,
+            serializedResults, executionStatistics));
+  }
+
+  /**
+   * Helper method to serialize the given result into the given arrays, returns <code>false</code> if the result cannot
+   * be serialized.
+   */
+  private static boolean serialize(AggregationFunctionContext functionContext, @Nullable Object result,
+      int[] objectTypes, byte[][] serializedResults, int index) {
+    if (result == null) {
+      return false;
+    }
+    try {
+      int objectType = ObjectSerDeUtils.ObjectType.getObjectType(result).getValue();
+      objectTypes[index] = objectType;
+      serializedResults[index] = ObjectSerDeUtils.serialize(result, objectType);
+      return true;
+    } catch (Exception e) {
+      AggregationFunction aggregationFunction = functionContext.getAggregationFunction();
+      LOGGER.debug("Caught exception while serializing result for aggregation function: {}, skip caching",
+          aggregationFunction.getType(), e);
+      return false;
+    }
+  }
+
+  /**
+   * Invalidates all the cached entries.
+   */
+  public void invalidateAll() {
+    _cache.invalidateAll();
+  }
+
+  public long size() {
+    return _cache.size();
+  }
+
+  /**
+   * Returns the number of cache hits since the cache is created.
+   */
+  public long getHitCount() {
+    return _cache.stats().hitCount();
+  }
+
+  /**
+   * Key of the segment result cache.
+   */
+  public static final class Key {
+    private final String _tableName;
+    private final String _segmentName;
+    private final String _crc;
+    private final byte[] _queryBytes;
+    private final int _hashCode;
+
+    private Key(String tableName, String segmentName, String crc, byte[] queryBytes) {
+      _tableName = tableName;
+      _segmentName = segmentName;
+      _crc = crc;
+      _queryBytes = queryBytes;
+      _hashCode = 31 * (31 * (31 * String.valueOf(tableName).hashCode() + segmentName.hashCode()) + crc.hashCode())
+          + Arrays.hashCode(queryBytes);
+    }
+
+    private int getSizeInBytes() {
+      return 2 * (String.valueOf(_tableName).length() + _segmentName.length() + _crc.length()) + _queryBytes.length
+          + ENTRY_OVERHEAD_IN_BYTES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return _hashCode == that._hashCode && _segmentName.equals(that._segmentName) && _crc.equals(that._crc)
+          && String.valueOf(_tableName).equals(String.valueOf(that._tableName)) && Arrays
+          .equals(_queryBytes, that._queryBytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+
+  /**
+   * Value of the segment result cache, which contains the serialized aggregation or aggregation group-by results and
+   * the execution statistics of the segment.
+   */
+  public static final class Entry {
+    private final WeakReference<IndexSegment> _indexSegmentReference;
+    // For aggregation only query
+    private final int[] _objectTypes;
+    private final byte[][] _serializedResults;
+    // For aggregation group-by query, where the results are indexed by aggregation function index and group id
+    private final String[] _groupKeys;
+    private final FieldSpec.DataType[] _groupByDataTypes;
+    private final int[][] _groupByObjectTypes;
+    private final byte[][][] _serializedGroupByResults;
+    private final long _numTotalRawDocs;
+    private final long _numSegmentsMatched;
+
+    private Entry(IndexSegment indexSegment, int[] objectTypes, byte[][] serializedResults,
+        ExecutionStatistics executionStatistics) {
+      _indexSegmentReference = new WeakReference<>(indexSegment);
+      _objectTypes = objectTypes;
+      _serializedResults = serializedResults;
+      _groupKeys = null;
+      _groupByDataTypes = null;
+      _groupByObjectTypes = null;
+      _serializedGroupByResults = null;
+      _numTotalRawDocs = executionStatistics.getNumTotalRawDocs();
+      _numSegmentsMatched = executionStatistics.getNumSegmentsMatched();
+    }
+
+    private Entry(IndexSegment indexSegment, String[] groupKeys, FieldSpec.DataType[] groupByDataTypes,
+        int[][] groupByObjectTypes, byte[][][] serializedGroupByResults, ExecutionStatistics executionStatistics) {
+      _indexSegmentReference = new WeakReference<>(indexSegment);
+      _objectTypes = null;
+      _serializedResults = null;
+      _groupKeys = groupKeys;
+      _groupByDataTypes = groupByDataTypes;
+      _groupByObjectTypes = groupByObjectTypes;
+      _serializedGroupByResults = serializedGroupByResults;
+      _numTotalRawDocs = executionStatistics.getNumTotalRawDocs();
+      _numSegmentsMatched = executionStatistics.getNumSegmentsMatched();
+    }
+
+    private int getSizeInBytes() {
+      int sizeInBytes = 0;
+      if (_serializedResults != null) {
+        for (byte[] serializedResult : _serializedResults) {
+          sizeInBytes += serializedResult.length;
+        }
+      } else {
+        for (String groupKey : _groupKeys) {
+          sizeInBytes += 2 * groupKey.length() + GROUP_OVERHEAD_IN_BYTES;
+        }
+        for (byte[][] serializedResults : _serializedGroupByResults) {
+          for (byte[] serializedResult : serializedResults) {
+            sizeInBytes += serializedResult.length;
+          }
+        }
+      }
+      return sizeInBytes;
+    }
+
+    /**
+     * Returns <code>true</code> if the entry contains aggregation group-by results, <code>false</code> if it contains
+     * aggregation only results.
+     */
+    public boolean isGroupBy() {
+      return _groupKeys != null;
+    }
+
+    /**
+     * Returns a new copy of the aggregation results, which can be safely modified.
+     */
+    public List<Object> getAggregationResult() {
+      int numAggregationFunctions = _objectTypes.length;
+      List<Object> aggregationResult = new ArrayList<>(numAggregationFunctions);
+      for (int i = 0; i < numAggregationFunctions; i++) {
+        aggregationResult.add(ObjectSerDeUtils.deserialize(_serializedResults[i], _objectTypes[i]));
+      }
+      return aggregationResult;
+    }
+
+    /**
+     * Returns a new copy of the aggregation group-by results, which can be safely modified.
+     */
+    public AggregationGroupByResult getAggregationGroupByResult(
+        @Nonnull AggregationFunctionContext[] functionContexts) {
+      int numAggregationFunctions = functionContexts.length;
+      AggregationFunction[] aggregationFunctions = new AggregationFunction[numAggregationFunctions];
+      int numGroups = _groupKeys.length;
+      Object[][] results = new Object[numAggregationFunctions][numGroups];
+      for (int i = 0; i < numAggregationFunctions; i++) {
+        aggregationFunctions[i] = functionContexts[i].getAggregationFunction();
+        for (int j = 0; j < numGroups; j++) {
+          results[i][j] = ObjectSerDeUtils.deserialize(_serializedGroupByResults[i][j], _groupByObjectTypes[i][j]);
+        }
+      }
+      return new CachedAggregationGroupByResult(aggregationFunctions, _groupKeys, results, _groupByDataTypes);
+    }
+
+    /**
+     * Returns the execution statistics for serving the results from the cache, where no document or entry is scanned.
+     */
+    public ExecutionStatistics getExecutionStatistics() {
+      return new ExecutionStatistics(0L, 0L, 0L, _numTotalRawDocs, 1L, _numSegmentsMatched);
+    }
+  }
+}
@@ -37,7 +37,6 @@ import org.apache.pinot.common.segment.SegmentMetadata;
 import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.common.utils.DataTable;
 import org.apache.pinot.core.common.datatable.DataTableBuilder;
-import org.apache.pinot.core.common.datatable.DataTableImplV2;
 import org.apache.pinot.core.data.manager.InstanceDataManager;
 import org.apache.pinot.core.data.manager.SegmentDataManager;
 import org.apache.pinot.core.data.manager.TableDataManager;
@@ -61,12 +60,17 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
   private static final Logger LOGGER = LoggerFactory.getLogger(ServerQueryExecutorV1Impl.class);
   private static final boolean PRINT_QUERY_PLAN = false;
 
+  // Max size in bytes of the per-segment aggregation result cache, 0 to disable the cache
+  public static final String SEGMENT_RESULT_CACHE_MAX_SIZE_KEY = "segment.result.cache.max.size.bytes";
+  public static final long DEFAULT_SEGMENT_RESULT_CACHE_MAX_SIZE = 0L;
+
   private InstanceDataManager _instanceDataManager = null;
   private SegmentPrunerService _segmentPrunerService = null;
   private PlanMaker _planMaker = null;
   private long _defaultTimeOutMs = CommonConstants.Server.DEFAULT_QUERY_EXECUTOR_TIMEOUT_MS;
   private final Map<String, Long> _tableTimeoutMs = new ConcurrentHashMap<>();
   private ServerMetrics _serverMetrics;
+  private SegmentResultCache _segmentResultCache = null;
 
   @Override
   public synchronized void init(Configuration config, InstanceDataManager instanceDataManager,
@@ -81,8 +85,14 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
     LOGGER.info("Default timeout for query executor : {}", _defaultTimeOutMs);
     LOGGER.info("Trying to build SegmentPrunerService");
     _segmentPrunerService = new SegmentPrunerService(queryExecutorConfig.getPrunerConfig());
+    long segmentResultCacheMaxSize = queryExecutorConfig.getConfig()
+        .getLong(SEGMENT_RESULT_CACHE_MAX_SIZE_KEY, DEFAULT_SEGMENT_RESULT_CACHE_MAX_SIZE);
+    if (segmentResultCacheMaxSize > 0) {
+      LOGGER.info("Enabling segment result cache with max size: {} bytes", segmentResultCacheMaxSize);
+      _segmentResultCache = new SegmentResultCache(segmentResultCacheMaxSize);
+    }
     LOGGER.info("Trying to build QueryPlanMaker");
-    _planMaker = new InstancePlanMakerImplV2(queryExecutorConfig);
+    _planMaker = new InstancePlanMakerImplV2(queryExecutorConfig, _segmentResultCache);
     LOGGER.info("Trying to build QueryExecutorTimer");
   }
 
@@ -93,6 +103,9 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
 
   @Override
   public synchronized void shutDown() {
+    if (_segmentResultCache != null) {
+      _segmentResultCache.invalidateAll();
+    }
     LOGGER.info("Query executor shut down");
   }
 
@@ -119,7 +132,7 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
       String errorMessage = String
           .format("Query scheduling took %dms (longer than query timeout of %dms)", querySchedulingTimeMs,
               queryTimeoutMs);
-      DataTable dataTable = new DataTableImplV2();
+      DataTable dataTable = DataTableBuilder.getEmptyDataTable();
       dataTable.addException(QueryException.getException(QueryException.QUERY_SCHEDULING_TIMEOUT_ERROR, errorMessage));
       LOGGER.error("{} while processing requestId: {}", errorMessage, requestId);
       return dataTable;
@@ -225,7 +238,7 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
         LOGGER.error("Exception processing requestId {}", requestId, e);
       }
 
-      dataTable = new DataTableImplV2();
+      dataTable = DataTableBuilder.getEmptyDataTable();
       dataTable.addException(QueryException.getException(QueryException.QUERY_EXECUTION_ERROR, e));
     } finally {
       for (SegmentDataManager segmentDataManager : segmentDataManagers) {
@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -34,7 +33,6 @@ import org.apache.pinot.common.config.TableNameBuilder;
 import org.apache.pinot.common.exception.QueryException;
 import org.apache.pinot.common.metrics.BrokerMeter;
 import org.apache.pinot.common.metrics.BrokerMetrics;
-import org.apache.pinot.common.metrics.BrokerTimer;
 import org.apache.pinot.common.query.ReduceService;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.GroupBy;
@@ -77,17 +75,7 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     }
 
     BrokerResponseNative brokerResponseNative = new BrokerResponseNative();
-    List<QueryProcessingException> processingExceptions = brokerResponseNative.getProcessingExceptions();
-    long numDocsScanned = 0L;
-    long numEntriesScannedInFilter = 0L;
-    long numEntriesScannedPostFilter = 0L;
-    long numSegmentsQueried = 0L;
-    long numSegmentsProcessed = 0L;
-    long numSegmentsMatched = 0L;
-    long numConsumingSegmentsQueried = 0L;
-    long minConsumingFreshnessTimeMs = Long.MAX_VALUE;
-    long numTotalRawDocs = 0L;
-    boolean numGroupsLimitReached = false;
+    ExecutionStatsAggregator executionStatsAggregator = new ExecutionStatsAggregator(brokerRequest.isEnableTrace());
 
     // Cache a data schema from data tables (try to cache one with data rows associated with it).
     DataSchema cachedDataSchema = null;
@@ -96,65 +84,8 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     Iterator<Map.Entry<ServerInstance, DataTable>> iterator = dataTableMap.entrySet().iterator();
     while (iterator.hasNext()) {
       Map.Entry<ServerInstance, DataTable> entry = iterator.next();
-      ServerInstance serverInstance = entry.getKey();
       DataTable dataTable = entry.getValue();
-      Map<String, String> metadata = dataTable.getMetadata();
-
-      // Reduce on trace info.
-      if (brokerRequest.isEnableTrace()) {
-        brokerResponseNative.getTraceInfo()
-            .put(serverInstance.getHostname(), metadata.get(DataTable.TRACE_INFO_METADATA_KEY));
-      }
-
-      // Reduce on exceptions.
-      for (String key : metadata.keySet()) {
-        if (key.startsWith(DataTable.EXCEPTION_METADATA_KEY)) {
-          processingExceptions.add(new QueryProcessingException(Integer.parseInt(key.substring(9)), metadata.get(key)));
-        }
-      }
-
-      // Reduce on execution statistics.
-      String numDocsScannedString = metadata.get(DataTable.NUM_DOCS_SCANNED_METADATA_KEY);
-      if (numDocsScannedString != null) {
-        numDocsScanned += Long.parseLong(numDocsScannedString);
-      }
-      String numEntriesScannedInFilterString = metadata.get(DataTable.NUM_ENTRIES_SCANNED_IN_FILTER_METADATA_KEY);
-      if (numEntriesScannedInFilterString != null) {
-        numEntriesScannedInFilter += Long.parseLong(numEntriesScannedInFilterString);
-      }
-      String numEntriesScannedPostFilterString = metadata.get(DataTable.NUM_ENTRIES_SCANNED_POST_FILTER_METADATA_KEY);
-      if (numEntriesScannedPostFilterString != null) {
-        numEntriesScannedPostFilter += Long.parseLong(numEntriesScannedPostFilterString);
-      }
-      String numSegmentsQueriedString = metadata.get(DataTable.NUM_SEGMENTS_QUERIED);
-      if (numSegmentsQueriedString != null) {
-        numSegmentsQueried += Long.parseLong(numSegmentsQueriedString);
-      }
-
-      String numSegmentsProcessedString = metadata.get(DataTable.NUM_SEGMENTS_PROCESSED);
-      if (numSegmentsProcessedString != null) {
-        numSegmentsProcessed += Long.parseLong(numSegmentsProcessedString);
-      }
-      String numSegmentsMatchedString = metadata.get(DataTable.NUM_SEGMENTS_MATCHED);
-      if (numSegmentsMatchedString != null) {
-        numSegmentsMatched += Long.parseLong(numSegmentsMatchedString);
-      }
-
-      String numConsumingString = metadata.get(DataTable.NUM_CONSUMING_SEGMENTS_QUERIED);
-      if (numConsumingString != null) {
-        numConsumingSegmentsQueried += Long.parseLong(numConsumingString);
-      }
-
-      String minConsumingFreshnessTimeMsString = metadata.get(DataTable.MIN_CONSUMING_FRESHNESS_TIME_MS);
-      if (minConsumingFreshnessTimeMsString != null) {
-          minConsumingFreshnessTimeMs = Math.min(Long.parseLong(minConsumingFreshnessTimeMsString), minConsumingFreshnessTimeMs);
-      }
-
-      String numTotalRawDocsString = metadata.get(DataTable.TOTAL_DOCS_METADATA_KEY);
-      if (numTotalRawDocsString != null) {
-        numTotalRawDocs += Long.parseLong(numTotalRawDocsString);
-      }
-      numGroupsLimitReached |= Boolean.valueOf(metadata.get(DataTable.NUM_GROUPS_LIMIT_REACHED_KEY));
+      executionStatsAggregator.aggregate(entry.getKey(), dataTable);
 
       // After processing the metadata, remove data tables without data rows inside.
       DataSchema dataSchema = dataTable.getDataSchema();
@@ -173,40 +104,12 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
       }
     }
 
-    // Set execution statistics.
-    brokerResponseNative.setNumDocsScanned(numDocsScanned);
-    brokerResponseNative.setNumEntriesScannedInFilter(numEntriesScannedInFilter);
-    brokerResponseNative.setNumEntriesScannedPostFilter(numEntriesScannedPostFilter);
-    brokerResponseNative.setNumSegmentsQueried(numSegmentsQueried);
-    brokerResponseNative.setNumSegmentsProcessed(numSegmentsProcessed);
-    brokerResponseNative.setNumSegmentsMatched(numSegmentsMatched);
-    brokerResponseNative.setTotalDocs(numTotalRawDocs);
-    brokerResponseNative.setNumGroupsLimitReached(numGroupsLimitReached);
-    if (numConsumingSegmentsQueried > 0) {
-      brokerResponseNative.setNumConsumingSegmentsQueried(numConsumingSegmentsQueried);
-      brokerResponseNative.setMinConsumingFreshnessTimeMs(minConsumingFreshnessTimeMs);
-    }
-
-    // Update broker metrics.
+    // Set execution statistics and update broker metrics.
     String tableName = brokerRequest.getQuerySource().getTableName();
     String rawTableName = TableNameBuilder.extractRawTableName(tableName);
-    if (brokerMetrics != null) {
-      brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.DOCUMENTS_SCANNED, numDocsScanned);
-      brokerMetrics
-          .addMeteredTableValue(rawTableName, BrokerMeter.ENTRIES_SCANNED_IN_FILTER, numEntriesScannedInFilter);
-      brokerMetrics
-          .addMeteredTableValue(rawTableName, BrokerMeter.ENTRIES_SCANNED_POST_FILTER, numEntriesScannedPostFilter);
-
-      if (numConsumingSegmentsQueried > 0 && minConsumingFreshnessTimeMs > 0) {
-        brokerMetrics.addTimedTableValue(rawTableName, BrokerTimer.FRESHNESS_LAG_MS,
-            System.currentTimeMillis() - minConsumingFreshnessTimeMs, TimeUnit.MILLISECONDS);
-      }
-    }
+    executionStatsAggregator.setStats(rawTableName, brokerResponseNative, brokerMetrics);
 
-    // Parse the option from request whether to preserve the type
-    String preserveTypeString = (brokerRequest.getQueryOptions() == null) ? "false" : brokerRequest.getQueryOptions()
-        .getOrDefault(CommonConstants.Broker.Request.QueryOptionKey.PRESERVE_TYPE, "false");
-    boolean preserveType = Boolean.valueOf(preserveTypeString);
+    boolean preserveType = isPreserveType(brokerRequest);
 
     if (dataTableMap.isEmpty()) {
       // For empty data table map, construct empty result using the cached data schema.
@@ -269,6 +172,28 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     return brokerResponseNative;
   }
 
+  /**
+   * Returns a {@link StreamingBrokerReducer} which reduces the data tables one by one as soon as they are received.
+   *
+   * @param brokerRequest broker request.
+   * @param brokerMetrics broker metrics.
+   * @return streaming broker reducer for the query.
+   */
+  @Nonnull
+  public StreamingBrokerReducer getStreamingReducer(@Nonnull BrokerRequest brokerRequest,
+      @Nullable BrokerMetrics brokerMetrics) {
+    return new StreamingBrokerReducer(brokerRequest, brokerMetrics);
+  }
+
+  /**
+   * Parse the option from request whether to preserve the type.
+   */
+  static boolean isPreserveType(@Nonnull BrokerRequest brokerRequest) {
+    String preserveTypeString = (brokerRequest.getQueryOptions() == null) ? "false" : brokerRequest.getQueryOptions()
+        .getOrDefault(CommonConstants.Broker.Request.QueryOptionKey.PRESERVE_TYPE, "false");
+    return Boolean.valueOf(preserveTypeString);
+  }
+
   /**
    * Given a data schema, remove data tables that are not compatible with this data schema.
    * <p>Upgrade the data schema passed in to cover all remaining data schemas.
@@ -343,41 +268,67 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
    * @param dataTableMap map from server to data table.
    * @param dataSchema data schema.
    */
-  @SuppressWarnings("unchecked")
   private void setAggregationResults(@Nonnull BrokerResponseNative brokerResponseNative,
       @Nonnull AggregationFunction[] aggregationFunctions, @Nonnull Map<ServerInstance, DataTable> dataTableMap,
       @Nonnull DataSchema dataSchema, boolean preserveType) {
-    int numAggregationFunctions = aggregationFunctions.length;
-
     // Merge results from all data tables.
-    Object[] intermediateResults = new Object[numAggregationFunctions];
+    Object[] intermediateResults = new Object[aggregationFunctions.length];
     for (DataTable dataTable : dataTableMap.values()) {
-      for (int i = 0; i < numAggregationFunctions; i++) {
-        Object intermediateResultToMerge;
-        DataSchema.ColumnDataType columnDataType = dataSchema.getColumnDataType(i);
-        switch (columnDataType) {
-          case LONG:
-            intermediateResultToMerge = dataTable.getLong(0, i);
-            break;
-          case DOUBLE:
-            intermediateResultToMerge = dataTable.getDouble(0, i);
-            break;
-          case OBJECT:
-            intermediateResultToMerge = dataTable.getObject(0, i);
-            break;
-          default:
-            throw new IllegalStateException("Illegal column data type in aggregation results: " + columnDataType);
-        }
-        Object mergedIntermediateResult = intermediateResults[i];
-        if (mergedIntermediateResult == null) {
-          intermediateResults[i] = intermediateResultToMerge;
-        } else {
-          intermediateResults[i] = aggregationFunctions[i].merge(mergedIntermediateResult, intermediateResultToMerge);
-        }
+      mergeAggregationResults(aggregationFunctions, intermediateResults, dataTable, dataSchema);
+    }
+
+    setAggregationResults(brokerResponseNative, aggregationFunctions, intermediateResults, dataSchema, preserveType);
+  }
+
+  /**
+   * Merge the aggregation results from a data table into the merged intermediate results.
+   *
+   * @param aggregationFunctions array of aggregation functions.
+   * @param intermediateResults merged intermediate results (null for the ones not merged yet).
+   * @param dataTable data table to merge.
+   * @param dataSchema data schema.
+   */
+  static void mergeAggregationResults(@Nonnull AggregationFunction[] aggregationFunctions,
+      @Nonnull Object[] intermediateResults, @Nonnull DataTable dataTable, @Nonnull DataSchema dataSchema) {
+    int numAggregationFunctions = aggregationFunctions.length;
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      Object intermediateResultToMerge;
+      DataSchema.ColumnDataType columnDataType = dataSchema.getColumnDataType(i);
+      switch (columnDataType) {
+        case LONG:
+          intermediateResultToMerge = dataTable.getLong(0, i);
+          break;
+        case DOUBLE:
+          intermediateResultToMerge = dataTable.getDouble(0, i);
+          break;
+        case OBJECT:
+          intermediateResultToMerge = dataTable.getObject(0, i);
+          break;
+        default:
+          throw new IllegalStateException("Illegal column data type in aggregation results: " + columnDataType);
+      }
+      Object mergedIntermediateResult = intermediateResults[i];
+      if (mergedIntermediateResult == null) {
+        intermediateResults[i] = intermediateResultToMerge;
+      } else {
+        intermediateResults[i] = aggregationFunctions[i].merge(mergedIntermediateResult, intermediateResultToMerge);
       }
     }
+  }
 
-    // Extract final results and set them into the broker response.
+  /**
+   * Extract final results from the merged intermediate results and set them into BrokerResponseNative passed in.
+   *
+   * @param brokerResponseNative broker response.
+   * @param aggregationFunctions array of aggregation functions.
+   * @param intermediateResults merged intermediate results.
+   * @param dataSchema data schema.
+   */
+  @SuppressWarnings("unchecked")
+  static void setAggregationResults(@Nonnull BrokerResponseNative brokerResponseNative,
+      @Nonnull AggregationFunction[] aggregationFunctions, @Nonnull Object[] intermediateResults,
+      @Nonnull DataSchema dataSchema, boolean preserveType) {
+    int numAggregationFunctions = aggregationFunctions.length;
     List<AggregationResult> reducedAggregationResults = new ArrayList<>(numAggregationFunctions);
     for (int i = 0; i < numAggregationFunctions; i++) {
       Serializable resultValue = AggregationFunctionUtils
@@ -413,27 +364,64 @@ public class BrokerReduceService implements ReduceService<BrokerResponseNative>
     String[] columnNames = new String[numAggregationFunctions];
     Map<String, Object>[] intermediateResultMaps = new Map[numAggregationFunctions];
     for (DataTable dataTable : dataTableMap.values()) {
-      for (int i = 0; i < numAggregationFunctions; i++) {
-        if (columnNames[i] == null) {
-          columnNames[i] = dataTable.getString(i, 0);
-          intermediateResultMaps[i] = dataTable.getObject(i, 1);
-        } else {
-          Map<String, Object> mergedIntermediateResultMap = intermediateResultMaps[i];
-          Map<String, Object> intermediateResultMapToMerge = dataTable.getObject(i, 1);
-          for (Map.Entry<String, Object> entry : intermediateResultMapToMerge.entrySet()) {
-            String groupKey = entry.getKey();
-            Object intermediateResultToMerge = entry.getValue();
-            if (mergedIntermediateResultMap.containsKey(groupKey)) {
-              Object mergedIntermediateResult = mergedIntermediateResultMap.get(groupKey);
-              mergedIntermediateResultMap
-                  .put(groupKey, aggregationFunctions[i].merge(mergedIntermediateResult, intermediateResultToMerge));
-            } else {
-              mergedIntermediateResultMap.put(groupKey, intermediateResultToMerge);
-            }
+      mergeGroupByResults(aggregationFunctions, columnNames, intermediateResultMaps, dataTable);
+    }
+
+    setGroupByHavingResults(brokerResponseNative, aggregationFunctions, aggregationFunctionsSelectStatus, groupBy,
+        columnNames, intermediateResultMaps, havingFilterQuery, havingFilterQueryMap, preserveType);
+  }
+
+  /**
+   * Merge the group-by results from a data table into the merged intermediate result maps.
+   *
+   * @param aggregationFunctions array of aggregation functions.
+   * @param columnNames column names (null for the ones not merged yet).
+   * @param intermediateResultMaps merged intermediate result maps (null for the ones not merged yet).
+   * @param dataTable data table to merge.
+   */
+  static void mergeGroupByResults(@Nonnull AggregationFunction[] aggregationFunctions, @Nonnull String[] columnNames,
+      @Nonnull Map<String, Object>[] intermediateResultMaps, @Nonnull DataTable dataTable) {
+    int numAggregationFunctions = aggregationFunctions.length;
+    for (int i = 0; i < numAggregationFunctions; i++) {
+      if (columnNames[i] == null) {
+        columnNames[i] = dataTable.getString(i, 0);
+        intermediateResultMaps[i] = dataTable.getObject(i, 1);
+      } else {
+        Map<String, Object> mergedIntermediateResultMap = intermediateResultMaps[i];
+        Map<String, Object> intermediateResultMapToMerge = dataTable.getObject(i, 1);
+        for (Map.Entry<String, Object> entry : intermediateResultMapToMerge.entrySet()) {
+          String groupKey = entry.getKey();
+          Object intermediateResultToMerge = entry.getValue();
+          if (mergedIntermediateResultMap.containsKey(groupKey)) {
+            Object mergedIntermediateResult = mergedIntermediateResultMap.get(groupKey);
+            mergedIntermediateResultMap
+                .put(groupKey, aggregationFunctions[i].merge(mergedIntermediateResult, intermediateResultToMerge));
+          } else {
+            mergedIntermediateResultMap.put(groupKey, intermediateResultToMerge);
           }
         }
       }
     }
+  }
+
+  /**
+   * Extract final results from the merged intermediate result maps, apply the HAVING clause and set them into
+   * BrokerResponseNative passed in.
+   *
+   * @param brokerResponseNative broker response.
+   * @param aggregationFunctions array of aggregation functions.
+   * @param groupBy group-by information.
+   * @param columnNames column names.
+   * @param intermediateResultMaps merged intermediate result maps.
+   * @param havingFilterQuery having filter query
+   * @param havingFilterQueryMap having filter query map
+   */
+  @SuppressWarnings("unchecked")
+  static void setGroupByHavingResults(@Nonnull BrokerResponseNative brokerResponseNative,
+      @Nonnull AggregationFunction[] aggregationFunctions, boolean[] aggregationFunctionsSelectStatus,
+      @Nonnull GroupBy groupBy, @Nonnull String[] columnNames, @Nonnull Map<String, Object>[] intermediateResultMaps,
+      HavingFilterQuery havingFilterQuery, HavingFilterQueryMap havingFilterQueryMap, boolean preserveType) {
+    int numAggregationFunctions = aggregationFunctions.length;
 
     // Extract final result maps from the merged intermediate result maps.
     Map<String, Comparable>[] finalResultMaps = new Map[numAggregationFunctions];
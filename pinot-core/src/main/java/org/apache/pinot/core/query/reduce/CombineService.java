@@ -75,6 +75,7 @@ public class CombineService {
           // No data in merged block.
           mergedBlock.setAggregationFunctionContexts(blockToMerge.getAggregationFunctionContexts());
           mergedBlock.setAggregationResults(aggregationResultToMerge);
+          return;
         }
 
         // Merge two block.
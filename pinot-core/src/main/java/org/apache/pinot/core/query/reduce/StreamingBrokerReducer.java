@@ -0,0 +1,286 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.reduce;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.config.TableNameBuilder;
+import org.apache.pinot.common.exception.QueryException;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.Selection;
+import org.apache.pinot.common.response.ServerInstance;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.QueryProcessingException;
+import org.apache.pinot.common.response.broker.SelectionResults;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.core.query.selection.SelectionOperatorService;
+import org.apache.pinot.core.query.selection.SelectionOperatorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>StreamingBrokerReducer</code> class reduces the data tables for a query one by one as soon as they are
+ * received from the servers, instead of waiting for all the data tables to be gathered.
+ * <p>Each data table is merged into the running aggregation, group-by or selection results inside
+ * {@link #reduce(ServerInstance, DataTable)}, and is not referenced afterwards, so the caller can release it right
+ * away. Call {@link #finish()} to get the {@link BrokerResponseNative} after all the expected responses are received
+ * (or the query times out). Data tables received after finishing are ignored, and are not counted in
+ * {@link #getNumDataTablesReduced()}.
+ * <p>NOTE: for selection queries, the data schema of the first data table with data rows is used as the master data
+ * schema, and the data tables not compatible with it are dropped.
+ */
+@ThreadSafe
+public class StreamingBrokerReducer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingBrokerReducer.class);
+
+  private final BrokerRequest _brokerRequest;
+  private final BrokerMetrics _brokerMetrics;
+  private final String _tableName;
+  private final String _rawTableName;
+  private final ExecutionStatsAggregator _executionStatsAggregator;
+
+  private int _numDataTablesReduced;
+  private boolean _finished;
+
+  // Data schema of the data tables without data rows, only used when none of the data tables has data rows
+  private DataSchema _cachedDataSchema;
+  // Data schema of the first data table with data rows
+  private DataSchema _masterDataSchema;
+
+  // For aggregation queries
+  private AggregationFunction[] _aggregationFunctions;
+  private Object[] _intermediateResults;
+
+  // For aggregation group-by queries
+  private String[] _columnNames;
+  private Map<String, Object>[] _intermediateResultMaps;
+
+  // For selection queries
+  private SelectionOperatorService _selectionService;
+  private List<Serializable[]> _selectionRows;
+  private List<String> _droppedServers;
+
+  StreamingBrokerReducer(@Nonnull BrokerRequest brokerRequest, @Nullable BrokerMetrics brokerMetrics) {
+    _brokerRequest = brokerRequest;
+    _brokerMetrics = brokerMetrics;
+    _tableName = brokerRequest.getQuerySource().getTableName();
+    _rawTableName = TableNameBuilder.extractRawTableName(_tableName);
+    _executionStatsAggregator = new ExecutionStatsAggregator(brokerRequest.isEnableTrace());
+  }
+
+  /**
+   * Merges a data table received from a server into the running results.
+   *
+   * @param serverInstance server instance the data table is received from.
+   * @param dataTable data table.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void reduce(@Nonnull ServerInstance serverInstance, @Nonnull DataTable dataTable) {
+    if (_finished) {
+      return;
+    }
+    _numDataTablesReduced++;
+    _executionStatsAggregator.aggregate(serverInstance, dataTable);
+
+    // Skip data tables without data rows inside.
+    DataSchema dataSchema = dataTable.getDataSchema();
+    if (dataSchema == null) {
+      return;
+    }
+    if (dataTable.getNumberOfRows() == 0) {
+      if (_cachedDataSchema == null) {
+        _cachedDataSchema = dataSchema;
+      }
+      return;
+    }
+
+    if (_brokerRequest.isSetSelections()) {
+      // Selection query.
+      reduceSelection(serverInstance, dataTable, dataSchema);
+    } else {
+      // Aggregation query.
+      if (_masterDataSchema == null) {
+        _masterDataSchema = dataSchema;
+        _aggregationFunctions = AggregationFunctionUtils.getAggregationFunctions(_brokerRequest.getAggregationsInfo());
+        int numAggregationFunctions = _aggregationFunctions.length;
+        if (!_brokerRequest.isSetGroupBy()) {
+          _intermediateResults = new Object[numAggregationFunctions];
+        } else {
+          _columnNames = new String[numAggregationFunctions];
+          _intermediateResultMaps = new Map[numAggregationFunctions];
+        }
+      }
+      if (!_brokerRequest.isSetGroupBy()) {
+        // Aggregation only query.
+        BrokerReduceService
+            .mergeAggregationResults(_aggregationFunctions, _intermediateResults, dataTable, dataSchema);
+      } else {
+        // Aggregation group-by query.
+        BrokerReduceService
+            .mergeGroupByResults(_aggregationFunctions, _columnNames, _intermediateResultMaps, dataTable);
+      }
+    }
+  }
+
+  private void reduceSelection(@Nonnull ServerInstance serverInstance, @Nonnull DataTable dataTable,
+      @Nonnull DataSchema dataSchema) {
+    Selection selection = _brokerRequest.getSelections();
+    if (_masterDataSchema == null) {
+      _masterDataSchema = dataSchema.clone();
+      _droppedServers = new ArrayList<>();
+      if (isSelectionOrderBy(selection)) {
+        _selectionService = new SelectionOperatorService(selection, _masterDataSchema);
+      } else {
+        _selectionRows = new ArrayList<>(selection.getSize());
+      }
+    } else {
+      // Drop data tables not compatible with the master data schema.
+      if (!_masterDataSchema.isTypeCompatibleWith(dataSchema)) {
+        _droppedServers.add(serverInstance.toString());
+        return;
+      }
+      _masterDataSchema.upgradeToCover(dataSchema);
+    }
+
+    if (_selectionService != null) {
+      // Selection order-by.
+      _selectionService.reduceWithOrdering(dataTable);
+    } else {
+      // Selection only.
+      int selectionSize = selection.getSize();
+      int numRows = dataTable.getNumberOfRows();
+      for (int rowId = 0; rowId < numRows && _selectionRows.size() < selectionSize; rowId++) {
+        _selectionRows.add(SelectionOperatorUtils.extractRowFromDataTable(dataTable, rowId));
+      }
+    }
+  }
+
+  private static boolean isSelectionOrderBy(@Nonnull Selection selection) {
+    return selection.isSetSelectionSortSequence() && selection.getSize() != 0;
+  }
+
+  /**
+   * Returns the number of data tables reduced so far.
+   */
+  public synchronized int getNumDataTablesReduced() {
+    return _numDataTablesReduced;
+  }
+
+  /**
+   * Finishes the reduce and returns the broker response. Data tables received afterwards are ignored.
+   *
+   * @return broker response.
+   */
+  @Nonnull
+  public synchronized BrokerResponseNative finish() {
+    _finished = true;
+    if (_numDataTablesReduced == 0) {
+      // Empty response.
+      return BrokerResponseNative.empty();
+    }
+
+    BrokerResponseNative brokerResponseNative = new BrokerResponseNative();
+    _executionStatsAggregator.setStats(_rawTableName, brokerResponseNative, _brokerMetrics);
+    boolean preserveType = BrokerReduceService.isPreserveType(_brokerRequest);
+
+    if (_masterDataSchema == null) {
+      // For no data table with data rows, construct empty result using the cached data schema.
+
+      // This will only happen to selection query.
+      if (_cachedDataSchema != null) {
+        List<String> selectionColumns = SelectionOperatorUtils
+            .getSelectionColumns(_brokerRequest.getSelections().getSelectionColumns(), _cachedDataSchema);
+        brokerResponseNative.setSelectionResults(new SelectionResults(selectionColumns, new ArrayList<>(0)));
+      }
+    } else if (_brokerRequest.isSetSelections()) {
+      // Selection query.
+      if (!_droppedServers.isEmpty()) {
+        String errorMessage =
+            QueryException.MERGE_RESPONSE_ERROR.getMessage() + ": responses for table: " + _tableName
+                + " from servers: " + _droppedServers + " got dropped due to data schema inconsistency.";
+        LOGGER.info(errorMessage);
+        if (_brokerMetrics != null) {
+          _brokerMetrics.addMeteredTableValue(_rawTableName, BrokerMeter.RESPONSE_MERGE_EXCEPTIONS, 1L);
+        }
+        brokerResponseNative
+            .addToExceptions(new QueryProcessingException(QueryException.MERGE_RESPONSE_ERROR_CODE, errorMessage));
+      }
+      setSelectionResults(brokerResponseNative, preserveType);
+    } else if (!_brokerRequest.isSetGroupBy()) {
+      // Aggregation only query.
+      BrokerReduceService.setAggregationResults(brokerResponseNative, _aggregationFunctions, _intermediateResults,
+          _masterDataSchema, preserveType);
+    } else {
+      // Aggregation group-by query.
+      boolean[] aggregationFunctionSelectStatus =
+          AggregationFunctionUtils.getAggregationFunctionsSelectStatus(_brokerRequest.getAggregationsInfo());
+      BrokerReduceService.setGroupByHavingResults(brokerResponseNative, _aggregationFunctions,
+          aggregationFunctionSelectStatus, _brokerRequest.getGroupBy(), _columnNames, _intermediateResultMaps,
+          _brokerRequest.getHavingFilterQuery(), _brokerRequest.getHavingFilterSubQueryMap(), preserveType);
+      if (_brokerMetrics != null && (!brokerResponseNative.getAggregationResults().isEmpty())) {
+        _brokerMetrics.addMeteredQueryValue(_brokerRequest, BrokerMeter.GROUP_BY_SIZE,
+            brokerResponseNative.getAggregationResults().get(0).getGroupByResult().size());
+      }
+    }
+
+    // Release the merged results as they are already set into the broker response.
+    _intermediateResults = null;
+    _intermediateResultMaps = null;
+    _selectionService = null;
+    _selectionRows = null;
+
+    return brokerResponseNative;
+  }
+
+  private void setSelectionResults(@Nonnull BrokerResponseNative brokerResponseNative, boolean preserveType) {
+    Selection selection = _brokerRequest.getSelections();
+    List<String> selectionColumns =
+        SelectionOperatorUtils.getSelectionColumns(selection.getSelectionColumns(), _masterDataSchema);
+    SelectionResults selectionResults;
+    int[] columnIndices;
+    if (_selectionService != null) {
+      // Selection order-by.
+      selectionResults = _selectionService.renderSelectionResultsWithOrdering();
+      columnIndices = SelectionOperatorUtils.getColumnIndicesWithOrdering(selectionColumns, _masterDataSchema);
+    } else {
+      // Selection only.
+      selectionResults = SelectionOperatorUtils
+          .renderSelectionResultsWithoutOrdering(_selectionRows, _masterDataSchema, selectionColumns);
+      columnIndices = SelectionOperatorUtils.getColumnIndicesWithoutOrdering(selectionColumns, _masterDataSchema);
+    }
+
+    if (!preserveType) {
+      selectionResults.setRows(
+          SelectionOperatorUtils.formatRowsWithOrdering(selectionResults.getRows(), columnIndices, _masterDataSchema));
+    }
+
+    brokerResponseNative.setSelectionResults(selectionResults);
+  }
+}
@@ -70,6 +70,10 @@ public abstract class PriorityScheduler extends QueryScheduler {
     if (!isRunning) {
       return immediateErrorResponse(queryRequest, QueryException.SERVER_SCHEDULER_DOWN_ERROR);
     }
+    if (isOverMemoryPressure()) {
+      LOGGER.error("Out of memory budget, rejecting query for table {}", queryRequest.getTableNameWithType());
+      return immediateErrorResponse(queryRequest, QueryException.SERVER_OUT_OF_CAPACITY_ERROR);
+    }
     queryRequest.getTimerContext().startNewPhaseTimer(ServerQueryPhase.SCHEDULER_WAIT);
     final SchedulerQueryContext schedQueryContext = new SchedulerQueryContext(queryRequest);
     try {
@@ -36,7 +36,8 @@ import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.metrics.ServerQueryPhase;
 import org.apache.pinot.common.response.ProcessingException;
 import org.apache.pinot.common.utils.DataTable;
-import org.apache.pinot.core.common.datatable.DataTableImplV2;
+import org.apache.pinot.core.common.datatable.DataTableBuilder;
+import org.apache.pinot.core.data.manager.MemoryGovernor;
 import org.apache.pinot.core.query.executor.QueryExecutor;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
 import org.apache.pinot.core.query.request.context.TimerContext;
@@ -57,10 +58,14 @@ public abstract class QueryScheduler {
   private static final String INVALID_FRESHNESS_MS = "-1";
   private static final String QUERY_LOG_MAX_RATE_KEY = "query.log.maxRatePerSecond";
   private static final double DEFAULT_QUERY_LOG_MAX_RATE = 10_000d;
+  // New queries are rejected when the memory pressure from the MemoryGovernor reaches this value, <= 0 to disable
+  private static final String QUERY_MAX_MEMORY_PRESSURE_KEY = "query.max.memory.pressure";
+  private static final double DEFAULT_QUERY_MAX_MEMORY_PRESSURE = 0d;
 
   private final RateLimiter queryLogRateLimiter;
   private final RateLimiter numDroppedLogRateLimiter;
   private final AtomicInteger numDroppedLogCounter;
+  private final double maxMemoryPressure;
 
   protected final ServerMetrics serverMetrics;
   protected final QueryExecutor queryExecutor;
@@ -89,8 +94,10 @@ public abstract class QueryScheduler {
     this.queryLogRateLimiter = RateLimiter.create(config.getDouble(QUERY_LOG_MAX_RATE_KEY, DEFAULT_QUERY_LOG_MAX_RATE));
     this.numDroppedLogRateLimiter = RateLimiter.create(1.0d);
     this.numDroppedLogCounter = new AtomicInteger(0);
+    this.maxMemoryPressure = config.getDouble(QUERY_MAX_MEMORY_PRESSURE_KEY, DEFAULT_QUERY_MAX_MEMORY_PRESSURE);
 
     LOGGER.info("Query log max rate: {}", queryLogRateLimiter.getRate());
+    LOGGER.info("Query max memory pressure: {}", maxMemoryPressure);
   }
 
   /**
@@ -153,7 +160,7 @@ public abstract class QueryScheduler {
           queryRequest.getBrokerId(), e);
       // For not handled exceptions
       serverMetrics.addMeteredGlobalValue(ServerMeter.UNCAUGHT_EXCEPTIONS, 1);
-      dataTable = new DataTableImplV2();
+      dataTable = DataTableBuilder.getEmptyDataTable();
       dataTable.addException(QueryException.getException(QueryException.INTERNAL_ERROR, e));
     }
     long requestId = queryRequest.getRequestId();
@@ -274,6 +281,13 @@ public abstract class QueryScheduler {
     return responseByte;
   }
 
+  /**
+   * Returns whether the server is under too much memory pressure to accept new queries.
+   */
+  protected boolean isOverMemoryPressure() {
+    return maxMemoryPressure > 0 && MemoryGovernor.getMemoryPressure() >= maxMemoryPressure;
+  }
+
   /**
    * Error response future in case of internal error where query response is not available. This can happen
    * if the query can not be executed or
@@ -283,7 +297,7 @@ public abstract class QueryScheduler {
    */
   protected ListenableFuture<byte[]> immediateErrorResponse(ServerQueryRequest queryRequest,
       ProcessingException error) {
-    DataTable result = new DataTableImplV2();
+    DataTable result = DataTableBuilder.getEmptyDataTable();
     result.addException(error);
     return Futures.immediateFuture(serializeDataTable(queryRequest, result));
   }
@@ -65,6 +65,11 @@ public class BoundedAccountingExecutor extends QueryExecutorService {
     accountant.releasedReservedThreads(bounds);
   }
 
+  @Override
+  public int getMaxConcurrentTasks() {
+    return bounds;
+  }
+
   private QueryAccountingRunnable toAccountingRunnable(Runnable runnable) {
     acquirePermits(1);
     return new QueryAccountingRunnable(runnable, semaphore, accountant);
@@ -51,6 +51,14 @@ public abstract class QueryExecutorService implements ExecutorService {
 
   }
 
+  /**
+   * Returns the maximum number of tasks of the query that can run concurrently on this executor service. Tasks
+   * submitted beyond this limit wait for the previous tasks to finish.
+   */
+  public int getMaxConcurrentTasks() {
+    return Integer.MAX_VALUE;
+  }
+
   @Override
   public <T> Future<T> submit(Runnable task, T result) {
     return submit(Executors.callable(task, result));
@@ -299,11 +299,21 @@ public class SelectionOperatorService {
    */
   public void reduceWithOrdering(@Nonnull Map<ServerInstance, DataTable> selectionResults) {
     for (DataTable dataTable : selectionResults.values()) {
-      int numRows = dataTable.getNumberOfRows();
-      for (int rowId = 0; rowId < numRows; rowId++) {
-        Serializable[] row = SelectionOperatorUtils.extractRowFromDataTable(dataTable, rowId);
-        SelectionOperatorUtils.addToPriorityQueue(row, _rows, _maxNumRows);
-      }
+      reduceWithOrdering(dataTable);
+    }
+  }
+
+  /**
+   * Reduce a single {@link DataTable} to selection rows for selection queries with <code>ORDER BY</code>. (Broker side)
+   * <p>Can be called multiple times to reduce the data tables one by one as they are received.
+   *
+   * @param dataTable {@link DataTable} to reduce.
+   */
+  public void reduceWithOrdering(@Nonnull DataTable dataTable) {
+    int numRows = dataTable.getNumberOfRows();
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      Serializable[] row = SelectionOperatorUtils.extractRowFromDataTable(dataTable, rowId);
+      SelectionOperatorUtils.addToPriorityQueue(row, _rows, _maxNumRows);
     }
   }
 
@@ -18,19 +18,33 @@
  */
 package org.apache.pinot.core.realtime.converter.stats;
 
+import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.core.common.Block;
 import org.apache.pinot.core.data.readers.RecordReader;
+import org.apache.pinot.core.indexsegment.IndexSegmentUtils;
 import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.core.io.reader.DataFileReader;
+import org.apache.pinot.core.io.reader.SingleColumnMultiValueReader;
+import org.apache.pinot.core.io.reader.SingleColumnSingleValueReader;
+import org.apache.pinot.core.operator.blocks.MultiValueBlock;
+import org.apache.pinot.core.operator.blocks.SingleValueBlock;
 import org.apache.pinot.core.realtime.converter.RealtimeSegmentRecordReader;
-import org.apache.pinot.core.segment.creator.SegmentCreationDataSource;
+import org.apache.pinot.core.segment.creator.ColumnarSegmentCreationDataSource;
 import org.apache.pinot.core.segment.creator.SegmentPreIndexStatsContainer;
 import org.apache.pinot.core.segment.creator.StatsCollectorConfig;
+import org.apache.pinot.core.segment.creator.impl.SegmentColumnarIndexCreator;
+import org.apache.pinot.core.segment.index.data.source.ColumnDataSource;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
 
 
 /**
  * Segment creation data source that is based on an in-memory realtime segment.
+ * <p>The columns are indexed directly from the dictionaries and forward indexes of the realtime segment: the dictionary
+ * ids of the realtime segment (in insertion order) are re-mapped to the dictionary ids of the sorted dictionary, so
+ * that no record is materialized and no value is looked up in the dictionary per document.
  */
-public class RealtimeSegmentSegmentCreationDataSource implements SegmentCreationDataSource {
+public class RealtimeSegmentSegmentCreationDataSource implements ColumnarSegmentCreationDataSource {
   private final MutableSegmentImpl _realtimeSegment;
   private final RealtimeSegmentRecordReader _realtimeSegmentRecordReader;
   private final Schema _schema;
@@ -55,4 +69,58 @@ public class RealtimeSegmentSegmentCreationDataSource implements SegmentCreation
   public RecordReader getRecordReader() {
     return _realtimeSegmentRecordReader;
   }
+
+  @Override
+  public void indexColumns(SegmentColumnarIndexCreator indexCreator) {
+    // Documents are indexed in the sorted order if there is a sorted column
+    int[] sortedDocIds = _realtimeSegmentRecordReader.getSortedDocIdIterationOrder();
+    int numDocs = _realtimeSegment.getNumDocsIndexed();
+    for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+      String column = fieldSpec.getName();
+      if (_schema.isVirtualColumn(column)) {
+        continue;
+      }
+
+      ColumnDataSource dataSource = _realtimeSegment.getDataSource(column);
+      Block block = dataSource.nextBlock();
+      Dictionary dictionary = dataSource.getDictionary();
+      if (dictionary != null && indexCreator.hasDictionary(column)) {
+        int[] dictIdMapping = indexCreator.getDictIdMapping(column, dictionary);
+        if (fieldSpec.isSingleValueField()) {
+          SingleColumnSingleValueReader forwardIndex = ((SingleValueBlock) block).getReader();
+          int[] dictIds = new int[numDocs];
+          for (int i = 0; i < numDocs; i++) {
+            int docId = sortedDocIds != null ? sortedDocIds[i] : i;
+            dictIds[i] = dictIdMapping[forwardIndex.getInt(docId)];
+          }
+          indexCreator.indexSingleValueColumn(column, dictIds);
+        } else {
+          SingleColumnMultiValueReader forwardIndex = ((MultiValueBlock) block).getReader();
+          int[] buffer = new int[block.getMetadata().getMaxNumberOfMultiValues()];
+          int[][] dictIds = new int[numDocs][];
+          for (int i = 0; i < numDocs; i++) {
+            int docId = sortedDocIds != null ? sortedDocIds[i] : i;
+            int numValues = forwardIndex.getIntArray(docId, buffer);
+            int[] docDictIds = new int[numValues];
+            for (int j = 0; j < numValues; j++) {
+              docDictIds[j] = dictIdMapping[buffer[j]];
+            }
+            dictIds[i] = docDictIds;
+          }
+          indexCreator.indexMultiValueColumn(column, dictIds);
+        }
+      } else {
+        // Raw index in either the realtime segment or the segment being created, index the values
+        DataFileReader forwardIndex = fieldSpec.isSingleValueField() ? ((SingleValueBlock) block).getReader()
+            : ((MultiValueBlock) block).getReader();
+        int maxNumMultiValues = block.getMetadata().getMaxNumberOfMultiValues();
+        Object[] values = new Object[numDocs];
+        for (int i = 0; i < numDocs; i++) {
+          int docId = sortedDocIds != null ? sortedDocIds[i] : i;
+          values[i] = IndexSegmentUtils.getValue(docId, fieldSpec, forwardIndex, dictionary, maxNumMultiValues);
+        }
+        indexCreator.indexColumn(column, values);
+      }
+    }
+  }
 }
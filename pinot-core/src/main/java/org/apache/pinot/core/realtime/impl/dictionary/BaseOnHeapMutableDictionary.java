@@ -72,11 +72,16 @@ public abstract class BaseOnHeapMutableDictionary extends MutableDictionary {
    * <p>This method will only be called by a single writer thread.
    *
    * @param value single value already converted to correct type.
+   * @return dictId of the value.
    */
-  protected void indexValue(@Nonnull Object value) {
-    if (!_valueToDictId.containsKey(value)) {
-      int arrayIndex = _entriesIndexed >>> SHIFT_OFFSET;
-      int arrayOffset = _entriesIndexed & MASK;
+  protected int indexValue(@Nonnull Object value) {
+    Integer dictId = _valueToDictId.get(value);
+    if (dictId != null) {
+      return dictId;
+    } else {
+      int newDictId = _entriesIndexed;
+      int arrayIndex = newDictId >>> SHIFT_OFFSET;
+      int arrayOffset = newDictId & MASK;
 
       // Create a new array if necessary
       if (arrayOffset == 0) {
@@ -86,8 +91,9 @@ public abstract class BaseOnHeapMutableDictionary extends MutableDictionary {
       // First update dictId to value map then value to dictId map
       // Ensure we can always fetch value by dictId returned by index() or indexOf()
       _dictIdToValue[arrayIndex][arrayOffset] = value;
-      _valueToDictId.put(value, _entriesIndexed);
+      _valueToDictId.put(value, newDictId);
       _entriesIndexed++;
+      return newDictId;
     }
   }
 
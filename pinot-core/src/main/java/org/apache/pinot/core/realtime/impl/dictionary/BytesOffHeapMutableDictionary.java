@@ -92,6 +92,16 @@ public class BytesOffHeapMutableDictionary extends BaseOffHeapMutableDictionary
     updateMinMax(byteArray);
   }
 
+  @Override
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      byte[] bytes = BytesUtils.toBytes(values[i]);
+      ByteArray byteArray = new ByteArray(bytes);
+      dictIds[i] = indexValue(byteArray, bytes);
+      updateMinMax(byteArray);
+    }
+  }
+
   @Override
   public boolean inRange(@Nonnull String lower, @Nonnull String upper, int dictIdToCompare, boolean includeLower,
       boolean includeUpper) {
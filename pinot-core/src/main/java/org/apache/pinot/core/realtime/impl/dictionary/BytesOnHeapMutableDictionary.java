@@ -61,6 +61,16 @@ public class BytesOnHeapMutableDictionary extends BaseOnHeapMutableDictionary {
     updateMinMax(byteArray);
   }
 
+  @Override
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      byte[] bytes = BytesUtils.toBytes(values[i]);
+      ByteArray byteArray = new ByteArray(bytes);
+      dictIds[i] = indexValue(byteArray);
+      updateMinMax(byteArray);
+    }
+  }
+
   @Override
   public boolean inRange(@Nonnull String lower, @Nonnull String upper, int dictIdToCompare, boolean includeLower,
       boolean includeUpper) {
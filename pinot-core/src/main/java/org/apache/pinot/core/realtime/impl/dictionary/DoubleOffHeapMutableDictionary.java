@@ -88,6 +88,15 @@ public class DoubleOffHeapMutableDictionary extends BaseOffHeapMutableDictionary
     }
   }
 
+  @Override
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      Double value = (Double) values[i];
+      dictIds[i] = indexValue(value, null);
+      updateMinMax(value);
+    }
+  }
+
   @SuppressWarnings("Duplicates")
   @Override
   public boolean inRange(@Nonnull String lower, @Nonnull String upper, int dictIdToCompare, boolean includeLower,
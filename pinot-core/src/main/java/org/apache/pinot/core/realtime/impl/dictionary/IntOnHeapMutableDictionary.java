@@ -51,6 +51,15 @@ public class IntOnHeapMutableDictionary extends BaseOnHeapMutableDictionary {
     }
   }
 
+  @Override
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      Integer value = (Integer) values[i];
+      dictIds[i] = indexValue(value);
+      updateMinMax(value);
+    }
+  }
+
   @SuppressWarnings("Duplicates")
   @Override
   public boolean inRange(@Nonnull String lower, @Nonnull String upper, int dictIdToCompare, boolean includeLower,
@@ -34,6 +34,23 @@ public abstract class MutableDictionary extends BaseDictionary {
 
   public abstract void index(@Nonnull Object rawValue);
 
+  /**
+   * Indexes a batch of single values and fills their dictionary ids.
+   * <p>The default implementation indexes each value then looks up its dictionary id. Implementations should override
+   * it to get the dictionary id while indexing the value so that each value is only looked up once.
+   *
+   * @param values Single values already converted to the correct type
+   * @param dictIds Buffer for the dictionary ids of the values
+   * @param length Number of values to index
+   */
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      Object value = values[i];
+      index(value);
+      dictIds[i] = indexOf(value);
+    }
+  }
+
   public abstract boolean inRange(@Nonnull String lower, @Nonnull String upper, int dictIdToCompare,
       boolean includeLower, boolean includeUpper);
 
@@ -71,6 +71,15 @@ public class StringOffHeapMutableDictionary extends BaseOffHeapMutableDictionary
     }
   }
 
+  @Override
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      String value = (String) values[i];
+      dictIds[i] = indexValue(value, StringUtil.encodeUtf8(value));
+      updateMinMax(value);
+    }
+  }
+
   private String getInternal(int dictId) {
     return StringUtil.decodeUtf8(_byteStore.get(dictId));
   }
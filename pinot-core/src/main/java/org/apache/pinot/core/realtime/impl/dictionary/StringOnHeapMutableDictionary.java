@@ -47,6 +47,15 @@ public class StringOnHeapMutableDictionary extends BaseOnHeapMutableDictionary {
     }
   }
 
+  @Override
+  public void index(@Nonnull Object[] values, @Nonnull int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      String value = (String) values[i];
+      dictIds[i] = indexValue(value);
+      updateMinMax(value);
+    }
+  }
+
   @Override
   public boolean inRange(@Nonnull String lower, @Nonnull String upper, int dictIdToCompare, boolean includeLower,
       boolean includeUpper) {
@@ -35,12 +35,15 @@ import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericData.Record;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.commons.lang.StringUtils;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.utils.retry.RetryPolicies;
 import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.GenericRowBatch;
+import org.apache.pinot.core.realtime.stream.MessageBatch;
 import org.apache.pinot.core.realtime.stream.StreamMessageDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,6 +81,9 @@ public class KafkaAvroMessageDecoder implements StreamMessageDecoder<byte[]> {
 
   private String[] schemaRegistryUrls;
 
+  // Whether the last schema fetch failed, in which case the default schema is used
+  private boolean schemaUpdateFailed;
+
   @Override
   public void init(Map<String, String> props, Schema indexingSchema, String topicName)
       throws Exception {
@@ -123,9 +129,70 @@ public class KafkaAvroMessageDecoder implements StreamMessageDecoder<byte[]> {
       return null;
     }
 
+    org.apache.avro.Schema schema = getSchema(payload, offset);
+    DatumReader<Record> reader = new GenericDatumReader<Record>(schema);
+    try {
+      GenericData.Record avroRecord = reader.read(null,
+          decoderFactory.createBinaryDecoder(payload, HEADER_LENGTH + offset, length - HEADER_LENGTH, null));
+      return avroRecordConvetrer.transform(avroRecord, destination);
+    } catch (IOException e) {
+      LOGGER.error("Caught exception while reading message using schema {}{}",
+          (schema == null ? "null" : schema.getName()),
+          (schemaUpdateFailed ? "(possibly due to schema update failure)" : ""), e);
+      return null;
+    }
+  }
+
+  /**
+   * Decodes all the messages of the batch, where the datum reader is created once per schema, and the binary decoder
+   * and the Avro record are reused across the messages.
+   */
+  @Override
+  public void decodeBatch(MessageBatch<byte[]> messageBatch, GenericRowBatch destination) {
+    destination.clear();
+    org.apache.avro.Schema currentSchema = null;
+    DatumReader<Record> reader = null;
+    BinaryDecoder binaryDecoder = null;
+    Record avroRecord = null;
+    int numMessages = messageBatch.getMessageCount();
+    for (int i = 0; i < numMessages; i++) {
+      byte[] payload = messageBatch.getMessageAtIndex(i);
+      int offset = messageBatch.getMessageOffsetAtIndex(i);
+      int length = messageBatch.getMessageLengthAtIndex(i);
+      if (payload == null || payload.length == 0 || length == 0) {
+        destination.addRow(null);
+        continue;
+      }
+
+      org.apache.avro.Schema schema = getSchema(payload, offset);
+      if (schema != currentSchema) {
+        currentSchema = schema;
+        reader = new GenericDatumReader<>(schema);
+        avroRecord = null;
+      }
+      try {
+        binaryDecoder = decoderFactory
+            .createBinaryDecoder(payload, HEADER_LENGTH + offset, length - HEADER_LENGTH, binaryDecoder);
+        avroRecord = reader.read(avroRecord, binaryDecoder);
+        destination.addRow(avroRecordConvetrer.transform(avroRecord, destination.getReusableRow()));
+      } catch (IOException e) {
+        LOGGER.error("Caught exception while reading message using schema {}{}",
+            (schema == null ? "null" : schema.getName()),
+            (schemaUpdateFailed ? "(possibly due to schema update failure)" : ""), e);
+        avroRecord = null;
+        destination.addRow(null);
+      }
+    }
+  }
+
+  /**
+   * Returns the Avro schema for the MD5 in the header of the payload, fetches the schema from the schema registry if
+   * it is not cached. Falls back to the default schema (and sets <code>schemaUpdateFailed</code>) if the fetch fails.
+   */
+  private org.apache.avro.Schema getSchema(byte[] payload, int offset) {
     System.arraycopy(payload, SCHEMA_HASH_START_OFFSET + offset, reusableMD5Bytes, 0, SCHEMA_HASH_LENGTH);
 
-    boolean schemaUpdateFailed = false;
+    schemaUpdateFailed = false;
     org.apache.avro.Schema schema = md5ToAvroSchemaMap.getSchema(reusableMD5Bytes);
     if (schema == null) {
       // We will get here for the first row consumed in the segment, and every row that has a schema ID that is
@@ -154,17 +221,7 @@ public class KafkaAvroMessageDecoder implements StreamMessageDecoder<byte[]> {
         }
       }
     }
-    DatumReader<Record> reader = new GenericDatumReader<Record>(schema);
-    try {
-      GenericData.Record avroRecord = reader.read(null,
-          decoderFactory.createBinaryDecoder(payload, HEADER_LENGTH + offset, length - HEADER_LENGTH, null));
-      return avroRecordConvetrer.transform(avroRecord, destination);
-    } catch (IOException e) {
-      LOGGER.error("Caught exception while reading message using schema {}{}",
-          (schema == null ? "null" : schema.getName()),
-          (schemaUpdateFailed ? "(possibly due to schema update failure)" : ""), e);
-      return null;
-    }
+    return schema;
   }
 
   private String hex(byte[] bytes) {
@@ -19,7 +19,6 @@
 package org.apache.pinot.core.realtime.impl.kafka;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import java.util.Arrays;
 import java.util.Map;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.Schema;
@@ -33,19 +32,26 @@ import org.slf4j.LoggerFactory;
 public class KafkaJSONMessageDecoder implements StreamMessageDecoder<byte[]> {
   private static final Logger LOGGER = LoggerFactory.getLogger(KafkaJSONMessageDecoder.class);
 
-  private Schema schema;
+  private FieldSpec[] fieldSpecs;
 
   @Override
   public void init(Map<String, String> props, Schema indexingSchema, String topicName)
       throws Exception {
-    this.schema = indexingSchema;
+    // Cache the field specs so that they are not collected for each message
+    this.fieldSpecs = indexingSchema.getAllFieldSpecs().toArray(new FieldSpec[0]);
   }
 
   @Override
   public GenericRow decode(byte[] payload, GenericRow destination) {
+    return decode(payload, 0, payload.length, destination);
+  }
+
+  @Override
+  public GenericRow decode(byte[] payload, int offset, int length, GenericRow destination) {
     try {
-      JsonNode message = JsonUtils.bytesToJsonNode(payload);
-      for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
+      // Parse the message in place without copying it out of the payload
+      JsonNode message = JsonUtils.bytesToJsonNode(payload, offset, length);
+      for (FieldSpec fieldSpec : fieldSpecs) {
         String column = fieldSpec.getName();
         destination.putField(column, JsonUtils.extractValue(message.get(column), fieldSpec));
       }
@@ -55,9 +61,4 @@ public class KafkaJSONMessageDecoder implements StreamMessageDecoder<byte[]> {
       return null;
     }
   }
-
-  @Override
-  public GenericRow decode(byte[] payload, int offset, int length, GenericRow destination) {
-    return decode(Arrays.copyOfRange(payload, offset, offset + length), destination);
-  }
 }
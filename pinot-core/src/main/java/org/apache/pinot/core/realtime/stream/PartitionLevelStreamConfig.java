@@ -31,9 +31,12 @@ import org.slf4j.LoggerFactory;
 public class PartitionLevelStreamConfig extends StreamConfig {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionLevelStreamConfig.class);
+  private static final int DEFAULT_PIPELINED_CONSUMPTION_NUM_DECODE_TASKS = 4;
 
   final private int _flushThresholdRows;
   final private long _flushThresholdTimeMillis;
+  final private boolean _pipelinedConsumptionEnabled;
+  final private int _numPipelinedDecodeTasks;
 
   /**
    * Initializes a partition level stream config using the map of stream configs from the table config
@@ -71,6 +74,29 @@ public class PartitionLevelStreamConfig extends StreamConfig {
       }
     }
     _flushThresholdTimeMillis = flushThresholdTime;
+
+    _pipelinedConsumptionEnabled =
+        Boolean.parseBoolean(streamConfigMap.get(StreamConfigProperties.PIPELINED_CONSUMPTION_ENABLED));
+
+    int numPipelinedDecodeTasks = DEFAULT_PIPELINED_CONSUMPTION_NUM_DECODE_TASKS;
+    String numPipelinedDecodeTasksValue =
+        streamConfigMap.get(StreamConfigProperties.PIPELINED_CONSUMPTION_NUM_DECODE_TASKS);
+    if (numPipelinedDecodeTasksValue != null) {
+      try {
+        numPipelinedDecodeTasks = Integer.parseInt(numPipelinedDecodeTasksValue);
+        if (numPipelinedDecodeTasks <= 0) {
+          LOGGER.warn("Invalid number of pipelined decode tasks {}:{}, defaulting to {}",
+              StreamConfigProperties.PIPELINED_CONSUMPTION_NUM_DECODE_TASKS, numPipelinedDecodeTasksValue,
+              DEFAULT_PIPELINED_CONSUMPTION_NUM_DECODE_TASKS);
+          numPipelinedDecodeTasks = DEFAULT_PIPELINED_CONSUMPTION_NUM_DECODE_TASKS;
+        }
+      } catch (Exception e) {
+        LOGGER.warn("Caught exception when parsing number of pipelined decode tasks {}:{}, defaulting to {}",
+            StreamConfigProperties.PIPELINED_CONSUMPTION_NUM_DECODE_TASKS, numPipelinedDecodeTasksValue,
+            DEFAULT_PIPELINED_CONSUMPTION_NUM_DECODE_TASKS, e);
+      }
+    }
+    _numPipelinedDecodeTasks = numPipelinedDecodeTasks;
   }
 
   @Override
@@ -82,4 +108,12 @@ public class PartitionLevelStreamConfig extends StreamConfig {
   public int getFlushThresholdRows() {
     return _flushThresholdRows;
   }
+
+  public boolean isPipelinedConsumptionEnabled() {
+    return _pipelinedConsumptionEnabled;
+  }
+
+  public int getNumPipelinedDecodeTasks() {
+    return _numPipelinedDecodeTasks;
+  }
 }
@@ -92,6 +92,16 @@ public class StreamConfigProperties {
   // Time threshold that controller will wait for the segment to be built by the server
   public static final String SEGMENT_COMMIT_TIMEOUT_SECONDS = "realtime.segment.commit.timeoutSeconds";
 
+  /**
+   * Whether to enable the pipelined consumption for low level consumer, where fetching the next batch of messages
+   * overlaps with indexing the current batch, and the messages are decoded and transformed in parallel on a shared
+   * worker pool. The messages are always indexed in offset order by the consumer thread.
+   */
+  public static final String PIPELINED_CONSUMPTION_ENABLED = "realtime.consumer.pipelined.enabled";
+
+  // Number of parallel decode tasks (chunks) per batch of messages for the pipelined consumption
+  public static final String PIPELINED_CONSUMPTION_NUM_DECODE_TASKS = "realtime.consumer.pipelined.numDecodeTasks";
+
   /**
    * Helper method to create a stream specific property
    * @param streamType
@@ -23,6 +23,7 @@ import org.apache.pinot.annotations.InterfaceAudience;
 import org.apache.pinot.annotations.InterfaceStability;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.GenericRowBatch;
 
 
 /**
@@ -58,4 +59,23 @@ public interface StreamMessageDecoder<T> {
    * @return A new row decoded from the buffer
    */
   GenericRow decode(T payload, int offset, int length, GenericRow destination);
+
+  /**
+   * Decodes all the messages of the batch into the given row batch. The destination is cleared first, then one row is
+   * appended for each message in order ({@code null} if the message should be dropped).
+   * <p>The rows are decoded into the reusable rows of the destination, so they are only valid until the destination is
+   * reused. Decoders can override this method to amortize the per-message overhead (e.g. schema lookups, reader
+   * allocations) across the batch.
+   *
+   * @param messageBatch The batch of messages to decode
+   * @param destination The {@link GenericRowBatch} to write the decoded rows into
+   */
+  default void decodeBatch(MessageBatch<T> messageBatch, GenericRowBatch destination) {
+    destination.clear();
+    int numMessages = messageBatch.getMessageCount();
+    for (int i = 0; i < numMessages; i++) {
+      destination.addRow(decode(messageBatch.getMessageAtIndex(i), messageBatch.getMessageOffsetAtIndex(i),
+          messageBatch.getMessageLengthAtIndex(i), destination.getReusableRow()));
+    }
+  }
 }
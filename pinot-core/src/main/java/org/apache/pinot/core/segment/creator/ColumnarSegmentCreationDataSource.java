@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.creator;
+
+import org.apache.pinot.core.segment.creator.impl.SegmentColumnarIndexCreator;
+
+
+/**
+ * Data source used to build segments, which can index the columns directly into the
+ * {@link SegmentColumnarIndexCreator} without materializing the records (e.g. from the dictionaries and indexes of an
+ * in-memory realtime segment).
+ */
+public interface ColumnarSegmentCreationDataSource extends SegmentCreationDataSource {
+
+  /**
+   * Indexes all the documents for all the physical columns into the given index creator, column by column.
+   */
+  void indexColumns(SegmentColumnarIndexCreator indexCreator)
+      throws Exception;
+}
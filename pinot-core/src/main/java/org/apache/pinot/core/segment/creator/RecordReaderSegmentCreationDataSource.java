@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.segment.creator;
 
+import java.util.concurrent.ExecutorService;
 import org.apache.pinot.common.Utils;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.data.readers.RecordReader;
@@ -36,6 +37,9 @@ import org.slf4j.LoggerFactory;
 public class RecordReaderSegmentCreationDataSource implements SegmentCreationDataSource {
   private static final Logger LOGGER = LoggerFactory.getLogger(RecordReaderSegmentCreationDataSource.class);
 
+  // Number of rows read from the record reader before collecting the stats in parallel
+  private static final int PARALLEL_STATS_BATCH_SIZE = 10_000;
+
   private final RecordReader _recordReader;
 
   public RecordReaderSegmentCreationDataSource(RecordReader recordReader) {
@@ -69,6 +73,47 @@ public class RecordReaderSegmentCreationDataSource implements SegmentCreationDat
     }
   }
 
+  /**
+   * Gathers the stats with the given executor service, where the stats for different columns are collected in
+   * parallel. The records are still read sequentially from the record reader.
+   */
+  public SegmentPreIndexStatsCollector gatherStats(StatsCollectorConfig statsCollectorConfig,
+      ExecutorService executorService) {
+    try {
+      RecordTransformer recordTransformer = CompoundTransformer.getDefaultTransformer(statsCollectorConfig.getSchema());
+
+      SegmentPreIndexStatsCollectorImpl collector = new SegmentPreIndexStatsCollectorImpl(statsCollectorConfig);
+      collector.init();
+
+      // Gather the stats in batches
+      GenericRow[] rows = new GenericRow[PARALLEL_STATS_BATCH_SIZE];
+      int numRows = 0;
+      while (_recordReader.hasNext()) {
+        GenericRow readRow = GenericRow.createOrReuseRow(rows[numRows]);
+        GenericRow transformedRow = recordTransformer.transform(_recordReader.next(readRow));
+        if (transformedRow != null) {
+          rows[numRows++] = transformedRow;
+          if (numRows == PARALLEL_STATS_BATCH_SIZE) {
+            collector.collectRows(rows, numRows, executorService);
+            numRows = 0;
+          }
+        } else {
+          rows[numRows] = readRow;
+        }
+      }
+      if (numRows > 0) {
+        collector.collectRows(rows, numRows, executorService);
+      }
+
+      collector.build(executorService);
+      return collector;
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while gathering stats", e);
+      Utils.rethrowException(e);
+      return null;
+    }
+  }
+
   @Override
   public RecordReader getRecordReader() {
     try {
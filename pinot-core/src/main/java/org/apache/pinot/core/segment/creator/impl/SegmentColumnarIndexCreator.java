@@ -21,12 +21,17 @@ package org.apache.pinot.core.segment.creator.impl;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.apache.pinot.common.data.DateTimeFieldSpec;
@@ -38,6 +43,7 @@ import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.data.partition.PartitionFunction;
 import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.compression.ZstandardCompressor;
 import org.apache.pinot.core.io.util.PinotDataBitSet;
 import org.apache.pinot.core.segment.creator.ColumnIndexCreationInfo;
 import org.apache.pinot.core.segment.creator.ForwardIndexCreator;
@@ -54,6 +60,9 @@ import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueUnsortedForward
 import org.apache.pinot.core.segment.creator.impl.fwd.SingleValueVarByteRawIndexCreator;
 import org.apache.pinot.core.segment.creator.impl.inv.OffHeapBitmapInvertedIndexCreator;
 import org.apache.pinot.core.segment.creator.impl.inv.OnHeapBitmapInvertedIndexCreator;
+import org.apache.pinot.core.segment.creator.impl.inv.RangeIndexCreator;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.util.FutureUtils;
 import org.apache.pinot.startree.hll.HllConfig;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -67,6 +76,8 @@ import static org.apache.pinot.core.segment.creator.impl.V1Constants.MetadataKey
 
 /**
  * Segment creator which writes data in a columnar form.
+ * <p>When constructed with an executor service, the dictionaries, forward indexes and inverted indexes for different
+ * columns are created in parallel (each column is always handled by a single task at a time).
  */
 // TODO: check resource leaks
 public class SegmentColumnarIndexCreator implements SegmentCreator {
@@ -77,6 +88,7 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private Map<String, SegmentDictionaryCreator> _dictionaryCreatorMap = new HashMap<>();
   private Map<String, ForwardIndexCreator> _forwardIndexCreatorMap = new HashMap<>();
   private Map<String, InvertedIndexCreator> _invertedIndexCreatorMap = new HashMap<>();
+  private Map<String, InvertedIndexCreator> _rangeIndexCreatorMap = new HashMap<>();
   private String segmentName;
   private Schema schema;
   private File _indexDir;
@@ -84,6 +96,19 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private int totalRawDocs;
   private int totalAggDocs;
   private int docIdCounter;
+  private final ExecutorService _executorService;
+
+  public SegmentColumnarIndexCreator() {
+    this(null);
+  }
+
+  /**
+   * @param executorService Executor service used to create indexes for different columns in parallel, or
+   *                        <code>null</code> to create them sequentially
+   */
+  public SegmentColumnarIndexCreator(@Nullable ExecutorService executorService) {
+    _executorService = executorService;
+  }
 
   @Override
   public void init(SegmentGeneratorConfig segmentCreationSpec, SegmentIndexCreationInfo segmentIndexCreationInfo,
@@ -111,8 +136,15 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
           "Cannot create inverted index for column: %s because it is not in schema", columnName);
       invertedIndexColumns.add(columnName);
     }
+    Set<String> rangeIndexColumns = new HashSet<>();
+    for (String columnName : config.getRangeIndexCreationColumns()) {
+      Preconditions.checkState(schema.hasColumn(columnName),
+          "Cannot create range index for column: %s because it is not in schema", columnName);
+      rangeIndexColumns.add(columnName);
+    }
 
-    // Initialize creators for dictionary, forward index and inverted index
+    // Initialize creators for dictionary, forward index, inverted index and range index
+    List<Future<?>> dictionaryFutures = new ArrayList<>();
     for (FieldSpec fieldSpec : fieldSpecs) {
       String columnName = fieldSpec.getName();
 
@@ -133,12 +165,13 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         _dictionaryCreatorMap.put(columnName, dictionaryCreator);
 
         // Create dictionary
-        try {
-          dictionaryCreator.build();
-        } catch (Exception e) {
-          LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
-              fieldSpec.getName(), indexCreationInfo.getDistinctValueCount(), dictionaryCreator.getNumBytesPerEntry());
-          throw e;
+        if (_executorService != null) {
+          dictionaryFutures.add(_executorService.submit(() -> {
+            buildDictionary(dictionaryCreator, fieldSpec, indexCreationInfo);
+            return null;
+          }));
+        } else {
+          buildDictionary(dictionaryCreator, fieldSpec, indexCreationInfo);
         }
 
         // Initialize forward index creator
@@ -168,6 +201,12 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
                     indexCreationInfo.getTotalNumberOfEntries()));
           }
         }
+
+        // Initialize range index creator (not needed for sorted column, which can be solved with binary search)
+        if (rangeIndexColumns.contains(columnName) && !indexCreationInfo.isSorted()) {
+          _rangeIndexCreatorMap.put(columnName,
+              new RangeIndexCreator(_indexDir, columnName, cardinality, fieldSpec.isSingleValueField()));
+        }
       } else {
         // Create raw index
 
@@ -176,6 +215,8 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
             columnName);
         Preconditions.checkState(!invertedIndexColumns.contains(columnName),
             "Cannot create inverted index for raw index column: %s", columnName);
+        Preconditions.checkState(!rangeIndexColumns.contains(columnName),
+            "Cannot create range index for raw index column: %s", columnName);
 
         ChunkCompressorFactory.CompressionType compressionType =
             getColumnCompressionType(segmentCreationSpec, fieldSpec);
@@ -183,9 +224,22 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         // Initialize forward index creator
         _forwardIndexCreatorMap.put(columnName,
             getRawIndexCreatorForColumn(_indexDir, compressionType, columnName, fieldSpec.getDataType(), totalDocs,
-                indexCreationInfo.getLengthOfLongestEntry()));
+                indexCreationInfo.getLengthOfLongestEntry(), segmentCreationSpec.getZstdCompressionLevel()));
       }
     }
+    FutureUtils.waitForFutures(dictionaryFutures);
+  }
+
+  private static void buildDictionary(SegmentDictionaryCreator dictionaryCreator, FieldSpec fieldSpec,
+      ColumnIndexCreationInfo indexCreationInfo)
+      throws Exception {
+    try {
+      dictionaryCreator.build();
+    } catch (Exception e) {
+      LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
+          fieldSpec.getName(), indexCreationInfo.getDistinctValueCount(), dictionaryCreator.getNumBytesPerEntry());
+      throw e;
+    }
   }
 
   /**
@@ -251,32 +305,167 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void indexRow(GenericRow row) {
     for (String columnName : _forwardIndexCreatorMap.keySet()) {
-      Object columnValueToIndex = row.getValue(columnName);
-      if (columnValueToIndex == null) {
-        throw new RuntimeException("Null value for column:" + columnName);
+      indexColumn(columnName, row, docIdCounter);
+    }
+    docIdCounter++;
+  }
+
+  /**
+   * Indexes a batch of rows. With an executor service, each column is indexed by a separate task, where the rows are
+   * indexed in order so that the results are the same as calling {@link #indexRow(GenericRow)} on each row.
+   */
+  public void indexRows(GenericRow[] rows, int numRows)
+      throws Exception {
+    if (_executorService == null) {
+      for (int i = 0; i < numRows; i++) {
+        indexRow(rows[i]);
       }
+      return;
+    }
 
-      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
-      if (schema.getFieldSpecFor(columnName).isSingleValueField()) {
-        if (dictionaryCreator != null) {
-          int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
-          ((SingleValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docIdCounter, dictId);
-          if (_invertedIndexCreatorMap.containsKey(columnName)) {
-            _invertedIndexCreatorMap.get(columnName).add(dictId);
-          }
-        } else {
-          ((SingleValueRawIndexCreator) _forwardIndexCreatorMap.get(columnName))
-              .index(docIdCounter, columnValueToIndex);
+    int startDocId = docIdCounter;
+    List<Future<?>> futures = new ArrayList<>(_forwardIndexCreatorMap.size());
+    for (String columnName : _forwardIndexCreatorMap.keySet()) {
+      futures.add(_executorService.submit(() -> {
+        for (int i = 0; i < numRows; i++) {
+          indexColumn(columnName, rows[i], startDocId + i);
         }
-      } else {
-        int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
-        ((MultiValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docIdCounter, dictIds);
+        return null;
+      }));
+    }
+    FutureUtils.waitForFutures(futures);
+    docIdCounter += numRows;
+  }
+
+  private void indexColumn(String columnName, GenericRow row, int docId) {
+    Object columnValueToIndex = row.getValue(columnName);
+    if (columnValueToIndex == null) {
+      throw new RuntimeException("Null value for column:" + columnName);
+    }
+    indexValue(columnName, columnValueToIndex, docId);
+  }
+
+  /**
+   * Returns whether the given column is dictionary-encoded in the segment being created.
+   */
+  public boolean hasDictionary(String columnName) {
+    return _dictionaryCreatorMap.containsKey(columnName);
+  }
+
+  /**
+   * Returns the mapping from the dictionary ids of the given dictionary (e.g. the unsorted dictionary of a mutable
+   * segment) to the dictionary ids of the column in the segment being created. The given dictionary should contain the
+   * same values as the dictionary created for the column.
+   */
+  public int[] getDictIdMapping(String columnName, Dictionary dictionary) {
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+    Preconditions.checkState(dictionaryCreator != null, "Column: %s is not dictionary-encoded", columnName);
+    int length = dictionary.length();
+    int[] dictIdMapping = new int[length];
+    for (int i = 0; i < length; i++) {
+      dictIdMapping[i] = dictionaryCreator.indexOfSV(dictionary.get(i));
+    }
+    return dictIdMapping;
+  }
+
+  /**
+   * Indexes a dictionary-encoded single-value column for all the documents directly from the dictionary ids, without
+   * going through the rows. This method is an alternative of {@link #indexRow(GenericRow)} for creating the segment
+   * column by column, and should not be mixed with it.
+   *
+   * @param columnName Column name
+   * @param dictIds Dictionary ids (of the dictionary created for the column) indexed by docId
+   */
+  public void indexSingleValueColumn(String columnName, int[] dictIds) {
+    Preconditions.checkState(hasDictionary(columnName), "Column: %s is not dictionary-encoded", columnName);
+    SingleValueForwardIndexCreator forwardIndexCreator =
+        (SingleValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName);
+    InvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+    InvertedIndexCreator rangeIndexCreator = _rangeIndexCreatorMap.get(columnName);
+    int numDocs = dictIds.length;
+    for (int docId = 0; docId < numDocs; docId++) {
+      int dictId = dictIds[docId];
+      forwardIndexCreator.index(docId, dictId);
+      if (invertedIndexCreator != null) {
+        invertedIndexCreator.add(dictId);
+      }
+      if (rangeIndexCreator != null) {
+        rangeIndexCreator.add(dictId);
+      }
+    }
+  }
+
+  /**
+   * Indexes a dictionary-encoded multi-value column for all the documents directly from the dictionary ids, without
+   * going through the rows. This method is an alternative of {@link #indexRow(GenericRow)} for creating the segment
+   * column by column, and should not be mixed with it.
+   *
+   * @param columnName Column name
+   * @param dictIds Dictionary ids (of the dictionary created for the column) indexed by docId
+   */
+  public void indexMultiValueColumn(String columnName, int[][] dictIds) {
+    Preconditions.checkState(hasDictionary(columnName), "Column: %s is not dictionary-encoded", columnName);
+    MultiValueForwardIndexCreator forwardIndexCreator =
+        (MultiValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName);
+    InvertedIndexCreator invertedIndexCreator = _invertedIndexCreatorMap.get(columnName);
+    InvertedIndexCreator rangeIndexCreator = _rangeIndexCreatorMap.get(columnName);
+    int numDocs = dictIds.length;
+    for (int docId = 0; docId < numDocs; docId++) {
+      int[] docDictIds = dictIds[docId];
+      forwardIndexCreator.index(docId, docDictIds);
+      if (invertedIndexCreator != null) {
+        invertedIndexCreator.add(docDictIds, docDictIds.length);
+      }
+      if (rangeIndexCreator != null) {
+        rangeIndexCreator.add(docDictIds, docDictIds.length);
+      }
+    }
+  }
+
+  /**
+   * Indexes a column for all the documents from the values, without going through the rows. This method is an
+   * alternative of {@link #indexRow(GenericRow)} for creating the segment column by column, and should not be mixed
+   * with it.
+   *
+   * @param columnName Column name
+   * @param values Values (<code>Object[]</code> for multi-value column) indexed by docId
+   */
+  public void indexColumn(String columnName, Object[] values) {
+    int numDocs = values.length;
+    for (int docId = 0; docId < numDocs; docId++) {
+      Object value = values[docId];
+      if (value == null) {
+        throw new RuntimeException("Null value for column:" + columnName);
+      }
+      indexValue(columnName, value, docId);
+    }
+  }
+
+  private void indexValue(String columnName, Object columnValueToIndex, int docId) {
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+    if (schema.getFieldSpecFor(columnName).isSingleValueField()) {
+      if (dictionaryCreator != null) {
+        int dictId = dictionaryCreator.indexOfSV(columnValueToIndex);
+        ((SingleValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docId, dictId);
         if (_invertedIndexCreatorMap.containsKey(columnName)) {
-          _invertedIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
+          _invertedIndexCreatorMap.get(columnName).add(dictId);
+        }
+        if (_rangeIndexCreatorMap.containsKey(columnName)) {
+          _rangeIndexCreatorMap.get(columnName).add(dictId);
         }
+      } else {
+        ((SingleValueRawIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docId, columnValueToIndex);
+      }
+    } else {
+      int[] dictIds = dictionaryCreator.indexOfMV(columnValueToIndex);
+      ((MultiValueForwardIndexCreator) _forwardIndexCreatorMap.get(columnName)).index(docId, dictIds);
+      if (_invertedIndexCreatorMap.containsKey(columnName)) {
+        _invertedIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
+      }
+      if (_rangeIndexCreatorMap.containsKey(columnName)) {
+        _rangeIndexCreatorMap.get(columnName).add(dictIds, dictIds.length);
       }
     }
-    docIdCounter++;
   }
 
   @Override
@@ -287,8 +476,27 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void seal()
       throws ConfigurationException, IOException {
-    for (InvertedIndexCreator invertedIndexCreator : _invertedIndexCreatorMap.values()) {
-      invertedIndexCreator.seal();
+    List<InvertedIndexCreator> bitmapIndexCreators = new ArrayList<>(_invertedIndexCreatorMap.values());
+    bitmapIndexCreators.addAll(_rangeIndexCreatorMap.values());
+    if (_executorService != null) {
+      List<Future<?>> futures = new ArrayList<>(bitmapIndexCreators.size());
+      for (InvertedIndexCreator bitmapIndexCreator : bitmapIndexCreators) {
+        futures.add(_executorService.submit(() -> {
+          bitmapIndexCreator.seal();
+          return null;
+        }));
+      }
+      try {
+        FutureUtils.waitForFutures(futures);
+      } catch (IOException | RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new IOException("Caught exception while sealing inverted and range indexes", e);
+      }
+    } else {
+      for (InvertedIndexCreator bitmapIndexCreator : bitmapIndexCreators) {
+        bitmapIndexCreator.seal();
+      }
     }
     writeMetadata();
   }
@@ -496,29 +704,46 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
       ChunkCompressorFactory.CompressionType compressionType, String column, FieldSpec.DataType dataType, int totalDocs,
       int lengthOfLongestEntry)
       throws IOException {
+    return getRawIndexCreatorForColumn(file, compressionType, column, dataType, totalDocs, lengthOfLongestEntry,
+        ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * Helper method to build the raw index creator for the column with the compression level for ZSTANDARD compression.
+   * Assumes that column to be indexed is single valued.
+   */
+  public static SingleValueRawIndexCreator getRawIndexCreatorForColumn(File file,
+      ChunkCompressorFactory.CompressionType compressionType, String column, FieldSpec.DataType dataType, int totalDocs,
+      int lengthOfLongestEntry, int zstdCompressionLevel)
+      throws IOException {
 
     SingleValueRawIndexCreator indexCreator;
     switch (dataType) {
       case INT:
-        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Integer.BYTES);
+        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Integer.BYTES,
+            zstdCompressionLevel);
         break;
 
       case LONG:
-        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Long.BYTES);
+        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Long.BYTES,
+            zstdCompressionLevel);
         break;
 
       case FLOAT:
-        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Float.BYTES);
+        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Float.BYTES,
+            zstdCompressionLevel);
         break;
 
       case DOUBLE:
-        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Double.BYTES);
+        indexCreator = new SingleValueFixedByteRawIndexCreator(file, compressionType, column, totalDocs, Double.BYTES,
+            zstdCompressionLevel);
         break;
 
       case STRING:
       case BYTES:
         indexCreator =
-            new SingleValueVarByteRawIndexCreator(file, compressionType, column, totalDocs, lengthOfLongestEntry);
+            new SingleValueVarByteRawIndexCreator(file, compressionType, column, totalDocs, lengthOfLongestEntry,
+                zstdCompressionLevel);
         break;
 
       default:
@@ -540,5 +765,8 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     for (InvertedIndexCreator invertedIndexCreator : _invertedIndexCreatorMap.values()) {
       invertedIndexCreator.close();
     }
+    for (InvertedIndexCreator rangeIndexCreator : _rangeIndexCreatorMap.values()) {
+      rangeIndexCreator.close();
+    }
   }
 }
@@ -19,6 +19,7 @@
 package org.apache.pinot.core.segment.creator.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -29,6 +30,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.MetricFieldSpec;
@@ -43,11 +46,11 @@ import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
 import org.apache.pinot.core.segment.creator.ColumnIndexCreationInfo;
 import org.apache.pinot.core.segment.creator.ColumnStatistics;
+import org.apache.pinot.core.segment.creator.ColumnarSegmentCreationDataSource;
 import org.apache.pinot.core.segment.creator.ForwardIndexType;
 import org.apache.pinot.core.segment.creator.InvertedIndexType;
 import org.apache.pinot.core.segment.creator.RecordReaderSegmentCreationDataSource;
 import org.apache.pinot.core.segment.creator.SegmentCreationDataSource;
-import org.apache.pinot.core.segment.creator.SegmentCreator;
 import org.apache.pinot.core.segment.creator.SegmentIndexCreationDriver;
 import org.apache.pinot.core.segment.creator.SegmentIndexCreationInfo;
 import org.apache.pinot.core.segment.creator.SegmentPreIndexStatsContainer;
@@ -76,14 +79,20 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentIndexCreationDriverImpl.class);
 
+  // Number of rows read from the record reader before indexing the columns in parallel
+  private static final int PARALLEL_INDEXING_BATCH_SIZE = 10_000;
+
   private SegmentGeneratorConfig config;
+  private SegmentCreationDataSource _dataSource;
   private RecordReader recordReader;
   private SegmentPreIndexStatsContainer segmentStats;
   private Map<String, ColumnIndexCreationInfo> indexCreationInfoMap;
-  private SegmentCreator indexCreator;
+  private SegmentColumnarIndexCreator indexCreator;
   private SegmentIndexCreationInfo segmentIndexCreationInfo;
   private Schema dataSchema;
   private RecordTransformer _recordTransformer;
+  // Only used when multiple threads are configured for segment creation without star-tree
+  private ExecutorService _executorService;
   private int totalDocs = 0;
   private int totalRawDocs = 0;
   private int totalAggDocs = 0;
@@ -116,56 +125,77 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
   public void init(SegmentGeneratorConfig config, SegmentCreationDataSource dataSource,
       RecordTransformer recordTransformer) {
-    this.config = config;
-    this.createStarTree = config.isEnableStarTreeIndex();
-    recordReader = dataSource.getRecordReader();
-    Preconditions.checkState(recordReader.hasNext(), "No record in data source");
-    dataSchema = recordReader.getSchema();
+    // NOTE: The executor service is shut down in build(), so it needs to be shut down here if init() fails
+    try {
+      this.config = config;
+      this.createStarTree = config.isEnableStarTreeIndex();
+      _dataSource = dataSource;
+      recordReader = dataSource.getRecordReader();
+      Preconditions.checkState(recordReader.hasNext(), "No record in data source");
+      dataSchema = recordReader.getSchema();
+
+      if (config.getHllConfig() != null) {
+        HllConfig hllConfig = config.getHllConfig();
+        // create hll index is true only if we're provided with columns to
+        // generate HLL fields
+        if (hllConfig.getColumnsToDeriveHllFields() != null && !hllConfig.getColumnsToDeriveHllFields().isEmpty()) {
+          if (!createStarTree) {
+            throw new IllegalArgumentException(
+                "Derived HLL fields generation will not work if StarTree is not enabled.");
+          } else {
+            createHllIndex = true;
+          }
+        } // else columnsToDeriveHllFields is null...don't do anything in this case
+        // segment seal() will write the log2m value to the metadata
+      }
 
-    if (config.getHllConfig() != null) {
-      HllConfig hllConfig = config.getHllConfig();
-      // create hll index is true only if we're provided with columns to
-      // generate HLL fields
-      if (hllConfig.getColumnsToDeriveHllFields() != null && !hllConfig.getColumnsToDeriveHllFields().isEmpty()) {
-        if (!createStarTree) {
-          throw new IllegalArgumentException("Derived HLL fields generation will not work if StarTree is not enabled.");
-        } else {
-          createHllIndex = true;
-        }
-      } // else columnsToDeriveHllFields is null...don't do anything in this case
-      // segment seal() will write the log2m value to the metadata
-    }
+      addDerivedFieldsInSchema();
 
-    addDerivedFieldsInSchema();
+      _recordTransformer = recordTransformer;
 
-    _recordTransformer = recordTransformer;
+      int numThreads = config.getNumThreads();
+      if (!createStarTree && numThreads > 1) {
+        _executorService = Executors.newFixedThreadPool(numThreads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("segment-creation-%d").build());
+      }
 
-    // Initialize stats collection
-    if (!createStarTree) { // For star tree, the stats are gathered in buildStarTree()
-      segmentStats = dataSource.gatherStats(new StatsCollectorConfig(dataSchema, config.getSegmentPartitionConfig()));
-      totalDocs = segmentStats.getTotalDocCount();
-      totalRawDocs = segmentStats.getRawDocCount();
-      totalAggDocs = segmentStats.getAggregatedDocCount();
-    }
+      // Initialize stats collection
+      if (!createStarTree) { // For star tree, the stats are gathered in buildStarTree()
+        StatsCollectorConfig statsCollectorConfig =
+            new StatsCollectorConfig(dataSchema, config.getSegmentPartitionConfig());
+        if (_executorService != null && dataSource instanceof RecordReaderSegmentCreationDataSource) {
+          segmentStats =
+              ((RecordReaderSegmentCreationDataSource) dataSource).gatherStats(statsCollectorConfig, _executorService);
+        } else {
+          segmentStats = dataSource.gatherStats(statsCollectorConfig);
+        }
+        totalDocs = segmentStats.getTotalDocCount();
+        totalRawDocs = segmentStats.getRawDocCount();
+        totalAggDocs = segmentStats.getAggregatedDocCount();
+      }
 
-    // Initialize index creation
-    segmentIndexCreationInfo = new SegmentIndexCreationInfo();
-    indexCreationInfoMap = new HashMap<>();
+      // Initialize index creation
+      segmentIndexCreationInfo = new SegmentIndexCreationInfo();
+      indexCreationInfoMap = new HashMap<>();
 
-    // Check if has star tree
-    indexCreator = new SegmentColumnarIndexCreator();
+      // Check if has star tree
+      indexCreator = new SegmentColumnarIndexCreator(_executorService);
 
-    // Ensure that the output directory exists
-    final File indexDir = new File(config.getOutDir());
-    if (!indexDir.exists()) {
-      indexDir.mkdirs();
-    }
+      // Ensure that the output directory exists
+      final File indexDir = new File(config.getOutDir());
+      if (!indexDir.exists()) {
+        indexDir.mkdirs();
+      }
 
-    // Create a temporary directory used in segment creation
-    tempIndexDir = new File(indexDir, org.apache.pinot.common.utils.FileUtils.getRandomFileName());
-    starTreeTempDir = new File(indexDir, org.apache.pinot.common.utils.FileUtils.getRandomFileName());
-    LOGGER.debug("tempIndexDir:{}", tempIndexDir);
-    LOGGER.debug("starTreeTempDir:{}", starTreeTempDir);
+      // Create a temporary directory used in segment creation
+      tempIndexDir = new File(indexDir, org.apache.pinot.common.utils.FileUtils.getRandomFileName());
+      starTreeTempDir = new File(indexDir, org.apache.pinot.common.utils.FileUtils.getRandomFileName());
+      LOGGER.debug("tempIndexDir:{}", tempIndexDir);
+      LOGGER.debug("starTreeTempDir:{}", starTreeTempDir);
+    } catch (Exception e) {
+      shutDownExecutorService();
+      throw e;
+    }
   }
 
   private void addDerivedFieldsInSchema() {
@@ -202,11 +232,22 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
   @Override
   public void build()
       throws Exception {
-    if (createStarTree) {
-      // TODO: add on-heap star-tree builder
-      buildStarTree();
-    } else {
-      buildRaw();
+    try {
+      if (createStarTree) {
+        // TODO: add on-heap star-tree builder
+        buildStarTree();
+      } else {
+        buildRaw();
+      }
+    } finally {
+      shutDownExecutorService();
+    }
+  }
+
+  private void shutDownExecutorService() {
+    if (_executorService != null) {
+      _executorService.shutdownNow();
+      _executorService = null;
     }
   }
 
@@ -332,17 +373,26 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
       // Build the index
       recordReader.rewind();
       LOGGER.info("Start building IndexCreator!");
-      GenericRow readRow = null;
-      while (recordReader.hasNext()) {
+      if (_dataSource instanceof ColumnarSegmentCreationDataSource) {
+        // Index the columns directly from the data source without materializing the records
         long start = System.currentTimeMillis();
-        readRow = GenericRow.createOrReuseRow(readRow);
-        GenericRow transformedRow = _recordTransformer.transform(recordReader.next(readRow));
-        long stop = System.currentTimeMillis();
-        totalRecordReadTime += (stop - start);
-        if (transformedRow != null) {
-          indexCreator.indexRow(transformedRow);
-          long stop1 = System.currentTimeMillis();
-          totalIndexTime += (stop1 - stop);
+        ((ColumnarSegmentCreationDataSource) _dataSource).indexColumns(indexCreator);
+        totalIndexTime += System.currentTimeMillis() - start;
+      } else if (_executorService != null) {
+        indexRowsInBatches();
+      } else {
+        GenericRow readRow = null;
+        while (recordReader.hasNext()) {
+          long start = System.currentTimeMillis();
+          readRow = GenericRow.createOrReuseRow(readRow);
+          GenericRow transformedRow = _recordTransformer.transform(recordReader.next(readRow));
+          long stop = System.currentTimeMillis();
+          totalRecordReadTime += (stop - start);
+          if (transformedRow != null) {
+            indexCreator.indexRow(transformedRow);
+            long stop1 = System.currentTimeMillis();
+            totalIndexTime += (stop1 - stop);
+          }
         }
       }
     } catch (Exception e) {
@@ -356,6 +406,42 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     handlePostCreation();
   }
 
+  /**
+   * Reads the records sequentially in batches, and indexes each batch with the columns processed in parallel.
+   */
+  private void indexRowsInBatches()
+      throws Exception {
+    GenericRow[] rows = new GenericRow[PARALLEL_INDEXING_BATCH_SIZE];
+    int numRows = 0;
+    long start = System.currentTimeMillis();
+    while (recordReader.hasNext()) {
+      GenericRow readRow = GenericRow.createOrReuseRow(rows[numRows]);
+      GenericRow transformedRow = _recordTransformer.transform(recordReader.next(readRow));
+      if (transformedRow != null) {
+        rows[numRows++] = transformedRow;
+        if (numRows == rows.length) {
+          start = indexBatch(rows, numRows, start);
+          numRows = 0;
+        }
+      } else {
+        rows[numRows] = readRow;
+      }
+    }
+    if (numRows > 0) {
+      indexBatch(rows, numRows, start);
+    }
+  }
+
+  private long indexBatch(GenericRow[] rows, int numRows, long start)
+      throws Exception {
+    long stop = System.currentTimeMillis();
+    totalRecordReadTime += (stop - start);
+    indexCreator.indexRows(rows, numRows);
+    long stop1 = System.currentTimeMillis();
+    totalIndexTime += (stop1 - stop);
+    return stop1;
+  }
+
   private void handlePostCreation()
       throws Exception {
     ColumnStatistics timeColumnStatistics = segmentStats.getColumnProfileFor(config.getTimeColumnName());
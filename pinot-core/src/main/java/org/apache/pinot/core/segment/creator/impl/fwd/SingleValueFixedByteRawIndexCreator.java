@@ -21,6 +21,7 @@ package org.apache.pinot.core.segment.creator.impl.fwd;
 import java.io.File;
 import java.io.IOException;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.compression.ZstandardCompressor;
 import org.apache.pinot.core.io.writer.impl.FixedByteSingleValueMultiColWriter;
 import org.apache.pinot.core.io.writer.impl.v1.FixedByteChunkSingleValueWriter;
 import org.apache.pinot.core.segment.creator.BaseSingleValueRawIndexCreator;
@@ -52,9 +53,19 @@ public class SingleValueFixedByteRawIndexCreator extends BaseSingleValueRawIndex
   public SingleValueFixedByteRawIndexCreator(File baseIndexDir, ChunkCompressorFactory.CompressionType compressionType,
       String column, int totalDocs, int sizeOfEntry)
       throws IOException {
+    this(baseIndexDir, compressionType, column, totalDocs, sizeOfEntry, ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  /**
+   * Constructor for the class with the compression level for ZSTANDARD compression.
+   */
+  public SingleValueFixedByteRawIndexCreator(File baseIndexDir, ChunkCompressorFactory.CompressionType compressionType,
+      String column, int totalDocs, int sizeOfEntry, int zstdCompressionLevel)
+      throws IOException {
     File file = new File(baseIndexDir, column + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION);
     _indexWriter =
-        new FixedByteChunkSingleValueWriter(file, compressionType, totalDocs, NUM_DOCS_PER_CHUNK, sizeOfEntry);
+        new FixedByteChunkSingleValueWriter(file, compressionType, totalDocs, NUM_DOCS_PER_CHUNK, sizeOfEntry,
+            zstdCompressionLevel);
   }
 
   @Override
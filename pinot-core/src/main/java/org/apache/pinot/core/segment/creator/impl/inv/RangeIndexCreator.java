@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.creator.impl.inv;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.segment.creator.InvertedIndexCreator;
+import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * The <code>RangeIndexCreator</code> class creates the range index for a dictionary-encoded column.
+ * <p>Because the dictionary is sorted, a range predicate always matches a contiguous range of dictionary ids. The
+ * range index splits the dictionary ids into ranges with roughly equal number of entries, and stores one bitmap of
+ * the matching docIds per range, so that a range predicate can be solved by OR-ing a few bitmaps instead of scanning
+ * the forward index.
+ * <pre>
+ * Layout for the range index:
+ * |-------------------------------------------------------------------------|
+ * |                                 Version                                 |
+ * |                            Number of ranges (n)                         |
+ * |-------------------------------------------------------------------------|
+ * |                     Start dictId of 1st range (always 0)                |
+ * |                                   ...                                   |
+ * |                     Start dictId of nth range                           |
+ * |              End dictId of nth range (exclusive, cardinality)           |
+ * |-------------------------------------------------------------------------|
+ * |                       Start offset of 1st bitmap                        |
+ * |                                   ...                                   |
+ * |                  End offset of last bitmap (exclusive)                  |
+ * |-------------------------------------------------------------------------|
+ * |                           Data for 1st bitmap                           |
+ * |                                   ...                                   |
+ * |                           Data for last bitmap                          |
+ * |-------------------------------------------------------------------------|
+ * </pre>
+ */
+public final class RangeIndexCreator implements InvertedIndexCreator {
+  public static final int VERSION = 1;
+  public static final int DEFAULT_NUM_RANGES = 20;
+
+  private final File _rangeIndexFile;
+  private final int _cardinality;
+  private final int _numRanges;
+  private final int[] _numEntriesPerDictId;
+  // Flattened (docId, dictId) entries, docIds are only stored for multi-valued column
+  private final IntArrayList _dictIds = new IntArrayList();
+  private final IntArrayList _docIds;
+  private int _nextDocId;
+
+  public RangeIndexCreator(File indexDir, String columnName, int cardinality, boolean isSingleValue) {
+    this(indexDir, columnName, cardinality, isSingleValue, DEFAULT_NUM_RANGES);
+  }
+
+  public RangeIndexCreator(File indexDir, String columnName, int cardinality, boolean isSingleValue,
+      int numRanges) {
+    Preconditions.checkArgument(numRanges > 0, "Number of ranges must be positive");
+    _rangeIndexFile = new File(indexDir, columnName + V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION);
+    _cardinality = cardinality;
+    _numRanges = Math.min(numRanges, cardinality);
+    _numEntriesPerDictId = new int[cardinality];
+    _docIds = isSingleValue ? null : new IntArrayList();
+  }
+
+  @Override
+  public void add(int dictId) {
+    _dictIds.add(dictId);
+    _numEntriesPerDictId[dictId]++;
+    _nextDocId++;
+  }
+
+  @Override
+  public void add(int[] dictIds, int length) {
+    for (int i = 0; i < length; i++) {
+      int dictId = dictIds[i];
+      _dictIds.add(dictId);
+      _docIds.add(_nextDocId);
+      _numEntriesPerDictId[dictId]++;
+    }
+    _nextDocId++;
+  }
+
+  @Override
+  public void seal()
+      throws IOException {
+    int[] rangeStartDictIds = computeRangeStartDictIds();
+    int numRanges = rangeStartDictIds.length - 1;
+
+    // Map each dictId to its range and build the bitmaps
+    int[] rangeIds = new int[_cardinality];
+    for (int rangeId = 0; rangeId < numRanges; rangeId++) {
+      for (int dictId = rangeStartDictIds[rangeId]; dictId < rangeStartDictIds[rangeId + 1]; dictId++) {
+        rangeIds[dictId] = rangeId;
+      }
+    }
+    MutableRoaringBitmap[] bitmaps = new MutableRoaringBitmap[numRanges];
+    for (int i = 0; i < numRanges; i++) {
+      bitmaps[i] = new MutableRoaringBitmap();
+    }
+    int numEntries = _dictIds.size();
+    for (int i = 0; i < numEntries; i++) {
+      int docId = _docIds != null ? _docIds.getInt(i) : i;
+      bitmaps[rangeIds[_dictIds.getInt(i)]].add(docId);
+    }
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(_rangeIndexFile)))) {
+      out.writeInt(VERSION);
+      out.writeInt(numRanges);
+      for (int rangeStartDictId : rangeStartDictIds) {
+        out.writeInt(rangeStartDictId);
+      }
+
+      // Write bitmap offsets
+      int bitmapOffset = (2 + numRanges + 1 + numRanges + 1) * Integer.BYTES;
+      out.writeInt(bitmapOffset);
+      for (MutableRoaringBitmap bitmap : bitmaps) {
+        bitmap.runOptimize();
+        bitmapOffset += bitmap.serializedSizeInBytes();
+        // Check for int overflow
+        Preconditions.checkState(bitmapOffset > 0, "Range index file: %s exceeds 2GB limit", _rangeIndexFile);
+        out.writeInt(bitmapOffset);
+      }
+
+      // Write bitmap data
+      for (MutableRoaringBitmap bitmap : bitmaps) {
+        bitmap.serialize(out);
+      }
+    } catch (Exception e) {
+      FileUtils.deleteQuietly(_rangeIndexFile);
+      throw e;
+    }
+  }
+
+  /**
+   * Splits the dictionary ids into ranges with roughly equal number of entries. A dictId with more entries than the
+   * target range size forms a range on its own.
+   */
+  private int[] computeRangeStartDictIds() {
+    IntArrayList rangeStartDictIds = new IntArrayList(_numRanges + 1);
+    rangeStartDictIds.add(0);
+    long totalNumEntries = _dictIds.size();
+    long numEntriesSoFar = 0;
+    for (int dictId = 0; dictId < _cardinality - 1; dictId++) {
+      numEntriesSoFar += _numEntriesPerDictId[dictId];
+      int numRangesSoFar = rangeStartDictIds.size();
+      if (numRangesSoFar < _numRanges && numEntriesSoFar * _numRanges >= totalNumEntries * numRangesSoFar) {
+        rangeStartDictIds.add(dictId + 1);
+      }
+    }
+    rangeStartDictIds.add(_cardinality);
+    return rangeStartDictIds.toIntArray();
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -18,14 +18,19 @@
  */
 package org.apache.pinot.core.segment.creator.impl.stats;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.segment.creator.ColumnStatistics;
 import org.apache.pinot.core.segment.creator.SegmentPreIndexStatsCollector;
 import org.apache.pinot.core.segment.creator.StatsCollectorConfig;
+import org.apache.pinot.core.util.FutureUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,6 +95,18 @@ public class SegmentPreIndexStatsCollectorImpl implements SegmentPreIndexStatsCo
     }
   }
 
+  /**
+   * Seals the stats collectors for different columns in parallel with the given executor service.
+   */
+  public void build(ExecutorService executorService)
+      throws Exception {
+    List<Future<?>> futures = new ArrayList<>(columnStatsCollectorMap.size());
+    for (AbstractColumnStatisticsCollector statsCollector : columnStatsCollectorMap.values()) {
+      futures.add(executorService.submit(statsCollector::seal));
+    }
+    FutureUtils.waitForFutures(futures);
+  }
+
   @Override
   public ColumnStatistics getColumnProfileFor(String column) {
     return columnStatsCollectorMap.get(column);
@@ -126,6 +143,38 @@ public class SegmentPreIndexStatsCollectorImpl implements SegmentPreIndexStatsCo
     }
   }
 
+  /**
+   * Collects the stats for a batch of non-aggregated rows, where each column is processed by a separate task in the
+   * given executor service. Within each column, the rows are collected in order so that the results are the same as
+   * calling {@link #collectRow(GenericRow)} on each row.
+   */
+  public void collectRows(GenericRow[] rows, int numRows, ExecutorService executorService)
+      throws Exception {
+    List<Future<?>> futures = new ArrayList<>(columnStatsCollectorMap.size());
+    for (Map.Entry<String, AbstractColumnStatisticsCollector> entry : columnStatsCollectorMap.entrySet()) {
+      String columnName = entry.getKey();
+      AbstractColumnStatisticsCollector statsCollector = entry.getValue();
+      futures.add(executorService.submit(() -> {
+        for (int i = 0; i < numRows; i++) {
+          Object value = rows[i].getValue(columnName);
+          if (value != null) {
+            try {
+              statsCollector.collect(value);
+            } catch (Exception e) {
+              LOGGER.error("Exception while collecting stats for column:{} in row:{}", columnName, rows[i]);
+              throw e;
+            }
+          }
+        }
+        return null;
+      }));
+    }
+    FutureUtils.waitForFutures(futures);
+
+    totalDocCount += numRows;
+    rawDocCount += numRows;
+  }
+
   @Override
   public int getRawDocCount() {
     return rawDocCount;
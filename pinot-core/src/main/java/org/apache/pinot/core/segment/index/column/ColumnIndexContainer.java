@@ -22,6 +22,7 @@ import org.apache.pinot.core.io.reader.DataFileReader;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
 
 
 /**
@@ -45,4 +46,9 @@ public interface ColumnIndexContainer {
   Dictionary getDictionary();
 
   BloomFilterReader getBloomFilter();
+
+  /**
+   * Returns the range index for the column, or {@code null} if it does not exist.
+   */
+  RangeIndexReader getRangeIndex();
 }
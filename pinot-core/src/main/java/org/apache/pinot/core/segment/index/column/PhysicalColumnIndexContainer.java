@@ -19,6 +19,7 @@
 package org.apache.pinot.core.segment.index.column;
 
 import java.io.IOException;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.core.io.reader.DataFileReader;
 import org.apache.pinot.core.io.reader.SingleColumnSingleValueReader;
@@ -39,11 +40,14 @@ import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
 import org.apache.pinot.core.segment.index.readers.IntDictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
 import org.apache.pinot.core.segment.index.readers.LongDictionary;
+import org.apache.pinot.core.segment.index.readers.OnHeapBytesDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapDoubleDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapFloatDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapIntDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapLongDictionary;
 import org.apache.pinot.core.segment.index.readers.OnHeapStringDictionary;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
+import org.apache.pinot.core.segment.index.readers.SharedDictionaryValuePool;
 import org.apache.pinot.core.segment.index.readers.StringDictionary;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 import org.apache.pinot.core.segment.store.ColumnIndexType;
@@ -59,6 +63,7 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
   private final InvertedIndexReader _invertedIndex;
   private final ImmutableDictionaryReader _dictionary;
   private final BloomFilterReader _bloomFilterReader;
+  private final RangeIndexReader _rangeIndex;
 
   public PhysicalColumnIndexContainer(SegmentDirectory.Reader segmentReader, ColumnMetadata metadata,
       IndexLoadingConfig indexLoadingConfig)
@@ -67,10 +72,18 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
     boolean loadInvertedIndex = false;
     boolean loadOnHeapDictionary = false;
     boolean loadBloomFilter = false;
+    boolean loadRangeIndex = false;
+    SharedDictionaryValuePool sharedDictionaryValuePool = null;
     if (indexLoadingConfig != null) {
       loadInvertedIndex = indexLoadingConfig.getInvertedIndexColumns().contains(columnName);
       loadOnHeapDictionary = indexLoadingConfig.getOnHeapDictionaryColumns().contains(columnName);
+      // Shared dictionary is always loaded on-heap
+      if (indexLoadingConfig.getSharedDictionaryColumns().contains(columnName)) {
+        loadOnHeapDictionary = true;
+        sharedDictionaryValuePool = indexLoadingConfig.getSharedDictionaryValuePool();
+      }
       loadBloomFilter = indexLoadingConfig.getBloomFilterColumns().contains(columnName);
+      loadRangeIndex = indexLoadingConfig.getRangeIndexColumns().contains(columnName);
     }
     PinotDataBuffer fwdIndexBuffer = segmentReader.getIndexFor(columnName, ColumnIndexType.FORWARD_INDEX);
 
@@ -82,9 +95,15 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       } else {
         _bloomFilterReader = null;
       }
+      // Range index is not created for sorted column
+      if (loadRangeIndex && segmentReader.hasIndexFor(columnName, ColumnIndexType.RANGE_INDEX)) {
+        _rangeIndex = new RangeIndexReader(segmentReader.getIndexFor(columnName, ColumnIndexType.RANGE_INDEX));
+      } else {
+        _rangeIndex = null;
+      }
       // Dictionary-based index
       _dictionary = loadDictionary(segmentReader.getIndexFor(columnName, ColumnIndexType.DICTIONARY), metadata,
-          loadOnHeapDictionary);
+          loadOnHeapDictionary, sharedDictionaryValuePool);
       if (metadata.isSingleValue()) {
         // Single-value
         if (metadata.isSorted()) {
@@ -117,6 +136,7 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       _invertedIndex = null;
       _dictionary = null;
       _bloomFilterReader = null;
+      _rangeIndex = null;
     }
   }
 
@@ -140,8 +160,13 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
     return _bloomFilterReader;
   }
 
+  @Override
+  public RangeIndexReader getRangeIndex() {
+    return _rangeIndex;
+  }
+
   private static ImmutableDictionaryReader loadDictionary(PinotDataBuffer dictionaryBuffer, ColumnMetadata metadata,
-      boolean loadOnHeap) {
+      boolean loadOnHeap, @Nullable SharedDictionaryValuePool sharedDictionaryValuePool) {
     FieldSpec.DataType dataType = metadata.getDataType();
     if (loadOnHeap) {
       String columnName = metadata.getColumnName();
@@ -169,12 +194,13 @@ public final class PhysicalColumnIndexContainer implements ColumnIndexContainer
       case STRING:
         int numBytesPerValue = metadata.getColumnMaxLength();
         byte paddingByte = (byte) metadata.getPaddingCharacter();
-        return loadOnHeap ? new OnHeapStringDictionary(dictionaryBuffer, length, numBytesPerValue, paddingByte)
-            : new StringDictionary(dictionaryBuffer, length, numBytesPerValue, paddingByte);
+        return loadOnHeap ? new OnHeapStringDictionary(dictionaryBuffer, length, numBytesPerValue, paddingByte,
+            sharedDictionaryValuePool) : new StringDictionary(dictionaryBuffer, length, numBytesPerValue, paddingByte);
 
       case BYTES:
         numBytesPerValue = metadata.getColumnMaxLength();
-        return new BytesDictionary(dictionaryBuffer, length, numBytesPerValue);
+        return loadOnHeap ? new OnHeapBytesDictionary(dictionaryBuffer, length, numBytesPerValue,
+            sharedDictionaryValuePool) : new BytesDictionary(dictionaryBuffer, length, numBytesPerValue);
 
       default:
         throw new IllegalStateException("Illegal data type for dictionary: " + dataType);
@@ -36,6 +36,7 @@ import org.apache.pinot.core.segment.index.column.ColumnIndexContainer;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
 
 
 public final class ColumnDataSource extends DataSource {
@@ -49,6 +50,7 @@ public final class ColumnDataSource extends DataSource {
   private final InvertedIndexReader _invertedIndex;
   private final Dictionary _dictionary;
   private final BloomFilterReader _bloomFilter;
+  private final RangeIndexReader _rangeIndex;
   private final int _cardinality;
   private final DataSourceMetadata _metadata;
 
@@ -59,7 +61,7 @@ public final class ColumnDataSource extends DataSource {
     this(metadata.getColumnName(), metadata.getDataType(), metadata.isSingleValue(), metadata.isSorted(),
         metadata.getTotalDocs(), metadata.getMaxNumberOfMultiValues(), indexContainer.getForwardIndex(),
         indexContainer.getInvertedIndex(), indexContainer.getDictionary(), indexContainer.getBloomFilter(),
-        metadata.getCardinality());
+        indexContainer.getRangeIndex(), metadata.getCardinality());
   }
 
   /**
@@ -68,12 +70,13 @@ public final class ColumnDataSource extends DataSource {
   public ColumnDataSource(FieldSpec fieldSpec, int numDocs, int maxNumMultiValues, DataFileReader forwardIndex,
       InvertedIndexReader invertedIndex, MutableDictionary dictionary, BloomFilterReader bloomFilter) {
     this(fieldSpec.getName(), fieldSpec.getDataType(), fieldSpec.isSingleValueField(), false, numDocs,
-        maxNumMultiValues, forwardIndex, invertedIndex, dictionary, bloomFilter, Constants.UNKNOWN_CARDINALITY);
+        maxNumMultiValues, forwardIndex, invertedIndex, dictionary, bloomFilter, null,
+        Constants.UNKNOWN_CARDINALITY);
   }
 
   private ColumnDataSource(String columnName, FieldSpec.DataType dataType, boolean isSingleValue, boolean isSorted,
       int numDocs, int maxNumMultiValues, DataFileReader forwardIndex, InvertedIndexReader invertedIndex,
-      Dictionary dictionary, BloomFilterReader bloomFilterReader, int cardinality) {
+      Dictionary dictionary, BloomFilterReader bloomFilterReader, RangeIndexReader rangeIndex, int cardinality) {
     // Sanity check
     if (isSingleValue) {
       Preconditions.checkState(forwardIndex instanceof SingleColumnSingleValueReader);
@@ -100,6 +103,7 @@ public final class ColumnDataSource extends DataSource {
     _invertedIndex = invertedIndex;
     _dictionary = dictionary;
     _bloomFilter = bloomFilterReader;
+    _rangeIndex = rangeIndex;
     _cardinality = cardinality;
 
     _metadata = new DataSourceMetadata() {
@@ -165,6 +169,11 @@ public final class ColumnDataSource extends DataSource {
     return _bloomFilter;
   }
 
+  @Override
+  public RangeIndexReader getRangeIndex() {
+    return _rangeIndex;
+  }
+
   @Override
   protected Block getNextBlock() {
     if (_isSingleValue) {
@@ -19,7 +19,9 @@
 package org.apache.pinot.core.segment.index.loader;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -28,11 +30,15 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.config.IndexingConfig;
+import org.apache.pinot.common.config.TableCustomConfig;
 import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.bloom.BloomFilterType;
 import org.apache.pinot.core.data.manager.config.InstanceDataManagerConfig;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
 import org.apache.pinot.core.segment.index.loader.columnminmaxvalue.ColumnMinMaxValueGeneratorMode;
+import org.apache.pinot.core.segment.index.readers.SharedDictionaryValuePool;
+import org.apache.pinot.core.segment.store.ColumnIndexType;
 
 
 /**
@@ -47,7 +53,11 @@ public class IndexLoadingConfig {
   private Set<String> _noDictionaryColumns = new HashSet<>(); // TODO: replace this by _noDictionaryConfig.
   private Map<String, String> _noDictionaryConfig = new HashMap<>();
   private Set<String> _onHeapDictionaryColumns = new HashSet<>();
+  private Set<String> _sharedDictionaryColumns = new HashSet<>();
+  private SharedDictionaryValuePool _sharedDictionaryValuePool;
   private Set<String> _bloomFilterColumns = new HashSet<>();
+  private BloomFilterType _bloomFilterType = BloomFilterType.DEFAULT;
+  private Set<String> _rangeIndexColumns = new HashSet<>();
 
   private SegmentVersion _segmentVersion;
   private ColumnMinMaxValueGeneratorMode _columnMinMaxValueGeneratorMode = ColumnMinMaxValueGeneratorMode.DEFAULT_MODE;
@@ -57,6 +67,10 @@ public class IndexLoadingConfig {
   private boolean _isDirectRealtimeOffheapAllocation;
   private boolean _enableSplitCommitEndWithMetadata;
 
+  private SegmentWarmer.Mode _warmUpMode = SegmentWarmer.Mode.NONE;
+  private Set<ColumnIndexType> _warmUpIndexTypes = EnumSet.copyOf(SegmentWarmer.DEFAULT_WARM_UP_INDEX_TYPES);
+  private Set<String> _warmUpColumns = Collections.emptySet(); // Empty means all columns
+
   public IndexLoadingConfig(@Nonnull InstanceDataManagerConfig instanceDataManagerConfig,
       @Nonnull TableConfig tableConfig) {
     extractFromInstanceConfig(instanceDataManagerConfig);
@@ -85,6 +99,16 @@ public class IndexLoadingConfig {
       _bloomFilterColumns.addAll(bloomFilterColumns);
     }
 
+    String bloomFilterType = indexingConfig.getBloomFilterType();
+    if (bloomFilterType != null) {
+      _bloomFilterType = BloomFilterType.valueOf(bloomFilterType.toUpperCase());
+    }
+
+    List<String> rangeIndexColumns = indexingConfig.getRangeIndexColumns();
+    if (rangeIndexColumns != null) {
+      _rangeIndexColumns.addAll(rangeIndexColumns);
+    }
+
     List<String> noDictionaryColumns = indexingConfig.getNoDictionaryColumns();
     if (noDictionaryColumns != null) {
       _noDictionaryColumns.addAll(noDictionaryColumns);
@@ -100,6 +124,11 @@ public class IndexLoadingConfig {
       _onHeapDictionaryColumns.addAll(onHeapDictionaryColumns);
     }
 
+    List<String> sharedDictionaryColumns = indexingConfig.getSharedDictionaryColumns();
+    if (sharedDictionaryColumns != null) {
+      _sharedDictionaryColumns.addAll(sharedDictionaryColumns);
+    }
+
     String tableSegmentVersion = indexingConfig.getSegmentFormatVersion();
     if (tableSegmentVersion != null) {
       _segmentVersion = SegmentVersion.valueOf(tableSegmentVersion.toLowerCase());
@@ -110,6 +139,17 @@ public class IndexLoadingConfig {
       _columnMinMaxValueGeneratorMode =
           ColumnMinMaxValueGeneratorMode.valueOf(columnMinMaxValueGeneratorMode.toUpperCase());
     }
+
+    TableCustomConfig customConfig = tableConfig.getCustomConfig();
+    if (customConfig != null && customConfig.getCustomConfigs() != null) {
+      String warmUpColumns = customConfig.getCustomConfigs().get(SegmentWarmer.WARM_UP_COLUMNS_KEY);
+      if (warmUpColumns != null && !warmUpColumns.trim().isEmpty()) {
+        _warmUpColumns = new HashSet<>();
+        for (String column : warmUpColumns.split(",")) {
+          _warmUpColumns.add(column.trim());
+        }
+      }
+    }
   }
 
   private void extractFromInstanceConfig(@Nonnull InstanceDataManagerConfig instanceDataManagerConfig) {
@@ -133,6 +173,19 @@ public class IndexLoadingConfig {
       _realtimeAvgMultiValueCount = Integer.valueOf(avgMultiValueCount);
     }
     _enableSplitCommitEndWithMetadata = instanceDataManagerConfig.isEnableSplitCommitEndWithMetadata();
+
+    String warmUpMode = instanceDataManagerConfig.getSegmentWarmUpMode();
+    if (warmUpMode != null) {
+      _warmUpMode = SegmentWarmer.Mode.valueOf(warmUpMode.toUpperCase());
+    }
+
+    String[] warmUpIndexTypes = instanceDataManagerConfig.getSegmentWarmUpIndexTypes();
+    if (warmUpIndexTypes != null && warmUpIndexTypes.length > 0) {
+      _warmUpIndexTypes = EnumSet.noneOf(ColumnIndexType.class);
+      for (String warmUpIndexType : warmUpIndexTypes) {
+        _warmUpIndexTypes.add(ColumnIndexType.getValue(warmUpIndexType.trim()));
+      }
+    }
   }
 
   /**
@@ -176,6 +229,11 @@ public class IndexLoadingConfig {
     _bloomFilterColumns = bloomFilterColumns;
   }
 
+  @VisibleForTesting
+  public void setRangeIndexColumns(@Nonnull Set<String> rangeIndexColumns) {
+    _rangeIndexColumns = rangeIndexColumns;
+  }
+
   @VisibleForTesting
   public void setOnHeapDictionaryColumns(@Nonnull Set<String> onHeapDictionaryColumns) {
     _onHeapDictionaryColumns = onHeapDictionaryColumns;
@@ -196,10 +254,50 @@ public class IndexLoadingConfig {
     return _onHeapDictionaryColumns;
   }
 
+  /**
+   * Returns the columns whose on-heap dictionaries share the values across the segments of the table.
+   */
+  @Nonnull
+  public Set<String> getSharedDictionaryColumns() {
+    return _sharedDictionaryColumns;
+  }
+
+  @VisibleForTesting
+  public void setSharedDictionaryColumns(@Nonnull Set<String> sharedDictionaryColumns) {
+    _sharedDictionaryColumns = sharedDictionaryColumns;
+  }
+
+  /**
+   * Returns the table level pool of the shared dictionary values, or {@code null} if not set by the table data manager.
+   */
+  @Nullable
+  public SharedDictionaryValuePool getSharedDictionaryValuePool() {
+    return _sharedDictionaryValuePool;
+  }
+
+  public void setSharedDictionaryValuePool(@Nullable SharedDictionaryValuePool sharedDictionaryValuePool) {
+    _sharedDictionaryValuePool = sharedDictionaryValuePool;
+  }
+
   public Set<String> getBloomFilterColumns() {
     return _bloomFilterColumns;
   }
 
+  @Nonnull
+  public BloomFilterType getBloomFilterType() {
+    return _bloomFilterType;
+  }
+
+  @VisibleForTesting
+  public void setBloomFilterType(@Nonnull BloomFilterType bloomFilterType) {
+    _bloomFilterType = bloomFilterType;
+  }
+
+  @Nonnull
+  public Set<String> getRangeIndexColumns() {
+    return _rangeIndexColumns;
+  }
+
   @Nullable
   public SegmentVersion getSegmentVersion() {
     return _segmentVersion;
@@ -243,4 +341,36 @@ public class IndexLoadingConfig {
   public int getRealtimeAvgMultiValueCount() {
     return _realtimeAvgMultiValueCount;
   }
+
+  @Nonnull
+  public SegmentWarmer.Mode getWarmUpMode() {
+    return _warmUpMode;
+  }
+
+  /**
+   * For tests only.
+   */
+  public void setWarmUpMode(@Nonnull SegmentWarmer.Mode warmUpMode) {
+    _warmUpMode = warmUpMode;
+  }
+
+  @Nonnull
+  public Set<ColumnIndexType> getWarmUpIndexTypes() {
+    return _warmUpIndexTypes;
+  }
+
+  /**
+   * For tests only.
+   */
+  public void setWarmUpIndexTypes(@Nonnull ColumnIndexType... warmUpIndexTypes) {
+    _warmUpIndexTypes = EnumSet.copyOf(Arrays.asList(warmUpIndexTypes));
+  }
+
+  /**
+   * Returns the columns to warm up, or empty set if all the columns should be warmed up.
+   */
+  @Nonnull
+  public Set<String> getWarmUpColumns() {
+    return _warmUpColumns;
+  }
 }
@@ -32,6 +32,7 @@ import org.apache.pinot.core.segment.index.loader.columnminmaxvalue.ColumnMinMax
 import org.apache.pinot.core.segment.index.loader.defaultcolumn.DefaultColumnHandler;
 import org.apache.pinot.core.segment.index.loader.defaultcolumn.DefaultColumnHandlerFactory;
 import org.apache.pinot.core.segment.index.loader.invertedindex.InvertedIndexHandler;
+import org.apache.pinot.core.segment.index.loader.rangeindex.RangeIndexHandler;
 import org.apache.pinot.core.segment.store.SegmentDirectory;
 
 
@@ -40,6 +41,7 @@ import org.apache.pinot.core.segment.store.SegmentDirectory;
  * <p>Pre-processing steps include:
  * <ul>
  *   <li>Use {@link InvertedIndexHandler} to create inverted indices</li>
+ *   <li>Use {@link RangeIndexHandler} to create range indices</li>
  *   <li>Use {@link DefaultColumnHandler} to update auto-generated default columns</li>
  *   <li>Use {@link ColumnMinMaxValueGenerator} to add min/max value to column metadata</li>
  * </ul>
@@ -101,6 +103,11 @@ public class SegmentPreProcessor implements AutoCloseable {
           new BloomFilterHandler(_indexDir, _segmentMetadata, _indexLoadingConfig, segmentWriter);
       bloomFilterHandler.createBloomFilters();
 
+      // Create column range indices according to the index config.
+      RangeIndexHandler rangeIndexHandler =
+          new RangeIndexHandler(_indexDir, _segmentMetadata, _indexLoadingConfig, segmentWriter);
+      rangeIndexHandler.createRangeIndices();
+
       // Add min/max value to column metadata according to the prune mode.
       // For star-tree index, because it can only increase the range, so min/max value can still be used in pruner.
       ColumnMinMaxValueGeneratorMode columnMinMaxValueGeneratorMode =
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.loader;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nonnull;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentImpl;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.apache.pinot.core.segment.store.ColumnIndexType;
+import org.apache.pinot.core.segment.store.SegmentDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The <code>SegmentWarmer</code> class warms up the memory mapped indexes of the loaded immutable segments, so that
+ * the first queries after a server restart or a segment push do not pay the page faults on the critical path.
+ * <p>The index buffers are warmed up by reading one byte per page, which makes the OS fault in the pages from disk. The
+ * reads are throttled by a server-wide rate limit, and the background warm-ups share a small thread pool.
+ */
+public class SegmentWarmer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentWarmer.class);
+
+  public enum Mode {
+    // No warm-up, pages are faulted in by the queries
+    NONE,
+    // Segment is served right away and warmed up in the background
+    ASYNC,
+    // Segment is warmed up before it is served
+    SYNC
+  }
+
+  // Key in the table custom configs of the comma separated columns to warm up (all columns if not set)
+  public static final String WARM_UP_COLUMNS_KEY = "segment.warmup.columns";
+  public static final Set<ColumnIndexType> DEFAULT_WARM_UP_INDEX_TYPES =
+      EnumSet.of(ColumnIndexType.DICTIONARY, ColumnIndexType.INVERTED_INDEX);
+
+  private static final int PAGE_SIZE = 4096;
+  // Number of bytes to acquire from the rate limiter at a time
+  private static final int NUM_BYTES_PER_PERMIT_ACQUIRE = 1024 * 1024;
+
+  private static ExecutorService _executorService = createExecutorService(1);
+  private static RateLimiter _rateLimiter;
+
+  // Accumulates the bytes read so that the reads cannot be optimized away
+  private static volatile int _checksum;
+
+  private SegmentWarmer() {
+  }
+
+  /**
+   * Initializes the background warm-up thread pool and the rate limit.
+   *
+   * @param numThreads Number of threads to warm up segments in the background
+   * @param maxBytesPerSecond Max bytes read per second across all warm-ups, unlimited if <= 0
+   */
+  public static synchronized void init(int numThreads, long maxBytesPerSecond) {
+    _executorService.shutdownNow();
+    _executorService = createExecutorService(Math.max(numThreads, 1));
+    _rateLimiter = maxBytesPerSecond > 0 ? RateLimiter.create(maxBytesPerSecond) : null;
+    LOGGER.info("Initialized segment warmer with {} threads, max bytes per second: {}", numThreads,
+        maxBytesPerSecond);
+  }
+
+  public static synchronized void shutDown() {
+    _executorService.shutdownNow();
+  }
+
+  private static ExecutorService createExecutorService(int numThreads) {
+    return Executors.newFixedThreadPool(numThreads,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("segment-warmup-%d").build());
+  }
+
+  /**
+   * Submits a warm-up task to the background thread pool.
+   */
+  public static synchronized void submit(@Nonnull Runnable warmUpTask) {
+    _executorService.submit(warmUpTask);
+  }
+
+  /**
+   * Warms up the given index types of the given columns of the segment.
+   * <p>The caller should make sure that the segment is not destroyed during the warm-up.
+   *
+   * @param segment Immutable segment to warm up
+   * @param indexTypes Index types to warm up
+   * @param columns Columns to warm up, or empty set for all the columns
+   * @return Number of bytes warmed up
+   */
+  public static long warmUp(@Nonnull ImmutableSegment segment, @Nonnull Set<ColumnIndexType> indexTypes,
+      @Nonnull Set<String> columns)
+      throws IOException {
+    if (!(segment instanceof ImmutableSegmentImpl)) {
+      return 0L;
+    }
+    ImmutableSegmentImpl segmentImpl = (ImmutableSegmentImpl) segment;
+    SegmentDirectory segmentDirectory = segmentImpl.getSegmentDirectory();
+    long numBytesWarmedUp = 0L;
+    try (SegmentDirectory.Reader segmentReader = segmentDirectory.createReader()) {
+      if (segmentReader == null) {
+        // Segment directory is being written
+        return 0L;
+      }
+      for (String column : segmentImpl.getSegmentMetadata().getColumnMetadataMap().keySet()) {
+        if (!columns.isEmpty() && !columns.contains(column)) {
+          continue;
+        }
+        for (ColumnIndexType indexType : indexTypes) {
+          if (segmentReader.hasIndexFor(column, indexType)) {
+            numBytesWarmedUp += touchPages(segmentReader.getIndexFor(column, indexType));
+          }
+        }
+      }
+    }
+    return numBytesWarmedUp;
+  }
+
+  private static long touchPages(PinotDataBuffer buffer) {
+    long size = buffer.size();
+    RateLimiter rateLimiter = _rateLimiter;
+    int checksum = 0;
+    for (long offset = 0; offset < size; offset += PAGE_SIZE) {
+      if (rateLimiter != null && offset % NUM_BYTES_PER_PERMIT_ACQUIRE == 0) {
+        rateLimiter.acquire((int) Math.min(NUM_BYTES_PER_PERMIT_ACQUIRE, size - offset));
+      }
+      checksum += buffer.getByte(offset);
+    }
+    _checksum += checksum;
+    return size;
+  }
+}
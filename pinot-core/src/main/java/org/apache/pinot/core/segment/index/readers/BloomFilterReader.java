@@ -23,25 +23,44 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import org.apache.pinot.core.bloom.BloomFilter;
 import org.apache.pinot.core.bloom.BloomFilterType;
+import org.apache.pinot.core.bloom.OffHeapSplitBlockBloomFilter;
 import org.apache.pinot.core.bloom.SegmentBloomFilterFactory;
+import org.apache.pinot.core.bloom.SplitBlockBloomFilter;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
 /**
  * Bloom filter reader
+ * <p>The split-block bloom filter is read directly from the data buffer, other types of bloom filter are de-serialized
+ * onto the heap.
  */
 public class BloomFilterReader {
+  // Bloom filter type and version
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
 
-  private BloomFilter _bloomFilter;
+  private final BloomFilter _bloomFilter;
+  private final OffHeapSplitBlockBloomFilter _offHeapBloomFilter;
 
   public BloomFilterReader(PinotDataBuffer bloomFilterBuffer)
       throws IOException {
+    BloomFilterType bloomFilterType = BloomFilterType.valueOf(bloomFilterBuffer.getInt(0));
+    int version = bloomFilterBuffer.getInt(Integer.BYTES);
+    if (bloomFilterType == BloomFilterType.SPLIT_BLOCK) {
+      if (version != SplitBlockBloomFilter.VERSION) {
+        throw new IOException(
+            "Unexpected bloom filter version (type: " + bloomFilterType.toString() + ", version: " + version);
+      }
+      _bloomFilter = null;
+      _offHeapBloomFilter =
+          new OffHeapSplitBlockBloomFilter(bloomFilterBuffer.view(HEADER_SIZE, bloomFilterBuffer.size()));
+      return;
+    }
+
     byte[] buffer = new byte[(int) bloomFilterBuffer.size()];
     bloomFilterBuffer.copyTo(0, buffer);
 
     try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer))) {
-      BloomFilterType bloomFilterType = BloomFilterType.valueOf(in.readInt());
-      int version = in.readInt();
+      in.skipBytes(HEADER_SIZE);
       _bloomFilter = SegmentBloomFilterFactory.createSegmentBloomFilter(bloomFilterType);
       if (version != _bloomFilter.getVersion()) {
         throw new IOException(
@@ -49,9 +68,14 @@ public class BloomFilterReader {
       }
       _bloomFilter.readFrom(in);
     }
+    _offHeapBloomFilter = null;
   }
 
   public boolean mightContain(Object key) {
-    return _bloomFilter.mightContain(key.toString());
+    if (_offHeapBloomFilter != null) {
+      return _offHeapBloomFilter.mightContain(key);
+    } else {
+      return _bloomFilter.mightContain(key.toString());
+    }
   }
 }
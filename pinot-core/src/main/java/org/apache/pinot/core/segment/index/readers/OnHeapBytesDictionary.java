@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.readers;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.utils.BytesUtils;
+import org.apache.pinot.common.utils.primitive.ByteArray;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+
+
+/**
+ * Implementation of byte[] dictionary that cache all values on-heap.
+ * <p>This helps avoid creation of byte[] from the data buffer for each value read. The values can be interned in a
+ * {@link SharedDictionaryValuePool} to be shared across segments. With the shared pool, no per-segment value to id
+ * map is built: the values are sorted, so the lookups are binary searches over the interned values.
+ */
+public class OnHeapBytesDictionary extends OnHeapDictionary {
+  private final byte[][] _values;
+  private final ByteArray[] _sortedValues;
+  private final Map<ByteArray, Integer> _valueToIdMap;
+  private final SharedDictionaryValuePool _sharedValuePool;
+
+  public OnHeapBytesDictionary(PinotDataBuffer dataBuffer, int length, int numBytesPerValue,
+      @Nullable SharedDictionaryValuePool sharedValuePool) {
+    super(dataBuffer, length, numBytesPerValue, (byte) 0);
+
+    _values = new byte[length][];
+    byte[] buffer = getBuffer();
+    for (int i = 0; i < length; i++) {
+      _values[i] = getBytes(i, buffer);
+    }
+    _sharedValuePool = sharedValuePool;
+
+    if (sharedValuePool != null) {
+      sharedValuePool.intern(_values);
+      _sortedValues = null;
+      _valueToIdMap = null;
+    } else {
+      _sortedValues = new ByteArray[length];
+      _valueToIdMap = new HashMap<>(length);
+      for (int i = 0; i < length; i++) {
+        ByteArray value = new ByteArray(_values[i]);
+        _sortedValues[i] = value;
+        _valueToIdMap.put(value, i);
+      }
+    }
+  }
+
+  @Override
+  public int indexOf(Object rawValue) {
+    if (_sharedValuePool != null) {
+      int index = Arrays.binarySearch(_values, BytesUtils.toBytes(rawValue), ByteArray::compare);
+      return (index >= 0) ? index : -1;
+    }
+    Integer index = _valueToIdMap.get(new ByteArray(BytesUtils.toBytes(rawValue)));
+    return (index != null) ? index : -1;
+  }
+
+  @Override
+  public int insertionIndexOf(Object rawValue) {
+    if (_sharedValuePool != null) {
+      return Arrays.binarySearch(_values, BytesUtils.toBytes(rawValue), ByteArray::compare);
+    }
+    ByteArray value = new ByteArray(BytesUtils.toBytes(rawValue));
+    Integer index = _valueToIdMap.get(value);
+    return (index != null) ? index : Arrays.binarySearch(_sortedValues, value);
+  }
+
+  @Override
+  public byte[] get(int dictId) {
+    return _values[dictId];
+  }
+
+  @Override
+  public String getStringValue(int dictId) {
+    return BytesUtils.toHexString(_values[dictId]);
+  }
+
+  @Override
+  public byte[] getBytesValue(int dictId) {
+    return _values[dictId];
+  }
+
+  @Override
+  public void readBytesValues(int[] dictIds, int inStartPos, int length, byte[][] outValues, int outStartPos) {
+    int inEndPos = inStartPos + length;
+    for (int i = inStartPos; i < inEndPos; i++) {
+      outValues[outStartPos++] = _values[dictIds[i]];
+    }
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    super.close();
+    if (_sharedValuePool != null) {
+      _sharedValuePool.release(_values);
+    }
+  }
+}
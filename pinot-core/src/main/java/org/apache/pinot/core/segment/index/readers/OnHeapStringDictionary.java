@@ -18,9 +18,11 @@
  */
 package org.apache.pinot.core.segment.index.readers;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
@@ -32,6 +34,9 @@ import org.apache.pinot.core.segment.memory.PinotDataBuffer;
  *   <li>Is heavily queried</li>
  * </ul>
  * <p>This helps avoid creation of String from byte[], which is expensive as well as creates garbage.
+ * <p>The values can be interned in a {@link SharedDictionaryValuePool} to be shared across segments. Both unpadded and
+ * padded values are interned, and no per-segment value to id map is built: the values are sorted, so the lookups are
+ * binary searches over the value arrays, and the only per-segment cost is the value arrays themselves.
  */
 public class OnHeapStringDictionary extends OnHeapDictionary {
   private final byte _paddingByte;
@@ -39,36 +44,61 @@ public class OnHeapStringDictionary extends OnHeapDictionary {
   private final String[] _paddedStrings;
   private final Map<String, Integer> _paddedStringToIdMap;
   private final Map<String, Integer> _unPaddedStringToIdMap;
+  private final SharedDictionaryValuePool _sharedValuePool;
 
   public OnHeapStringDictionary(PinotDataBuffer dataBuffer, int length, int numBytesPerValue, byte paddingByte) {
+    this(dataBuffer, length, numBytesPerValue, paddingByte, null);
+  }
+
+  public OnHeapStringDictionary(PinotDataBuffer dataBuffer, int length, int numBytesPerValue, byte paddingByte,
+      @Nullable SharedDictionaryValuePool sharedValuePool) {
     super(dataBuffer, length, numBytesPerValue, paddingByte);
 
     _paddingByte = paddingByte;
+    _sharedValuePool = sharedValuePool;
     byte[] buffer = new byte[numBytesPerValue];
-    _unpaddedStrings = new String[length];
-    _unPaddedStringToIdMap = new HashMap<>(length);
 
+    _unpaddedStrings = new String[length];
     for (int i = 0; i < length; i++) {
       _unpaddedStrings[i] = getUnpaddedString(i, buffer);
-      _unPaddedStringToIdMap.put(_unpaddedStrings[i], i);
     }
-
     if (paddingByte == 0) {
       _paddedStrings = null;
-      _paddedStringToIdMap = null;
     } else {
       _paddedStrings = new String[length];
-      _paddedStringToIdMap = new HashMap<>(length);
-
       for (int i = 0; i < length; i++) {
         _paddedStrings[i] = getPaddedString(i, buffer);
-        _paddedStringToIdMap.put(_paddedStrings[i], i);
       }
     }
+
+    if (sharedValuePool != null) {
+      sharedValuePool.intern(_unpaddedStrings);
+      if (_paddedStrings != null) {
+        sharedValuePool.intern(_paddedStrings);
+      }
+      _unPaddedStringToIdMap = null;
+      _paddedStringToIdMap = null;
+    } else {
+      _unPaddedStringToIdMap = buildStringToIdMap(_unpaddedStrings);
+      _paddedStringToIdMap = (_paddedStrings != null) ? buildStringToIdMap(_paddedStrings) : null;
+    }
+  }
+
+  private static Map<String, Integer> buildStringToIdMap(String[] values) {
+    int length = values.length;
+    Map<String, Integer> stringToIdMap = new HashMap<>(length);
+    for (int i = 0; i < length; i++) {
+      stringToIdMap.put(values[i], i);
+    }
+    return stringToIdMap;
   }
 
   @Override
   public int indexOf(Object rawValue) {
+    if (_sharedValuePool != null) {
+      int index = Arrays.binarySearch((_paddingByte == 0) ? _unpaddedStrings : _paddedStrings, rawValue);
+      return (index >= 0) ? index : -1;
+    }
     Map<String, Integer> stringToIdMap = (_paddingByte == 0) ? _unPaddedStringToIdMap : _paddedStringToIdMap;
     Integer index = stringToIdMap.get(rawValue);
     return (index != null) ? index : -1;
@@ -77,8 +107,13 @@ public class OnHeapStringDictionary extends OnHeapDictionary {
   @Override
   public int insertionIndexOf(Object rawValue) {
     if (_paddingByte == 0) {
-      Integer id = _unPaddedStringToIdMap.get(rawValue);
-      return (id != null) ? id : Arrays.binarySearch(_unpaddedStrings, rawValue);
+      if (_unPaddedStringToIdMap != null) {
+        Integer id = _unPaddedStringToIdMap.get(rawValue);
+        if (id != null) {
+          return id;
+        }
+      }
+      return Arrays.binarySearch(_unpaddedStrings, rawValue);
     } else {
       String paddedValue = padString((String) rawValue);
       return Arrays.binarySearch(_paddedStrings, paddedValue);
@@ -94,4 +129,16 @@ public class OnHeapStringDictionary extends OnHeapDictionary {
   public String getStringValue(int dictId) {
     return _unpaddedStrings[dictId];
   }
+
+  @Override
+  public void close()
+      throws IOException {
+    super.close();
+    if (_sharedValuePool != null) {
+      _sharedValuePool.release(_unpaddedStrings);
+      if (_paddedStrings != null) {
+        _sharedValuePool.release(_paddedStrings);
+      }
+    }
+  }
 }
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.readers;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.pinot.core.segment.creator.impl.inv.RangeIndexCreator;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+
+
+/**
+ * Reader for the range index created by {@link RangeIndexCreator}.
+ * <p>The number of ranges is small, so all the range bitmaps are mapped when the reader is constructed.
+ */
+public class RangeIndexReader implements Closeable {
+  private final PinotDataBuffer _dataBuffer;
+  private final int[] _rangeStartDictIds;
+  private final ImmutableRoaringBitmap[] _bitmaps;
+
+  public RangeIndexReader(PinotDataBuffer dataBuffer) {
+    _dataBuffer = dataBuffer;
+    int version = dataBuffer.getInt(0);
+    Preconditions.checkState(version == RangeIndexCreator.VERSION, "Unsupported range index version: %s", version);
+    int numRanges = dataBuffer.getInt(Integer.BYTES);
+    long offset = 2 * Integer.BYTES;
+    _rangeStartDictIds = new int[numRanges + 1];
+    for (int i = 0; i <= numRanges; i++) {
+      _rangeStartDictIds[i] = dataBuffer.getInt(offset);
+      offset += Integer.BYTES;
+    }
+    _bitmaps = new ImmutableRoaringBitmap[numRanges];
+    int bitmapStartOffset = dataBuffer.getInt(offset);
+    for (int i = 0; i < numRanges; i++) {
+      offset += Integer.BYTES;
+      int bitmapEndOffset = dataBuffer.getInt(offset);
+      _bitmaps[i] = new ImmutableRoaringBitmap(
+          dataBuffer.toDirectByteBuffer(bitmapStartOffset, bitmapEndOffset - bitmapStartOffset));
+      bitmapStartOffset = bitmapEndOffset;
+    }
+  }
+
+  public int getNumRanges() {
+    return _bitmaps.length;
+  }
+
+  /**
+   * Returns the id of the range that contains the given dictId.
+   */
+  public int findRangeId(int dictId) {
+    int index = Arrays.binarySearch(_rangeStartDictIds, dictId);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /**
+   * Returns the first dictId (inclusive) of the given range.
+   */
+  public int getRangeStartDictId(int rangeId) {
+    return _rangeStartDictIds[rangeId];
+  }
+
+  /**
+   * Returns the last dictId (exclusive) of the given range.
+   */
+  public int getRangeEndDictId(int rangeId) {
+    return _rangeStartDictIds[rangeId + 1];
+  }
+
+  /**
+   * Returns the docIds with at least one value inside the given range.
+   */
+  public ImmutableRoaringBitmap getDocIds(int rangeId) {
+    return _bitmaps[rangeId];
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _dataBuffer.close();
+  }
+}
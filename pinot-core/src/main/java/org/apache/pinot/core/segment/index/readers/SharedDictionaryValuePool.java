@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.readers;
+
+import java.util.Arrays;
+
+
+/**
+ * The <code>SharedDictionaryValuePool</code> class interns the values of the on-heap dictionaries across the segments
+ * of a table, so that the values repeated in many segments (e.g. dimension values of consecutive daily segments) are
+ * stored on heap only once.
+ * <p>Each value is reference counted by the dictionaries holding it, and is removed from the pool when the last
+ * dictionary holding it is closed (segment unloaded).
+ * <p>The values are interned and released in bulk per dictionary to amortize the locking cost.
+ * <p>The pool is an open addressing hash table of the interned values and their reference counts, so the only
+ * per-value overhead is one reference and one int (no map entry or wrapper object per value). byte[] values are
+ * hashed and compared by content.
+ * <p>NOTE: the interned byte[] values are shared across segments and should never be modified.
+ */
+public class SharedDictionaryValuePool {
+  private static final int MIN_CAPACITY = 1024;
+  private static final int MAX_LOAD_FACTOR_PERCENT = 75;
+
+  // Capacity is always a power of 2
+  private Object[] _values = new Object[MIN_CAPACITY];
+  private int[] _refCounts = new int[MIN_CAPACITY];
+  private int _size;
+
+  /**
+   * Replaces the values in the given array with the interned instances, and increases their reference count.
+   */
+  public synchronized void intern(String[] values) {
+    int numValues = values.length;
+    for (int i = 0; i < numValues; i++) {
+      values[i] = (String) acquire(values[i]);
+    }
+  }
+
+  /**
+   * Replaces the values in the given array with the interned instances, and increases their reference count.
+   */
+  public synchronized void intern(byte[][] values) {
+    int numValues = values.length;
+    for (int i = 0; i < numValues; i++) {
+      values[i] = (byte[]) acquire(values[i]);
+    }
+  }
+
+  /**
+   * Decreases the reference count of the given interned values, and removes the values no longer referenced.
+   */
+  public synchronized void release(String[] values) {
+    for (String value : values) {
+      release((Object) value);
+    }
+    shrinkIfNeeded();
+  }
+
+  /**
+   * Decreases the reference count of the given interned values, and removes the values no longer referenced.
+   */
+  public synchronized void release(byte[][] values) {
+    for (byte[] value : values) {
+      release((Object) value);
+    }
+    shrinkIfNeeded();
+  }
+
+  /**
+   * Returns the number of distinct values in the pool.
+   */
+  public synchronized int size() {
+    return _size;
+  }
+
+  private Object acquire(Object value) {
+    int index = find(_values, value);
+    Object internedValue = _values[index];
+    if (internedValue != null) {
+      _refCounts[index]++;
+      return internedValue;
+    }
+    _values[index] = value;
+    _refCounts[index] = 1;
+    if (++_size * 100L > (long) _values.length * MAX_LOAD_FACTOR_PERCENT) {
+      resize(_values.length << 1);
+    }
+    return value;
+  }
+
+  private void release(Object value) {
+    int index = find(_values, value);
+    if (_values[index] != null && --_refCounts[index] == 0) {
+      removeAt(index);
+      _size--;
+    }
+  }
+
+  /**
+   * Returns the index of the slot holding the given value, or of the empty slot where the value should be inserted.
+   */
+  private static int find(Object[] values, Object value) {
+    int mask = values.length - 1;
+    int index = hash(value) & mask;
+    Object slotValue;
+    while ((slotValue = values[index]) != null && !isEqual(slotValue, value)) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /**
+   * Removes the value at the given index, and shifts back the following values of the probe sequence so that no
+   * lookup stops at the emptied slot.
+   */
+  private void removeAt(int index) {
+    int mask = _values.length - 1;
+    int next = (index + 1) & mask;
+    Object value;
+    while ((value = _values[next]) != null) {
+      int home = hash(value) & mask;
+      // The value can be moved into the emptied slot only if its home slot is not in the cyclic range (index, next]
+      boolean canMove = (next > index) ? (home <= index || home > next) : (home <= index && home > next);
+      if (canMove) {
+        _values[index] = value;
+        _refCounts[index] = _refCounts[next];
+        index = next;
+      }
+      next = (next + 1) & mask;
+    }
+    _values[index] = null;
+    _refCounts[index] = 0;
+  }
+
+  private void shrinkIfNeeded() {
+    int capacity = _values.length;
+    if (capacity > MIN_CAPACITY && _size * 100L < (long) capacity * MAX_LOAD_FACTOR_PERCENT / 8) {
+      resize(capacity >> 1);
+    }
+  }
+
+  private void resize(int newCapacity) {
+    Object[] newValues = new Object[newCapacity];
+    int[] newRefCounts = new int[newCapacity];
+    int capacity = _values.length;
+    for (int i = 0; i < capacity; i++) {
+      Object value = _values[i];
+      if (value != null) {
+        int index = find(newValues, value);
+        newValues[index] = value;
+        newRefCounts[index] = _refCounts[i];
+      }
+    }
+    _values = newValues;
+    _refCounts = newRefCounts;
+  }
+
+  private static int hash(Object value) {
+    int hash = (value instanceof byte[]) ? Arrays.hashCode((byte[]) value) : value.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private static boolean isEqual(Object value1, Object value2) {
+    if (value1 == value2) {
+      return true;
+    }
+    if (value1 instanceof byte[]) {
+      return value2 instanceof byte[] && Arrays.equals((byte[]) value1, (byte[]) value2);
+    }
+    return value1.equals(value2);
+  }
+}
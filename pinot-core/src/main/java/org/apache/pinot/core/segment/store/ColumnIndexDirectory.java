@@ -107,6 +107,15 @@ abstract class ColumnIndexDirectory implements Closeable {
   public abstract PinotDataBuffer getBloomFilterBufferFor(String column)
       throws IOException;
 
+  /**
+   * Get range index data buffer for a column
+   * @param column column name
+   * @return in-memory ByteBuffer like buffer for data
+   * @throws IOException
+   */
+  public abstract PinotDataBuffer getRangeIndexBufferFor(String column)
+      throws IOException;
+
   /**
    * Allocate a new data buffer of specified sizeBytes in the columnar index directory
    * @param column column name
@@ -147,6 +156,16 @@ abstract class ColumnIndexDirectory implements Closeable {
   public abstract PinotDataBuffer newBloomFilterBuffer(String column, long sizeBytes)
       throws IOException;
 
+  /**
+   * Allocate a new data buffer of specified sizeBytes in the columnar index directory
+   * @param column column name
+   * @param sizeBytes sizeBytes for the buffer allocation
+   * @return in-memory ByteBuffer like buffer for data
+   * @throws IOException
+   */
+  public abstract PinotDataBuffer newRangeIndexBuffer(String column, long sizeBytes)
+      throws IOException;
+
   /**
    * Check if an index exists for a column
    * @param column column name
@@ -242,6 +242,9 @@ class SegmentLocalFSDirectory extends SegmentDirectory {
       case BLOOM_FILTER:
         buffer = columnIndexDirectory.getBloomFilterBufferFor(column);
         break;
+      case RANGE_INDEX:
+        buffer = columnIndexDirectory.getRangeIndexBufferFor(column);
+        break;
       default:
         throw new RuntimeException("Unknown index type: " + type.name());
     }
@@ -423,6 +426,8 @@ class SegmentLocalFSDirectory extends SegmentDirectory {
           return columnIndexDirectory.newInvertedIndexBuffer(key.name, sizeBytes);
         case BLOOM_FILTER:
           return columnIndexDirectory.newBloomFilterBuffer(key.name, sizeBytes);
+        case RANGE_INDEX:
+          return columnIndexDirectory.newRangeIndexBuffer(key.name, sizeBytes);
         default:
           throw new RuntimeException("Unknown index type: " + indexType.name() + " for directory: " + segmentDirectory);
       }
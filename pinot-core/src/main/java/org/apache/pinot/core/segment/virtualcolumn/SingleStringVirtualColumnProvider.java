@@ -19,6 +19,7 @@
 package org.apache.pinot.core.segment.virtualcolumn;
 
 import java.io.IOException;
+import java.util.Arrays;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.utils.Pairs;
 import org.apache.pinot.core.io.reader.BaseSingleColumnSingleValueReader;
@@ -95,6 +96,11 @@ public abstract class SingleStringVirtualColumnProvider extends BaseVirtualColum
       return 0;
     }
 
+    @Override
+    public void readValues(int[] rows, int rowStartPos, int rowSize, int[] values, int valuesStartPos) {
+      Arrays.fill(values, valuesStartPos, valuesStartPos + rowSize, 0);
+    }
+
     @Override
     public void close()
         throws IOException {
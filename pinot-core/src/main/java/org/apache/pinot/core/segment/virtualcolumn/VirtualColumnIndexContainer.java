@@ -23,6 +23,7 @@ import org.apache.pinot.core.segment.index.column.ColumnIndexContainer;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
 
 
 /**
@@ -59,4 +60,9 @@ public class VirtualColumnIndexContainer implements ColumnIndexContainer {
   public BloomFilterReader getBloomFilter() {
     return null;
   }
+
+  @Override
+  public RangeIndexReader getRangeIndex() {
+    return null;
+  }
 }
@@ -27,6 +27,7 @@ import org.apache.pinot.core.operator.blocks.SingleValueBlock;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
@@ -108,6 +109,11 @@ public class StarTreeDimensionDataSource extends DataSource {
     return null;
   }
 
+  @Override
+  public RangeIndexReader getRangeIndex() {
+    return null;
+  }
+
   @Override
   public Dictionary getDictionary() {
     return _dictionary;
@@ -30,6 +30,7 @@ import org.apache.pinot.core.operator.blocks.SingleValueBlock;
 import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
 import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 
 
@@ -118,6 +119,11 @@ public class StarTreeMetricDataSource extends DataSource {
     return null;
   }
 
+  @Override
+  public RangeIndexReader getRangeIndex() {
+    return null;
+  }
+
   @Override
   protected Block getNextBlock() {
     return new SingleValueBlock(_forwardIndex, _numDocs, _dataType, null);
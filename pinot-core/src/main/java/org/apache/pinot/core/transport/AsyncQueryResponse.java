@@ -22,25 +22,48 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.datatable.DataTableUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
  * The {@code AsyncQueryResponse} class represents an asynchronous query response.
  * <p>Call {@link #getResponse()} to get the query response asynchronously.
+ * <p>If a data table consumer is provided, each data table is handed over to the consumer as soon as it is received
+ * (e.g. to be reduced in a streaming fashion) and released right afterwards instead of being kept in the
+ * {@link ServerResponse}. The consumer is invoked on the given executor so that it does not block the network I/O
+ * thread, and {@link #getResponse()} waits for the consumer to finish.
  */
 @ThreadSafe
 public class AsyncQueryResponse {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncQueryResponse.class);
+
   private final QueryRouter _queryRouter;
   private final long _requestId;
   private final ConcurrentHashMap<Server, ServerResponse> _responseMap;
   private final CountDownLatch _countDownLatch;
   private final long _maxEndTimeMs;
+  private final BiConsumer<Server, DataTable> _dataTableConsumer;
+  private final Executor _dataTableConsumerExecutor;
+
+  private boolean _dataTablesReleased;
 
   public AsyncQueryResponse(QueryRouter queryRouter, long requestId, Set<Server> serversQueried, long startTimeMs,
       long timeoutMs) {
+    this(queryRouter, requestId, serversQueried, startTimeMs, timeoutMs, null, null);
+  }
+
+  public AsyncQueryResponse(QueryRouter queryRouter, long requestId, Set<Server> serversQueried, long startTimeMs,
+      long timeoutMs, @Nullable BiConsumer<Server, DataTable> dataTableConsumer,
+      @Nullable Executor dataTableConsumerExecutor) {
     _queryRouter = queryRouter;
     _requestId = requestId;
     int numServersQueried = serversQueried.size();
@@ -50,6 +73,8 @@ public class AsyncQueryResponse {
     }
     _countDownLatch = new CountDownLatch(numServersQueried);
     _maxEndTimeMs = startTimeMs + timeoutMs;
+    _dataTableConsumer = dataTableConsumer;
+    _dataTableConsumerExecutor = dataTableConsumerExecutor;
   }
 
   /**
@@ -78,13 +103,60 @@ public class AsyncQueryResponse {
     return stringBuilder.toString();
   }
 
+  /**
+   * Releases the resources held by the received data tables, and releases the data tables received afterwards right
+   * away.
+   * <p>Should be called after the query response is no longer used (e.g. after reducing the data tables).
+   */
+  public void releaseDataTables() {
+    synchronized (this) {
+      _dataTablesReleased = true;
+    }
+    for (ServerResponse serverResponse : _responseMap.values()) {
+      DataTableUtils.releaseDataTable(serverResponse.getDataTable());
+    }
+  }
+
   void markRequestSubmitted(Server server) {
     _responseMap.get(server).markRequestSubmitted();
   }
 
   void receiveDataTable(Server server, DataTable dataTable, long responseSize, long deserializationTimeMs) {
-    _responseMap.get(server).receiveDataTable(dataTable, responseSize, deserializationTimeMs);
-    _countDownLatch.countDown();
+    synchronized (this) {
+      if (_dataTablesReleased) {
+        DataTableUtils.releaseDataTable(dataTable);
+        return;
+      }
+      if (_dataTableConsumer == null) {
+        _responseMap.get(server).receiveDataTable(dataTable, responseSize, deserializationTimeMs);
+        _countDownLatch.countDown();
+        return;
+      }
+    }
+
+    // NOTE: Mark the server responded right away so that the query is not failed if the server goes down before the
+    // data table is consumed. Consume the data table on the executor instead of the network I/O thread, and count down
+    // the latch after consuming (even if the consumer fails) so that the query does not wait until timeout.
+    _responseMap.get(server).receiveDataTable(null, responseSize, deserializationTimeMs);
+    try {
+      _dataTableConsumerExecutor.execute(() -> consumeDataTable(server, dataTable));
+    } catch (RejectedExecutionException e) {
+      LOGGER.error("Failed to hand over the data table from server: {} for request: {}", server, _requestId, e);
+      DataTableUtils.releaseDataTable(dataTable);
+      _countDownLatch.countDown();
+    }
+  }
+
+  private void consumeDataTable(Server server, DataTable dataTable) {
+    try {
+      _dataTableConsumer.accept(server, dataTable);
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while consuming the data table from server: {} for request: {}", server,
+          _requestId, e);
+    } finally {
+      DataTableUtils.releaseDataTable(dataTable);
+      _countDownLatch.countDown();
+    }
   }
 
   void markQueryFailed() {
@@ -100,7 +172,7 @@ public class AsyncQueryResponse {
    */
   void markServerDown(Server server) {
     ServerResponse serverResponse = _responseMap.get(server);
-    if (serverResponse != null && serverResponse.getDataTable() == null) {
+    if (serverResponse != null && !serverResponse.hasResponded()) {
       markQueryFailed();
     }
   }
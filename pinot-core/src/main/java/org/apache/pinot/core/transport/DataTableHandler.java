@@ -25,6 +25,8 @@ import org.apache.pinot.common.metrics.BrokerMeter;
 import org.apache.pinot.common.metrics.BrokerMetrics;
 import org.apache.pinot.common.utils.DataTable;
 import org.apache.pinot.core.common.datatable.DataTableFactory;
+import org.apache.pinot.core.common.datatable.DataTableImplV3;
+import org.apache.pinot.core.common.datatable.DataTableUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,8 +62,18 @@ public class DataTableHandler extends SimpleChannelInboundHandler<ByteBuf> {
     try {
       long deserializationStartTimeMs = System.currentTimeMillis();
       DataTable dataTable = DataTableFactory.getDataTable(msg.nioBuffer());
-      _queryRouter
-          .receiveDataTable(_server, dataTable, responseSize, System.currentTimeMillis() - deserializationStartTimeMs);
+      if (dataTable instanceof DataTableImplV3) {
+        // Data table V3 reads directly from the received buffer, so hold the buffer until the data table is released
+        msg.retain();
+        ((DataTableImplV3) dataTable).setReleaseCallback(msg::release);
+      }
+      try {
+        _queryRouter.receiveDataTable(_server, dataTable, responseSize,
+            System.currentTimeMillis() - deserializationStartTimeMs);
+      } catch (Exception e) {
+        DataTableUtils.releaseDataTable(dataTable);
+        throw e;
+      }
     } catch (Exception e) {
       LOGGER.error("Caught exception while deserializing data table of size: {} from server: {}", responseSize, _server,
           e);
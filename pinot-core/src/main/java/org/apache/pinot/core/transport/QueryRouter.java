@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.metrics.BrokerMeter;
@@ -30,6 +32,7 @@ import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.InstanceRequest;
 import org.apache.pinot.common.utils.CommonConstants.Helix.TableType;
 import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.datatable.DataTableUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,7 +61,21 @@ public class QueryRouter {
       @Nullable BrokerRequest offlineBrokerRequest, @Nullable Map<String, List<String>> offlineRoutingTable,
       @Nullable BrokerRequest realtimeBrokerRequest, @Nullable Map<String, List<String>> realtimeRoutingTable,
       long timeoutMs) {
+    return submitQuery(requestId, rawTableName, offlineBrokerRequest, offlineRoutingTable, realtimeBrokerRequest,
+        realtimeRoutingTable, timeoutMs, null, null);
+  }
+
+  /**
+   * Submits the query, where the data tables are handed over to the data table consumer as soon as they are received
+   * if it is provided. The data table consumer is invoked on the given executor instead of the network I/O thread.
+   */
+  public AsyncQueryResponse submitQuery(long requestId, String rawTableName,
+      @Nullable BrokerRequest offlineBrokerRequest, @Nullable Map<String, List<String>> offlineRoutingTable,
+      @Nullable BrokerRequest realtimeBrokerRequest, @Nullable Map<String, List<String>> realtimeRoutingTable,
+      long timeoutMs, @Nullable BiConsumer<Server, DataTable> dataTableConsumer,
+      @Nullable Executor dataTableConsumerExecutor) {
     assert offlineBrokerRequest != null || realtimeBrokerRequest != null;
+    assert dataTableConsumer == null || dataTableConsumerExecutor != null;
 
     // Build map from server to request based on the routing table
     Map<Server, InstanceRequest> requestMap = new HashMap<>();
@@ -81,7 +98,8 @@ public class QueryRouter {
 
     // Create the asynchronous query response with the request map
     AsyncQueryResponse asyncQueryResponse =
-        new AsyncQueryResponse(this, requestId, requestMap.keySet(), System.currentTimeMillis(), timeoutMs);
+        new AsyncQueryResponse(this, requestId, requestMap.keySet(), System.currentTimeMillis(), timeoutMs,
+            dataTableConsumer, dataTableConsumerExecutor);
     _asyncQueryResponseMap.put(requestId, asyncQueryResponse);
     for (Map.Entry<Server, InstanceRequest> entry : requestMap.entrySet()) {
       Server server = entry.getKey();
@@ -111,6 +129,8 @@ public class QueryRouter {
     // Query future might be null if the query is already done (maybe due to failure)
     if (asyncQueryResponse != null) {
       asyncQueryResponse.receiveDataTable(server, dataTable, responseSize, deserializationTimeMs);
+    } else {
+      DataTableUtils.releaseDataTable(dataTable);
     }
   }
 
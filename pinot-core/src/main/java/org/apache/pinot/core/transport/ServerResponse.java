@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.transport;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.pinot.common.utils.DataTable;
 
@@ -38,10 +39,19 @@ public class ServerResponse {
     _startTimeMs = startTimeMs;
   }
 
+  /**
+   * Returns the data table received from the server, or {@code null} if the server has not responded yet or the data
+   * table has already been consumed when it was received (streaming reduce).
+   */
+  @Nullable
   public DataTable getDataTable() {
     return _dataTable;
   }
 
+  public boolean hasResponded() {
+    return _receiveDataTabTimeMs != 0;
+  }
+
   public long getSubmitDelayMs() {
     if (_submitRequestTimeMs != 0) {
       return _submitRequestTimeMs - _startTimeMs;
@@ -76,10 +86,10 @@ public class ServerResponse {
     _submitRequestTimeMs = System.currentTimeMillis();
   }
 
-  void receiveDataTable(DataTable dataTable, long responseSize, long deserializationTimeMs) {
-    _receiveDataTabTimeMs = System.currentTimeMillis();
+  void receiveDataTable(@Nullable DataTable dataTable, long responseSize, long deserializationTimeMs) {
     _dataTable = dataTable;
     _responseSize = responseSize;
     _deserializationTimeMs = deserializationTimeMs;
+    _receiveDataTabTimeMs = System.currentTimeMillis();
   }
 }
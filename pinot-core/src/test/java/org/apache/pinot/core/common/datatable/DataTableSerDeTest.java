@@ -19,6 +19,7 @@
 package org.apache.pinot.core.common.datatable;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Random;
 import org.apache.commons.lang.RandomStringUtils;
@@ -239,4 +240,75 @@ public class DataTableSerDeTest {
       }
     }
   }
+
+  @Test
+  public void testDataTableV3()
+      throws IOException {
+    DataSchema dataSchema = new DataSchema(new String[]{"INT", "STRING", "OBJECT", "STRING_ARRAY"},
+        new DataSchema.ColumnDataType[]{DataSchema.ColumnDataType.INT, DataSchema.ColumnDataType.STRING,
+            DataSchema.ColumnDataType.OBJECT, DataSchema.ColumnDataType.STRING_ARRAY});
+    int[] ints = new int[NUM_ROWS];
+    String[] strings = new String[NUM_ROWS];
+    Object[] objects = new Object[NUM_ROWS];
+    String[][] stringArrays = new String[NUM_ROWS][];
+
+    DataTable dataTable;
+    DataTableBuilder.setCurrentDataTableVersion(DataTableBuilder.VERSION_3);
+    try {
+      DataTableBuilder dataTableBuilder = new DataTableBuilder(dataSchema);
+      for (int rowId = 0; rowId < NUM_ROWS; rowId++) {
+        dataTableBuilder.startRow();
+        ints[rowId] = RANDOM.nextInt();
+        dataTableBuilder.setColumn(0, ints[rowId]);
+        // Use a small cardinality to have repeated dictionary values.
+        strings[rowId] = Integer.toString(RANDOM.nextInt(10));
+        dataTableBuilder.setColumn(1, strings[rowId]);
+        objects[rowId] = RANDOM.nextDouble();
+        dataTableBuilder.setColumn(2, objects[rowId]);
+        int length = RANDOM.nextInt(20);
+        String[] stringArray = new String[length];
+        for (int i = 0; i < length; i++) {
+          stringArray[i] = RandomStringUtils.random(RANDOM.nextInt(20));
+        }
+        stringArrays[rowId] = stringArray;
+        dataTableBuilder.setColumn(3, stringArray);
+        dataTableBuilder.finishRow();
+      }
+      dataTable = dataTableBuilder.build();
+      dataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, "123");
+    } finally {
+      DataTableBuilder.setCurrentDataTableVersion(DataTableBuilder.VERSION_2);
+    }
+    Assert.assertTrue(dataTable instanceof DataTableImplV3);
+
+    // Read from a direct buffer with non-zero position to simulate the buffer received from the network.
+    byte[] bytes = dataTable.toBytes();
+    int padding = 16;
+    ByteBuffer byteBuffer = ByteBuffer.allocateDirect(padding + bytes.length);
+    byteBuffer.position(padding);
+    byteBuffer.put(bytes);
+    byteBuffer.position(padding);
+    DataTable newDataTable = DataTableFactory.getDataTable(byteBuffer);
+    Assert.assertTrue(newDataTable instanceof DataTableImplV3);
+    Assert.assertEquals(newDataTable.getDataSchema(), dataSchema);
+    Assert.assertEquals(newDataTable.getNumberOfRows(), NUM_ROWS);
+    Assert.assertEquals(newDataTable.getMetadata().get(DataTable.REQUEST_ID_METADATA_KEY), "123");
+
+    for (int rowId = 0; rowId < NUM_ROWS; rowId++) {
+      Assert.assertEquals(newDataTable.getInt(rowId, 0), ints[rowId], ERROR_MESSAGE);
+      Assert.assertEquals(newDataTable.getString(rowId, 1), strings[rowId], ERROR_MESSAGE);
+      Assert.assertEquals(newDataTable.getObject(rowId, 2), objects[rowId], ERROR_MESSAGE);
+      Assert.assertTrue(Arrays.equals(newDataTable.getStringArray(rowId, 3), stringArrays[rowId]), ERROR_MESSAGE);
+    }
+
+    // Data table de-serialized from bytes should be serialized into the same size of bytes.
+    Assert.assertEquals(newDataTable.toBytes().length, bytes.length);
+
+    // Release callback should only be invoked once.
+    int[] numReleases = new int[1];
+    ((DataTableImplV3) newDataTable).setReleaseCallback(() -> numReleases[0]++);
+    DataTableUtils.releaseDataTable(newDataTable);
+    DataTableUtils.releaseDataTable(newDataTable);
+    Assert.assertEquals(numReleases[0], 1);
+  }
 }
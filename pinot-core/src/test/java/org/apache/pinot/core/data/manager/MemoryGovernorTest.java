@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager;
+
+import java.io.File;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.config.TableConfig;
+import org.apache.pinot.common.config.TableCustomConfig;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.common.utils.CommonConstants.Helix.TableType;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class MemoryGovernorTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "MemoryGovernorTest");
+  private static final String TABLE_NAME = "testTable_OFFLINE";
+  private static final int SEGMENT_SIZE = 8192;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+    FileUtils.writeByteArrayToFile(new File(INDEX_DIR, "columns.psf"), new byte[SEGMENT_SIZE]);
+  }
+
+  @Test
+  public void testAdmitSegmentLoad()
+      throws Exception {
+    Configuration config = new BaseConfiguration();
+    config.setProperty(MemoryGovernor.TABLE_MEMORY_BUDGET_BYTES_KEY, 2 * SEGMENT_SIZE);
+    MemoryGovernor.init(config);
+    TableConfig tableConfig = new TableConfig.Builder(TableType.OFFLINE).setTableName(TABLE_NAME).build();
+
+    // Within the table budget
+    MemoryGovernor.admitSegmentLoad(TABLE_NAME, tableConfig, INDEX_DIR, ReadMode.mmap);
+
+    // Over the table budget
+    MemoryGovernor.addTableUsage(TABLE_NAME, 2 * SEGMENT_SIZE);
+    try {
+      MemoryGovernor.admitSegmentLoad(TABLE_NAME, tableConfig, INDEX_DIR, ReadMode.mmap);
+      Assert.fail();
+    } catch (MemoryBudgetExceededException e) {
+      // Expected
+    }
+
+    // Table budget overridden in the table config
+    TableCustomConfig customConfig = new TableCustomConfig();
+    customConfig.setCustomConfigs(
+        Collections.singletonMap(MemoryGovernor.TABLE_MEMORY_BUDGET_BYTES_KEY, Integer.toString(4 * SEGMENT_SIZE)));
+    tableConfig.setCustomConfig(customConfig);
+    MemoryGovernor.admitSegmentLoad(TABLE_NAME, tableConfig, INDEX_DIR, ReadMode.mmap);
+
+    // Over the mmap budget
+    MemoryGovernor.addTableUsage(TABLE_NAME, -2 * SEGMENT_SIZE);
+    config.setProperty(MemoryGovernor.MMAP_MEMORY_BUDGET_BYTES_KEY,
+        PinotDataBuffer.getMmapBufferUsage() + SEGMENT_SIZE / 2);
+    MemoryGovernor.init(config);
+    try {
+      MemoryGovernor.admitSegmentLoad(TABLE_NAME, tableConfig, INDEX_DIR, ReadMode.mmap);
+      Assert.fail();
+    } catch (MemoryBudgetExceededException e) {
+      // Expected
+    }
+    Assert.assertTrue(MemoryGovernor.getRejectionCount() >= 2);
+  }
+
+  @Test
+  public void testAdmitConsumingSegment()
+      throws Exception {
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.allocateDirect(SEGMENT_SIZE, ByteOrder.BIG_ENDIAN, null)) {
+      // Over the direct budget, admission should be deferred with the default consuming admission wait even with 0
+      // segment load admission wait
+      Configuration config = new BaseConfiguration();
+      config.setProperty(MemoryGovernor.DIRECT_MEMORY_BUDGET_BYTES_KEY, PinotDataBuffer.getDirectBufferUsage() / 2);
+      MemoryGovernor.init(config);
+      Future<Void> future = executorService.submit(() -> {
+        MemoryGovernor.admitConsumingSegment(TABLE_NAME, "testSegment", MemoryGovernor.MemoryType.DIRECT);
+        return null;
+      });
+      try {
+        future.get(3, TimeUnit.SECONDS);
+        Assert.fail();
+      } catch (TimeoutException e) {
+        // Expected
+      }
+
+      // Admitted once back within the budget
+      MemoryGovernor.init(new BaseConfiguration());
+      future.get(10, TimeUnit.SECONDS);
+
+      // Rejected after the consuming admission wait so that the state transition thread is released
+      config.setProperty(MemoryGovernor.CONSUMING_ADMISSION_WAIT_MS_KEY, 1000L);
+      MemoryGovernor.init(config);
+      try {
+        MemoryGovernor.admitConsumingSegment(TABLE_NAME, "testSegment", MemoryGovernor.MemoryType.DIRECT);
+        Assert.fail();
+      } catch (MemoryBudgetExceededException e) {
+        // Expected
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMemoryPressure() {
+    Configuration config = new BaseConfiguration();
+    MemoryGovernor.init(config);
+    Assert.assertEquals(MemoryGovernor.getMemoryPressure(), 0d);
+
+    // Heap usage (measured after garbage collection) is always above 0
+    System.gc();
+    config.setProperty(MemoryGovernor.HEAP_MEMORY_BUDGET_RATIO_KEY, 1d);
+    MemoryGovernor.init(config);
+    Assert.assertTrue(MemoryGovernor.getMemoryPressure() > 0d);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    MemoryGovernor.init(new BaseConfiguration());
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.manager.realtime;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.realtime.stream.MessageBatch;
+import org.apache.pinot.core.realtime.stream.PartitionLevelConsumer;
+import org.apache.pinot.core.realtime.stream.PartitionLevelStreamConfig;
+import org.apache.pinot.core.realtime.stream.StreamConfigProperties;
+import org.apache.pinot.core.realtime.stream.StreamMessageDecoder;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class PipelinedMessageProcessorTest {
+  private static final String DIMENSION_NAME = "d";
+  private static final String METRIC_NAME = "m";
+  private static final String DROPPED_MESSAGE = "dropped";
+  private static final String ERRORED_MESSAGE = "errored";
+  private static final int NUM_MESSAGES = 1000;
+
+  private PipelinedMessageProcessor _processor;
+
+  @BeforeClass
+  public void setUp() {
+    Map<String, String> streamConfigMap = new HashMap<>();
+    streamConfigMap.put(StreamConfigProperties.STREAM_TYPE, "fake");
+    streamConfigMap.put("stream.fake.topic.name", "fakeTopic");
+    streamConfigMap.put("stream.fake.consumer.type", "lowlevel");
+    streamConfigMap.put("stream.fake.decoder.class.name", FakeStreamMessageDecoder.class.getName());
+    streamConfigMap.put(StreamConfigProperties.PIPELINED_CONSUMPTION_ENABLED, "true");
+    streamConfigMap.put(StreamConfigProperties.PIPELINED_CONSUMPTION_NUM_DECODE_TASKS, "3");
+    PartitionLevelStreamConfig streamConfig = new PartitionLevelStreamConfig(streamConfigMap);
+    Assert.assertTrue(streamConfig.isPipelinedConsumptionEnabled());
+    Assert.assertEquals(streamConfig.getNumPipelinedDecodeTasks(), 3);
+
+    Schema schema = new Schema.SchemaBuilder().addSingleValueDimension(DIMENSION_NAME, FieldSpec.DataType.STRING)
+        .addMetric(METRIC_NAME, FieldSpec.DataType.LONG).build();
+    _processor = new PipelinedMessageProcessor(streamConfig, schema, "testSegment",
+        LoggerFactory.getLogger(PipelinedMessageProcessorTest.class));
+  }
+
+  @Test
+  public void testDecodeInOrder() {
+    FakeMessageBatch messageBatch = new FakeMessageBatch(0L, NUM_MESSAGES);
+    for (int iteration = 0; iteration < 2; iteration++) {
+      _processor.startBatch(messageBatch);
+      try {
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+          GenericRow row = _processor.getRow(i);
+          if (i % 10 == 1) {
+            Assert.assertNull(row);
+            Assert.assertFalse(_processor.isErrored(i));
+          } else if (i % 10 == 2) {
+            Assert.assertNull(row);
+            Assert.assertTrue(_processor.isErrored(i));
+          } else {
+            Assert.assertNotNull(row);
+            Assert.assertFalse(_processor.isErrored(i));
+            Assert.assertEquals(row.getValue(DIMENSION_NAME), Integer.toString(i));
+            // Value should be converted to LONG by the record transformer
+            Assert.assertEquals(row.getValue(METRIC_NAME), (long) i);
+          }
+        }
+      } finally {
+        _processor.finishBatch();
+      }
+    }
+  }
+
+  @Test
+  public void testStopInTheMiddleOfBatch() {
+    FakeMessageBatch messageBatch = new FakeMessageBatch(0L, NUM_MESSAGES);
+    _processor.startBatch(messageBatch);
+    try {
+      Assert.assertEquals(_processor.getRow(0).getValue(DIMENSION_NAME), "0");
+    } finally {
+      _processor.finishBatch();
+    }
+
+    // Should be able to process a smaller batch after the previous one
+    messageBatch = new FakeMessageBatch(0L, 2);
+    _processor.startBatch(messageBatch);
+    try {
+      Assert.assertEquals(_processor.getRow(0).getValue(DIMENSION_NAME), "0");
+      Assert.assertNull(_processor.getRow(1));
+    } finally {
+      _processor.finishBatch();
+    }
+  }
+
+  @Test
+  public void testPrefetch()
+      throws Exception {
+    FakePartitionLevelConsumer consumer = new FakePartitionLevelConsumer();
+
+    // Nothing prefetched
+    Assert.assertNull(_processor.getPrefetchedBatch(0L));
+
+    // Prefetched batch matches the offset
+    _processor.prefetch(consumer, 100L, Long.MAX_VALUE, 1000);
+    MessageBatch messageBatch = _processor.getPrefetchedBatch(100L);
+    Assert.assertNotNull(messageBatch);
+    Assert.assertEquals(messageBatch.getNextStreamMessageOffsetAtIndex(0), 101L);
+
+    // Prefetched batch does not match the offset
+    _processor.prefetch(consumer, 200L, Long.MAX_VALUE, 1000);
+    Assert.assertNull(_processor.getPrefetchedBatch(150L));
+
+    // Exception thrown while prefetching should be re-thrown
+    _processor.prefetch(consumer, -1L, Long.MAX_VALUE, 1000);
+    try {
+      _processor.getPrefetchedBatch(-1L);
+      Assert.fail();
+    } catch (TimeoutException e) {
+      // Expected
+    }
+
+    // Discard the prefetched batch
+    _processor.prefetch(consumer, 300L, Long.MAX_VALUE, 1000);
+    _processor.discardPrefetchedBatch();
+    Assert.assertNull(_processor.getPrefetchedBatch(300L));
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _processor.shutDown();
+  }
+
+  public static class FakeStreamMessageDecoder implements StreamMessageDecoder<byte[]> {
+
+    @Override
+    public void init(Map<String, String> props, Schema indexingSchema, String topicName) {
+    }
+
+    @Override
+    public GenericRow decode(byte[] payload, GenericRow destination) {
+      return decode(payload, 0, payload.length, destination);
+    }
+
+    @Override
+    public GenericRow decode(byte[] payload, int offset, int length, GenericRow destination) {
+      String value = new String(payload, offset, length, StandardCharsets.UTF_8);
+      if (value.equals(DROPPED_MESSAGE)) {
+        return null;
+      }
+      if (value.equals(ERRORED_MESSAGE)) {
+        throw new IllegalStateException();
+      }
+      destination.putField(DIMENSION_NAME, value);
+      destination.putField(METRIC_NAME, Integer.parseInt(value));
+      return destination;
+    }
+  }
+
+  private static class FakeMessageBatch implements MessageBatch<byte[]> {
+    private final long _startOffset;
+    private final byte[][] _messages;
+
+    FakeMessageBatch(long startOffset, int numMessages) {
+      _startOffset = startOffset;
+      _messages = new byte[numMessages][];
+      for (int i = 0; i < numMessages; i++) {
+        String value;
+        if (i % 10 == 1) {
+          value = DROPPED_MESSAGE;
+        } else if (i % 10 == 2) {
+          value = ERRORED_MESSAGE;
+        } else {
+          value = Integer.toString(i);
+        }
+        _messages[i] = value.getBytes(StandardCharsets.UTF_8);
+      }
+    }
+
+    @Override
+    public int getMessageCount() {
+      return _messages.length;
+    }
+
+    @Override
+    public byte[] getMessageAtIndex(int index) {
+      return _messages[index];
+    }
+
+    @Override
+    public int getMessageOffsetAtIndex(int index) {
+      return 0;
+    }
+
+    @Override
+    public int getMessageLengthAtIndex(int index) {
+      return _messages[index].length;
+    }
+
+    @Override
+    public long getNextStreamMessageOffsetAtIndex(int index) {
+      return _startOffset + index + 1;
+    }
+  }
+
+  private static class FakePartitionLevelConsumer implements PartitionLevelConsumer {
+
+    @Override
+    public MessageBatch fetchMessages(long startOffset, long endOffset, int timeoutMillis)
+        throws TimeoutException {
+      if (startOffset < 0) {
+        throw new TimeoutException();
+      }
+      return new FakeMessageBatch(startOffset, 1);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -31,6 +31,7 @@ import org.apache.pinot.core.common.BlockSingleValIterator;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.common.DataSourceMetadata;
 import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.GenericRowBatch;
 import org.apache.pinot.core.data.readers.AvroRecordReader;
 import org.apache.pinot.core.data.readers.RecordReader;
 import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
@@ -182,6 +183,52 @@ public class MutableSegmentImplTest {
     }
   }
 
+  @Test
+  public void testIndexBatch()
+      throws Exception {
+    URL resourceUrl = MutableSegmentImplTest.class.getClassLoader().getResource(AVRO_FILE);
+    Assert.assertNotNull(resourceUrl);
+    File avroFile = new File(resourceUrl.getFile());
+
+    MutableSegmentImpl mutableSegmentImpl = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(_schema, Collections.emptySet(), Collections.emptySet(), false);
+    StreamMessageMetadata defaultMetadata = new StreamMessageMetadata(_lastIngestionTimeMs);
+    GenericRowBatch rowBatch = new GenericRowBatch();
+    try (RecordReader recordReader = new AvroRecordReader(avroFile, _schema)) {
+      while (recordReader.hasNext()) {
+        rowBatch.addRow(recordReader.next(rowBatch.getReusableRow()), defaultMetadata);
+        // Null rows should be skipped
+        rowBatch.addRow(null);
+        if (rowBatch.getNumRows() == 200 || !recordReader.hasNext()) {
+          Assert.assertTrue(mutableSegmentImpl.index(rowBatch));
+          Assert.assertEquals(rowBatch.getNumErroredRows(), 0);
+          rowBatch.clear();
+        }
+      }
+    }
+
+    try {
+      Assert.assertEquals(mutableSegmentImpl.getNumDocsIndexed(), _mutableSegmentImpl.getNumDocsIndexed());
+      Assert.assertEquals(mutableSegmentImpl.getSegmentMetadata().getLatestIngestionTimestamp(),
+          _lastIngestionTimeMs);
+      int numDocs = _mutableSegmentImpl.getNumDocsIndexed();
+      for (int docId = 0; docId < numDocs; docId++) {
+        GenericRow actualRow = mutableSegmentImpl.getRecord(docId, new GenericRow());
+        GenericRow expectedRow = _mutableSegmentImpl.getRecord(docId, new GenericRow());
+        for (FieldSpec fieldSpec : _schema.getAllFieldSpecs()) {
+          String column = fieldSpec.getName();
+          if (fieldSpec.isSingleValueField()) {
+            Assert.assertEquals(actualRow.getValue(column), expectedRow.getValue(column));
+          } else {
+            Assert.assertEquals((Object[]) actualRow.getValue(column), (Object[]) expectedRow.getValue(column));
+          }
+        }
+      }
+    } finally {
+      mutableSegmentImpl.destroy();
+    }
+  }
+
   @AfterClass
   public void tearDown() {
     FileUtils.deleteQuietly(TEMP_DIR);
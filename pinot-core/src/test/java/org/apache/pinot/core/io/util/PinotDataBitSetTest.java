@@ -96,6 +96,42 @@ public class PinotDataBitSetTest {
     }
   }
 
+  @Test
+  public void testBulkReadInt()
+      throws IOException {
+    int numValues = 1000;
+    int[] values = new int[numValues];
+    int[] buffer = new int[numValues + 10];
+    for (int numBitsPerValue = 1; numBitsPerValue <= Integer.SIZE; numBitsPerValue++) {
+      int dataBufferSize = (int) (((long) numValues * numBitsPerValue + Byte.SIZE - 1) / Byte.SIZE);
+      for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+        try (PinotDataBitSet dataBitSet = getEmptyBitSet(dataBufferSize, byteOrder)) {
+          for (int i = 0; i < numValues; i++) {
+            int value = (int) (RANDOM.nextLong() & ((1L << numBitsPerValue) - 1));
+            values[i] = value;
+            dataBitSet.writeInt(i, numBitsPerValue, value);
+          }
+
+          // Read all values, which covers both the head and the tail of the last aligned block
+          dataBitSet.readInt(0, numBitsPerValue, numValues, buffer, 10);
+          for (int i = 0; i < numValues; i++) {
+            assertEquals(buffer[i + 10], values[i]);
+          }
+
+          // Read random ranges with unaligned start index
+          for (int i = 0; i < 100; i++) {
+            int startIndex = RANDOM.nextInt(numValues);
+            int numValuesToRead = RANDOM.nextInt(numValues - startIndex) + 1;
+            dataBitSet.readInt(startIndex, numBitsPerValue, numValuesToRead, buffer, 0);
+            for (int j = 0; j < numValuesToRead; j++) {
+              assertEquals(buffer[j], values[startIndex + j]);
+            }
+          }
+        }
+      }
+    }
+  }
+
   @Test
   public void testSetUnsetBit()
       throws IOException {
@@ -155,7 +191,11 @@ public class PinotDataBitSetTest {
   }
 
   private PinotDataBitSet getEmptyBitSet(int size) {
-    PinotDataBuffer pinotDataBuffer = PinotDataBuffer.allocateDirect(size, ByteOrder.BIG_ENDIAN, null);
+    return getEmptyBitSet(size, ByteOrder.BIG_ENDIAN);
+  }
+
+  private PinotDataBitSet getEmptyBitSet(int size, ByteOrder byteOrder) {
+    PinotDataBuffer pinotDataBuffer = PinotDataBuffer.allocateDirect(size, byteOrder, null);
     for (int i = 0; i < size; i++) {
       pinotDataBuffer.readFrom(0, new byte[size]);
     }
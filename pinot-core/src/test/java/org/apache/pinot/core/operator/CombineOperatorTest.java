@@ -0,0 +1,318 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pinot.common.request.AggregationInfo;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.GroupBy;
+import org.apache.pinot.common.response.ProcessingException;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.query.aggregation.AggregationFunctionContext;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunctionUtils;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.scheduler.resources.QueryExecutorService;
+import org.apache.pinot.util.TestUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests for the work pulling model of {@link CombineOperator} and {@link CombineGroupByOperator}, where a fixed number
+ * of workers pull the operators from the shared list.
+ */
+public class CombineOperatorTest {
+  private static final int NUM_THREADS = 4;
+  // Less than the number of operators so that each worker processes multiple operators
+  private static final int MAX_CONCURRENT_TASKS = 2;
+  private static final int NUM_OPERATORS = 20;
+  private static final long TIMEOUT_MS = 10_000L;
+  private static final long SHORT_TIMEOUT_MS = 100L;
+  private static final String GROUP_KEY = "groupKey";
+
+  private ExecutorService _threadPool;
+  private QueryExecutorService _executorService;
+  private BrokerRequest _aggregationBrokerRequest;
+  private BrokerRequest _groupByBrokerRequest;
+  private AggregationFunctionContext[] _aggregationFunctionContexts;
+  // Released after the tests so that the blocking operators can finish if not interrupted
+  private CountDownLatch _blockingLatch;
+
+  @BeforeClass
+  public void setUp() {
+    _threadPool = Executors.newFixedThreadPool(NUM_THREADS);
+    _executorService = new QueryExecutorService() {
+      @Override
+      public int getMaxConcurrentTasks() {
+        return MAX_CONCURRENT_TASKS;
+      }
+
+      @Override
+      public void execute(Runnable command) {
+        _threadPool.execute(command);
+      }
+    };
+
+    AggregationInfo aggregationInfo = new AggregationInfo();
+    aggregationInfo.setAggregationType("count");
+    aggregationInfo.setAggregationParams(Collections.singletonMap("column", "*"));
+    List<AggregationInfo> aggregationInfos = Collections.singletonList(aggregationInfo);
+    _aggregationBrokerRequest = new BrokerRequest();
+    _aggregationBrokerRequest.setAggregationsInfo(aggregationInfos);
+    _groupByBrokerRequest = new BrokerRequest();
+    _groupByBrokerRequest.setAggregationsInfo(aggregationInfos);
+    GroupBy groupBy = new GroupBy();
+    groupBy.setExpressions(Collections.singletonList("column"));
+    groupBy.setTopN(10);
+    _groupByBrokerRequest.setGroupBy(groupBy);
+    _aggregationFunctionContexts = AggregationFunctionUtils.getAggregationFunctionContexts(aggregationInfos, null);
+
+    _blockingLatch = new CountDownLatch(1);
+  }
+
+  @Test
+  public void testGetNumWorkers() {
+    int maxNumWorkers = CombineOperatorUtils.getMaxNumWorkers(_executorService);
+    assertTrue(maxNumWorkers >= 1 && maxNumWorkers <= MAX_CONCURRENT_TASKS);
+    assertEquals(CombineOperatorUtils.getNumWorkers(1, _executorService), 1);
+    // Should not overflow for large number of operators
+    assertEquals(CombineOperatorUtils.getNumWorkers(Integer.MAX_VALUE, _executorService), maxNumWorkers);
+  }
+
+  @Test
+  public void testMoreOperatorsThanWorkers() {
+    AtomicInteger numCalls = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_OPERATORS);
+    for (int i = 0; i < NUM_OPERATORS; i++) {
+      operators.add(new TestOperator(OperatorBehavior.AGGREGATE, numCalls));
+    }
+    IntermediateResultsBlock resultsBlock =
+        new CombineOperator(operators, _executorService, TIMEOUT_MS, _aggregationBrokerRequest).nextBlock();
+
+    // Each operator should be processed exactly once
+    assertEquals(numCalls.get(), NUM_OPERATORS);
+    assertEquals(resultsBlock.getProcessingExceptions(), null);
+    assertEquals(resultsBlock.getAggregationResult(), Collections.singletonList((long) NUM_OPERATORS));
+    assertEquals(resultsBlock.getNumSegmentsProcessed(), NUM_OPERATORS);
+    assertEquals(resultsBlock.getNumSegmentsMatched(), NUM_OPERATORS);
+  }
+
+  @Test
+  public void testOperatorThrows() {
+    AtomicInteger numCalls = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_OPERATORS);
+    for (int i = 0; i < NUM_OPERATORS; i++) {
+      operators.add(new TestOperator(i == 1 ? OperatorBehavior.THROW : OperatorBehavior.AGGREGATE, numCalls));
+    }
+    IntermediateResultsBlock resultsBlock =
+        new CombineOperator(operators, _executorService, TIMEOUT_MS, _aggregationBrokerRequest).nextBlock();
+
+    // The failure should not stop the other operators from being processed, nor drop the results already merged
+    assertEquals(numCalls.get(), NUM_OPERATORS);
+    List<ProcessingException> processingExceptions = resultsBlock.getProcessingExceptions();
+    assertNotNull(processingExceptions);
+    assertEquals(processingExceptions.size(), 1);
+    assertEquals(resultsBlock.getAggregationResult(), Collections.singletonList((long) NUM_OPERATORS - 1));
+  }
+
+  @Test
+  public void testTimeout()
+      throws Exception {
+    AtomicInteger numCalls = new AtomicInteger();
+    AtomicInteger numInterrupted = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_OPERATORS);
+    for (int i = 0; i < NUM_OPERATORS; i++) {
+      operators.add(new TestOperator(OperatorBehavior.BLOCK, numCalls, numInterrupted));
+    }
+    IntermediateResultsBlock resultsBlock =
+        new CombineOperator(operators, _executorService, SHORT_TIMEOUT_MS, _aggregationBrokerRequest).nextBlock();
+
+    List<ProcessingException> processingExceptions = resultsBlock.getProcessingExceptions();
+    assertNotNull(processingExceptions);
+    assertEquals(processingExceptions.size(), 1);
+    assertCancelled(numCalls, numInterrupted);
+  }
+
+  @Test
+  public void testGroupByMoreOperatorsThanWorkers() {
+    AtomicInteger numCalls = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_OPERATORS);
+    for (int i = 0; i < NUM_OPERATORS; i++) {
+      operators.add(new TestOperator(OperatorBehavior.GROUP_BY, numCalls));
+    }
+    IntermediateResultsBlock resultsBlock =
+        new CombineGroupByOperator(operators, _groupByBrokerRequest, _executorService, TIMEOUT_MS, 100).nextBlock();
+
+    assertEquals(numCalls.get(), NUM_OPERATORS);
+    assertEquals(resultsBlock.getProcessingExceptions(), null);
+    assertEquals(getGroupByResult(resultsBlock), (long) NUM_OPERATORS);
+    assertEquals(resultsBlock.getNumSegmentsProcessed(), NUM_OPERATORS);
+  }
+
+  @Test
+  public void testGroupByOperatorThrows() {
+    AtomicInteger numCalls = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_OPERATORS);
+    for (int i = 0; i < NUM_OPERATORS; i++) {
+      operators.add(new TestOperator(i == 1 ? OperatorBehavior.THROW : OperatorBehavior.GROUP_BY, numCalls));
+    }
+    IntermediateResultsBlock resultsBlock =
+        new CombineGroupByOperator(operators, _groupByBrokerRequest, _executorService, TIMEOUT_MS, 100).nextBlock();
+
+    assertEquals(numCalls.get(), NUM_OPERATORS);
+    List<ProcessingException> processingExceptions = resultsBlock.getProcessingExceptions();
+    assertNotNull(processingExceptions);
+    assertEquals(processingExceptions.size(), 1);
+    assertEquals(getGroupByResult(resultsBlock), (long) NUM_OPERATORS - 1);
+  }
+
+  @Test
+  public void testGroupByTimeout()
+      throws Exception {
+    AtomicInteger numCalls = new AtomicInteger();
+    AtomicInteger numInterrupted = new AtomicInteger();
+    List<Operator> operators = new ArrayList<>(NUM_OPERATORS);
+    for (int i = 0; i < NUM_OPERATORS; i++) {
+      operators.add(new TestOperator(OperatorBehavior.BLOCK, numCalls, numInterrupted));
+    }
+    IntermediateResultsBlock resultsBlock =
+        new CombineGroupByOperator(operators, _groupByBrokerRequest, _executorService, SHORT_TIMEOUT_MS, 100)
+            .nextBlock();
+
+    List<ProcessingException> processingExceptions = resultsBlock.getProcessingExceptions();
+    assertNotNull(processingExceptions);
+    assertEquals(processingExceptions.size(), 1);
+    assertCancelled(numCalls, numInterrupted);
+  }
+
+  /**
+   * Asserts that the workers blocked on the operators are interrupted, and no more operator is pulled afterwards.
+   */
+  private static void assertCancelled(AtomicInteger numCalls, AtomicInteger numInterrupted)
+      throws Exception {
+    TestUtils.waitForCondition(aVoid -> numInterrupted.get() == numCalls.get(), 10L, TIMEOUT_MS,
+        "Failed to interrupt the blocked workers");
+    int numCallsAfterCancel = numCalls.get();
+    assertTrue(numCallsAfterCancel <= MAX_CONCURRENT_TASKS);
+    Thread.sleep(SHORT_TIMEOUT_MS);
+    assertEquals(numCalls.get(), numCallsAfterCancel);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static long getGroupByResult(IntermediateResultsBlock resultsBlock) {
+    try {
+      Map<String, Object> groupByResultMap = resultsBlock.getDataTable().getObject(0, 1);
+      return (Long) groupByResultMap.get(GROUP_KEY);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _blockingLatch.countDown();
+    _threadPool.shutdownNow();
+  }
+
+  private enum OperatorBehavior {
+    AGGREGATE, GROUP_BY, THROW, BLOCK
+  }
+
+  private class TestOperator extends BaseOperator<IntermediateResultsBlock> {
+    private final OperatorBehavior _behavior;
+    private final AtomicInteger _numCalls;
+    private final AtomicInteger _numInterrupted;
+
+    TestOperator(OperatorBehavior behavior, AtomicInteger numCalls) {
+      this(behavior, numCalls, new AtomicInteger());
+    }
+
+    TestOperator(OperatorBehavior behavior, AtomicInteger numCalls, AtomicInteger numInterrupted) {
+      _behavior = behavior;
+      _numCalls = numCalls;
+      _numInterrupted = numInterrupted;
+    }
+
+    @Override
+    protected IntermediateResultsBlock getNextBlock() {
+      _numCalls.getAndIncrement();
+      switch (_behavior) {
+        case AGGREGATE:
+          return new IntermediateResultsBlock(_aggregationFunctionContexts,
+              new ArrayList<>(Collections.singletonList(1L)), false);
+        case GROUP_BY:
+          return new IntermediateResultsBlock(_aggregationFunctionContexts, getAggregationGroupByResult());
+        case THROW:
+          throw new IllegalStateException("Operator failure");
+        case BLOCK:
+          try {
+            _blockingLatch.await();
+          } catch (InterruptedException e) {
+            _numInterrupted.getAndIncrement();
+            // Keep the interrupted status for the worker
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+          }
+          return new IntermediateResultsBlock(_aggregationFunctionContexts,
+              new ArrayList<>(Collections.singletonList(1L)), false);
+        default:
+          throw new IllegalStateException();
+      }
+    }
+
+    private AggregationGroupByResult getAggregationGroupByResult() {
+      GroupKeyGenerator.GroupKey groupKey = new GroupKeyGenerator.GroupKey();
+      groupKey._groupId = 0;
+      groupKey._stringKey = GROUP_KEY;
+      AggregationGroupByResult aggregationGroupByResult = mock(AggregationGroupByResult.class);
+      when(aggregationGroupByResult.getGroupKeyIterator())
+          .thenAnswer(invocation -> Collections.singletonList(groupKey).iterator());
+      when(aggregationGroupByResult.getResultForKey(any(), eq(0))).thenReturn(1L);
+      return aggregationGroupByResult;
+    }
+
+    @Override
+    public ExecutionStatistics getExecutionStatistics() {
+      return new ExecutionStatistics(1L, 0L, 0L, 1L, 1L, 1L);
+    }
+
+    @Override
+    public String getOperatorName() {
+      return "TestOperator";
+    }
+  }
+}
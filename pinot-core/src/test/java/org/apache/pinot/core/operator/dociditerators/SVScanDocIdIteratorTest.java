@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.dociditerators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.common.predicate.EqPredicate;
+import org.apache.pinot.core.common.predicate.InPredicate;
+import org.apache.pinot.core.common.predicate.NEqPredicate;
+import org.apache.pinot.core.common.predicate.NotInPredicate;
+import org.apache.pinot.core.common.predicate.RangePredicate;
+import org.apache.pinot.core.io.reader.BaseSingleColumnSingleValueReader;
+import org.apache.pinot.core.io.reader.ReaderContext;
+import org.apache.pinot.core.operator.blocks.BlockMetadataImpl;
+import org.apache.pinot.core.operator.docvalsets.SingleValueSet;
+import org.apache.pinot.core.operator.filter.predicate.EqualsPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.InPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.NotEqualsPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.NotInPredicateEvaluatorFactory;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory;
+import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Test for the batch scan of dictionary-based predicates in {@link SVScanDocIdIterator}.
+ */
+public class SVScanDocIdIteratorTest {
+  private static final String COLUMN_NAME = "column";
+  private static final int NUM_DOCS = 1000;
+  private static final int DICTIONARY_SIZE = 10;
+  private static final long RANDOM_SEED = System.currentTimeMillis();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+
+  private final int[] _dictIds = new int[NUM_DOCS];
+  private ImmutableDictionaryReader _dictionary;
+
+  @BeforeClass
+  public void setUp() {
+    for (int i = 0; i < NUM_DOCS; i++) {
+      _dictIds[i] = RANDOM.nextInt(DICTIONARY_SIZE);
+    }
+    _dictionary = mock(ImmutableDictionaryReader.class);
+    when(_dictionary.length()).thenReturn(DICTIONARY_SIZE);
+    for (int i = 0; i < DICTIONARY_SIZE; i++) {
+      String value = Integer.toString(i);
+      when(_dictionary.indexOf(value)).thenReturn(i);
+      when(_dictionary.insertionIndexOf(value)).thenReturn(i);
+    }
+  }
+
+  @Test
+  public void testEqPredicate() {
+    PredicateEvaluator evaluator = EqualsPredicateEvaluatorFactory
+        .newDictionaryBasedEvaluator(new EqPredicate(COLUMN_NAME, Collections.singletonList("3")), _dictionary);
+    testIterator(evaluator);
+  }
+
+  @Test
+  public void testNeqPredicate() {
+    PredicateEvaluator evaluator = NotEqualsPredicateEvaluatorFactory
+        .newDictionaryBasedEvaluator(new NEqPredicate(COLUMN_NAME, Collections.singletonList("3")), _dictionary);
+    testIterator(evaluator);
+  }
+
+  @Test
+  public void testInPredicate() {
+    PredicateEvaluator evaluator = InPredicateEvaluatorFactory
+        .newDictionaryBasedEvaluator(new InPredicate(COLUMN_NAME, Arrays.asList("1", "4", "8")), _dictionary);
+    testIterator(evaluator);
+  }
+
+  @Test
+  public void testNotInPredicate() {
+    PredicateEvaluator evaluator = NotInPredicateEvaluatorFactory
+        .newDictionaryBasedEvaluator(new NotInPredicate(COLUMN_NAME, Arrays.asList("1", "4", "8")), _dictionary);
+    testIterator(evaluator);
+  }
+
+  @Test
+  public void testRangePredicate() {
+    PredicateEvaluator evaluator = RangePredicateEvaluatorFactory.newDictionaryBasedEvaluator(
+        new RangePredicate(COLUMN_NAME, Collections.singletonList("[2" + RangePredicate.DELIMITER + "7)")),
+        _dictionary);
+    testIterator(evaluator);
+  }
+
+  private void testIterator(PredicateEvaluator evaluator) {
+    List<Integer> expectedDocIds = new ArrayList<>();
+    for (int i = 0; i < NUM_DOCS; i++) {
+      if (evaluator.applySV(_dictIds[i])) {
+        expectedDocIds.add(i);
+      }
+    }
+    String errorMessage = "Random seed: " + RANDOM_SEED;
+
+    // Iterate over all the matching docs
+    SVScanDocIdIterator iterator = getIterator(evaluator);
+    for (int expectedDocId : expectedDocIds) {
+      Assert.assertEquals(iterator.next(), expectedDocId, errorMessage);
+    }
+    Assert.assertEquals(iterator.next(), Constants.EOF, errorMessage);
+    Assert.assertEquals(iterator.getNumEntriesScanned(), NUM_DOCS, errorMessage);
+
+    // Advance with random gaps, both inside and beyond the buffered batch
+    iterator = getIterator(evaluator);
+    int targetDocId = 0;
+    while (true) {
+      targetDocId += RANDOM.nextInt(2) == 0 ? RANDOM.nextInt(5) : RANDOM.nextInt(500);
+      int expectedDocId = Constants.EOF;
+      for (int docId : expectedDocIds) {
+        if (docId >= targetDocId) {
+          expectedDocId = docId;
+          break;
+        }
+      }
+      int docId = iterator.advance(targetDocId);
+      Assert.assertEquals(docId, expectedDocId, errorMessage);
+      if (docId == Constants.EOF) {
+        break;
+      }
+      Assert.assertEquals(iterator.currentDocId(), docId, errorMessage);
+      targetDocId = docId + 1;
+    }
+  }
+
+  private SVScanDocIdIterator getIterator(PredicateEvaluator evaluator) {
+    SingleValueSet blockValSet = new SingleValueSet(new IntArrayReader(_dictIds), NUM_DOCS, FieldSpec.DataType.INT);
+    return new SVScanDocIdIterator(COLUMN_NAME, blockValSet,
+        new BlockMetadataImpl(NUM_DOCS, true, 0, FieldSpec.DataType.INT, _dictionary), evaluator);
+  }
+
+  private static class IntArrayReader extends BaseSingleColumnSingleValueReader<ReaderContext> {
+    private final int[] _values;
+
+    IntArrayReader(int[] values) {
+      _values = values;
+    }
+
+    @Override
+    public int getInt(int row) {
+      return _values[row];
+    }
+
+    @Override
+    public int getInt(int rowId, ReaderContext context) {
+      return _values[rowId];
+    }
+
+    @Override
+    public void readValues(int[] rows, int rowStartPos, int rowSize, int[] values, int valuesStartPos) {
+      int rowEndPos = rowStartPos + rowSize;
+      for (int i = rowStartPos; i < rowEndPos; i++) {
+        values[valuesStartPos++] = _values[rows[i]];
+      }
+    }
+
+    @Override
+    public ReaderContext createContext() {
+      return null;
+    }
+  }
+}
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.common.Constants;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -107,4 +109,22 @@ public class AndFilterOperatorTest {
     Assert.assertEquals(iterator.next(), 28);
     Assert.assertEquals(iterator.next(), Constants.EOF);
   }
+
+  @Test
+  public void testEmptyBitmapIntersection() {
+    MutableRoaringBitmap bitmap1 = MutableRoaringBitmap.bitmapOf(1, 3, 5);
+    MutableRoaringBitmap bitmap2 = MutableRoaringBitmap.bitmapOf(2, 4, 6);
+    int[] docIds = new int[]{1, 2, 3, 4, 5, 6};
+
+    List<BaseFilterOperator> operators = new ArrayList<>();
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap1}, 0, 9, false));
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap2}, 0, 9, false));
+    operators.add(new TestFilterOperator(docIds, true));
+    AndFilterOperator andOperator = new AndFilterOperator(operators);
+    Assert.assertEquals(andOperator.getEstimatedNumMatchingDocs(), 3);
+
+    // Should not iterate over the remaining doc id sets once the bitmap intersection is empty
+    BlockDocIdIterator iterator = andOperator.nextBlock().getBlockDocIdSet().iterator();
+    Assert.assertEquals(iterator.next(), Constants.EOF);
+  }
 }
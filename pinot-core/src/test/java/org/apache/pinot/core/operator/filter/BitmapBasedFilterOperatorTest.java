@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.common.DataSource;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.segment.index.readers.InvertedIndexReader;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class BitmapBasedFilterOperatorTest {
+
+  @Test
+  public void testBitmapsLoadedOnce() {
+    PredicateEvaluator predicateEvaluator = mock(PredicateEvaluator.class);
+    when(predicateEvaluator.getMatchingDictIds()).thenReturn(new int[]{1, 2});
+    InvertedIndexReader invertedIndex = mock(InvertedIndexReader.class);
+    when(invertedIndex.getDocIds(1)).thenReturn(MutableRoaringBitmap.bitmapOf(1, 3, 5));
+    when(invertedIndex.getDocIds(2)).thenReturn(MutableRoaringBitmap.bitmapOf(2, 4));
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getInvertedIndex()).thenReturn(invertedIndex);
+
+    // The bitmaps loaded for the estimation should be reused for the filter block
+    BitmapBasedFilterOperator operator = new BitmapBasedFilterOperator(predicateEvaluator, dataSource, 0, 9);
+    Assert.assertEquals(operator.getEstimatedNumMatchingDocs(), 5);
+    BlockDocIdIterator iterator = operator.nextBlock().getBlockDocIdSet().iterator();
+    for (int expectedDocId = 1; expectedDocId <= 5; expectedDocId++) {
+      Assert.assertEquals(iterator.next(), expectedDocId);
+    }
+    Assert.assertEquals(iterator.next(), Constants.EOF);
+    verify(predicateEvaluator, times(1)).getMatchingDictIds();
+    verify(invertedIndex, times(1)).getDocIds(1);
+    verify(invertedIndex, times(1)).getDocIds(2);
+  }
+}
@@ -26,6 +26,8 @@ import java.util.TreeSet;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.common.Constants;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -104,4 +106,36 @@ public class OrFilterOperatorTest {
       Assert.assertEquals(docId, expectedIterator.next().intValue());
     }
   }
+
+  @Test
+  public void testUnionWithBitmaps() {
+    MutableRoaringBitmap bitmap1 = MutableRoaringBitmap.bitmapOf(1, 3, 5);
+    MutableRoaringBitmap bitmap2 = MutableRoaringBitmap.bitmapOf(2, 3, 6);
+    int[] docIds = new int[]{4, 6, 8};
+
+    // Single bitmap should be merged with the iterator
+    List<BaseFilterOperator> operators = new ArrayList<>();
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap1}, 0, 9, false));
+    operators.add(new TestFilterOperator(docIds));
+    OrFilterOperator orOperator = new OrFilterOperator(operators);
+    Assert.assertEquals(orOperator.getEstimatedNumMatchingDocs(), 6);
+    BlockDocIdIterator iterator = orOperator.nextBlock().getBlockDocIdSet().iterator();
+    for (int expectedDocId : new int[]{1, 3, 4, 5, 6, 8}) {
+      Assert.assertEquals(iterator.next(), expectedDocId);
+    }
+    Assert.assertEquals(iterator.next(), Constants.EOF);
+
+    // Multiple bitmaps should be unioned
+    operators = new ArrayList<>();
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap1}, 0, 9, false));
+    operators.add(new BitmapBasedFilterOperator(new ImmutableRoaringBitmap[]{bitmap2}, 0, 9, false));
+    operators.add(new TestFilterOperator(docIds));
+    orOperator = new OrFilterOperator(operators);
+    Assert.assertEquals(orOperator.getEstimatedNumMatchingDocs(), 9);
+    iterator = orOperator.nextBlock().getBlockDocIdSet().iterator();
+    for (int expectedDocId : new int[]{1, 2, 3, 4, 5, 6, 8}) {
+      Assert.assertEquals(iterator.next(), expectedDocId);
+    }
+    Assert.assertEquals(iterator.next(), Constants.EOF);
+  }
 }
@@ -26,9 +26,19 @@ import org.apache.pinot.core.operator.docidsets.FilterBlockDocIdSet;
 
 public class TestFilterOperator extends BaseFilterOperator {
   private int[] _docIds;
+  private boolean _failOnIteration;
 
   public TestFilterOperator(int[] docIds) {
+    this(docIds, false);
+  }
+
+  /**
+   * @param docIds Matching doc ids
+   * @param failOnIteration Whether to fail when the doc ids are iterated, for testing the short-circuit evaluation
+   */
+  public TestFilterOperator(int[] docIds, boolean failOnIteration) {
     _docIds = docIds;
+    _failOnIteration = failOnIteration;
   }
 
   @Override
@@ -64,6 +74,9 @@ public class TestFilterOperator extends BaseFilterOperator {
 
       @Override
       public BlockDocIdIterator iterator() {
+        if (_failOnIteration) {
+          throw new IllegalStateException("Doc ids should not be iterated");
+        }
         return new ArrayBasedDocIdIterator(_docIds, _docIds.length);
       }
 
@@ -74,6 +87,11 @@ public class TestFilterOperator extends BaseFilterOperator {
     });
   }
 
+  @Override
+  public int getEstimatedNumMatchingDocs() {
+    return _docIds.length;
+  }
+
   @Override
   public String getOperatorName() {
     return "TestFilterOperator";
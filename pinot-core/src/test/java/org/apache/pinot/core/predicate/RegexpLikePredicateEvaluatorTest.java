@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.predicate;
+
+import java.util.Collections;
+import org.apache.pinot.core.common.predicate.RegexpLikePredicate;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.RegexpLikePredicateEvaluatorFactory;
+import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.segment.index.readers.ImmutableDictionaryReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+public class RegexpLikePredicateEvaluatorTest {
+  private static final int DICT_LEN = 100;
+
+  @Test
+  public void testDictionaryBasedEvaluator() {
+    Dictionary dictionary = createDictionary(mock(Dictionary.class));
+    PredicateEvaluator evaluator = RegexpLikePredicateEvaluatorFactory
+        .newDictionaryBasedEvaluator(new RegexpLikePredicate("column", Collections.singletonList("^value_1")),
+            dictionary);
+
+    // The regex should be evaluated only once per dictionary id
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(evaluator.applySV(1));
+      Assert.assertFalse(evaluator.applySV(2));
+      Assert.assertTrue(evaluator.applySV(15));
+    }
+    verify(dictionary, times(1)).getStringValue(1);
+    verify(dictionary, times(1)).getStringValue(2);
+
+    int[] matchingDictIds = evaluator.getMatchingDictIds();
+    verifyMatchingDictIds(matchingDictIds);
+    verify(dictionary, times(1)).getStringValue(1);
+    Assert.assertTrue(evaluator.applyMV(new int[]{2, 3, 10}, 3));
+    Assert.assertFalse(evaluator.applyMV(new int[]{2, 3, 10}, 2));
+  }
+
+  @Test
+  public void testMatchingDictIdsCache() {
+    Dictionary dictionary = createDictionary(mock(ImmutableDictionaryReader.class));
+    RegexpLikePredicate predicate = new RegexpLikePredicate("column", Collections.singletonList("^value_1"));
+    PredicateEvaluator evaluator =
+        RegexpLikePredicateEvaluatorFactory.newDictionaryBasedEvaluator(predicate, dictionary);
+    verifyMatchingDictIds(evaluator.getMatchingDictIds());
+    verify(dictionary, times(1)).getStringValue(50);
+
+    // The matching dictionary ids should be served from the cache for the immutable dictionary
+    evaluator = RegexpLikePredicateEvaluatorFactory.newDictionaryBasedEvaluator(predicate, dictionary);
+    verifyMatchingDictIds(evaluator.getMatchingDictIds());
+    Assert.assertTrue(evaluator.applySV(10));
+    Assert.assertFalse(evaluator.applySV(50));
+    verify(dictionary, times(1)).getStringValue(50);
+
+    // The matching dictionary ids should not be shared across dictionaries
+    Dictionary otherDictionary = createDictionary(mock(ImmutableDictionaryReader.class));
+    evaluator = RegexpLikePredicateEvaluatorFactory.newDictionaryBasedEvaluator(predicate, otherDictionary);
+    verifyMatchingDictIds(evaluator.getMatchingDictIds());
+    verify(otherDictionary, times(1)).getStringValue(50);
+  }
+
+  private static Dictionary createDictionary(Dictionary dictionary) {
+    when(dictionary.length()).thenReturn(DICT_LEN);
+    for (int dictId = 0; dictId < DICT_LEN; dictId++) {
+      when(dictionary.getStringValue(dictId)).thenReturn("value_" + dictId);
+    }
+    return dictionary;
+  }
+
+  private static void verifyMatchingDictIds(int[] matchingDictIds) {
+    // value_1, value_10, ..., value_19
+    Assert.assertEquals(matchingDictIds.length, 11);
+    Assert.assertEquals(matchingDictIds[0], 1);
+    for (int i = 1; i < 11; i++) {
+      Assert.assertEquals(matchingDictIds[i], 9 + i);
+    }
+  }
+}
@@ -161,6 +161,67 @@ public class MutableDictionaryTest {
     }
   }
 
+  @Test
+  public void testBatchIndex()
+      throws Exception {
+    try {
+      for (FieldSpec.DataType dataType : DATA_TYPES) {
+        MutableDictionary onHeapDictionary =
+            MutableDictionaryFactory.getMutableDictionary(dataType, false, null, 0, 0, null);
+        testBatchIndex(onHeapDictionary, dataType);
+        onHeapDictionary.close();
+        for (int maxOverflowSize : new int[]{0, 2000}) {
+          MutableDictionary offHeapDictionary = makeOffHeapDictionary(EST_CARDINALITY, maxOverflowSize, dataType);
+          testBatchIndex(offHeapDictionary, dataType);
+          offHeapDictionary.close();
+        }
+      }
+    } catch (Throwable t) {
+      Assert.fail("Failed with random seed: " + RANDOM_SEED, t);
+    }
+  }
+
+  private void testBatchIndex(MutableDictionary dictionary, FieldSpec.DataType dataType) {
+    // Index batches with repeated values, and check the dictionary ids against the ones looked up value by value
+    int batchSize = 100;
+    Object[] values = new Object[batchSize];
+    int[] dictIds = new int[batchSize];
+    Map<Object, Integer> valueToDictId = new HashMap<>();
+    Comparable expectedMin = null;
+    Comparable expectedMax = null;
+    for (int batchStart = 0; batchStart < NUM_ENTRIES; batchStart += batchSize) {
+      Comparable[] comparables = new Comparable[batchSize];
+      for (int i = 0; i < batchSize; i++) {
+        Comparable value = (i % 3 == 2) ? comparables[i - 1] : makeRandomObjectOfType(dataType);
+        comparables[i] = value;
+        values[i] = dataType == FieldSpec.DataType.BYTES ? ((ByteArray) value).getBytes() : value;
+      }
+      dictionary.index(values, dictIds, batchSize);
+      for (int i = 0; i < batchSize; i++) {
+        Comparable value = comparables[i];
+        Assert.assertEquals(dictIds[i], dictionary.indexOf(values[i]));
+        if (dataType == FieldSpec.DataType.BYTES) {
+          Assert.assertEquals((byte[]) dictionary.get(dictIds[i]), (byte[]) values[i]);
+        } else {
+          Assert.assertEquals(dictionary.get(dictIds[i]), value);
+        }
+        Integer expectedDictId = valueToDictId.putIfAbsent(value, dictIds[i]);
+        if (expectedDictId != null) {
+          Assert.assertEquals(dictIds[i], (int) expectedDictId);
+        }
+        if (expectedMin == null || value.compareTo(expectedMin) < 0) {
+          expectedMin = value;
+        }
+        if (expectedMax == null || value.compareTo(expectedMax) > 0) {
+          expectedMax = value;
+        }
+      }
+    }
+    Assert.assertEquals(dictionary.length(), valueToDictId.size());
+    Assert.assertEquals(dictionary.getMinVal(), expectedMin);
+    Assert.assertEquals(dictionary.getMaxVal(), expectedMax);
+  }
+
   private void testMutableDictionary(MutableDictionary dictionary, FieldSpec.DataType dataType) {
     Map<Object, Integer> valueToDictId = new HashMap<>();
     int numEntries = 0;
@@ -20,16 +20,22 @@ package org.apache.pinot.core.segment.index.creator;
 
 import com.google.common.base.Preconditions;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.pinot.core.bloom.BloomFilterType;
 import org.apache.pinot.core.bloom.BloomFilterUtil;
 import org.apache.pinot.core.bloom.GuavaOnHeapBloomFilter;
+import org.apache.pinot.core.bloom.OffHeapSplitBlockBloomFilter;
+import org.apache.pinot.core.bloom.SplitBlockBloomFilter;
 import org.apache.pinot.core.segment.creator.impl.V1Constants;
 import org.apache.pinot.core.segment.creator.impl.bloom.BloomFilterCreator;
+import org.apache.pinot.core.segment.index.readers.BloomFilterReader;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
@@ -84,7 +90,8 @@ public class BloomFilterCreatorTest {
     // Create a bloom filter and serialize it to a file
     int cardinality = 10000;
     String columnName = "testColumn";
-    BloomFilterCreator bloomFilterCreator = new BloomFilterCreator(bloomFilterDir, columnName, cardinality);
+    BloomFilterCreator bloomFilterCreator =
+        new BloomFilterCreator(bloomFilterDir, columnName, cardinality, BloomFilterType.SPLIT_BLOCK);
     for (int i = 0; i < 5; i++) {
       bloomFilterCreator.add(Integer.toString(i));
     }
@@ -96,7 +103,7 @@ public class BloomFilterCreatorTest {
     try (DataInputStream in = new DataInputStream(new FileInputStream(bloomFilterFile))) {
       BloomFilterType type = BloomFilterType.valueOf(in.readInt());
       int version = in.readInt();
-      GuavaOnHeapBloomFilter bloomFilter = new GuavaOnHeapBloomFilter();
+      SplitBlockBloomFilter bloomFilter = new SplitBlockBloomFilter();
 
       Assert.assertEquals(type, bloomFilter.getBloomFilterType());
       Assert.assertEquals(version, bloomFilter.getVersion());
@@ -109,29 +116,177 @@ public class BloomFilterCreatorTest {
         Assert.assertFalse(bloomFilter.mightContain(Integer.toString(j)));
       }
     }
+
+    // Read the bloom filter directly from the data buffer
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+      BloomFilterReader bloomFilterReader = new BloomFilterReader(dataBuffer);
+      for (int i = 0; i < 5; i++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(Integer.toString(i)));
+      }
+      for (int j = 5; j < 10; j++) {
+        Assert.assertFalse(bloomFilterReader.mightContain(Integer.toString(j)));
+      }
+    }
+  }
+
+  @Test
+  public void testSplitBlockBloomFilterWithPrimitiveValues()
+      throws Exception {
+    File bloomFilterDir = new File(TEMP_DIR, "primitiveValues");
+    bloomFilterDir.mkdirs();
+
+    int cardinality = 1000;
+    String columnName = "testColumn";
+    BloomFilterCreator bloomFilterCreator =
+        new BloomFilterCreator(bloomFilterDir, columnName, cardinality * 3, BloomFilterType.SPLIT_BLOCK);
+    for (int i = 0; i < cardinality; i++) {
+      bloomFilterCreator.add(i);
+      bloomFilterCreator.add((long) i << 32);
+      bloomFilterCreator.add(i + 0.5f);
+    }
+    bloomFilterCreator.close();
+
+    File bloomFilterFile = new File(bloomFilterDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+      // Values should be hashed based on the type, so that the boxed values and the primitive values always match
+      BloomFilterReader bloomFilterReader = new BloomFilterReader(dataBuffer);
+      OffHeapSplitBlockBloomFilter offHeapBloomFilter =
+          new OffHeapSplitBlockBloomFilter(dataBuffer.view(2 * Integer.BYTES, dataBuffer.size()));
+      int numFalsePositives = 0;
+      for (int i = 0; i < cardinality; i++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(i));
+        Assert.assertTrue(bloomFilterReader.mightContain((long) i));
+        Assert.assertTrue(offHeapBloomFilter.mightContain(i));
+        Assert.assertTrue(bloomFilterReader.mightContain((long) i << 32));
+        Assert.assertTrue(offHeapBloomFilter.mightContain((long) i << 32));
+        Assert.assertTrue(bloomFilterReader.mightContain(i + 0.5f));
+        Assert.assertTrue(bloomFilterReader.mightContain(i + 0.5));
+        Assert.assertTrue(offHeapBloomFilter.mightContain(i + 0.5));
+        if (offHeapBloomFilter.mightContain(i + cardinality)) {
+          numFalsePositives++;
+        }
+      }
+      // Expected false positive probability is 0.05
+      Assert.assertTrue(numFalsePositives < cardinality / 10);
+    }
+  }
+
+  @Test
+  public void testSplitBlockBloomFilterFalsePosProbability() {
+    // The false positive probability should grow with the number of values per block
+    Assert.assertTrue(compareDouble(SplitBlockBloomFilter.computeFalsePosProbability(1e-9), 0.0, 1e-9));
+    Assert.assertTrue(compareDouble(SplitBlockBloomFilter.computeFalsePosProbability(1000), 1.0, 1e-9));
+    double previousFalsePosProbability = 0.0;
+    for (int numValuesPerBlock = 1; numValuesPerBlock <= 100; numValuesPerBlock++) {
+      double falsePosProbability = SplitBlockBloomFilter.computeFalsePosProbability(numValuesPerBlock);
+      Assert.assertTrue(falsePosProbability > previousFalsePosProbability);
+      previousFalsePosProbability = falsePosProbability;
+    }
+
+    // The split-block bloom filter needs more bits than the standard bloom filter for the same false positive
+    // probability, and the measured false positive rate should not exceed the target
+    int cardinality = 100000;
+    double maxFalsePosProbability = 0.05;
+    int numBlocks = SplitBlockBloomFilter.computeNumBlocks(cardinality, maxFalsePosProbability);
+    Assert.assertTrue((long) numBlocks * SplitBlockBloomFilter.NUM_BITS_PER_BLOCK > BloomFilterUtil
+        .computeNumBits(cardinality, maxFalsePosProbability));
+    Assert.assertTrue(SplitBlockBloomFilter.computeFalsePosProbability((double) cardinality / numBlocks)
+        <= maxFalsePosProbability);
+    Assert.assertTrue(SplitBlockBloomFilter.computeFalsePosProbability((double) cardinality / (numBlocks - 1))
+        > maxFalsePosProbability);
+
+    SplitBlockBloomFilter bloomFilter = new SplitBlockBloomFilter(cardinality, maxFalsePosProbability);
+    for (int i = 0; i < cardinality; i++) {
+      bloomFilter.add(i);
+    }
+    int numFalsePositives = 0;
+    for (int i = cardinality; i < 2 * cardinality; i++) {
+      if (bloomFilter.mightContain(i)) {
+        numFalsePositives++;
+      }
+    }
+    Assert.assertTrue(numFalsePositives < cardinality * (maxFalsePosProbability + 0.005));
+  }
+
+  @Test
+  public void testDefaultBloomFilterType()
+      throws Exception {
+    File bloomFilterDir = new File(TEMP_DIR, "defaultType");
+    bloomFilterDir.mkdirs();
+
+    // Bloom filters should be created with the type readable by the old servers unless configured otherwise
+    String columnName = "testColumn";
+    BloomFilterCreator bloomFilterCreator = new BloomFilterCreator(bloomFilterDir, columnName, 10000);
+    for (int i = 0; i < 5; i++) {
+      bloomFilterCreator.add(i);
+    }
+    bloomFilterCreator.close();
+
+    File bloomFilterFile = new File(bloomFilterDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    try (DataInputStream in = new DataInputStream(new FileInputStream(bloomFilterFile))) {
+      Assert.assertEquals(BloomFilterType.valueOf(in.readInt()), BloomFilterType.GUAVA_ON_HEAP);
+    }
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+      BloomFilterReader bloomFilterReader = new BloomFilterReader(dataBuffer);
+      for (int i = 0; i < 5; i++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(i));
+      }
+    }
+  }
+
+  @Test
+  public void testGuavaOnHeapBloomFilterReader()
+      throws Exception {
+    File bloomFilterDir = new File(TEMP_DIR, "guavaOnHeap");
+    bloomFilterDir.mkdirs();
+    File bloomFilterFile = new File(bloomFilterDir, "testColumn" + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+
+    // Bloom filters created with the old format should still be readable
+    GuavaOnHeapBloomFilter guavaBloomFilter = new GuavaOnHeapBloomFilter(10000, 0.05);
+    for (int i = 0; i < 5; i++) {
+      guavaBloomFilter.add(i);
+    }
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(bloomFilterFile))) {
+      out.writeInt(guavaBloomFilter.getBloomFilterType().getValue());
+      out.writeInt(guavaBloomFilter.getVersion());
+      guavaBloomFilter.writeTo(out);
+    }
+
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+      BloomFilterReader bloomFilterReader = new BloomFilterReader(dataBuffer);
+      for (int i = 0; i < 5; i++) {
+        Assert.assertTrue(bloomFilterReader.mightContain(i));
+      }
+      for (int j = 5; j < 10; j++) {
+        Assert.assertFalse(bloomFilterReader.mightContain(j));
+      }
+    }
   }
 
   @Test
   public void testBloomFilterSize()
       throws Exception {
     int cardinalityArray[] = new int[]{10, 100, 1000, 100000, 100000, 1000000, 5000000, 10000000};
-    for (int cardinality : cardinalityArray) {
-      FileUtils.deleteQuietly(TEMP_DIR);
-      File indexDir = new File(TEMP_DIR, "testBloomFilterSize");
-      Preconditions.checkState(indexDir.mkdirs());
+    for (BloomFilterType bloomFilterType : BloomFilterType.values()) {
+      for (int cardinality : cardinalityArray) {
+        FileUtils.deleteQuietly(TEMP_DIR);
+        File indexDir = new File(TEMP_DIR, "testBloomFilterSize");
+        Preconditions.checkState(indexDir.mkdirs());
 
-      String columnName = "testSize";
-      BloomFilterCreator bloomFilterCreator = new BloomFilterCreator(indexDir, columnName, cardinality);
-      bloomFilterCreator.close();
+        String columnName = "testSize";
+        BloomFilterCreator bloomFilterCreator =
+            new BloomFilterCreator(indexDir, columnName, cardinality, bloomFilterType);
+        bloomFilterCreator.close();
 
-      File bloomFilterFile = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+        File bloomFilterFile = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
 
-      try (InputStream inputStream = new FileInputStream(bloomFilterFile)) {
-        byte[] bloomFilterBytes = IOUtils.toByteArray(inputStream);
-        long actualBloomFilterSize = bloomFilterBytes.length;
-        // Check if the size of bloom filter does not go beyond 1MB. Note that guava bloom filter has 11-12 bytes of
-        // overhead
-        Assert.assertTrue(actualBloomFilterSize < MB_IN_BYTES + 12);
+        try (InputStream inputStream = new FileInputStream(bloomFilterFile)) {
+          byte[] bloomFilterBytes = IOUtils.toByteArray(inputStream);
+          long actualBloomFilterSize = bloomFilterBytes.length;
+          // Check if the size of bloom filter does not go beyond 1MB. Note that both guava bloom filter and split-block
+          // bloom filter have up to 12 bytes of overhead
+          Assert.assertTrue(actualBloomFilterSize <= MB_IN_BYTES + 12);
+        }
       }
     }
   }
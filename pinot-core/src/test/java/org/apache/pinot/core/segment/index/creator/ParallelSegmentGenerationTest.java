@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.creator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.MetricFieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.index.ColumnMetadata;
+import org.apache.pinot.core.segment.index.SegmentMetadataImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ * Test to ensure that the segments generated with multiple threads are identical to the ones generated sequentially.
+ */
+public class ParallelSegmentGenerationTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "ParallelSegmentGenerationTest");
+  private static final String SEGMENT_NAME = "testSegment";
+  // More than one batch of rows
+  private static final int NUM_ROWS = 25_000;
+  private static final long RANDOM_SEED = System.currentTimeMillis();
+
+  private static final String SORTED_INT_COLUMN = "sortedIntColumn";
+  private static final String INT_COLUMN = "intColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String INT_MV_COLUMN = "intMVColumn";
+  private static final String LONG_METRIC = "longMetric";
+  private static final String RAW_DOUBLE_METRIC = "rawDoubleMetric";
+
+  private Schema _schema;
+  private List<GenericRow> _rows;
+
+  @BeforeClass
+  public void setUp() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+
+    _schema = new Schema();
+    _schema.addField(new DimensionFieldSpec(SORTED_INT_COLUMN, FieldSpec.DataType.INT, true));
+    _schema.addField(new DimensionFieldSpec(INT_COLUMN, FieldSpec.DataType.INT, true));
+    _schema.addField(new DimensionFieldSpec(STRING_COLUMN, FieldSpec.DataType.STRING, true));
+    _schema.addField(new DimensionFieldSpec(INT_MV_COLUMN, FieldSpec.DataType.INT, false));
+    _schema.addField(new MetricFieldSpec(LONG_METRIC, FieldSpec.DataType.LONG));
+    _schema.addField(new MetricFieldSpec(RAW_DOUBLE_METRIC, FieldSpec.DataType.DOUBLE));
+
+    Random random = new Random(RANDOM_SEED);
+    _rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      Map<String, Object> map = new HashMap<>();
+      map.put(SORTED_INT_COLUMN, i / 100);
+      map.put(INT_COLUMN, random.nextInt(1000));
+      map.put(STRING_COLUMN, "value_" + random.nextInt(500));
+      int numValues = 1 + random.nextInt(5);
+      Object[] multiValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        multiValues[j] = random.nextInt(100);
+      }
+      map.put(INT_MV_COLUMN, multiValues);
+      map.put(LONG_METRIC, random.nextLong());
+      map.put(RAW_DOUBLE_METRIC, random.nextDouble());
+      GenericRow row = new GenericRow();
+      row.init(map);
+      _rows.add(row);
+    }
+  }
+
+  @Test
+  public void testParallelSegmentGeneration()
+      throws Exception {
+    String errorMessage = "Random seed: " + RANDOM_SEED;
+    SegmentMetadataImpl sequentialMetadata = new SegmentMetadataImpl(buildSegment("sequential", 1));
+    SegmentMetadataImpl parallelMetadata = new SegmentMetadataImpl(buildSegment("parallel", 4));
+
+    Assert.assertEquals(parallelMetadata.getTotalDocs(), NUM_ROWS, errorMessage);
+    Assert.assertEquals(parallelMetadata.getTotalRawDocs(), sequentialMetadata.getTotalRawDocs(), errorMessage);
+    for (String column : _schema.getColumnNames()) {
+      ColumnMetadata expected = sequentialMetadata.getColumnMetadataFor(column);
+      ColumnMetadata actual = parallelMetadata.getColumnMetadataFor(column);
+      Assert.assertEquals(actual.getCardinality(), expected.getCardinality(), errorMessage);
+      Assert.assertEquals(actual.isSorted(), expected.isSorted(), errorMessage);
+      Assert.assertEquals(actual.hasDictionary(), expected.hasDictionary(), errorMessage);
+      Assert.assertEquals(actual.hasInvertedIndex(), expected.hasInvertedIndex(), errorMessage);
+      Assert.assertEquals(actual.getMinValue(), expected.getMinValue(), errorMessage);
+      Assert.assertEquals(actual.getMaxValue(), expected.getMaxValue(), errorMessage);
+      Assert.assertEquals(actual.getTotalNumberOfEntries(), expected.getTotalNumberOfEntries(), errorMessage);
+    }
+    Assert.assertTrue(parallelMetadata.getColumnMetadataFor(SORTED_INT_COLUMN).isSorted(), errorMessage);
+
+    // The index files should be identical
+    Assert.assertEquals(parallelMetadata.getCrc(), sequentialMetadata.getCrc(), errorMessage);
+  }
+
+  private File buildSegment(String outDirName, int numThreads)
+      throws Exception {
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(_schema);
+    config.setOutDir(new File(TEMP_DIR, outDirName).getAbsolutePath());
+    config.setSegmentName(SEGMENT_NAME);
+    config.setInvertedIndexCreationColumns(Arrays.asList(INT_COLUMN, INT_MV_COLUMN));
+    config.setRawIndexCreationColumns(Collections.singletonList(RAW_DOUBLE_METRIC));
+    config.setNumThreads(numThreads);
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(_rows, _schema));
+    driver.build();
+    return driver.getOutputDirectory();
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+}
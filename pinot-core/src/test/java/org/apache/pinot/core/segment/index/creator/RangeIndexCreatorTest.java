@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.segment.index.creator;
+
+import java.io.File;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.segment.creator.impl.V1Constants;
+import org.apache.pinot.core.segment.creator.impl.inv.RangeIndexCreator;
+import org.apache.pinot.core.segment.index.readers.RangeIndexReader;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class RangeIndexCreatorTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "RangeIndexCreatorTest");
+  private static final String SV_COLUMN_NAME = "svColumn";
+  private static final String MV_COLUMN_NAME = "mvColumn";
+  private static final int NUM_DOCS = 10_000;
+  private static final int CARDINALITY = 1000;
+  private static final int MAX_NUM_VALUES_PER_MV_ENTRY = 5;
+  private static final long RANDOM_SEED = System.currentTimeMillis();
+  private static final Random RANDOM = new Random(RANDOM_SEED);
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.forceMkdir(TEMP_DIR);
+  }
+
+  @Test
+  public void testSingleValue()
+      throws Exception {
+    int[][] dictIds = new int[NUM_DOCS][1];
+    try (RangeIndexCreator creator = new RangeIndexCreator(TEMP_DIR, SV_COLUMN_NAME, CARDINALITY, true)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        // Skewed distribution so that some ranges contain a single dictId
+        int dictId = RANDOM.nextBoolean() ? RANDOM.nextInt(10) : RANDOM.nextInt(CARDINALITY);
+        dictIds[i][0] = dictId;
+        creator.add(dictId);
+      }
+      creator.seal();
+    }
+    validate(SV_COLUMN_NAME, dictIds);
+  }
+
+  @Test
+  public void testMultiValue()
+      throws Exception {
+    int[][] dictIds = new int[NUM_DOCS][];
+    try (RangeIndexCreator creator = new RangeIndexCreator(TEMP_DIR, MV_COLUMN_NAME, CARDINALITY, false)) {
+      for (int i = 0; i < NUM_DOCS; i++) {
+        int numValues = 1 + RANDOM.nextInt(MAX_NUM_VALUES_PER_MV_ENTRY);
+        dictIds[i] = new int[numValues];
+        for (int j = 0; j < numValues; j++) {
+          dictIds[i][j] = RANDOM.nextInt(CARDINALITY);
+        }
+        creator.add(dictIds[i], numValues);
+      }
+      creator.seal();
+    }
+    validate(MV_COLUMN_NAME, dictIds);
+  }
+
+  private void validate(String columnName, int[][] dictIds)
+      throws Exception {
+    String errorMessage = "Random seed: " + RANDOM_SEED;
+    File rangeIndexFile = new File(TEMP_DIR, columnName + V1Constants.Indexes.BITMAP_RANGE_INDEX_FILE_EXTENSION);
+    try (RangeIndexReader reader = new RangeIndexReader(PinotDataBuffer.mapReadOnlyBigEndianFile(rangeIndexFile))) {
+      int numRanges = reader.getNumRanges();
+      Assert.assertTrue(numRanges > 1 && numRanges <= RangeIndexCreator.DEFAULT_NUM_RANGES, errorMessage);
+      Assert.assertEquals(reader.getRangeStartDictId(0), 0, errorMessage);
+      Assert.assertEquals(reader.getRangeEndDictId(numRanges - 1), CARDINALITY, errorMessage);
+
+      for (int rangeId = 0; rangeId < numRanges; rangeId++) {
+        int rangeStartDictId = reader.getRangeStartDictId(rangeId);
+        int rangeEndDictId = reader.getRangeEndDictId(rangeId);
+        Assert.assertTrue(rangeStartDictId < rangeEndDictId, errorMessage);
+        Assert.assertEquals(reader.findRangeId(rangeStartDictId), rangeId, errorMessage);
+        Assert.assertEquals(reader.findRangeId(rangeEndDictId - 1), rangeId, errorMessage);
+
+        ImmutableRoaringBitmap docIds = reader.getDocIds(rangeId);
+        for (int docId = 0; docId < NUM_DOCS; docId++) {
+          boolean inRange = false;
+          for (int dictId : dictIds[docId]) {
+            if (dictId >= rangeStartDictId && dictId < rangeEndDictId) {
+              inRange = true;
+              break;
+            }
+          }
+          Assert.assertEquals(docIds.contains(docId), inRange, errorMessage);
+        }
+      }
+    }
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.pinot.core.segment.index.loader;
 
 import java.io.File;
 import java.net.URL;
+import java.util.Collections;
+import java.util.EnumSet;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.data.DimensionFieldSpec;
 import org.apache.pinot.common.data.FieldSpec;
@@ -29,6 +31,8 @@ import org.apache.pinot.common.utils.TarGzCompressionUtils;
 import org.apache.pinot.core.indexsegment.IndexSegment;
 import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
 import org.apache.pinot.core.indexsegment.generator.SegmentVersion;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentImpl;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.core.segment.creator.SegmentIndexCreationDriver;
 import org.apache.pinot.core.segment.creator.impl.SegmentCreationDriverFactory;
@@ -140,6 +144,45 @@ public class LoaderTest {
     indexSegment.destroy();
   }
 
+  @Test
+  public void testWarmUp()
+      throws Exception {
+    constructV1Segment();
+    ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(_indexDir, _v3IndexLoadingConfig);
+    try {
+      String column = null;
+      for (ColumnMetadata columnMetadata : new SegmentMetadataImpl(_indexDir).getColumnMetadataMap().values()) {
+        if (columnMetadata.hasDictionary()) {
+          column = columnMetadata.getColumnName();
+          break;
+        }
+      }
+      Assert.assertNotNull(column);
+      long dictionarySize;
+      try (SegmentDirectory.Reader segmentReader = ((ImmutableSegmentImpl) immutableSegment).getSegmentDirectory()
+          .createReader()) {
+        dictionarySize = segmentReader.getIndexFor(column, ColumnIndexType.DICTIONARY).size();
+      }
+
+      // Warm up one index of one column
+      Assert.assertEquals(SegmentWarmer
+              .warmUp(immutableSegment, EnumSet.of(ColumnIndexType.DICTIONARY), Collections.singleton(column)),
+          dictionarySize);
+
+      // Warm up all columns
+      Assert.assertTrue(SegmentWarmer
+          .warmUp(immutableSegment, SegmentWarmer.DEFAULT_WARM_UP_INDEX_TYPES, Collections.emptySet())
+          > dictionarySize);
+
+      // Non-existing column
+      Assert.assertEquals(SegmentWarmer
+          .warmUp(immutableSegment, SegmentWarmer.DEFAULT_WARM_UP_INDEX_TYPES, Collections.singleton("nonExisting")),
+          0L);
+    } finally {
+      immutableSegment.destroy();
+    }
+  }
+
   @Test
   public void testPadding()
       throws Exception {
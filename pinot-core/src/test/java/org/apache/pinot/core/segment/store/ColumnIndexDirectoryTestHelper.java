@@ -57,6 +57,9 @@ public class ColumnIndexDirectoryTestHelper {
       case BLOOM_FILTER:
         buf = columnDirectory.newBloomFilterBuffer(columnName, size);
         break;
+      case RANGE_INDEX:
+        buf = columnDirectory.newRangeIndexBuffer(columnName, size);
+        break;
     }
     return buf;
   }
@@ -80,6 +83,9 @@ public class ColumnIndexDirectoryTestHelper {
       case BLOOM_FILTER:
         buf = columnDirectory.getBloomFilterBufferFor(columnName);
         break;
+      case RANGE_INDEX:
+        buf = columnDirectory.getRangeIndexBufferFor(columnName);
+        break;
     }
     return buf;
   }
@@ -143,6 +149,13 @@ public class ColumnIndexDirectoryTestHelper {
         return invocationOnMock.getArguments()[0] + ".bloom";
       }
     });
+    when(meta.getBitmapRangeIndexFileName(anyString())).thenAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocationOnMock)
+          throws Throwable {
+        return invocationOnMock.getArguments()[0] + ".range";
+      }
+    });
     return meta;
   }
 }
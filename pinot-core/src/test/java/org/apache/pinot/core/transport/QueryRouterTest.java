@@ -21,6 +21,10 @@ package org.apache.pinot.core.transport;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.pinot.common.metrics.BrokerMetrics;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.utils.CommonConstants.Helix.TableType;
@@ -104,6 +108,52 @@ public class QueryRouterTest {
     thread.join();
   }
 
+  @Test
+  public void testDataTableConsumer()
+      throws Exception {
+    long requestId = 123;
+    DataTable dataTable = new DataTableImplV2();
+    dataTable.getMetadata().put(DataTable.REQUEST_ID_METADATA_KEY, Long.toString(requestId));
+    byte[] responseBytes = dataTable.toBytes();
+
+    // Start the server
+    DummyServer dummyServer = new DummyServer(TEST_PORT, 0L, responseBytes);
+    Thread thread = new Thread(dummyServer);
+    thread.start();
+    while (!dummyServer.isReady()) {
+      Thread.sleep(100L);
+    }
+
+    // The data tables should be consumed on the executor, and the response should wait for the consumer to finish
+    ExecutorService executorService = Executors.newSingleThreadExecutor(r -> new Thread(r, "testConsumer"));
+    AtomicInteger numDataTablesConsumed = new AtomicInteger();
+    AtomicReference<String> consumerThreadName = new AtomicReference<>();
+    AsyncQueryResponse asyncQueryResponse = _queryRouter
+        .submitQuery(requestId, "testTable", BROKER_REQUEST, ROUTING_TABLE, BROKER_REQUEST, ROUTING_TABLE, 1_000L,
+            (server, consumedDataTable) -> {
+              try {
+                Thread.sleep(100L);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+              consumerThreadName.set(Thread.currentThread().getName());
+              numDataTablesConsumed.incrementAndGet();
+            }, executorService);
+    Map<Server, ServerResponse> response = asyncQueryResponse.getResponse();
+    Assert.assertEquals(numDataTablesConsumed.get(), 2);
+    Assert.assertEquals(consumerThreadName.get(), "testConsumer");
+    Assert.assertEquals(response.size(), 2);
+    for (ServerResponse serverResponse : response.values()) {
+      Assert.assertTrue(serverResponse.hasResponded());
+      Assert.assertNull(serverResponse.getDataTable());
+    }
+
+    // Shut down the server
+    executorService.shutdown();
+    dummyServer.shutDown();
+    thread.join();
+  }
+
   @Test
   public void testInvalidResponse()
       throws Exception {
@@ -26,6 +26,7 @@ import java.util.Random;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.pinot.core.io.compression.ChunkCompressorFactory;
+import org.apache.pinot.core.io.compression.ZstandardCompressor;
 import org.apache.pinot.core.io.reader.impl.ChunkReaderContext;
 import org.apache.pinot.core.io.reader.impl.v1.VarByteChunkSingleValueReader;
 import org.apache.pinot.core.io.writer.impl.v1.VarByteChunkSingleValueWriter;
@@ -51,6 +52,26 @@ public class VarByteChunkSingleValueReaderWriteTest {
     test(ChunkCompressorFactory.CompressionType.SNAPPY);
   }
 
+  @Test
+  public void testWithLZ4Compression()
+      throws Exception {
+    test(ChunkCompressorFactory.CompressionType.LZ4);
+  }
+
+  @Test
+  public void testWithZstandardCompression()
+      throws Exception {
+    test(ChunkCompressorFactory.CompressionType.ZSTANDARD);
+    test(ChunkCompressorFactory.CompressionType.ZSTANDARD, ZstandardCompressor.MIN_COMPRESSION_LEVEL);
+    test(ChunkCompressorFactory.CompressionType.ZSTANDARD, 19);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidZstandardCompressionLevel()
+      throws Exception {
+    test(ChunkCompressorFactory.CompressionType.ZSTANDARD, ZstandardCompressor.MAX_COMPRESSION_LEVEL + 1);
+  }
+
   @Test
   public void testWithoutCompression()
       throws Exception {
@@ -69,6 +90,11 @@ public class VarByteChunkSingleValueReaderWriteTest {
    */
   public void test(ChunkCompressorFactory.CompressionType compressionType)
       throws Exception {
+    test(compressionType, ZstandardCompressor.DEFAULT_COMPRESSION_LEVEL);
+  }
+
+  public void test(ChunkCompressorFactory.CompressionType compressionType, int zstdCompressionLevel)
+      throws Exception {
     String[] expected = new String[NUM_ENTRIES];
     Random random = new Random();
 
@@ -83,7 +109,7 @@ public class VarByteChunkSingleValueReaderWriteTest {
 
     VarByteChunkSingleValueWriter writer =
         new VarByteChunkSingleValueWriter(outFile, compressionType, NUM_ENTRIES, NUM_DOCS_PER_CHUNK,
-            maxStringLengthInBytes);
+            maxStringLengthInBytes, zstdCompressionLevel);
 
     for (int i = 0; i < NUM_ENTRIES; i += 2) {
       writer.setString(i, expected[i]);
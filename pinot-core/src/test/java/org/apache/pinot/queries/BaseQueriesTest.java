@@ -34,6 +34,7 @@ import org.apache.pinot.core.plan.Plan;
 import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
 import org.apache.pinot.core.plan.maker.PlanMaker;
 import org.apache.pinot.core.query.reduce.BrokerReduceService;
+import org.apache.pinot.core.query.reduce.StreamingBrokerReducer;
 import org.apache.pinot.pql.parsers.Pql2Compiler;
 
 
@@ -98,6 +99,28 @@ public abstract class BaseQueriesTest {
     return brokerReduceService.reduceOnDataTable(brokerRequest, dataTableMap, null);
   }
 
+  /**
+   * Run query on multiple index segments, and reduce the server responses with the streaming broker reducer.
+   * <p>Use this to test the whole flow from server to broker.
+   * <p>The result should be equivalent to querying 4 identical index segments.
+   *
+   * @param query PQL query.
+   * @return broker response.
+   */
+  protected BrokerResponseNative getStreamingBrokerResponseForQuery(String query) {
+    BrokerRequest brokerRequest = COMPILER.compileToBrokerRequest(query);
+
+    // Server side.
+    Plan plan = PLAN_MAKER.makeInterSegmentPlan(getSegmentDataManagers(), brokerRequest, EXECUTOR_SERVICE, 10_000);
+    DataTable instanceResponse = plan.execute();
+
+    // Broker side.
+    StreamingBrokerReducer streamingReducer = new BrokerReduceService().getStreamingReducer(brokerRequest, null);
+    streamingReducer.reduce(new ServerInstance("localhost:0000"), instanceResponse);
+    streamingReducer.reduce(new ServerInstance("localhost:1111"), instanceResponse);
+    return streamingReducer.finish();
+  }
+
   /**
    * Run query on multiple index segments.
    * <p>Use this to test the whole flow from server to broker.
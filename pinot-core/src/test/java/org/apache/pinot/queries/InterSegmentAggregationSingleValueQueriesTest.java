@@ -18,10 +18,21 @@
  */
 package org.apache.pinot.queries;
 
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.utils.JsonUtils;
+import org.apache.pinot.core.indexsegment.IndexSegment;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.plan.AggregationPlanNode;
 import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.core.query.config.QueryExecutorConfig;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -381,4 +392,134 @@ public class InterSegmentAggregationSingleValueQueriesTest extends BaseSingleVal
     brokerResponse = getBrokerResponseForQuery(query, new InstancePlanMakerImplV2(1000, 1000));
     assertTrue(brokerResponse.isNumGroupsLimitReached());
   }
+
+  @Test
+  public void testPrimitiveKeyGroupByMerge()
+      throws Exception {
+    String[] queries = new String[]{
+        "SELECT COUNT(*), SUM(column1), MIN(column3), MAX(column3) FROM testTable" + GROUP_BY,
+        "SELECT COUNT(*), AVG(column1), DISTINCTCOUNT(column6) FROM testTable GROUP BY column9, column11 TOP 20",
+        "SELECT SUM(column1), MAX(column3) FROM testTable GROUP BY column6, column9, column11, column12 TOP 50",
+        "SELECT COUNT(*) FROM testTable WHERE column3 > 200000000 GROUP BY column1 TOP 30"
+    };
+    Configuration config = new BaseConfiguration();
+    config.setProperty(InstancePlanMakerImplV2.ENABLE_PRIMITIVE_KEY_GROUP_BY_MERGE_KEY, true);
+    InstancePlanMakerImplV2 planMaker = new InstancePlanMakerImplV2(new QueryExecutorConfig(config));
+    for (String query : queries) {
+      BrokerResponseNative expected = getBrokerResponseForQuery(query);
+      BrokerResponseNative actual = getBrokerResponseForQuery(query, planMaker);
+      assertEquals(JsonUtils.objectToString(actual.getAggregationResults()),
+          JsonUtils.objectToString(expected.getAggregationResults()), query);
+      assertFalse(actual.isNumGroupsLimitReached(), query);
+    }
+
+    // Results should match the string key merge when the groups limit is reached
+    String query = "SELECT COUNT(*), SUM(column3) FROM testTable GROUP BY column1";
+    config.setProperty(InstancePlanMakerImplV2.MAX_INITIAL_RESULT_HOLDER_CAPACITY_KEY, 1000);
+    config.setProperty(InstancePlanMakerImplV2.NUM_GROUPS_LIMIT, 1000);
+    planMaker = new InstancePlanMakerImplV2(new QueryExecutorConfig(config));
+    BrokerResponseNative expected = getBrokerResponseForQuery(query, new InstancePlanMakerImplV2(1000, 1000));
+    BrokerResponseNative actual = getBrokerResponseForQuery(query, planMaker);
+    assertTrue(expected.isNumGroupsLimitReached());
+    assertTrue(actual.isNumGroupsLimitReached());
+    assertEquals(JsonUtils.objectToString(actual.getAggregationResults()),
+        JsonUtils.objectToString(expected.getAggregationResults()));
+  }
+
+  @Test
+  public void testStreamingReduce()
+      throws Exception {
+    String[] queries = new String[]{
+        "SELECT COUNT(*), SUM(column1), MAX(column3), DISTINCTCOUNT(column6) FROM testTable",
+        "SELECT COUNT(*), AVG(column1) FROM testTable GROUP BY column9, column11 TOP 20",
+        "SELECT COUNT(*) FROM testTable WHERE column1 = 1",
+        "SELECT column1, column5 FROM testTable ORDER BY column1 LIMIT 10",
+        "SELECT column1, column5 FROM testTable LIMIT 10"
+    };
+    for (String query : queries) {
+      assertEquals(getStreamingBrokerResponseForQuery(query).toJsonString(),
+          getBrokerResponseForQuery(query).toJsonString(), query);
+    }
+  }
+
+  @Test
+  public void testSegmentResultCache()
+      throws Exception {
+    String[] queries = new String[]{
+        "SELECT SUM(column1), AVG(column3), DISTINCTCOUNT(column6) FROM testTable",
+        "SELECT COUNT(*), MAX(column1), PERCENTILE90(column3) FROM testTable WHERE column3 > 200000000",
+        "SELECT SUM(column1), AVG(column3), DISTINCTCOUNT(column6) FROM testTable" + GROUP_BY,
+        "SELECT COUNT(*), MAX(column1) FROM testTable WHERE column3 > 200000000 GROUP BY column9, column11 TOP 20"
+    };
+    SegmentResultCache segmentResultCache = new SegmentResultCache(16 * 1024 * 1024);
+    InstancePlanMakerImplV2 planMaker =
+        new InstancePlanMakerImplV2(new QueryExecutorConfig(new BaseConfiguration()), segmentResultCache);
+    for (int i = 0; i < queries.length; i++) {
+      String query = queries[i];
+      BrokerResponseNative expected = getBrokerResponseForQuery(query);
+      String expectedResults = JsonUtils.objectToString(expected.getAggregationResults());
+
+      // Both segment data managers share the same segment, so there is one cache entry per query
+      BrokerResponseNative actual = getBrokerResponseForQuery(query, planMaker);
+      assertEquals(JsonUtils.objectToString(actual.getAggregationResults()), expectedResults, query);
+      assertEquals(actual.getNumDocsScanned(), expected.getNumDocsScanned(), query);
+      assertEquals(segmentResultCache.size(), i + 1);
+      long hitCount = segmentResultCache.getHitCount();
+
+      // Served from the cache without scanning, and the results should not be affected by the merge of the previous
+      // query
+      for (int j = 0; j < 2; j++) {
+        actual = getBrokerResponseForQuery(query, planMaker);
+        assertEquals(JsonUtils.objectToString(actual.getAggregationResults()), expectedResults, query);
+        assertEquals(actual.getNumDocsScanned(), 0L, query);
+        assertEquals(actual.getNumEntriesScannedInFilter(), 0L, query);
+        assertEquals(actual.getNumEntriesScannedPostFilter(), 0L, query);
+        assertEquals(actual.getTotalDocs(), expected.getTotalDocs(), query);
+        assertEquals(actual.getNumSegmentsMatched(), expected.getNumSegmentsMatched(), query);
+      }
+      assertEquals(segmentResultCache.size(), i + 1);
+      assertEquals(segmentResultCache.getHitCount(), hitCount + 4);
+    }
+  }
+
+  @Test
+  public void testDocIdRangeSplit()
+      throws Exception {
+    // The aggregation results for the document id ranges should add up to the result for the whole segment
+    IndexSegment indexSegment = getIndexSegment();
+    int numDocs = indexSegment.getSegmentMetadata().getTotalRawDocs();
+    String query = "SELECT COUNT(*) FROM testTable WHERE column3 > 200000000 OR column7 IN (2147483647, 211, 336)";
+    BrokerRequest brokerRequest = new Pql2Compiler().compileToBrokerRequest(query);
+    long expectedCount = (long) ((IntermediateResultsBlock) getOperatorForQuery(query).nextBlock())
+        .getAggregationResult().get(0);
+    long count = 0;
+    int numDocsPerDocIdRange = numDocs / 3 + 1;
+    for (int startDocId = 0; startDocId < numDocs; startDocId += numDocsPerDocIdRange) {
+      int endDocId = Math.min(startDocId + numDocsPerDocIdRange, numDocs) - 1;
+      AggregationPlanNode planNode = new AggregationPlanNode(indexSegment, brokerRequest, startDocId, endDocId);
+      count += (long) planNode.run().nextBlock().getAggregationResult().get(0);
+    }
+    assertEquals(count, expectedCount);
+
+    // Splitting the segments should not change the query results
+    String[] queries = new String[]{
+        "SELECT COUNT(*), SUM(column1), MAX(column3), DISTINCTCOUNT(column6) FROM testTable",
+        "SELECT COUNT(*), MIN(column1) FROM testTable WHERE column3 > 200000000 OR column7 IN (2147483647, 211, 336)",
+        "SELECT COUNT(*), AVG(column1) FROM testTable GROUP BY column9, column11 TOP 20"
+    };
+    Configuration config = new BaseConfiguration();
+    config.setProperty(InstancePlanMakerImplV2.MIN_NUM_DOCS_PER_DOC_ID_RANGE_KEY, 1);
+    InstancePlanMakerImplV2 planMaker = new InstancePlanMakerImplV2(new QueryExecutorConfig(config));
+    for (String splitQuery : queries) {
+      BrokerResponseNative expected = getBrokerResponseForQuery(splitQuery);
+      BrokerResponseNative actual = getBrokerResponseForQuery(splitQuery, planMaker);
+      assertEquals(JsonUtils.objectToString(actual.getAggregationResults()),
+          JsonUtils.objectToString(expected.getAggregationResults()), splitQuery);
+      assertEquals(actual.getNumDocsScanned(), expected.getNumDocsScanned(), splitQuery);
+      assertEquals(actual.getTotalDocs(), expected.getTotalDocs(), splitQuery);
+      // Each segment should be counted once regardless of the number of document id ranges
+      assertEquals(actual.getNumSegmentsProcessed(), expected.getNumSegmentsProcessed(), splitQuery);
+      assertEquals(actual.getNumSegmentsMatched(), expected.getNumSegmentsMatched(), splitQuery);
+    }
+  }
 }
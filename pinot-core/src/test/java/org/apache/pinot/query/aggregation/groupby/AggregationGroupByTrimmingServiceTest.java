@@ -129,6 +129,48 @@ public class AggregationGroupByTrimmingServiceTest {
     }
   }
 
+  @Test
+  public void testTrimmingIndexedIntermediateResults() {
+    Map<String, Object[]> intermediateResultsMap = new HashMap<>(NUM_GROUPS);
+    Object[][] intermediateResults = new Object[NUM_GROUPS][];
+    for (int i = 0; i < NUM_GROUPS; i++) {
+      IntOpenHashSet set = new IntOpenHashSet();
+      for (int j = 0; j <= i; j += NUM_GROUPS / MAX_SIZE_OF_SET) {
+        set.add(j);
+      }
+      intermediateResults[i] = new Object[]{(double) i, set};
+      intermediateResultsMap.put(_groups.get(i), intermediateResults[i]);
+    }
+    Set<Integer> groupIdsAccessed = new HashSet<>();
+    List<Map<String, Object>> trimmedIntermediateResultMaps =
+        _trimmingService.trimIntermediateResults(new AggregationGroupByTrimmingService.IndexedIntermediateResults() {
+          @Override
+          public int getNumGroups() {
+            return NUM_GROUPS;
+          }
+
+          @Override
+          public Object getIntermediateResult(int groupId, int index) {
+            return intermediateResults[groupId][index];
+          }
+
+          @Override
+          public String getGroupKey(int groupId) {
+            groupIdsAccessed.add(groupId);
+            return _groups.get(groupId);
+          }
+        });
+
+    // Should get the same sum results as trimming the intermediate results map
+    Map<String, Object> expectedSumResultMap =
+        _trimmingService.trimIntermediateResultsMap(intermediateResultsMap).get(0);
+    Assert.assertEquals(trimmedIntermediateResultMaps.get(0), expectedSumResultMap, ERROR_MESSAGE);
+    Assert.assertEquals(trimmedIntermediateResultMaps.get(1).size(), expectedSumResultMap.size(), ERROR_MESSAGE);
+
+    // Group keys should only be generated for the groups surviving the trimming
+    Assert.assertTrue(groupIdsAccessed.size() < NUM_GROUPS, ERROR_MESSAGE);
+  }
+
   private static String buildGroupString(List<String> group) {
     StringBuilder groupStringBuilder = new StringBuilder();
     for (int i = 0; i < NUM_GROUP_KEYS; i++) {
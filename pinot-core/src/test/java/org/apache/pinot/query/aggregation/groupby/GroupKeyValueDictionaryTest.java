@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.aggregation.groupby;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.pinot.core.query.aggregation.groupby.GroupByResultMerger.GroupKeyValueDictionary;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class GroupKeyValueDictionaryTest {
+  private static final int NUM_THREADS = 8;
+  // Large enough to span multiple chunks
+  private static final int NUM_VALUES = 10_000;
+
+  @Test
+  public void testGetValueId() {
+    GroupKeyValueDictionary valueDictionary = new GroupKeyValueDictionary();
+    for (int i = 0; i < NUM_VALUES; i++) {
+      Assert.assertEquals(valueDictionary.getValueId("value" + i), i);
+    }
+    for (int i = 0; i < NUM_VALUES; i++) {
+      Assert.assertEquals(valueDictionary.getValueId("value" + i), i);
+      Assert.assertEquals(valueDictionary.getStringValue(i), "value" + i);
+    }
+  }
+
+  @Test
+  public void testConcurrentGetValueId()
+      throws Exception {
+    GroupKeyValueDictionary valueDictionary = new GroupKeyValueDictionary();
+    ExecutorService executorService = Executors.newFixedThreadPool(NUM_THREADS);
+    try {
+      // All threads register the same values in different orders
+      List<Future<int[]>> futures = new ArrayList<>(NUM_THREADS);
+      for (int i = 0; i < NUM_THREADS; i++) {
+        int startValue = i * NUM_VALUES / NUM_THREADS;
+        futures.add(executorService.submit(() -> {
+          int[] valueIds = new int[NUM_VALUES];
+          for (int j = 0; j < NUM_VALUES; j++) {
+            int value = (startValue + j) % NUM_VALUES;
+            valueIds[value] = valueDictionary.getValueId(value);
+          }
+          return valueIds;
+        }));
+      }
+      int[] expectedValueIds = futures.get(0).get();
+      for (Future<int[]> future : futures) {
+        Assert.assertEquals(future.get(), expectedValueIds);
+      }
+
+      // Value ids should be dense, and map back to the values
+      boolean[] valueIdUsed = new boolean[NUM_VALUES];
+      for (int value = 0; value < NUM_VALUES; value++) {
+        int valueId = expectedValueIds[value];
+        Assert.assertFalse(valueIdUsed[valueId]);
+        valueIdUsed[valueId] = true;
+        Assert.assertEquals(valueDictionary.getStringValue(valueId), Integer.toString(value));
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+}
@@ -18,18 +18,43 @@
  */
 package org.apache.pinot.realtime.converter;
 
+import com.yammer.metrics.core.MetricsRegistry;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.data.DimensionFieldSpec;
 import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.MetricFieldSpec;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.data.TimeFieldSpec;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.core.indexsegment.mutable.MutableSegmentImplTestUtils;
 import org.apache.pinot.core.realtime.converter.RealtimeSegmentConverter;
+import org.apache.pinot.core.realtime.stream.StreamMessageMetadata;
 import org.apache.pinot.core.segment.virtualcolumn.VirtualColumnProviderFactory;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
 
 public class RealtimeSegmentConverterTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "RealtimeSegmentConverterTest");
+  private static final String SORTED_COLUMN = "sortedDim";
+  private static final String SV_COLUMN = "svDim";
+  private static final String MV_COLUMN = "mvDim";
+  private static final String METRIC_COLUMN = "metric";
+  private static final String TIME_COLUMN = "time";
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final int NUM_RECORDS = 1000;
 
   @Test
   public void testNoVirtualColumnsInSchema() {
@@ -51,4 +76,71 @@ public class RealtimeSegmentConverterTest {
     Assert.assertEquals(newSchema.getColumnNames().size(), 2);
     Assert.assertEquals(newSchema.getTimeFieldSpec().getIncomingGranularitySpec().getTimeType(), TimeUnit.DAYS);
   }
+
+  @Test
+  public void testColumnarConversion()
+      throws Exception {
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(SORTED_COLUMN, FieldSpec.DataType.INT, true));
+    schema.addField(new DimensionFieldSpec(SV_COLUMN, FieldSpec.DataType.STRING, true));
+    schema.addField(new DimensionFieldSpec(MV_COLUMN, FieldSpec.DataType.LONG, false));
+    schema.addField(new MetricFieldSpec(METRIC_COLUMN, FieldSpec.DataType.DOUBLE));
+    schema.addField(new TimeFieldSpec(TIME_COLUMN, FieldSpec.DataType.LONG, TimeUnit.MILLISECONDS));
+
+    MutableSegmentImpl mutableSegment = MutableSegmentImplTestUtils
+        .createMutableSegmentImpl(schema, Collections.singleton(METRIC_COLUMN),
+            new HashSet<>(Arrays.asList(SORTED_COLUMN, SV_COLUMN)), false);
+    Random random = new Random();
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      GenericRow row = new GenericRow();
+      row.putField(SORTED_COLUMN, random.nextInt(100));
+      row.putField(SV_COLUMN, "value" + random.nextInt(50));
+      int numValues = 1 + random.nextInt(3);
+      Object[] mvValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        mvValues[j] = (long) random.nextInt(20);
+      }
+      row.putField(MV_COLUMN, mvValues);
+      row.putField(METRIC_COLUMN, random.nextDouble());
+      row.putField(TIME_COLUMN, System.currentTimeMillis());
+      mutableSegment.index(row, new StreamMessageMetadata(System.currentTimeMillis()));
+    }
+
+    File outputDir = new File(TEMP_DIR, "columnar");
+    RealtimeSegmentConverter converter =
+        new RealtimeSegmentConverter(mutableSegment, outputDir.getAbsolutePath(), schema, "testTable", TIME_COLUMN,
+            SEGMENT_NAME, SORTED_COLUMN, Collections.singletonList(SV_COLUMN),
+            Collections.singletonList(METRIC_COLUMN), null);
+    converter.build(null, new ServerMetrics(new MetricsRegistry()));
+
+    ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(new File(outputDir, SEGMENT_NAME), ReadMode.mmap);
+    try {
+      Assert.assertEquals(immutableSegment.getSegmentMetadata().getTotalDocs(), NUM_RECORDS);
+      Assert.assertTrue(immutableSegment.getDataSource(SORTED_COLUMN).getDataSourceMetadata().isSorted());
+      Assert.assertNotNull(immutableSegment.getDataSource(SV_COLUMN).getInvertedIndex());
+      Assert.assertNull(immutableSegment.getDataSource(METRIC_COLUMN).getDictionary());
+
+      // Documents should be in the order of the sorted column
+      int[] sortedDocIds = mutableSegment.getSortedDocIdIterationOrderWithSortedColumn(SORTED_COLUMN);
+      GenericRow expectedRow = new GenericRow();
+      GenericRow actualRow = new GenericRow();
+      for (int i = 0; i < NUM_RECORDS; i++) {
+        mutableSegment.getRecord(sortedDocIds[i], expectedRow);
+        immutableSegment.getRecord(i, actualRow);
+        Assert.assertEquals(actualRow.getValue(SORTED_COLUMN), expectedRow.getValue(SORTED_COLUMN));
+        Assert.assertEquals(actualRow.getValue(SV_COLUMN), expectedRow.getValue(SV_COLUMN));
+        Assert.assertEquals((Object[]) actualRow.getValue(MV_COLUMN), (Object[]) expectedRow.getValue(MV_COLUMN));
+        Assert.assertEquals(actualRow.getValue(METRIC_COLUMN), expectedRow.getValue(METRIC_COLUMN));
+        Assert.assertEquals(actualRow.getValue(TIME_COLUMN), expectedRow.getValue(TIME_COLUMN));
+      }
+    } finally {
+      immutableSegment.destroy();
+      mutableSegment.destroy();
+    }
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
 }
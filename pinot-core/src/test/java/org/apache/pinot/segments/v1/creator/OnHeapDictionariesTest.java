@@ -20,18 +20,24 @@ package org.apache.pinot.segments.v1.creator;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.pinot.common.data.DimensionFieldSpec;
 import org.apache.pinot.common.data.FieldSpec;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.common.utils.StringUtil;
 import org.apache.pinot.core.common.DataSource;
 import org.apache.pinot.core.data.GenericRow;
 import org.apache.pinot.core.data.readers.FileFormat;
@@ -43,6 +49,9 @@ import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
 import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.core.segment.index.readers.Dictionary;
+import org.apache.pinot.core.segment.index.readers.OnHeapStringDictionary;
+import org.apache.pinot.core.segment.index.readers.SharedDictionaryValuePool;
+import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
@@ -106,6 +115,130 @@ public class OnHeapDictionariesTest {
     testColumn(STRING_COLUMN);
   }
 
+  /**
+   * This test loads the same segment twice with the shared dictionary, and checks that the values are shared and
+   * released when the segments are destroyed.
+   */
+  @Test
+  public void testSharedDictionary()
+      throws Exception {
+    SharedDictionaryValuePool sharedDictionaryValuePool = new SharedDictionaryValuePool();
+    IndexLoadingConfig loadingConfig = new IndexLoadingConfig();
+    loadingConfig.setReadMode(ReadMode.heap);
+    loadingConfig.setSegmentVersion(SegmentVersion.v3);
+    loadingConfig.setSharedDictionaryColumns(Collections.singleton(STRING_COLUMN));
+    loadingConfig.setSharedDictionaryValuePool(sharedDictionaryValuePool);
+
+    IndexSegment segment1 = ImmutableSegmentLoader.load(new File(SEGMENT_DIR_NAME, SEGMENT_NAME), loadingConfig);
+    IndexSegment segment2 = ImmutableSegmentLoader.load(new File(SEGMENT_DIR_NAME, SEGMENT_NAME), loadingConfig);
+    Dictionary dictionary1 = segment1.getDataSource(STRING_COLUMN).getDictionary();
+    Dictionary dictionary2 = segment2.getDataSource(STRING_COLUMN).getDictionary();
+    Dictionary offHeapDictionary = _offHeapSegment.getDataSource(STRING_COLUMN).getDictionary();
+    int length = offHeapDictionary.length();
+    Assert.assertEquals(sharedDictionaryValuePool.size(), length);
+    for (int dictId = 0; dictId < length; dictId++) {
+      Assert.assertEquals(dictionary1.getStringValue(dictId), offHeapDictionary.getStringValue(dictId));
+      Assert.assertSame(dictionary1.getStringValue(dictId), dictionary2.getStringValue(dictId));
+      Assert.assertEquals(dictionary1.indexOf(offHeapDictionary.getStringValue(dictId)), dictId);
+    }
+
+    // Values should be kept until the last segment is destroyed
+    segment1.destroy();
+    Assert.assertEquals(sharedDictionaryValuePool.size(), length);
+    segment2.destroy();
+    Assert.assertEquals(sharedDictionaryValuePool.size(), 0);
+  }
+
+  /**
+   * This test loads the String dictionaries of many segments with repeated values, and compares the value instances
+   * retained on heap with and without the shared dictionary.
+   */
+  @Test
+  public void testSharedDictionaryHeapSize()
+      throws IOException {
+    int numSegments = 50;
+    int numValues = 1000;
+    int numBytesPerValue = 8;
+    byte paddingByte = (byte) '%';
+
+    // Use lower case letters only so that the padded values ('%' < 'a') are sorted in the same order
+    Random random = new Random(RANDOM_SEED);
+    Set<String> valueSet = new TreeSet<>();
+    while (valueSet.size() < numValues) {
+      char[] chars = new char[1 + random.nextInt(numBytesPerValue)];
+      for (int i = 0; i < chars.length; i++) {
+        chars[i] = (char) ('a' + random.nextInt(26));
+      }
+      valueSet.add(new String(chars));
+    }
+    String[] values = valueSet.toArray(new String[0]);
+    // Values shorter than numBytesPerValue have a different padded value, which should be interned as well
+    int numShorterValues = 0;
+    for (String value : values) {
+      if (value.length() < numBytesPerValue) {
+        numShorterValues++;
+      }
+    }
+
+    SharedDictionaryValuePool sharedDictionaryValuePool = new SharedDictionaryValuePool();
+    List<OnHeapStringDictionary> sharedDictionaries = new ArrayList<>(numSegments);
+    List<OnHeapStringDictionary> dictionaries = new ArrayList<>(numSegments);
+    for (int i = 0; i < numSegments; i++) {
+      sharedDictionaries.add(
+          new OnHeapStringDictionary(buildStringDictionaryBuffer(values, numBytesPerValue, paddingByte), numValues,
+              numBytesPerValue, paddingByte, sharedDictionaryValuePool));
+      dictionaries.add(
+          new OnHeapStringDictionary(buildStringDictionaryBuffer(values, numBytesPerValue, paddingByte), numValues,
+              numBytesPerValue, paddingByte));
+    }
+
+    Assert.assertEquals(sharedDictionaryValuePool.size(), numValues + numShorterValues);
+    Assert.assertEquals(countValueInstances(sharedDictionaries), numValues);
+    Assert.assertEquals(countValueInstances(dictionaries), numSegments * numValues);
+
+    // Lookups without the per-segment value to id map
+    OnHeapStringDictionary sharedDictionary = sharedDictionaries.get(0);
+    OnHeapStringDictionary dictionary = dictionaries.get(0);
+    for (int dictId = 0; dictId < numValues; dictId++) {
+      String value = values[dictId];
+      Assert.assertEquals(sharedDictionary.getStringValue(dictId), value);
+      Assert.assertEquals(sharedDictionary.insertionIndexOf(value), dictionary.insertionIndexOf(value));
+      Assert.assertEquals(sharedDictionary.insertionIndexOf(value + "a"), dictionary.insertionIndexOf(value + "a"));
+    }
+
+    for (Dictionary dictionaryToClose : sharedDictionaries) {
+      dictionaryToClose.close();
+    }
+    for (Dictionary dictionaryToClose : dictionaries) {
+      dictionaryToClose.close();
+    }
+    Assert.assertEquals(sharedDictionaryValuePool.size(), 0);
+  }
+
+  private static PinotDataBuffer buildStringDictionaryBuffer(String[] values, int numBytesPerValue, byte paddingByte) {
+    PinotDataBuffer dataBuffer =
+        PinotDataBuffer.allocateDirect(values.length * numBytesPerValue, ByteOrder.BIG_ENDIAN, null);
+    int offset = 0;
+    for (String value : values) {
+      byte[] valueBytes = StringUtil.encodeUtf8(value);
+      for (int i = 0; i < numBytesPerValue; i++) {
+        dataBuffer.putByte(offset++, (i < valueBytes.length) ? valueBytes[i] : paddingByte);
+      }
+    }
+    return dataBuffer;
+  }
+
+  private static int countValueInstances(List<? extends Dictionary> dictionaries) {
+    Set<String> valueInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Dictionary dictionary : dictionaries) {
+      int length = dictionary.length();
+      for (int dictId = 0; dictId < length; dictId++) {
+        valueInstances.add(dictionary.getStringValue(dictId));
+      }
+    }
+    return valueInstances.size();
+  }
+
   private void testColumn(String column) {
     DataSource onHeapDataSource = _onHeapSegment.getDataSource(column);
     DataSource offHeapDataSource = _offHeapSegment.getDataSource(column);
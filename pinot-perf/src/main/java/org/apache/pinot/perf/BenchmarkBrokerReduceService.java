@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.response.ServerInstance;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.datatable.DataTableFactory;
+import org.apache.pinot.core.data.manager.SegmentDataManager;
+import org.apache.pinot.core.data.manager.offline.ImmutableSegmentDataManager;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.core.plan.maker.PlanMaker;
+import org.apache.pinot.core.query.reduce.BrokerReduceService;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for {@link BrokerReduceService} reducing the data tables from N servers.
+ * <p>The data table of each server is computed once during setup by executing the query on a different synthetic
+ * segment, and de-serialized from bytes as received by the broker.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkBrokerReduceService {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkBrokerReduceService");
+  private static final int NUM_DOCS_PER_SERVER = 100_000;
+  private static final String[] COLUMNS = {"d1", "d2"};
+  private static final int[] CARDINALITIES = {100, 1000};
+  private static final String AGGREGATION_QUERY = "SELECT COUNT(*), SUM(metric), MAX(metric) FROM table";
+  private static final String GROUP_BY_QUERY =
+      "SELECT COUNT(*), SUM(metric), MAX(metric) FROM table GROUP BY d1, d2 TOP 100";
+  private static final String SELECTION_ORDER_BY_QUERY = "SELECT * FROM table ORDER BY metric, d2 LIMIT 1000";
+  private static final long TIMEOUT_MS = 60_000L;
+
+  @Param({"10", "50"})
+  public int numServers;
+
+  private final BrokerReduceService _brokerReduceService = new BrokerReduceService();
+  private final Pql2Compiler _compiler = new Pql2Compiler();
+  private BrokerRequest _aggregationBrokerRequest;
+  private BrokerRequest _groupByBrokerRequest;
+  private BrokerRequest _selectionOrderByBrokerRequest;
+  private Map<ServerInstance, DataTable> _aggregationDataTableMap;
+  private Map<ServerInstance, DataTable> _groupByDataTableMap;
+  private Map<ServerInstance, DataTable> _selectionOrderByDataTableMap;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    _aggregationBrokerRequest = _compiler.compileToBrokerRequest(AGGREGATION_QUERY);
+    _groupByBrokerRequest = _compiler.compileToBrokerRequest(GROUP_BY_QUERY);
+    _selectionOrderByBrokerRequest = _compiler.compileToBrokerRequest(SELECTION_ORDER_BY_QUERY);
+    _aggregationDataTableMap = new HashMap<>();
+    _groupByDataTableMap = new HashMap<>();
+    _selectionOrderByDataTableMap = new HashMap<>();
+
+    PlanMaker planMaker = new InstancePlanMakerImplV2();
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    Random random = new Random();
+    try {
+      for (int i = 0; i < numServers; i++) {
+        ImmutableSegment indexSegment = BenchmarkQueryEngineUtils
+            .buildSegment(TEMP_DIR, "segment_" + i, BenchmarkQueryEngineUtils.getSchema(COLUMNS),
+                BenchmarkQueryEngineUtils.generateRows(NUM_DOCS_PER_SERVER, COLUMNS, CARDINALITIES, random),
+                Collections.emptyList());
+        SegmentDataManager segmentDataManager = new ImmutableSegmentDataManager(indexSegment);
+        ServerInstance serverInstance = new ServerInstance("server_" + i, 8000);
+        _aggregationDataTableMap.put(serverInstance, DataTableFactory.getDataTable(
+            planMaker.makeInterSegmentPlan(Collections.singletonList(segmentDataManager), _aggregationBrokerRequest,
+                executorService, TIMEOUT_MS).execute().toBytes()));
+        _groupByDataTableMap.put(serverInstance, DataTableFactory.getDataTable(
+            planMaker.makeInterSegmentPlan(Collections.singletonList(segmentDataManager), _groupByBrokerRequest,
+                executorService, TIMEOUT_MS).execute().toBytes()));
+        _selectionOrderByDataTableMap.put(serverInstance, DataTableFactory.getDataTable(
+            planMaker.makeInterSegmentPlan(Collections.singletonList(segmentDataManager),
+                _selectionOrderByBrokerRequest, executorService, TIMEOUT_MS).execute().toBytes()));
+        indexSegment.destroy();
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+
+  // NOTE: BrokerReduceService removes the data tables without data rows from the map, so reduce on a copy of the map.
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public BrokerResponseNative reduceAggregation() {
+    return _brokerReduceService
+        .reduceOnDataTable(_aggregationBrokerRequest, new HashMap<>(_aggregationDataTableMap), null);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public BrokerResponseNative reduceGroupBy() {
+    return _brokerReduceService.reduceOnDataTable(_groupByBrokerRequest, new HashMap<>(_groupByDataTableMap), null);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public BrokerResponseNative reduceSelectionOrderBy() {
+    return _brokerReduceService
+        .reduceOnDataTable(_selectionOrderByBrokerRequest, new HashMap<>(_selectionOrderByDataTableMap), null);
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkBrokerReduceService.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5)).warmupIterations(2).measurementTime(TimeValue.seconds(5))
+        .measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
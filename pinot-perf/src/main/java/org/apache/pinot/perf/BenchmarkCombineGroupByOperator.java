@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.operator.BaseOperator;
+import org.apache.pinot.core.operator.CombineGroupByOperator;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.IntermediateResultsBlock;
+import org.apache.pinot.core.operator.query.AggregationGroupByOperator;
+import org.apache.pinot.core.plan.AggregationGroupByPlanNode;
+import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the merge of the per-segment group-by results in {@link CombineGroupByOperator}.
+ * <p>The per-segment results are computed once on synthetic segments during setup, so that only the merge (with
+ * string keys or primitive keys) and the trim of the merged results are measured.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkCombineGroupByOperator {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkCombineGroupByOperator");
+  private static final int NUM_SEGMENTS = 8;
+  private static final int NUM_DOCS_PER_SEGMENT = 100_000;
+  private static final String[] COLUMNS = {"d1", "d2"};
+  private static final int[] CARDINALITIES = {100, 1000};
+  private static final String QUERY =
+      "SELECT COUNT(*), SUM(metric), MAX(metric) FROM table GROUP BY d1, d2 TOP 100";
+  private static final long TIMEOUT_MS = 60_000L;
+
+  @Param({"false", "true"})
+  public boolean primitiveKeyMerge;
+
+  private final List<ImmutableSegment> _indexSegments = new ArrayList<>(NUM_SEGMENTS);
+  private final List<Operator> _operators = new ArrayList<>(NUM_SEGMENTS);
+  private BrokerRequest _brokerRequest;
+  private ExecutorService _executorService;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    _brokerRequest = new Pql2Compiler().compileToBrokerRequest(QUERY);
+    Random random = new Random();
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      ImmutableSegment indexSegment = BenchmarkQueryEngineUtils
+          .buildSegment(TEMP_DIR, "segment_" + i, BenchmarkQueryEngineUtils.getSchema(COLUMNS),
+              BenchmarkQueryEngineUtils.generateRows(NUM_DOCS_PER_SEGMENT, COLUMNS, CARDINALITIES, random),
+              Collections.emptyList());
+      _indexSegments.add(indexSegment);
+      AggregationGroupByOperator aggregationGroupByOperator =
+          new AggregationGroupByPlanNode(indexSegment, _brokerRequest,
+              InstancePlanMakerImplV2.DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY,
+              InstancePlanMakerImplV2.DEFAULT_NUM_GROUPS_LIMIT).run();
+      IntermediateResultsBlock resultsBlock = aggregationGroupByOperator.nextBlock();
+      _operators.add(new ResultsBlockOperator(resultsBlock, aggregationGroupByOperator.getExecutionStatistics()));
+    }
+    _executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  @TearDown
+  public void tearDown() {
+    _executorService.shutdown();
+    for (ImmutableSegment indexSegment : _indexSegments) {
+      indexSegment.destroy();
+    }
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public IntermediateResultsBlock combineGroupBy() {
+    return new CombineGroupByOperator(_operators, _brokerRequest, _executorService, TIMEOUT_MS,
+        InstancePlanMakerImplV2.DEFAULT_NUM_GROUPS_LIMIT, primitiveKeyMerge).nextBlock();
+  }
+
+  /**
+   * Operator that returns the pre-computed results block.
+   * <p>NOTE: the merge does not modify the per-segment results of COUNT, SUM and MAX, so the results block can be
+   * reused across invocations.
+   */
+  private static class ResultsBlockOperator extends BaseOperator<IntermediateResultsBlock> {
+    private final IntermediateResultsBlock _resultsBlock;
+    private final ExecutionStatistics _executionStatistics;
+
+    ResultsBlockOperator(IntermediateResultsBlock resultsBlock, ExecutionStatistics executionStatistics) {
+      _resultsBlock = resultsBlock;
+      _executionStatistics = executionStatistics;
+    }
+
+    @Override
+    protected IntermediateResultsBlock getNextBlock() {
+      return _resultsBlock;
+    }
+
+    @Override
+    public String getOperatorName() {
+      return "ResultsBlockOperator";
+    }
+
+    @Override
+    public ExecutionStatistics getExecutionStatistics() {
+      return _executionStatistics;
+    }
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkCombineGroupByOperator.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5)).warmupIterations(2).measurementTime(TimeValue.seconds(5))
+        .measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
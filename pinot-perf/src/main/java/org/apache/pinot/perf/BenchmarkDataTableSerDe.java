@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang.RandomStringUtils;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataTable;
+import org.apache.pinot.core.common.datatable.DataTableBuilder;
+import org.apache.pinot.core.common.datatable.DataTableFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the serialization and de-serialization of the data tables (selection-like rows with INT, LONG, DOUBLE
+ * and STRING columns) for each data table version.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataTableSerDe {
+  private static final int NUM_ROWS = 10_000;
+  private static final int STRING_CARDINALITY = 1000;
+  private static final String[] COLUMN_NAMES = {"intColumn", "longColumn", "doubleColumn", "stringColumn"};
+  private static final DataSchema.ColumnDataType[] COLUMN_DATA_TYPES =
+      {DataSchema.ColumnDataType.INT, DataSchema.ColumnDataType.LONG, DataSchema.ColumnDataType.DOUBLE,
+          DataSchema.ColumnDataType.STRING};
+
+  @Param({"2", "3"})
+  public int dataTableVersion;
+
+  private int _originalDataTableVersion;
+  private DataTable _dataTable;
+  private byte[] _bytes;
+
+  @Setup
+  public void setUp()
+      throws IOException {
+    _originalDataTableVersion = DataTableBuilder.getCurrentDataTableVersion();
+    DataTableBuilder.setCurrentDataTableVersion(dataTableVersion);
+
+    Random random = new Random();
+    String[] stringValues = new String[STRING_CARDINALITY];
+    for (int i = 0; i < STRING_CARDINALITY; i++) {
+      stringValues[i] = RandomStringUtils.randomAlphanumeric(20);
+    }
+    DataTableBuilder dataTableBuilder = new DataTableBuilder(new DataSchema(COLUMN_NAMES, COLUMN_DATA_TYPES));
+    for (int i = 0; i < NUM_ROWS; i++) {
+      dataTableBuilder.startRow();
+      dataTableBuilder.setColumn(0, random.nextInt());
+      dataTableBuilder.setColumn(1, random.nextLong());
+      dataTableBuilder.setColumn(2, random.nextDouble());
+      dataTableBuilder.setColumn(3, stringValues[random.nextInt(STRING_CARDINALITY)]);
+      dataTableBuilder.finishRow();
+    }
+    _dataTable = dataTableBuilder.build();
+    _bytes = _dataTable.toBytes();
+  }
+
+  @TearDown
+  public void tearDown() {
+    DataTableBuilder.setCurrentDataTableVersion(_originalDataTableVersion);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public byte[] serialize()
+      throws IOException {
+    return _dataTable.toBytes();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public long deserialize()
+      throws IOException {
+    DataTable dataTable = DataTableFactory.getDataTable(_bytes);
+    long ret = 0;
+    for (int rowId = 0; rowId < NUM_ROWS; rowId++) {
+      ret += dataTable.getInt(rowId, 0);
+      ret += dataTable.getLong(rowId, 1);
+      ret += (long) dataTable.getDouble(rowId, 2);
+      ret += dataTable.getString(rowId, 3).length();
+    }
+    return ret;
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt =
+        new OptionsBuilder().include(BenchmarkDataTableSerDe.class.getSimpleName()).warmupTime(TimeValue.seconds(5))
+            .warmupIterations(2).measurementTime(TimeValue.seconds(5)).measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.transform.TransformExpressionTree;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.operator.blocks.TransformBlock;
+import org.apache.pinot.core.operator.transform.TransformOperator;
+import org.apache.pinot.core.plan.DocIdSetPlanNode;
+import org.apache.pinot.core.plan.TransformPlanNode;
+import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.core.query.aggregation.groupby.DictionaryBasedGroupKeyGenerator;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the group key generation of {@link DictionaryBasedGroupKeyGenerator} on one block of a synthetic
+ * segment, for each type of raw key holder (chosen by the cardinality product of the group-by columns):
+ * <ul>
+ *   <li>array: 1 column, cardinality product 1,000 (smaller than the array based threshold)</li>
+ *   <li>intMap: 2 columns, cardinality product 1,000,000 (smaller than Integer.MAX_VALUE)</li>
+ *   <li>longMap: 4 columns, cardinality product 10^12 (smaller than Long.MAX_VALUE)</li>
+ *   <li>arrayMap: 7 columns, cardinality product 10^21 (larger than Long.MAX_VALUE)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDictionaryBasedGroupKeyGenerator {
+  private static final File TEMP_DIR =
+      new File(FileUtils.getTempDirectory(), "BenchmarkDictionaryBasedGroupKeyGenerator");
+  private static final int NUM_DOCS = DocIdSetPlanNode.MAX_DOC_PER_CALL;
+  private static final String[] COLUMNS = {"d1", "d2", "d3", "d4", "d5", "d6", "d7"};
+  private static final int CARDINALITY = 1000;
+
+  @Param({"array", "intMap", "longMap", "arrayMap"})
+  public String holderType;
+
+  private ImmutableSegment _indexSegment;
+  private TransformOperator _transformOperator;
+  private TransformBlock _transformBlock;
+  private TransformExpressionTree[] _groupByExpressions;
+  private int[] _groupKeys;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    int[] cardinalities = new int[COLUMNS.length];
+    Arrays.fill(cardinalities, CARDINALITY);
+    _indexSegment =
+        BenchmarkQueryEngineUtils.buildSegment(TEMP_DIR, "segment", BenchmarkQueryEngineUtils.getSchema(COLUMNS),
+            BenchmarkQueryEngineUtils.generateRows(NUM_DOCS, COLUMNS, cardinalities, new Random()),
+            Collections.emptyList());
+
+    // NOTE: put all columns into group-by so that transform operator has expressions for all columns
+    String query = "SELECT COUNT(*) FROM table GROUP BY " + String.join(", ", COLUMNS) + " TOP 10";
+    _transformOperator =
+        new TransformPlanNode(_indexSegment, new Pql2Compiler().compileToBrokerRequest(query)).run();
+    _transformBlock = _transformOperator.nextBlock();
+
+    int numGroupByColumns;
+    switch (holderType) {
+      case "array":
+        numGroupByColumns = 1;
+        break;
+      case "intMap":
+        numGroupByColumns = 2;
+        break;
+      case "longMap":
+        numGroupByColumns = 4;
+        break;
+      case "arrayMap":
+        numGroupByColumns = 7;
+        break;
+      default:
+        throw new IllegalStateException("Unsupported holder type: " + holderType);
+    }
+    _groupByExpressions = new TransformExpressionTree[numGroupByColumns];
+    for (int i = 0; i < numGroupByColumns; i++) {
+      _groupByExpressions[i] = TransformExpressionTree.compileToExpressionTree(COLUMNS[i]);
+    }
+    _groupKeys = new int[NUM_DOCS];
+  }
+
+  @TearDown
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int generateKeysForBlock() {
+    DictionaryBasedGroupKeyGenerator groupKeyGenerator =
+        new DictionaryBasedGroupKeyGenerator(_transformOperator, _groupByExpressions,
+            InstancePlanMakerImplV2.DEFAULT_NUM_GROUPS_LIMIT,
+            InstancePlanMakerImplV2.DEFAULT_MAX_INITIAL_RESULT_HOLDER_CAPACITY);
+    groupKeyGenerator.generateKeysForBlock(_transformBlock, _groupKeys);
+    return groupKeyGenerator.getCurrentGroupKeyUpperBound();
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt = new OptionsBuilder().include(BenchmarkDictionaryBasedGroupKeyGenerator.class.getSimpleName())
+        .warmupTime(TimeValue.seconds(5)).warmupIterations(2).measurementTime(TimeValue.seconds(5))
+        .measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
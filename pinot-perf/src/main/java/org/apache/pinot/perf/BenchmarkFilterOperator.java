@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.core.common.BlockDocIdIterator;
+import org.apache.pinot.core.common.Constants;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.operator.filter.BaseFilterOperator;
+import org.apache.pinot.core.plan.FilterPlanNode;
+import org.apache.pinot.pql.parsers.Pql2Compiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+
+/**
+ * Benchmark for the doc id iteration of <code>AndFilterOperator</code> and <code>OrFilterOperator</code> on a
+ * synthetic segment, with the child predicates evaluated with inverted index (bitmap) or with scan.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkFilterOperator {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkFilterOperator");
+  private static final Pql2Compiler COMPILER = new Pql2Compiler();
+  private static final int NUM_DOCS = 1_000_000;
+  // Columns with inverted index
+  private static final String[] INVERTED_INDEX_COLUMNS = {"i1", "i2", "i3"};
+  // Columns without inverted index (evaluated with scan)
+  private static final String[] SCAN_COLUMNS = {"s1", "s2", "s3"};
+  private static final int CARDINALITY = 100;
+
+  @Param({"invertedIndex", "scan", "mixed"})
+  public String columnType;
+
+  private ImmutableSegment _indexSegment;
+  private BrokerRequest _andBrokerRequest;
+  private BrokerRequest _orBrokerRequest;
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    String[] columns = new String[INVERTED_INDEX_COLUMNS.length + SCAN_COLUMNS.length];
+    System.arraycopy(INVERTED_INDEX_COLUMNS, 0, columns, 0, INVERTED_INDEX_COLUMNS.length);
+    System.arraycopy(SCAN_COLUMNS, 0, columns, INVERTED_INDEX_COLUMNS.length, SCAN_COLUMNS.length);
+    int[] cardinalities = new int[columns.length];
+    Arrays.fill(cardinalities, CARDINALITY);
+    _indexSegment = BenchmarkQueryEngineUtils.buildSegment(TEMP_DIR, "segment",
+        BenchmarkQueryEngineUtils.getSchema(columns),
+        BenchmarkQueryEngineUtils.generateRows(NUM_DOCS, columns, cardinalities, new Random()),
+        Arrays.asList(INVERTED_INDEX_COLUMNS));
+
+    String[] predicateColumns;
+    switch (columnType) {
+      case "invertedIndex":
+        predicateColumns = INVERTED_INDEX_COLUMNS;
+        break;
+      case "scan":
+        predicateColumns = SCAN_COLUMNS;
+        break;
+      default:
+        predicateColumns = new String[]{INVERTED_INDEX_COLUMNS[0], INVERTED_INDEX_COLUMNS[1], SCAN_COLUMNS[0]};
+        break;
+    }
+    // Each predicate matches about 10% of the docs
+    String[] predicates = new String[predicateColumns.length];
+    for (int i = 0; i < predicateColumns.length; i++) {
+      predicates[i] = predicateColumns[i] + " < " + CARDINALITY / 10;
+    }
+    _andBrokerRequest =
+        COMPILER.compileToBrokerRequest("SELECT COUNT(*) FROM table WHERE " + String.join(" AND ", predicates));
+    _orBrokerRequest =
+        COMPILER.compileToBrokerRequest("SELECT COUNT(*) FROM table WHERE " + String.join(" OR ", predicates));
+  }
+
+  @TearDown
+  public void tearDown() {
+    _indexSegment.destroy();
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int andFilterOperator() {
+    return iterate(_andBrokerRequest);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int orFilterOperator() {
+    return iterate(_orBrokerRequest);
+  }
+
+  private int iterate(BrokerRequest brokerRequest) {
+    BaseFilterOperator filterOperator = new FilterPlanNode(_indexSegment, brokerRequest).run();
+    BlockDocIdIterator iterator = filterOperator.nextBlock().getBlockDocIdSet().iterator();
+    int ret = 0;
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      ret += docId;
+    }
+    return ret;
+  }
+
+  public static void main(String[] args)
+      throws Exception {
+    Options opt =
+        new OptionsBuilder().include(BenchmarkFilterOperator.class.getSimpleName()).warmupTime(TimeValue.seconds(5))
+            .warmupIterations(2).measurementTime(TimeValue.seconds(5)).measurementIterations(3).forks(1).build();
+
+    new Runner(opt).run();
+  }
+}
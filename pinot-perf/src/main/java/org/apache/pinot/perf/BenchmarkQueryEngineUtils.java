@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.MetricFieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.segment.ReadMode;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
+import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
+
+
+/**
+ * Utility methods shared by the query engine benchmarks to generate synthetic segments.
+ */
+class BenchmarkQueryEngineUtils {
+  static final String TABLE_NAME = "table";
+  static final String METRIC_COLUMN = "metric";
+
+  private BenchmarkQueryEngineUtils() {
+  }
+
+  /**
+   * Generates rows with random values for the given INT dimension columns (value range is [0, cardinality)) and a
+   * random INT metric column.
+   */
+  static List<GenericRow> generateRows(int numRows, String[] dimensionColumns, int[] cardinalities, Random random) {
+    List<GenericRow> rows = new ArrayList<>(numRows);
+    int numDimensionColumns = dimensionColumns.length;
+    for (int i = 0; i < numRows; i++) {
+      Map<String, Object> fields = new HashMap<>();
+      for (int j = 0; j < numDimensionColumns; j++) {
+        fields.put(dimensionColumns[j], random.nextInt(cardinalities[j]));
+      }
+      fields.put(METRIC_COLUMN, random.nextInt(1000));
+      GenericRow row = new GenericRow();
+      row.init(fields);
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  /**
+   * Returns the schema with the given INT dimension columns and an INT metric column.
+   */
+  static Schema getSchema(String[] dimensionColumns) {
+    Schema schema = new Schema();
+    schema.setSchemaName(TABLE_NAME);
+    for (String dimensionColumn : dimensionColumns) {
+      schema.addField(new DimensionFieldSpec(dimensionColumn, FieldSpec.DataType.INT, true));
+    }
+    schema.addField(new MetricFieldSpec(METRIC_COLUMN, FieldSpec.DataType.INT));
+    return schema;
+  }
+
+  /**
+   * Builds a segment from the given rows under the output directory, and loads it on heap with inverted index on the
+   * given columns.
+   */
+  static ImmutableSegment buildSegment(File outDir, String segmentName, Schema schema, List<GenericRow> rows,
+      List<String> invertedIndexColumns)
+      throws Exception {
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(outDir.getAbsolutePath());
+    config.setTableName(TABLE_NAME);
+    config.setSegmentName(segmentName);
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig();
+    indexLoadingConfig.setReadMode(ReadMode.heap);
+    indexLoadingConfig.setInvertedIndexColumns(new HashSet<>(invertedIndexColumns));
+    return ImmutableSegmentLoader.load(new File(outDir, segmentName), indexLoadingConfig);
+  }
+}
@@ -18,13 +18,21 @@
  */
 package org.apache.pinot.server.starter.helix;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.Lock;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -38,10 +46,12 @@ import org.apache.pinot.common.config.TableConfig;
 import org.apache.pinot.common.config.TableNameBuilder;
 import org.apache.pinot.common.data.Schema;
 import org.apache.pinot.common.metadata.ZKMetadataProvider;
+import org.apache.pinot.common.metrics.ServerGauge;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.segment.SegmentMetadata;
 import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.core.data.manager.InstanceDataManager;
+import org.apache.pinot.core.data.manager.MemoryGovernor;
 import org.apache.pinot.core.data.manager.SegmentDataManager;
 import org.apache.pinot.core.data.manager.TableDataManager;
 import org.apache.pinot.core.data.manager.config.TableDataManagerConfig;
@@ -50,6 +60,7 @@ import org.apache.pinot.core.indexsegment.immutable.ImmutableSegment;
 import org.apache.pinot.core.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.core.segment.index.loader.IndexLoadingConfig;
 import org.apache.pinot.core.segment.index.loader.LoaderUtils;
+import org.apache.pinot.core.segment.index.loader.SegmentWarmer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +81,11 @@ public class HelixInstanceDataManager implements InstanceDataManager {
   private ZkHelixPropertyStore<ZNRecord> _propertyStore;
   private ServerMetrics _serverMetrics;
 
+  // Bounds the number of segments loaded (or reloaded) in parallel across all tables, null if unlimited
+  private Semaphore _segmentLoadSemaphore;
+  // Executor to reload all segments of a table in parallel
+  private ExecutorService _segmentReloadExecutor;
+
   @Override
   public synchronized void init(@Nonnull Configuration config, @Nonnull ZkHelixPropertyStore<ZNRecord> propertyStore,
       @Nonnull ServerMetrics serverMetrics)
@@ -94,6 +110,26 @@ public class HelixInstanceDataManager implements InstanceDataManager {
     // Initialize the table data manager provider
     TableDataManagerProvider.init(_instanceDataManagerConfig);
 
+    int maxParallelSegmentLoads = _instanceDataManagerConfig.getMaxParallelSegmentLoads();
+    int numSegmentReloadThreads;
+    if (maxParallelSegmentLoads > 0) {
+      _segmentLoadSemaphore = new Semaphore(maxParallelSegmentLoads, true);
+      numSegmentReloadThreads = maxParallelSegmentLoads;
+    } else {
+      _segmentLoadSemaphore = null;
+      numSegmentReloadThreads = Runtime.getRuntime().availableProcessors();
+    }
+    _segmentReloadExecutor = Executors.newFixedThreadPool(numSegmentReloadThreads,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("segment-reload-%d").build());
+    LOGGER.info("Max parallel segment loads: {}", maxParallelSegmentLoads);
+
+    // Initialize the memory governor
+    MemoryGovernor.init(_instanceDataManagerConfig.getConfig());
+
+    // Initialize the segment warmer
+    SegmentWarmer.init(_instanceDataManagerConfig.getSegmentWarmUpThreads(),
+        _instanceDataManagerConfig.getSegmentWarmUpMaxBytesPerSecond());
+
     LOGGER.info("Initialized Helix instance data manager");
   }
 
@@ -104,6 +140,10 @@ public class HelixInstanceDataManager implements InstanceDataManager {
 
   @Override
   public synchronized void shutDown() {
+    if (_segmentReloadExecutor != null) {
+      _segmentReloadExecutor.shutdownNow();
+    }
+    SegmentWarmer.shutDown();
     LOGGER.info("Helix instance data manager shut down");
   }
 
@@ -113,8 +153,16 @@ public class HelixInstanceDataManager implements InstanceDataManager {
     LOGGER.info("Adding segment: {} to table: {}", segmentName, offlineTableName);
     TableConfig tableConfig = ZKMetadataProvider.getTableConfig(_propertyStore, offlineTableName);
     Preconditions.checkNotNull(tableConfig);
-    _tableDataManagerMap.computeIfAbsent(offlineTableName, k -> createTableDataManager(k, tableConfig))
-        .addSegment(indexDir, new IndexLoadingConfig(_instanceDataManagerConfig, tableConfig));
+    TableDataManager tableDataManager =
+        _tableDataManagerMap.computeIfAbsent(offlineTableName, k -> createTableDataManager(k, tableConfig));
+    IndexLoadingConfig indexLoadingConfig = createIndexLoadingConfig(tableDataManager, tableConfig);
+    // Check the memory budget before acquiring the segment load permit, so that a deferred admission does not block
+    // other segment loads
+    MemoryGovernor.admitSegmentLoad(offlineTableName, tableConfig, indexDir, indexLoadingConfig.getReadMode());
+    loadSegmentWithThrottling(offlineTableName, () -> {
+      tableDataManager.addSegment(indexDir, indexLoadingConfig);
+      return null;
+    });
     LOGGER.info("Added segment: {} to table: {}", segmentName, offlineTableName);
   }
 
@@ -124,11 +172,19 @@ public class HelixInstanceDataManager implements InstanceDataManager {
     LOGGER.info("Adding segment: {} to table: {}", segmentName, realtimeTableName);
     TableConfig tableConfig = ZKMetadataProvider.getTableConfig(_propertyStore, realtimeTableName);
     Preconditions.checkNotNull(tableConfig);
-    _tableDataManagerMap.computeIfAbsent(realtimeTableName, k -> createTableDataManager(k, tableConfig))
-        .addSegment(segmentName, tableConfig, new IndexLoadingConfig(_instanceDataManagerConfig, tableConfig));
+    TableDataManager tableDataManager =
+        _tableDataManagerMap.computeIfAbsent(realtimeTableName, k -> createTableDataManager(k, tableConfig));
+    tableDataManager.addSegment(segmentName, tableConfig, createIndexLoadingConfig(tableDataManager, tableConfig));
     LOGGER.info("Added segment: {} to table: {}", segmentName, realtimeTableName);
   }
 
+  private IndexLoadingConfig createIndexLoadingConfig(@Nonnull TableDataManager tableDataManager,
+      @Nonnull TableConfig tableConfig) {
+    IndexLoadingConfig indexLoadingConfig = new IndexLoadingConfig(_instanceDataManagerConfig, tableConfig);
+    indexLoadingConfig.setSharedDictionaryValuePool(tableDataManager.getSharedDictionaryValuePool());
+    return indexLoadingConfig;
+  }
+
   private TableDataManager createTableDataManager(@Nonnull String tableNameWithType, @Nonnull TableConfig tableConfig) {
     LOGGER.info("Creating table data manager for table: {}", tableNameWithType);
     TableDataManagerConfig tableDataManagerConfig =
@@ -203,11 +259,82 @@ public class HelixInstanceDataManager implements InstanceDataManager {
       schema = ZKMetadataProvider.getTableSchema(_propertyStore, tableNameWithType);
     }
 
-    for (SegmentMetadata segmentMetadata : getAllSegmentsMetadata(tableNameWithType)) {
-      reloadSegment(tableNameWithType, segmentMetadata, tableConfig, schema);
+    List<SegmentMetadata> segmentsMetadata = getAllSegmentsMetadata(tableNameWithType);
+    List<Callable<Void>> segmentReloaders = new ArrayList<>(segmentsMetadata.size());
+    for (SegmentMetadata segmentMetadata : segmentsMetadata) {
+      final Schema finalSchema = schema;
+      segmentReloaders.add(() -> {
+        reloadSegment(tableNameWithType, segmentMetadata, tableConfig, finalSchema);
+        return null;
+      });
+    }
+    reloadSegmentsInParallel(tableNameWithType, segmentReloaders);
+
+    LOGGER.info("Reloaded all {} segments in table: {}", segmentReloaders.size(), tableNameWithType);
+  }
+
+  /**
+   * Helper method to run the segment reloaders in parallel with the segment reload executor. All the reloaders are run
+   * even if some of them fail, so that one failed segment does not prevent the other segments from being reloaded.
+   * After all the reloads are done, the first failure is thrown with the other failures attached as suppressed
+   * exceptions.
+   */
+  @VisibleForTesting
+  void reloadSegmentsInParallel(String tableNameWithType, List<Callable<Void>> segmentReloaders)
+      throws Exception {
+    List<Future<Void>> futures = new ArrayList<>(segmentReloaders.size());
+    for (Callable<Void> segmentReloader : segmentReloaders) {
+      futures.add(_segmentReloadExecutor.submit(segmentReloader));
+    }
+    Exception reloadException = null;
+    int numFailedSegments = 0;
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        numFailedSegments++;
+        Exception cause = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        if (reloadException == null) {
+          reloadException = cause;
+        } else {
+          reloadException.addSuppressed(cause);
+        }
+      } catch (InterruptedException e) {
+        for (Future<Void> futureToCancel : futures) {
+          futureToCancel.cancel(true);
+        }
+        throw e;
+      }
     }
+    if (reloadException != null) {
+      LOGGER.error("Failed to reload {} out of {} segments in table: {}", numFailedSegments, futures.size(),
+          tableNameWithType);
+      throw reloadException;
+    }
+  }
 
-    LOGGER.info("Reloaded all segments in table: {}", tableNameWithType);
+  /**
+   * Helper method to load (or reload) a segment with the bound on the number of segments loaded in parallel. The number
+   * of segments waiting to be loaded or being loaded is tracked in the {@link ServerGauge#SEGMENTS_PENDING_LOAD} gauge.
+   */
+  @VisibleForTesting
+  void loadSegmentWithThrottling(String tableNameWithType, Callable<Void> segmentLoader)
+      throws Exception {
+    _serverMetrics.addValueToTableGauge(tableNameWithType, ServerGauge.SEGMENTS_PENDING_LOAD, 1L);
+    try {
+      if (_segmentLoadSemaphore != null) {
+        _segmentLoadSemaphore.acquire();
+      }
+      try {
+        segmentLoader.call();
+      } finally {
+        if (_segmentLoadSemaphore != null) {
+          _segmentLoadSemaphore.release();
+        }
+      }
+    } finally {
+      _serverMetrics.addValueToTableGauge(tableNameWithType, ServerGauge.SEGMENTS_PENDING_LOAD, -1L);
+    }
   }
 
   private void reloadSegment(@Nonnull String tableNameWithType, @Nonnull SegmentMetadata segmentMetadata,
@@ -223,6 +350,11 @@ public class HelixInstanceDataManager implements InstanceDataManager {
     }
     Preconditions.checkState(indexDir.isDirectory(), "Index directory: %s is not a directory", indexDir);
 
+    // Check the memory budget before touching the files on disk
+    TableDataManager tableDataManager = _tableDataManagerMap.get(tableNameWithType);
+    IndexLoadingConfig indexLoadingConfig = createIndexLoadingConfig(tableDataManager, tableConfig);
+    MemoryGovernor.admitSegmentLoad(tableNameWithType, tableConfig, indexDir, indexLoadingConfig.getReadMode());
+
     File parentFile = indexDir.getParentFile();
     File segmentBackupDir =
         new File(parentFile, indexDir.getName() + CommonConstants.Segment.SEGMENT_BACKUP_DIR_SUFFIX);
@@ -239,15 +371,17 @@ public class HelixInstanceDataManager implements InstanceDataManager {
       Preconditions.checkState(indexDir.renameTo(segmentBackupDir),
           "Failed to rename index directory: %s to segment backup directory: %s", indexDir, segmentBackupDir);
 
-      // Copy from segment backup directory back to index directory
-      FileUtils.copyDirectory(segmentBackupDir, indexDir);
+      loadSegmentWithThrottling(tableNameWithType, () -> {
+        // Copy from segment backup directory back to index directory
+        FileUtils.copyDirectory(segmentBackupDir, indexDir);
 
-      // Load from index directory
-      ImmutableSegment immutableSegment = ImmutableSegmentLoader
-          .load(indexDir, new IndexLoadingConfig(_instanceDataManagerConfig, tableConfig), schema);
+        // Load from index directory
+        ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(indexDir, indexLoadingConfig, schema);
 
-      // Replace the old segment in memory
-      _tableDataManagerMap.get(tableNameWithType).addSegment(immutableSegment);
+        // Replace the old segment in memory
+        tableDataManager.addSegment(immutableSegment);
+        return null;
+      });
 
       // Rename segment backup directory to segment temporary directory (atomic)
       // The reason to first rename then delete is that, renaming is an atomic operation, but deleting is not. When we
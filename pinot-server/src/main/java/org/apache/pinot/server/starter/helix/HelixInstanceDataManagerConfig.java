@@ -89,6 +89,25 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
   //
   private static final String MAX_PARALLEL_REFRESH_THREADS = "max.parallel.refresh.threads";
 
+  // Key of how many segments can be loaded (including the pre-processing) or reloaded in parallel on one server.
+  // Segment loads from the Helix state transitions and the reloads all share the same limit, which bounds the disk
+  // I/O spent on loading segments. The same number of threads are used to reload all segments of a table in parallel.
+  // A value of <= 0 (default) indicates unlimited (segments are still reloaded with one thread per core).
+  private static final String MAX_PARALLEL_SEGMENT_LOADS = "max.parallel.segment.loads";
+
+  // Key of the warm-up mode of the memory mapped segments after they are loaded:
+  // - none (default): no warm-up, pages are faulted in by the queries
+  // - async: the segment is served right away and warmed up in the background
+  // - sync: the segment is warmed up before it is served, which delays the ONLINE state transition
+  private static final String SEGMENT_WARM_UP_MODE = "segment.warmup.mode";
+  // Key of the comma separated index types to warm up (e.g. "dictionary,inverted_index,forward_index"), see
+  // ColumnIndexType. The columns to warm up can be set per table with the same key in the table custom configs.
+  private static final String SEGMENT_WARM_UP_INDEX_TYPES = "segment.warmup.index.types";
+  // Key of the number of threads to warm up the segments in the background
+  private static final String SEGMENT_WARM_UP_THREADS = "segment.warmup.threads";
+  // Key of the max bytes read per second by the warm-up across all segments. A value of <= 0 indicates unlimited.
+  private static final String SEGMENT_WARM_UP_MAX_BYTES_PER_SECOND = "segment.warmup.max.bytes.per.second";
+
   private final static String[] REQUIRED_KEYS = {INSTANCE_ID, INSTANCE_DATA_DIR, READ_MODE};
   private Configuration _instanceDataManagerConfiguration = null;
 
@@ -181,10 +200,34 @@ public class HelixInstanceDataManagerConfig implements InstanceDataManagerConfig
     return _instanceDataManagerConfiguration.getInt(MAX_PARALLEL_REFRESH_THREADS, 1);
   }
 
+  public int getMaxParallelSegmentLoads() {
+    return _instanceDataManagerConfiguration.getInt(MAX_PARALLEL_SEGMENT_LOADS, 0);
+  }
+
   public int getMaxParallelSegmentBuilds() {
     return _instanceDataManagerConfiguration.getInt(MAX_PARALLEL_SEGMENT_BUILDS, 0);
   }
 
+  @Override
+  public String getSegmentWarmUpMode() {
+    return _instanceDataManagerConfiguration.getString(SEGMENT_WARM_UP_MODE, null);
+  }
+
+  @Override
+  public String[] getSegmentWarmUpIndexTypes() {
+    return _instanceDataManagerConfiguration.getStringArray(SEGMENT_WARM_UP_INDEX_TYPES);
+  }
+
+  @Override
+  public int getSegmentWarmUpThreads() {
+    return _instanceDataManagerConfiguration.getInt(SEGMENT_WARM_UP_THREADS, 1);
+  }
+
+  @Override
+  public long getSegmentWarmUpMaxBytesPerSecond() {
+    return _instanceDataManagerConfiguration.getLong(SEGMENT_WARM_UP_MAX_BYTES_PER_SECOND, 0L);
+  }
+
   @Override
   public String toString() {
     String configString = "";
@@ -43,7 +43,6 @@ import org.apache.helix.model.IdealState;
 import org.apache.helix.model.InstanceConfig;
 import org.apache.helix.model.Message;
 import org.apache.helix.model.builder.HelixConfigScopeBuilder;
-import org.apache.helix.participant.statemachine.StateModelFactory;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.common.Utils;
 import org.apache.pinot.common.config.TableNameBuilder;
@@ -54,6 +53,8 @@ import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.utils.NetUtil;
 import org.apache.pinot.common.utils.ServiceStatus;
 import org.apache.pinot.common.utils.ServiceStatus.Status;
+import org.apache.pinot.core.common.datatable.DataTableBuilder;
+import org.apache.pinot.core.data.manager.MemoryGovernor;
 import org.apache.pinot.core.segment.memory.PinotDataBuffer;
 import org.apache.pinot.filesystem.PinotFSFactory;
 import org.apache.pinot.server.conf.ServerConf;
@@ -96,6 +97,7 @@ public class HelixServerStarter {
   private final HelixAdmin _helixAdmin;
   private final ServerInstance _serverInstance;
   private final AdminApiApplication _adminApiApplication;
+  private final SegmentOnlineOfflineStateModelFactory _stateModelFactory;
   private final String _zkServers;
 
   public HelixServerStarter(String helixClusterName, String zkServer, Configuration serverConf)
@@ -160,6 +162,10 @@ public class HelixServerStarter {
     LOGGER.info("Starting server instance");
     Utils.logVersions();
     ServerConf serverInstanceConfig = DefaultHelixStarterServerConfig.getDefaultHelixServerConfig(_serverConf);
+    int dataTableVersion =
+        _serverConf.getInt(CONFIG_OF_CURRENT_DATA_TABLE_VERSION, DEFAULT_CURRENT_DATA_TABLE_VERSION);
+    LOGGER.info("Setting data table version to: {}", dataTableVersion);
+    DataTableBuilder.setCurrentDataTableVersion(dataTableVersion);
     // Need to do this before we start receiving state transitions.
     ServerSegmentCompletionProtocolHandler
         .init(_serverConf.subset(SegmentCompletionProtocol.PREFIX_OF_CONFIG_OF_SEGMENT_UPLOADER));
@@ -170,11 +176,14 @@ public class HelixServerStarter {
     // Register state model factory
     SegmentFetcherAndLoader fetcherAndLoader =
         new SegmentFetcherAndLoader(_serverConf, _serverInstance.getInstanceDataManager(), propertyStore);
-    StateModelFactory<?> stateModelFactory =
+    int maxParallelStateTransitions =
+        _serverConf.getInt(CONFIG_OF_MAX_PARALLEL_STATE_TRANSITIONS, DEFAULT_MAX_PARALLEL_STATE_TRANSITIONS);
+    LOGGER.info("Max parallel state transitions: {}", maxParallelStateTransitions);
+    _stateModelFactory =
         new SegmentOnlineOfflineStateModelFactory(_instanceId, _serverInstance.getInstanceDataManager(),
-            fetcherAndLoader, propertyStore);
+            fetcherAndLoader, propertyStore, maxParallelStateTransitions);
     _helixManager.getStateMachineEngine()
-        .registerStateModelFactory(SegmentOnlineOfflineStateModelFactory.getStateModelName(), stateModelFactory);
+        .registerStateModelFactory(SegmentOnlineOfflineStateModelFactory.getStateModelName(), _stateModelFactory);
 
     // Start restlet server for admin API endpoint
     int adminApiPort = _serverConf.getInt(CONFIG_OF_ADMIN_API_PORT, DEFAULT_ADMIN_API_PORT);
@@ -218,6 +227,8 @@ public class HelixServerStarter {
     serverMetrics.addCallbackGauge("memory.mmapBufferCount", PinotDataBuffer::getMmapBufferCount);
     serverMetrics.addCallbackGauge("memory.mmapBufferUsage", PinotDataBuffer::getMmapBufferUsage);
     serverMetrics.addCallbackGauge("memory.allocationFailureCount", PinotDataBuffer::getAllocationFailureCount);
+    serverMetrics.addCallbackGauge("memory.pressurePercent", () -> (long) (MemoryGovernor.getMemoryPressure() * 100));
+    serverMetrics.addCallbackGauge("memory.admissionRejectionCount", MemoryGovernor::getRejectionCount);
   }
 
   private void setAdminApiPort(int adminApiPort) {
@@ -316,6 +327,7 @@ public class HelixServerStarter {
       shutdownQueryCheck(endTimeMs);
     }
     _helixManager.disconnect();
+    _stateModelFactory.shutDown();
     _serverInstance.shutDown();
     if (_serverConf.getBoolean(CONFIG_OF_SHUTDOWN_ENABLE_RESOURCE_CHECK, DEFAULT_SHUTDOWN_ENABLE_RESOURCE_CHECK)) {
       shutdownResourceCheck(endTimeMs);
@@ -18,13 +18,19 @@
  */
 package org.apache.pinot.server.starter.helix;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.concurrent.locks.Lock;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.helix.ZNRecord;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.pinot.common.Utils;
@@ -32,6 +38,7 @@ import org.apache.pinot.common.config.TableNameBuilder;
 import org.apache.pinot.common.metadata.ZKMetadataProvider;
 import org.apache.pinot.common.metadata.segment.OfflineSegmentZKMetadata;
 import org.apache.pinot.common.segment.SegmentMetadata;
+import org.apache.pinot.common.segment.fetcher.SegmentFetcher;
 import org.apache.pinot.common.segment.fetcher.SegmentFetcherFactory;
 import org.apache.pinot.common.utils.CommonConstants;
 import org.apache.pinot.common.utils.TarGzCompressionUtils;
@@ -51,6 +58,7 @@ public class SegmentFetcherAndLoader {
 
   private static final String TAR_GZ_SUFFIX = ".tar.gz";
   private static final String ENCODED_SUFFIX = ".enc";
+  private static final int MAX_NUM_STREAM_ATTEMPTS = 3;
 
   private final InstanceDataManager _instanceDataManager;
   private final ZkHelixPropertyStore<ZNRecord> _propertyStore;
@@ -154,7 +162,9 @@ public class SegmentFetcherAndLoader {
         PinotCrypter crypter = (crypterName != null) ? PinotCrypterFactory.create(crypterName) : null;
 
         // Retry will be done here.
-        String localSegmentDir = downloadSegmentToLocal(uri, crypter, tableNameWithType, segmentName);
+        SegmentFetcher segmentFetcher = SegmentFetcherFactory.getInstance().getSegmentFetcherBasedOnURI(uri);
+        String localSegmentDir = downloadSegmentToLocal(segmentFetcher, uri, crypter, tableNameWithType, segmentName,
+            newSegmentZKMetadata.getCrc());
         SegmentMetadata segmentMetadata = new SegmentMetadataImpl(new File(localSegmentDir));
         _instanceDataManager.addOfflineSegment(tableNameWithType, segmentName, new File(localSegmentDir));
         LOGGER.info("Downloaded segment {} of table {} crc {} from controller", segmentName, tableNameWithType,
@@ -189,18 +199,47 @@ public class SegmentFetcherAndLoader {
     return newCrc != existedCrc;
   }
 
+  /**
+   * Downloads the segment into the index directory, and returns the path of the index directory. The segment is
+   * streamed if supported by the fetcher and the crypter (retried on CRC mismatch), otherwise the segment file is
+   * downloaded.
+   */
+  @VisibleForTesting
   @Nonnull
-  private String downloadSegmentToLocal(@Nonnull String uri, PinotCrypter crypter, @Nonnull String tableName,
-      @Nonnull String segmentName)
+  String downloadSegmentToLocal(@Nonnull SegmentFetcher segmentFetcher, @Nonnull String uri,
+      @Nullable PinotCrypter crypter, @Nonnull String tableName, @Nonnull String segmentName, long crc)
       throws Exception {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        String indexDir = streamSegmentToLocal(segmentFetcher, uri, crypter, tableName, segmentName, crc);
+        if (indexDir != null) {
+          return indexDir;
+        }
+        break;
+      } catch (CrcMismatchException e) {
+        // NOTE: Do not fall back to download the segment file on CRC mismatch, retry streaming the segment instead
+        if (attempt >= MAX_NUM_STREAM_ATTEMPTS) {
+          throw e;
+        }
+        LOGGER.warn("CRC mismatch for streamed segment: {} for table: {} from: {}, retrying (attempt {}/{})",
+            segmentName, tableName, uri, attempt, MAX_NUM_STREAM_ATTEMPTS, e);
+      } catch (Exception e) {
+        LOGGER.warn("Failed to stream segment: {} for table: {} from: {}, falling back to download the segment file",
+            segmentName, tableName, uri, e);
+        break;
+      }
+    }
+
     File tempDir = new File(new File(_instanceDataManager.getSegmentFileDirectory(), tableName),
         "tmp_" + segmentName + "_" + System.nanoTime());
     FileUtils.forceMkdir(tempDir);
     File tempDownloadFile = new File(tempDir, segmentName + ENCODED_SUFFIX);
     File tempTarFile = new File(tempDir, segmentName + TAR_GZ_SUFFIX);
-    File tempSegmentDir = new File(tempDir, segmentName);
+    // Untar into a temporary directory next to the index directory so that it can be renamed to the index directory
+    File tableDataDir = new File(_instanceDataManager.getSegmentDataDirectory(), tableName);
+    File tempSegmentDir = new File(tableDataDir, "tmp_" + segmentName + "_" + System.nanoTime());
     try {
-      SegmentFetcherFactory.getInstance().getSegmentFetcherBasedOnURI(uri).fetchSegmentToLocal(uri, tempDownloadFile);
+      segmentFetcher.fetchSegmentToLocal(uri, tempDownloadFile);
       if (crypter != null) {
         crypter.decrypt(tempDownloadFile, tempTarFile);
       } else {
@@ -213,26 +252,128 @@ public class SegmentFetcherAndLoader {
 
       // If an exception is thrown when untarring, it means the tar file is broken OR not found after the retry.
       // Thus, there's no need to retry again.
+      FileUtils.forceMkdir(tempSegmentDir);
       TarGzCompressionUtils.unTar(tempTarFile, tempSegmentDir);
 
       File[] files = tempSegmentDir.listFiles();
       Preconditions.checkState(files != null && files.length == 1);
       File tempIndexDir = files[0];
+      validateCrc(tempIndexDir, segmentName, crc);
 
-      File indexDir = new File(new File(_instanceDataManager.getSegmentDataDirectory(), tableName), segmentName);
-      if (indexDir.exists()) {
-        LOGGER.info("Deleting existing index directory for segment: {} for table: {}", segmentName, tableName);
-        FileUtils.deleteDirectory(indexDir);
-      }
-      FileUtils.moveDirectory(tempIndexDir, indexDir);
+      File indexDir = new File(tableDataDir, segmentName);
+      replaceIndexDir(tempIndexDir, indexDir);
       LOGGER.info("Successfully downloaded segment: {} for table: {} to: {}", segmentName, tableName, indexDir);
       return indexDir.getAbsolutePath();
     } finally {
       FileUtils.deleteQuietly(tempDir);
+      FileUtils.deleteQuietly(tempSegmentDir);
+    }
+  }
+
+  /**
+   * Streams the segment from the fetcher through the decrypter and the tar.gz extraction directly into a temporary
+   * directory next to the index directory, then validates the segment CRC and renames the temporary directory to the
+   * index directory. Compared to downloading the segment file, this avoids writing the tar.gz file (and the decrypted
+   * copy) to disk and reading it back.
+   *
+   * @return Path of the index directory, or null if streaming is not supported by the fetcher or the crypter
+   * @throws CrcMismatchException If the CRC of the streamed segment does not match the expected CRC
+   */
+  @Nullable
+  private String streamSegmentToLocal(SegmentFetcher segmentFetcher, String uri, @Nullable PinotCrypter crypter,
+      String tableName, String segmentName, long crc)
+      throws Exception {
+    // Check the crypter before opening the stream, so that no request is made for nothing
+    if (crypter != null && !crypter.supportsStreamDecryption()) {
+      return null;
+    }
+    InputStream segmentInputStream = segmentFetcher.fetchSegmentToStream(uri);
+    if (segmentInputStream == null) {
+      return null;
+    }
+    File tableDataDir = new File(_instanceDataManager.getSegmentDataDirectory(), tableName);
+    File tempSegmentDir = new File(tableDataDir, "tmp_" + segmentName + "_" + System.nanoTime());
+    InputStream inputStream = segmentInputStream;
+    try {
+      if (crypter != null) {
+        inputStream = crypter.decrypt(segmentInputStream);
+      }
+      FileUtils.forceMkdir(tempSegmentDir);
+      TarGzCompressionUtils.unTar(new BufferedInputStream(inputStream), tempSegmentDir);
+
+      File[] files = tempSegmentDir.listFiles();
+      Preconditions.checkState(files != null && files.length == 1);
+      File tempIndexDir = files[0];
+      validateCrc(tempIndexDir, segmentName, crc);
+
+      File indexDir = new File(tableDataDir, segmentName);
+      replaceIndexDir(tempIndexDir, indexDir);
+      LOGGER.info("Successfully streamed segment: {} for table: {} from: {} to: {}", segmentName, tableName, uri,
+          indexDir);
+      return indexDir.getAbsolutePath();
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+      IOUtils.closeQuietly(segmentInputStream);
+      FileUtils.deleteQuietly(tempSegmentDir);
+    }
+  }
+
+  private static void validateCrc(File indexDir, String segmentName, long expectedCrc)
+      throws Exception {
+    String segmentCrc = new SegmentMetadataImpl(indexDir).getCrc();
+    if (!Long.toString(expectedCrc).equals(segmentCrc)) {
+      throw new CrcMismatchException(
+          String.format("CRC mismatch for segment: %s, expected: %d, got: %s", segmentName, expectedCrc, segmentCrc));
+    }
+  }
+
+  /**
+   * Replaces the index directory with the given temporary index directory on the same file system, the same way as
+   * reloading a segment (see {@link LoaderUtils#reloadFailureRecovery(File)}):
+   * <ul>
+   *   <li>Rename the existing index directory to the segment backup directory (atomic)</li>
+   *   <li>Rename the temporary index directory to the index directory (atomic)</li>
+   *   <li>Rename the segment backup directory to the segment temporary directory (atomic), then delete it</li>
+   * </ul>
+   * <p>There is no single atomic operation to replace a non-empty directory. If the server dies in between, the index
+   * directory is recovered from the segment backup directory before the segment is loaded again, so the index
+   * directory always holds either the old or the new segment.
+   */
+  @VisibleForTesting
+  static void replaceIndexDir(File tempIndexDir, File indexDir)
+      throws Exception {
+    File parentDir = indexDir.getParentFile();
+    File segmentBackupDir = new File(parentDir, indexDir.getName() + CommonConstants.Segment.SEGMENT_BACKUP_DIR_SUFFIX);
+    if (indexDir.exists()) {
+      Preconditions.checkState(indexDir.renameTo(segmentBackupDir),
+          "Failed to rename index directory: %s to segment backup directory: %s", indexDir, segmentBackupDir);
+    }
+    try {
+      Files.move(tempIndexDir.toPath(), indexDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (Exception e) {
+      // Restore the old segment from the segment backup directory
+      LoaderUtils.reloadFailureRecovery(indexDir);
+      throw e;
+    }
+    if (segmentBackupDir.exists()) {
+      File segmentTempDir = new File(parentDir, indexDir.getName() + CommonConstants.Segment.SEGMENT_TEMP_DIR_SUFFIX);
+      Preconditions.checkState(segmentBackupDir.renameTo(segmentTempDir),
+          "Failed to rename segment backup directory: %s to segment temporary directory: %s", segmentBackupDir,
+          segmentTempDir);
+      FileUtils.deleteDirectory(segmentTempDir);
     }
   }
 
   public String getSegmentLocalDirectory(String tableName, String segmentId) {
     return _instanceDataManager.getSegmentDataDirectory() + "/" + tableName + "/" + segmentId;
   }
+
+  /**
+   * Thrown when the CRC of the fetched segment does not match the CRC in the segment ZK metadata.
+   */
+  private static class CrcMismatchException extends IllegalStateException {
+    CrcMismatchException(String message) {
+      super(message);
+    }
+  }
 }
@@ -19,7 +19,10 @@
 package org.apache.pinot.server.starter.helix;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
 import org.apache.commons.io.FileUtils;
 import org.apache.helix.NotificationContext;
@@ -56,13 +59,28 @@ public class SegmentOnlineOfflineStateModelFactory extends StateModelFactory<Sta
   private final InstanceDataManager _instanceDataManager;
   private final SegmentFetcherAndLoader _fetcherAndLoader;
   private final ZkHelixPropertyStore<ZNRecord> _propertyStore;
+  private final int _maxParallelStateTransitions;
+  // Executor for the state transitions of all the tables, null to use the Helix default executor
+  private ExecutorService _stateTransitionExecutor;
+  private boolean _shutDown;
 
   public SegmentOnlineOfflineStateModelFactory(String instanceId, InstanceDataManager instanceDataManager,
       SegmentFetcherAndLoader fetcherAndLoader, ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    this(instanceId, instanceDataManager, fetcherAndLoader, propertyStore, 0);
+  }
+
+  /**
+   * @param maxParallelStateTransitions Number of threads to handle the state transitions across all tables, or <= 0
+   *                                    to use the Helix default executor
+   */
+  public SegmentOnlineOfflineStateModelFactory(String instanceId, InstanceDataManager instanceDataManager,
+      SegmentFetcherAndLoader fetcherAndLoader, ZkHelixPropertyStore<ZNRecord> propertyStore,
+      int maxParallelStateTransitions) {
     _instanceId = instanceId;
     _instanceDataManager = instanceDataManager;
     _fetcherAndLoader = fetcherAndLoader;
     _propertyStore = propertyStore;
+    _maxParallelStateTransitions = maxParallelStateTransitions;
   }
 
   public static String getStateModelName() {
@@ -74,6 +92,37 @@ public class SegmentOnlineOfflineStateModelFactory extends StateModelFactory<Sta
     return new SegmentOnlineOfflineStateModel();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Returns the shared executor so that the state transitions of different segments (e.g. loading 30k segments on
+   * server restart) can be handled in parallel beyond the Helix default parallelism.
+   * <p>NOTE: Helix shuts down the executor when the participant is disconnected (e.g. ZK session expired), so a new
+   * executor is created if the previous one has been shut down.
+   */
+  @Override
+  public synchronized ExecutorService getExecutorService(String resourceName) {
+    if (_maxParallelStateTransitions <= 0 || _shutDown) {
+      return null;
+    }
+    if (_stateTransitionExecutor == null || _stateTransitionExecutor.isShutdown()) {
+      _stateTransitionExecutor = Executors.newFixedThreadPool(_maxParallelStateTransitions,
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("segment-state-transition-%d").build());
+    }
+    return _stateTransitionExecutor;
+  }
+
+  /**
+   * Shuts down the state transition executor (if any). Should be called after disconnecting from Helix.
+   */
+  public synchronized void shutDown() {
+    _shutDown = true;
+    if (_stateTransitionExecutor != null) {
+      _stateTransitionExecutor.shutdownNow();
+      _stateTransitionExecutor = null;
+    }
+  }
+
   // Helix seems to need StateModelInfo annotation for 'initialState'. It does not use the 'states' field.
   // The transitions in the helix messages indicate the from/to states, and helix uses the
   // Transition annotations (but only if StateModelInfo is defined).
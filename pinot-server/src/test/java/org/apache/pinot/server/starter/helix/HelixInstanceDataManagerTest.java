@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.server.starter.helix;
+
+import com.yammer.metrics.core.MetricsRegistry;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.apache.helix.ZNRecord;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class HelixInstanceDataManagerTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "HelixInstanceDataManagerTest");
+  private static final String TABLE_NAME = "testTable_OFFLINE";
+  private static final int MAX_PARALLEL_SEGMENT_LOADS = 2;
+  private static final int NUM_SEGMENTS = 20;
+
+  private HelixInstanceDataManager _instanceDataManager;
+
+  @BeforeClass
+  @SuppressWarnings("unchecked")
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    PropertiesConfiguration config = new PropertiesConfiguration();
+    config.setProperty(HelixInstanceDataManagerConfig.INSTANCE_ID, "Server_localhost_1234");
+    config.setProperty(HelixInstanceDataManagerConfig.INSTANCE_DATA_DIR, new File(TEMP_DIR, "data").getAbsolutePath());
+    config.setProperty(HelixInstanceDataManagerConfig.INSTANCE_SEGMENT_TAR_DIR,
+        new File(TEMP_DIR, "segmentTar").getAbsolutePath());
+    config.setProperty(HelixInstanceDataManagerConfig.READ_MODE, "mmap");
+    config.setProperty("max.parallel.segment.loads", MAX_PARALLEL_SEGMENT_LOADS);
+    _instanceDataManager = new HelixInstanceDataManager();
+    _instanceDataManager.init(config, mock(ZkHelixPropertyStore.class), new ServerMetrics(new MetricsRegistry()));
+  }
+
+  @Test
+  public void testReloadSegmentsInParallel()
+      throws Exception {
+    AtomicInteger numLoadsInProgress = new AtomicInteger();
+    AtomicInteger maxNumLoadsInProgress = new AtomicInteger();
+    AtomicInteger numLoadsFinished = new AtomicInteger();
+    List<Callable<Void>> segmentReloaders = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      int segmentId = i;
+      segmentReloaders.add(() -> {
+        _instanceDataManager.loadSegmentWithThrottling(TABLE_NAME, () -> {
+          int numLoads = numLoadsInProgress.incrementAndGet();
+          maxNumLoadsInProgress.accumulateAndGet(numLoads, Math::max);
+          try {
+            Thread.sleep(10L);
+          } finally {
+            numLoadsInProgress.decrementAndGet();
+          }
+          numLoadsFinished.incrementAndGet();
+          // Fail 2 of the segments
+          if (segmentId == 3 || segmentId == 11) {
+            throw new IllegalStateException("Failed to load segment: " + segmentId);
+          }
+          return null;
+        });
+        return null;
+      });
+    }
+
+    try {
+      _instanceDataManager.reloadSegmentsInParallel(TABLE_NAME, segmentReloaders);
+      fail("Expected exception for the failed segments");
+    } catch (IllegalStateException e) {
+      // The first failure should be thrown with the other failure suppressed
+      assertEquals(e.getMessage(), "Failed to load segment: 3");
+      assertEquals(e.getSuppressed().length, 1);
+      assertEquals(e.getSuppressed()[0].getMessage(), "Failed to load segment: 11");
+    }
+
+    // The failures should not prevent the other segments from being loaded
+    assertEquals(numLoadsFinished.get(), NUM_SEGMENTS);
+    // The number of segments loaded in parallel should be bounded by the permits
+    assertTrue(maxNumLoadsInProgress.get() <= MAX_PARALLEL_SEGMENT_LOADS);
+  }
+
+  @AfterClass
+  public void tearDown() {
+    _instanceDataManager.shutDown();
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+}
@@ -0,0 +1,306 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.server.starter.helix;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.apache.helix.store.zk.ZkHelixPropertyStore;
+import org.apache.pinot.common.data.DimensionFieldSpec;
+import org.apache.pinot.common.data.FieldSpec;
+import org.apache.pinot.common.data.Schema;
+import org.apache.pinot.common.segment.fetcher.LocalFileSegmentFetcher;
+import org.apache.pinot.common.utils.CommonConstants;
+import org.apache.pinot.common.utils.TarGzCompressionUtils;
+import org.apache.pinot.core.crypt.PinotCrypter;
+import org.apache.pinot.core.data.GenericRow;
+import org.apache.pinot.core.data.manager.InstanceDataManager;
+import org.apache.pinot.core.data.readers.GenericRowRecordReader;
+import org.apache.pinot.core.indexsegment.generator.SegmentGeneratorConfig;
+import org.apache.pinot.core.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.core.segment.index.SegmentMetadataImpl;
+import org.apache.pinot.core.segment.index.loader.LoaderUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class SegmentFetcherAndLoaderTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "SegmentFetcherAndLoaderTest");
+  private static final File SEGMENT_TAR_DIR = new File(TEMP_DIR, "segmentTars");
+  private static final File SEGMENT_FILE_DIR = new File(TEMP_DIR, "segmentFiles");
+  private static final File DATA_DIR = new File(TEMP_DIR, "data");
+  private static final String TABLE_NAME = "testTable_OFFLINE";
+  private static final File TABLE_DATA_DIR = new File(DATA_DIR, TABLE_NAME);
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final String OTHER_SEGMENT_NAME = "otherTestSegment";
+  private static final String COLUMN_NAME = "column";
+  private static final int NUM_ROWS = 100;
+
+  private File _segmentTarFile;
+  private File _otherSegmentTarFile;
+  private long _crc;
+  private SegmentFetcherAndLoader _segmentFetcherAndLoader;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteQuietly(TEMP_DIR);
+    FileUtils.forceMkdir(SEGMENT_TAR_DIR);
+    File segmentDir = new File(TEMP_DIR, "segments");
+    buildSegment(segmentDir, SEGMENT_NAME, 0);
+    buildSegment(segmentDir, OTHER_SEGMENT_NAME, NUM_ROWS);
+    _crc = Long.parseLong(new SegmentMetadataImpl(new File(segmentDir, SEGMENT_NAME)).getCrc());
+    _segmentTarFile = new File(TarGzCompressionUtils
+        .createTarGzOfDirectory(new File(segmentDir, SEGMENT_NAME).getPath(),
+            new File(SEGMENT_TAR_DIR, SEGMENT_NAME).getPath()));
+    // Tarball of another segment, whose CRC does not match the expected CRC
+    _otherSegmentTarFile = new File(TarGzCompressionUtils
+        .createTarGzOfDirectory(new File(segmentDir, OTHER_SEGMENT_NAME).getPath(),
+            new File(SEGMENT_TAR_DIR, OTHER_SEGMENT_NAME).getPath()));
+
+    InstanceDataManager instanceDataManager = mock(InstanceDataManager.class);
+    when(instanceDataManager.getSegmentFileDirectory()).thenReturn(SEGMENT_FILE_DIR.getPath());
+    when(instanceDataManager.getSegmentDataDirectory()).thenReturn(DATA_DIR.getPath());
+    _segmentFetcherAndLoader = new SegmentFetcherAndLoader(new PropertiesConfiguration(), instanceDataManager,
+        mock(ZkHelixPropertyStore.class));
+  }
+
+  @BeforeMethod
+  public void cleanUpDataDir()
+      throws IOException {
+    FileUtils.deleteDirectory(DATA_DIR);
+    FileUtils.deleteDirectory(SEGMENT_FILE_DIR);
+  }
+
+  @Test
+  public void testStreamSegment()
+      throws Exception {
+    TestSegmentFetcher segmentFetcher = new TestSegmentFetcher();
+    String indexDir = downloadSegment(segmentFetcher, null);
+    assertEquals(segmentFetcher._numStreams, 1);
+    assertEquals(segmentFetcher._numDownloads, 0);
+    assertSegment(indexDir);
+  }
+
+  @Test
+  public void testStreamSegmentRetryOnCrcMismatch()
+      throws Exception {
+    // First attempt streams a mismatched tarball, second attempt streams the right one
+    TestSegmentFetcher segmentFetcher = new TestSegmentFetcher(_otherSegmentTarFile);
+    String indexDir = downloadSegment(segmentFetcher, null);
+    assertEquals(segmentFetcher._numStreams, 2);
+    assertEquals(segmentFetcher._numDownloads, 0);
+    assertSegment(indexDir);
+  }
+
+  @Test
+  public void testStreamSegmentCrcMismatch()
+      throws Exception {
+    // Load the segment first, which should be kept when the new segment cannot be fetched
+    downloadSegment(new TestSegmentFetcher(), null);
+
+    TestSegmentFetcher segmentFetcher =
+        new TestSegmentFetcher(_otherSegmentTarFile, _otherSegmentTarFile, _otherSegmentTarFile);
+    try {
+      downloadSegment(segmentFetcher, null);
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().contains("CRC mismatch"));
+    }
+    // Do not fall back to download the segment file on CRC mismatch
+    assertEquals(segmentFetcher._numStreams, 3);
+    assertEquals(segmentFetcher._numDownloads, 0);
+    assertSegment(new File(TABLE_DATA_DIR, SEGMENT_NAME).getPath());
+  }
+
+  @Test
+  public void testFallbackToFileDownload()
+      throws Exception {
+    TestSegmentFetcher segmentFetcher = new TestSegmentFetcher();
+    segmentFetcher._failStream = true;
+    String indexDir = downloadSegment(segmentFetcher, null);
+    assertEquals(segmentFetcher._numStreams, 1);
+    assertEquals(segmentFetcher._numDownloads, 1);
+    assertSegment(indexDir);
+  }
+
+  @Test
+  public void testCrypterWithoutStreamDecryption()
+      throws Exception {
+    TestSegmentFetcher segmentFetcher = new TestSegmentFetcher();
+    String indexDir = downloadSegment(segmentFetcher, new CopyPinotCrypter());
+    // The stream should not be opened at all
+    assertEquals(segmentFetcher._numStreams, 0);
+    assertEquals(segmentFetcher._numDownloads, 1);
+    assertSegment(indexDir);
+  }
+
+  @Test
+  public void testReplaceIndexDir()
+      throws Exception {
+    File indexDir = new File(TABLE_DATA_DIR, SEGMENT_NAME);
+    File segmentBackupDir = new File(TABLE_DATA_DIR, SEGMENT_NAME + CommonConstants.Segment.SEGMENT_BACKUP_DIR_SUFFIX);
+    File segmentTempDir = new File(TABLE_DATA_DIR, SEGMENT_NAME + CommonConstants.Segment.SEGMENT_TEMP_DIR_SUFFIX);
+    File tempIndexDir = new File(TABLE_DATA_DIR, "tmp_" + SEGMENT_NAME);
+    FileUtils.writeStringToFile(new File(indexDir, "version"), "old");
+    FileUtils.writeStringToFile(new File(tempIndexDir, "version"), "new");
+
+    SegmentFetcherAndLoader.replaceIndexDir(tempIndexDir, indexDir);
+    assertEquals(FileUtils.readFileToString(new File(indexDir, "version")), "new");
+    assertFalse(tempIndexDir.exists());
+    assertFalse(segmentBackupDir.exists());
+    assertFalse(segmentTempDir.exists());
+
+    // Failed to move the temporary index directory, the old segment should be restored from the backup directory
+    try {
+      SegmentFetcherAndLoader.replaceIndexDir(tempIndexDir, indexDir);
+      fail();
+    } catch (IOException e) {
+      // Expected
+    }
+    assertEquals(FileUtils.readFileToString(new File(indexDir, "version")), "new");
+    assertFalse(segmentBackupDir.exists());
+
+    // Server crashed after renaming the index directory to the backup directory, the old segment should be recovered
+    // before loading the segment again
+    assertTrue(indexDir.renameTo(segmentBackupDir));
+    LoaderUtils.reloadFailureRecovery(indexDir);
+    assertEquals(FileUtils.readFileToString(new File(indexDir, "version")), "new");
+    assertFalse(segmentBackupDir.exists());
+
+    // Server crashed after moving the new index directory in place, the backup directory should be cleaned up
+    FileUtils.writeStringToFile(new File(tempIndexDir, "version"), "newer");
+    assertTrue(indexDir.renameTo(segmentTempDir));
+    assertTrue(tempIndexDir.renameTo(indexDir));
+    LoaderUtils.reloadFailureRecovery(indexDir);
+    assertEquals(FileUtils.readFileToString(new File(indexDir, "version")), "newer");
+    assertFalse(segmentTempDir.exists());
+  }
+
+  @AfterClass
+  public void tearDown() {
+    FileUtils.deleteQuietly(TEMP_DIR);
+  }
+
+  private String downloadSegment(TestSegmentFetcher segmentFetcher, PinotCrypter crypter)
+      throws Exception {
+    return _segmentFetcherAndLoader
+        .downloadSegmentToLocal(segmentFetcher, _segmentTarFile.getPath(), crypter, TABLE_NAME, SEGMENT_NAME, _crc);
+  }
+
+  private void assertSegment(String indexDir)
+      throws Exception {
+    assertEquals(indexDir, new File(TABLE_DATA_DIR, SEGMENT_NAME).getAbsolutePath());
+    assertEquals(new SegmentMetadataImpl(new File(indexDir)).getCrc(), Long.toString(_crc));
+    // No temporary directory should be left over
+    String[] files = TABLE_DATA_DIR.list();
+    assertTrue(files != null && files.length == 1, "Unexpected files: " + (files != null ? String.join(",", files)
+        : null));
+  }
+
+  private static void buildSegment(File outputDir, String segmentName, int startValue)
+      throws Exception {
+    Schema schema = new Schema();
+    schema.addField(new DimensionFieldSpec(COLUMN_NAME, FieldSpec.DataType.INT, true));
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      row.init(Collections.singletonMap(COLUMN_NAME, startValue + i));
+      rows.add(row);
+    }
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(schema);
+    config.setOutDir(outputDir.getPath());
+    config.setSegmentName(segmentName);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows, schema));
+    driver.build();
+  }
+
+  /**
+   * Local file segment fetcher which counts the fetches, and can stream the given files instead of the requested one
+   * for the first attempts, or fail streaming.
+   */
+  private static class TestSegmentFetcher extends LocalFileSegmentFetcher {
+    final File[] _streamFiles;
+    boolean _failStream;
+    int _numStreams;
+    int _numDownloads;
+
+    TestSegmentFetcher(File... streamFiles) {
+      _streamFiles = streamFiles;
+    }
+
+    @Override
+    public InputStream fetchSegmentToStream(String uri)
+        throws Exception {
+      _numStreams++;
+      if (_failStream) {
+        throw new IOException("Failed to stream: " + uri);
+      }
+      if (_numStreams <= _streamFiles.length) {
+        return super.fetchSegmentToStream(_streamFiles[_numStreams - 1].getPath());
+      }
+      return super.fetchSegmentToStream(uri);
+    }
+
+    @Override
+    public void fetchSegmentToLocal(String uri, File tempFile)
+        throws Exception {
+      _numDownloads++;
+      super.fetchSegmentToLocal(uri, tempFile);
+    }
+  }
+
+  /**
+   * Crypter which does not support stream decryption, and decrypts a file by copying it.
+   */
+  private static class CopyPinotCrypter implements PinotCrypter {
+    @Override
+    public void init(Configuration config) {
+    }
+
+    @Override
+    public void encrypt(File decryptedFile, File encryptedFile) {
+    }
+
+    @Override
+    public void decrypt(File encryptedFile, File decryptedFile) {
+      try {
+        FileUtils.copyFile(encryptedFile, decryptedFile);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.server.starter.helix;
+
+import java.util.concurrent.ExecutorService;
+import org.apache.pinot.core.data.manager.InstanceDataManager;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class SegmentOnlineOfflineStateModelFactoryTest {
+  private static final String INSTANCE_ID = "Server_localhost_1234";
+
+  @Test
+  public void testDefaultExecutor() {
+    SegmentOnlineOfflineStateModelFactory factory =
+        new SegmentOnlineOfflineStateModelFactory(INSTANCE_ID, mock(InstanceDataManager.class), null, null);
+    assertNull(factory.getExecutorService("testTable_OFFLINE"));
+  }
+
+  @Test
+  public void testStateTransitionExecutor() {
+    SegmentOnlineOfflineStateModelFactory factory =
+        new SegmentOnlineOfflineStateModelFactory(INSTANCE_ID, mock(InstanceDataManager.class), null, null, 2);
+    ExecutorService executorService = factory.getExecutorService("testTable_OFFLINE");
+    assertSame(factory.getExecutorService("testTable_REALTIME"), executorService);
+
+    // Helix shuts down the executor when disconnected, a new executor should be created after reconnecting
+    executorService.shutdown();
+    ExecutorService newExecutorService = factory.getExecutorService("testTable_OFFLINE");
+    assertNotSame(newExecutorService, executorService);
+    assertFalse(newExecutorService.isShutdown());
+
+    factory.shutDown();
+    assertTrue(newExecutorService.isShutdown());
+    assertNull(factory.getExecutorService("testTable_OFFLINE"));
+  }
+}